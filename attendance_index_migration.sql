@@ -0,0 +1,63 @@
+-- =====================================================
+-- ATTENDANCE DATE-RANGE INDEXES
+-- Supports the half-open log_datetime ranges used by the payroll
+-- engine, attendance processor and import/export screens:
+--   WHERE log_datetime >= '2026-01-01 00:00:00' AND log_datetime < '2026-01-16 00:00:00'
+-- Safe to run more than once (MySQL 8.0 / MariaDB 10.x).
+-- =====================================================
+
+USE payroll;
+
+-- =====================================================
+-- 1. (account_number, log_datetime) for per-employee lookups
+-- =====================================================
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'attendance'
+                     AND index_name = 'idx_account_datetime');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `attendance` ADD INDEX `idx_account_datetime` (`account_number`, `log_datetime`)',
+    'SELECT ''idx_account_datetime already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- idx_account_number is a left prefix of idx_account_datetime and no longer needed
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'attendance'
+                     AND index_name = 'idx_account_number');
+SET @sql := IF(@has_index > 0,
+    'ALTER TABLE `attendance` DROP INDEX `idx_account_number`',
+    'SELECT ''idx_account_number already dropped''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- =====================================================
+-- 2. log_datetime for period-wide scans (pay-run prefetch, counts)
+-- =====================================================
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'attendance'
+                     AND index_name = 'idx_log_datetime');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `attendance` ADD INDEX `idx_log_datetime` (`log_datetime`)',
+    'SELECT ''idx_log_datetime already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ANALYZE TABLE `attendance`;
+
+-- =====================================================
+-- 3. VERIFY QUERY PLANS
+-- Each EXPLAIN should report type = range (or ref) and the key shown,
+-- never type = ALL.
+-- =====================================================
+
+-- Expected key: idx_account_datetime (or unique_attendance_log)
+EXPLAIN SELECT log_type, log_datetime FROM attendance
+WHERE account_number = '1001'
+  AND log_datetime >= '2026-01-01 00:00:00' AND log_datetime < '2026-01-16 00:00:00';
+
+-- Expected key: idx_log_datetime
+EXPLAIN SELECT COUNT(*) FROM attendance
+WHERE log_datetime >= '2026-01-01 00:00:00' AND log_datetime < '2026-01-16 00:00:00';
@@ -0,0 +1,52 @@
+-- =====================================================
+-- DASHBOARD REFRESH INDEXES
+-- Supports the incremental dashboard refresh, which re-aggregates
+-- only the days whose processed_attendance rows changed:
+--   WHERE processed_at >= '2026-01-16 08:00:00'
+-- and the month-range payroll count:
+--   WHERE created_at >= '2026-01-01 00:00:00' AND created_at < '2026-02-01 00:00:00'
+-- Safe to run more than once (MySQL 8.0 / MariaDB 10.x).
+-- =====================================================
+
+USE payroll;
+
+-- =====================================================
+-- 1. processed_attendance.processed_at
+-- =====================================================
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'processed_attendance'
+                     AND index_name = 'idx_processed_at');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `processed_attendance` ADD INDEX `idx_processed_at` (`processed_at`)',
+    'SELECT ''idx_processed_at already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- =====================================================
+-- 2. payroll_sheet_items.created_at
+-- =====================================================
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'payroll_sheet_items'
+                     AND index_name = 'idx_created_at');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `payroll_sheet_items` ADD INDEX `idx_created_at` (`created_at`)',
+    'SELECT ''idx_created_at already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ANALYZE TABLE `processed_attendance`, `payroll_sheet_items`;
+
+-- =====================================================
+-- 3. VERIFY QUERY PLANS
+-- Each EXPLAIN should report type = range and the key shown.
+-- =====================================================
+
+-- Expected key: idx_processed_at
+EXPLAIN SELECT DISTINCT process_date FROM processed_attendance
+WHERE processed_at >= '2026-01-16 08:00:00';
+
+-- Expected key: idx_created_at
+EXPLAIN SELECT COUNT(DISTINCT employee_id) FROM payroll_sheet_items
+WHERE created_at >= '2026-01-01 00:00:00' AND created_at < '2026-02-01 00:00:00';
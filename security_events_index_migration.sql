@@ -0,0 +1,131 @@
+-- =====================================================
+-- SECURITY EVENT EXPLORER INDEXES
+-- Supports the newest-first keyset pagination and searches in
+-- Security Maintenance:
+--   ORDER BY timestamp DESC, event_id DESC
+--   WHERE event_type = ? / severity = ? / username = ? (+ timestamp order)
+--   WHERE ip_address LIKE '192.168.%'
+--   WHERE MATCH(description) AGAINST ('+fail* +login*' IN BOOLEAN MODE)
+-- InnoDB appends event_id to every secondary index, which covers the
+-- event_id tie-breaker. Safe to run more than once (MySQL 8.0 / MariaDB 10.x).
+-- =====================================================
+
+USE payroll;
+
+-- =====================================================
+-- 1. Ordered lookups
+-- =====================================================
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_timestamp');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `security_events` ADD INDEX `idx_timestamp` (`timestamp`)',
+    'SELECT ''idx_timestamp already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_event_type_timestamp');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `security_events` ADD INDEX `idx_event_type_timestamp` (`event_type`, `timestamp`)',
+    'SELECT ''idx_event_type_timestamp already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_severity_timestamp');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `security_events` ADD INDEX `idx_severity_timestamp` (`severity`, `timestamp`)',
+    'SELECT ''idx_severity_timestamp already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_username_timestamp');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `security_events` ADD INDEX `idx_username_timestamp` (`username`, `timestamp`)',
+    'SELECT ''idx_username_timestamp already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_ip_address');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `security_events` ADD INDEX `idx_ip_address` (`ip_address`)',
+    'SELECT ''idx_ip_address already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The single-column indexes created by older builds are left prefixes of the ones above
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_event_type');
+SET @sql := IF(@has_index > 0,
+    'ALTER TABLE `security_events` DROP INDEX `idx_event_type`',
+    'SELECT ''idx_event_type already dropped''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_severity');
+SET @sql := IF(@has_index > 0,
+    'ALTER TABLE `security_events` DROP INDEX `idx_severity`',
+    'SELECT ''idx_severity already dropped''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'idx_username');
+SET @sql := IF(@has_index > 0,
+    'ALTER TABLE `security_events` DROP INDEX `idx_username`',
+    'SELECT ''idx_username already dropped''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- =====================================================
+-- 2. FULLTEXT on description (replaces LIKE '%...%')
+-- =====================================================
+SET @has_index := (SELECT COUNT(*) FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'security_events'
+                     AND index_name = 'ft_description');
+SET @sql := IF(@has_index = 0,
+    'ALTER TABLE `security_events` ADD FULLTEXT INDEX `ft_description` (`description`)',
+    'SELECT ''ft_description already exists''');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ANALYZE TABLE `security_events`;
+
+-- =====================================================
+-- 3. VERIFY QUERY PLANS
+-- None of these should report type = ALL.
+-- =====================================================
+
+-- Expected key: idx_timestamp (Backward index scan, no filesort)
+EXPLAIN SELECT event_id FROM security_events
+WHERE timestamp < '2026-01-16 00:00:00' OR (timestamp = '2026-01-16 00:00:00' AND event_id < 1000)
+ORDER BY timestamp DESC, event_id DESC LIMIT 201;
+
+-- Expected key: idx_event_type_timestamp
+EXPLAIN SELECT event_id FROM security_events
+WHERE event_type = 'LOGIN_FAILED'
+ORDER BY timestamp DESC, event_id DESC LIMIT 201;
+
+-- Expected type: fulltext, key: ft_description
+EXPLAIN SELECT event_id FROM security_events
+WHERE MATCH(description) AGAINST ('+failed* +login*' IN BOOLEAN MODE);
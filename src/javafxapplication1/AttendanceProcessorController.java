@@ -23,6 +23,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.scene.control.Button;
 
 /**
@@ -52,25 +54,24 @@ public class AttendanceProcessorController implements Initializable {
     @FXML private Button viewDetailsButton;
     
     private ObservableList<AttendanceProcessRecord> processedData = FXCollections.observableArrayList();
-    private Connection connection;
     private static final Logger logger = Logger.getLogger(AttendanceProcessorController.class.getName());
     
-    // Database connection details
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    
     // Work schedule constants (should be configurable in future)
     private static final LocalTime WORK_START_TIME = LocalTime.of(8, 0); // 8:00 AM
     private static final LocalTime WORK_END_TIME = LocalTime.of(17, 0);   // 5:00 PM
     private static final int GRACE_PERIOD_MINUTES = 10;
     private static final int LUNCH_BREAK_MINUTES = 60;
     private static final double STANDARD_WORK_HOURS = 8.0;
+    private static final String ROLLUP_PROCESSOR = "processed_attendance";
+    private static final int UPSERT_ROWS_PER_STATEMENT = 500;
+    private static final int ROLLUP_LOCK_WAIT_SECONDS = 10;
     
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupTableColumns();
-        initializeDatabase();
+        createProcessedAttendanceTableIfNotExists();
+        createRollupStateTableIfNotExists();
+        createRollupPendingTableIfNotExists();
 
         loadProcessedAttendanceData();
         
@@ -149,45 +150,7 @@ public class AttendanceProcessorController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void setupTableColumns() {
@@ -207,21 +170,6 @@ public class AttendanceProcessorController implements Initializable {
     
    
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established successfully");
-            
-            // Create processed attendance table if it doesn't exist
-            createProcessedAttendanceTableIfNotExists();
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error initializing database connection", e);
-            showAlert("Database Error", "Could not connect to database: " + e.getMessage());
-        }
-    }
-    
     private void createProcessedAttendanceTableIfNotExists() {
         String createTableSQL = """
             CREATE TABLE IF NOT EXISTS processed_attendance (
@@ -242,11 +190,13 @@ public class AttendanceProcessorController implements Initializable {
                 FOREIGN KEY (employee_id) REFERENCES employees(id),
                 UNIQUE KEY unique_employee_date (employee_id, process_date),
                 INDEX idx_process_date (process_date),
-                INDEX idx_employee_id (employee_id)
+                INDEX idx_employee_id (employee_id),
+                INDEX idx_processed_at (processed_at)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
             stmt.executeUpdate();
             logger.info("Processed attendance table created or already exists");
         } catch (SQLException e) {
@@ -254,6 +204,47 @@ public class AttendanceProcessorController implements Initializable {
         }
     }
     
+    /**
+     * Holds the high-watermark (last attendance id rolled up) for incremental processing
+     */
+    private void createRollupStateTableIfNotExists() {
+        String createTableSQL = """
+            CREATE TABLE IF NOT EXISTS attendance_rollup_state (
+                processor VARCHAR(50) NOT NULL PRIMARY KEY,
+                last_attendance_id INT NOT NULL DEFAULT 0,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating attendance rollup state table", e);
+        }
+    }
+    
+    /**
+     * Days whose logs were passed by the watermark before their account number had an employee
+     */
+    private void createRollupPendingTableIfNotExists() {
+        String createTableSQL = """
+            CREATE TABLE IF NOT EXISTS attendance_rollup_pending (
+                account_number VARCHAR(50) NOT NULL,
+                attendance_date DATE NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (account_number, attendance_date)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error creating attendance rollup pending table", e);
+        }
+    }
+    
     @FXML
     private void onProcessAll() {
         // Log process all click
@@ -270,7 +261,7 @@ public class AttendanceProcessorController implements Initializable {
         Alert confirmAlert = new Alert(AlertType.CONFIRMATION);
         confirmAlert.setTitle("Process All Attendance");
         confirmAlert.setHeaderText("Process All Attendance Records");
-        confirmAlert.setContentText("This will process all unprocessed attendance logs and generate computations. Continue?");
+        confirmAlert.setContentText("This will process all newly imported attendance logs and generate computations. Continue?");
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == javafx.scene.control.ButtonType.OK) {
@@ -366,39 +357,100 @@ public class AttendanceProcessorController implements Initializable {
         loadProcessedAttendanceData();
     }
     
+    /**
+     * Incremental roll-up: only days touched by attendance rows imported since the last run
+     * (attendance.id above the stored watermark) are re-aggregated and upserted. Days whose
+     * account number has no employee yet are parked in attendance_rollup_pending and rolled up
+     * by the first run after the employee is added. The watermark and the pending set move in
+     * the same transaction as the upserts, and everything is read from one REPEATABLE READ
+     * snapshot. AttendanceWriteLock keeps imports out while the run holds it, so no attendance
+     * id below the new watermark can still be uncommitted.
+     */
     private int processAllAttendance() {
-        // Get all unprocessed attendance logs
-        String selectUnprocessedSQL = """
-            SELECT DISTINCT al.account_number, e.id as employee_id, DATE(al.log_datetime) as attendance_date,
+        String touchedDaysSQL = """
+            SELECT e.id as employee_id, t.attendance_date,
                    MIN(al.log_datetime) as time_in,
-                   MAX(al.log_datetime) as time_out,
-                   e.full_name as employee_name
-            FROM attendance al
-            JOIN employees e ON al.account_number = e.account_number
-            LEFT JOIN processed_attendance pa ON e.id = pa.employee_id 
-                AND DATE(al.log_datetime) = pa.process_date
-            WHERE pa.id IS NULL
-            GROUP BY al.account_number, e.id, DATE(al.log_datetime)
-            ORDER BY attendance_date, al.account_number
+                   MAX(al.log_datetime) as time_out
+            FROM (SELECT DISTINCT account_number, DATE(log_datetime) as attendance_date
+                  FROM attendance
+                  WHERE id > ? AND id <= ?
+                  UNION
+                  SELECT account_number, attendance_date
+                  FROM attendance_rollup_pending) t
+            JOIN employees e ON e.account_number = t.account_number
+            JOIN attendance al ON al.account_number = t.account_number
+                AND al.log_datetime >= t.attendance_date
+                AND al.log_datetime < t.attendance_date + INTERVAL 1 DAY
+            GROUP BY e.id, t.attendance_date
+            ORDER BY t.attendance_date, e.id
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(selectUnprocessedSQL)) {
-            ResultSet rs = stmt.executeQuery();
-            int processedCount = 0;
-            
-            while (rs.next()) {
-                int employeeId = rs.getInt("employee_id");
-                Date attendanceDate = rs.getDate("attendance_date");
-                Timestamp timeIn = rs.getTimestamp("time_in");
-                Timestamp timeOut = rs.getTimestamp("time_out");
-                String employeeName = rs.getString("employee_name");
-                
-                processAttendanceRecord(employeeId, attendanceDate.toLocalDate(), timeIn, timeOut);
-                processedCount++;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            if (!AttendanceWriteLock.acquire(conn, ROLLUP_LOCK_WAIT_SECONDS)) {
+                showAlert("Import Running", "Attendance logs are being imported. Process them again when the import finishes.");
+                return 0;
+            }
+            int watermark;
+            int highestId = 0;
+            List<DailyLogSpan> spans = new ArrayList<>();
+            int parked;
+            int originalIsolation = conn.getTransactionIsolation();
+            try {
+                // One snapshot for the upper bound, the touched days and the pending set
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                conn.setAutoCommit(false);
+                try {
+                    watermark = readRollupWatermark(conn);
+                    try (Statement stmt = conn.createStatement();
+                         ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM attendance")) {
+                        if (rs.next()) {
+                            highestId = rs.getInt(1);
+                        }
+                    }
+                    
+                    List<String[]> matchedPending = readMatchedPendingDays(conn);
+                    
+                    try (PreparedStatement stmt = conn.prepareStatement(touchedDaysSQL)) {
+                        stmt.setInt(1, watermark);
+                        stmt.setInt(2, highestId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                spans.add(new DailyLogSpan(rs.getInt("employee_id"), rs.getDate("attendance_date").toLocalDate(),
+                                                           rs.getTimestamp("time_in"), rs.getTimestamp("time_out")));
+                            }
+                        }
+                    }
+                    
+                    if (highestId <= watermark && spans.isEmpty()) {
+                        conn.commit();
+                        showAlert("Up to Date", "No new attendance logs to process.");
+                        return 0;
+                    }
+                    
+                    upsertProcessedAttendance(conn, spans);
+                    deletePendingDays(conn, matchedPending);
+                    parked = parkUnmatchedDays(conn, watermark, highestId);
+                    writeRollupWatermark(conn, Math.max(watermark, highestId));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                    conn.setTransactionIsolation(originalIsolation);
+                }
+            } finally {
+                AttendanceWriteLock.release(conn);
             }
             
+            int processedCount = spans.size();
             showAlert("Success", "Processed " + processedCount + " attendance records!");
-            logger.info("Processed " + processedCount + " attendance records");
+            logger.info("Processed " + processedCount + " attendance records (attendance ids " 
+                       + (watermark + 1) + " to " + highestId + ")");
+            if (parked > 0) {
+                logger.warning(parked + " attendance days belong to account numbers with no employee; "
+                             + "they will be processed once the employee is added");
+            }
             
             return processedCount;
             
@@ -421,6 +473,83 @@ public class AttendanceProcessorController implements Initializable {
         }
     }
     
+    private int readRollupWatermark(Connection conn) throws SQLException {
+        String sql = "SELECT last_attendance_id FROM attendance_rollup_state WHERE processor = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, ROLLUP_PROCESSOR);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("last_attendance_id") : 0;
+            }
+        }
+    }
+    
+    /**
+     * Park the days in (fromId, toId] whose account number matches no employee
+     */
+    private int parkUnmatchedDays(Connection conn, int fromId, int toId) throws SQLException {
+        String sql = """
+            INSERT IGNORE INTO attendance_rollup_pending (account_number, attendance_date)
+            SELECT DISTINCT a.account_number, DATE(a.log_datetime)
+            FROM attendance a
+            LEFT JOIN employees e ON e.account_number = a.account_number
+            WHERE a.id > ? AND a.id <= ? AND e.id IS NULL
+            """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, fromId);
+            stmt.setInt(2, toId);
+            return stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Pending days whose account number now has an employee, as {account_number, attendance_date}
+     */
+    private List<String[]> readMatchedPendingDays(Connection conn) throws SQLException {
+        String sql = """
+            SELECT p.account_number, p.attendance_date
+            FROM attendance_rollup_pending p
+            JOIN employees e ON e.account_number = p.account_number
+            """;
+        List<String[]> days = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                days.add(new String[] {rs.getString("account_number"), rs.getString("attendance_date")});
+            }
+        }
+        return days;
+    }
+    
+    /**
+     * Drop pending days the current run has rolled up
+     */
+    private void deletePendingDays(Connection conn, List<String[]> days) throws SQLException {
+        if (days.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM attendance_rollup_pending WHERE account_number = ? AND attendance_date = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String[] day : days) {
+                stmt.setString(1, day[0]);
+                stmt.setString(2, day[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private void writeRollupWatermark(Connection conn, int lastAttendanceId) throws SQLException {
+        String sql = """
+            INSERT INTO attendance_rollup_state (processor, last_attendance_id) VALUES (?, ?)
+            ON DUPLICATE KEY UPDATE last_attendance_id = VALUES(last_attendance_id)
+            """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, ROLLUP_PROCESSOR);
+            stmt.setInt(2, lastAttendanceId);
+            stmt.executeUpdate();
+        }
+    }
+    
     private int processAttendanceForDateRange(LocalDate fromDate, LocalDate toDate) {
         String selectRangeSQL = """
             SELECT DISTINCT al.account_number, e.id as employee_id, DATE(al.log_datetime) as attendance_date,
@@ -429,30 +558,28 @@ public class AttendanceProcessorController implements Initializable {
                    e.full_name as employee_name
             FROM attendance al
             JOIN employees e ON al.account_number = e.account_number
-            WHERE DATE(al.log_datetime) BETWEEN ? AND ?
+            WHERE al.log_datetime >= ? AND al.log_datetime < ?
             GROUP BY al.account_number, e.id, DATE(al.log_datetime)
             ORDER BY attendance_date, al.account_number
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(selectRangeSQL)) {
-            stmt.setDate(1, Date.valueOf(fromDate));
-            stmt.setDate(2, Date.valueOf(toDate));
-            
-            ResultSet rs = stmt.executeQuery();
-            int processedCount = 0;
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(selectRangeSQL)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(fromDate.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(toDate.plusDays(1).atStartOfDay()));
+            
+            List<DailyLogSpan> spans = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    spans.add(new DailyLogSpan(rs.getInt("employee_id"), rs.getDate("attendance_date").toLocalDate(),
+                                               rs.getTimestamp("time_in"), rs.getTimestamp("time_out")));
+                }
+            }
             
             // First, delete existing processed records for the date range
-            deleteProcessedRecordsForDateRange(fromDate, toDate);
-            
-            while (rs.next()) {
-                int employeeId = rs.getInt("employee_id");
-                Date attendanceDate = rs.getDate("attendance_date");
-                Timestamp timeIn = rs.getTimestamp("time_in");
-                Timestamp timeOut = rs.getTimestamp("time_out");
-                
-                processAttendanceRecord(employeeId, attendanceDate.toLocalDate(), timeIn, timeOut);
-                processedCount++;
-            }
+            deleteProcessedRecordsForDateRange(conn, fromDate, toDate);
+            upsertProcessedAttendance(conn, spans);
+            int processedCount = spans.size();
             
             showAlert("Success", "Processed " + processedCount + " attendance records for selected date range!");
             logger.info("Processed " + processedCount + " attendance records for date range: " + fromDate + " to " + toDate);
@@ -479,10 +606,10 @@ public class AttendanceProcessorController implements Initializable {
         }
     }
     
-    private void deleteProcessedRecordsForDateRange(LocalDate fromDate, LocalDate toDate) {
+    private void deleteProcessedRecordsForDateRange(Connection conn, LocalDate fromDate, LocalDate toDate) {
         String deleteSQL = "DELETE FROM processed_attendance WHERE process_date BETWEEN ? AND ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(deleteSQL)) {
+        try (PreparedStatement stmt = conn.prepareStatement(deleteSQL)) {
             stmt.setDate(1, Date.valueOf(fromDate));
             stmt.setDate(2, Date.valueOf(toDate));
             int deletedCount = stmt.executeUpdate();
@@ -492,17 +619,25 @@ public class AttendanceProcessorController implements Initializable {
         }
     }
     
-    private void processAttendanceRecord(int employeeId, LocalDate attendanceDate, Timestamp timeIn, Timestamp timeOut) {
-        try {
-            // Calculate attendance metrics
-            AttendanceMetrics metrics = calculateAttendanceMetrics(timeIn, timeOut);
+    /**
+     * Compute metrics for each day and upsert them with multi-row statements
+     */
+    private void upsertProcessedAttendance(Connection conn, List<DailyLogSpan> spans) throws SQLException {
+        String processedBy = SessionManager.getInstance().getCurrentUser();
+        
+        for (int from = 0; from < spans.size(); from += UPSERT_ROWS_PER_STATEMENT) {
+            List<DailyLogSpan> chunk = spans.subList(from, Math.min(from + UPSERT_ROWS_PER_STATEMENT, spans.size()));
             
-            // Insert processed record
-            String insertSQL = """
+            StringBuilder sql = new StringBuilder("""
                 INSERT INTO processed_attendance 
                 (employee_id, process_date, late_minutes, undertime_minutes, hours_worked, 
                  absent_days, half_days, overtime_hours, status, raw_time_in, raw_time_out, processed_by) 
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                VALUES """);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            }
+            sql.append("""
+                
                 ON DUPLICATE KEY UPDATE
                 late_minutes = VALUES(late_minutes),
                 undertime_minutes = VALUES(undertime_minutes),
@@ -515,27 +650,28 @@ public class AttendanceProcessorController implements Initializable {
                 raw_time_out = VALUES(raw_time_out),
                 processed_at = CURRENT_TIMESTAMP,
                 processed_by = VALUES(processed_by)
-                """;
-            
-            try (PreparedStatement stmt = connection.prepareStatement(insertSQL)) {
-                stmt.setInt(1, employeeId);
-                stmt.setDate(2, Date.valueOf(attendanceDate));
-                stmt.setInt(3, metrics.lateMinutes);
-                stmt.setInt(4, metrics.undertimeMinutes);
-                stmt.setBigDecimal(5, metrics.hoursWorked);
-                stmt.setInt(6, metrics.absentDays);
-                stmt.setInt(7, metrics.halfDays);
-                stmt.setBigDecimal(8, metrics.overtimeHours);
-                stmt.setString(9, metrics.status);
-                stmt.setTime(10, timeIn != null ? Time.valueOf(timeIn.toLocalDateTime().toLocalTime()) : null);
-                stmt.setTime(11, timeOut != null ? Time.valueOf(timeOut.toLocalDateTime().toLocalTime()) : null);
-                stmt.setString(12, SessionManager.getInstance().getCurrentUser());
-                
+                """);
+            
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (DailyLogSpan span : chunk) {
+                    AttendanceMetrics metrics = calculateAttendanceMetrics(span.timeIn, span.timeOut);
+                    
+                    stmt.setInt(index++, span.employeeId);
+                    stmt.setDate(index++, Date.valueOf(span.date));
+                    stmt.setInt(index++, metrics.lateMinutes);
+                    stmt.setInt(index++, metrics.undertimeMinutes);
+                    stmt.setBigDecimal(index++, metrics.hoursWorked);
+                    stmt.setInt(index++, metrics.absentDays);
+                    stmt.setInt(index++, metrics.halfDays);
+                    stmt.setBigDecimal(index++, metrics.overtimeHours);
+                    stmt.setString(index++, metrics.status);
+                    stmt.setTime(index++, span.timeIn != null ? Time.valueOf(span.timeIn.toLocalDateTime().toLocalTime()) : null);
+                    stmt.setTime(index++, span.timeOut != null ? Time.valueOf(span.timeOut.toLocalDateTime().toLocalTime()) : null);
+                    stmt.setString(index++, processedBy);
+                }
                 stmt.executeUpdate();
             }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error inserting processed attendance record", e);
         }
     }
     
@@ -666,7 +802,8 @@ public class AttendanceProcessorController implements Initializable {
             ORDER BY pa.process_date DESC, e.full_name
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             processedData.clear();
             
@@ -703,6 +840,23 @@ public class AttendanceProcessorController implements Initializable {
     }
     
     // Inner classes for data models
+    /**
+     * First and last log of one employee on one day
+     */
+    private static class DailyLogSpan {
+        final int employeeId;
+        final LocalDate date;
+        final Timestamp timeIn;
+        final Timestamp timeOut;
+        
+        DailyLogSpan(int employeeId, LocalDate date, Timestamp timeIn, Timestamp timeOut) {
+            this.employeeId = employeeId;
+            this.date = date;
+            this.timeIn = timeIn;
+            this.timeOut = timeOut;
+        }
+    }
+    
     private static class AttendanceMetrics {
         int lateMinutes = 0;
         int undertimeMinutes = 0;
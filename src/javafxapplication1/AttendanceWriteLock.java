@@ -0,0 +1,52 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * MySQL named lock that keeps attendance imports and the attendance roll-up apart, across every
+ * workstation sharing the database. The roll-up advances its watermark to MAX(attendance.id);
+ * an import still committing could hold a lower id that becomes visible only later and would
+ * then be skipped for good, so writers to attendance hold this lock until their last commit
+ * and the roll-up holds it from reading the upper bound until its own commit.
+ * The lock belongs to the database session, so it must be released before a pooled
+ * connection is closed.
+ */
+final class AttendanceWriteLock {
+
+    private static final Logger logger = Logger.getLogger(AttendanceWriteLock.class.getName());
+
+    private static final String LOCK_NAME = "payroll.attendance_write";
+
+    private AttendanceWriteLock() {
+    }
+
+    /**
+     * Wait up to timeoutSeconds for the lock; returns false if another session still holds it
+     */
+    static boolean acquire(Connection conn, int timeoutSeconds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, timeoutSeconds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    /**
+     * Release the lock; failures are only logged since closing the session releases it too
+     */
+    static void release(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not release the attendance write lock", e);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package javafxapplication1;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streaming importer for biometric attendance logs (TXT/DAT).
+ * Reads the file incrementally, writes multi-row INSERT ... ON DUPLICATE KEY UPDATE
+ * statements and commits in chunks, so memory use does not grow with file size.
+ * If a chunk fails, it is rolled back and replayed one row at a time. Rows the database
+ * rejects are skipped and reported, and the rest of the chunk is kept. Only a lost
+ * connection or a read error aborts the import, after the chunks committed so far.
+ * The import holds AttendanceWriteLock so the attendance roll-up never runs alongside it.
+ */
+public class BiometricAttendanceImporter {
+
+    private static final Logger logger = Logger.getLogger(BiometricAttendanceImporter.class.getName());
+
+    public static final int DEFAULT_ROWS_PER_STATEMENT = 500;
+    public static final int DEFAULT_ROWS_PER_TRANSACTION = 5000;
+    // A roll-up holds the attendance write lock only briefly
+    private static final int WRITE_LOCK_WAIT_SECONDS = 60;
+
+    private final int rowsPerStatement;
+    private final int rowsPerTransaction;
+
+    /**
+     * Receives progress in bytes so it stays accurate without counting lines up front
+     */
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes, long linesRead);
+    }
+
+    public BiometricAttendanceImporter() {
+        this(DEFAULT_ROWS_PER_STATEMENT, DEFAULT_ROWS_PER_TRANSACTION);
+    }
+
+    public BiometricAttendanceImporter(int rowsPerStatement, int rowsPerTransaction) {
+        this.rowsPerStatement = Math.max(1, rowsPerStatement);
+        // A transaction always holds whole statements
+        this.rowsPerTransaction = Math.max(this.rowsPerStatement,
+                rowsPerTransaction - rowsPerTransaction % this.rowsPerStatement);
+    }
+
+    /**
+     * Import a biometric log file into the attendance table
+     */
+    public ImportResult importFile(File file, String importedBy, ProgressListener listener)
+            throws IOException, SQLException {
+        long startTime = System.currentTimeMillis();
+        long totalBytes = file.length();
+        String batchId = file.getName();
+
+        ImportResult result = new ImportResult();
+        List<AttendanceRow> pending = new ArrayList<>(rowsPerStatement);
+        BiometricRecordParser parser = new BiometricRecordParser();
+
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(file.toPath()));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8), 1 << 16);
+             Connection conn = DatabaseConfig.getConnection()) {
+
+            if (!AttendanceWriteLock.acquire(conn, WRITE_LOCK_WAIT_SECONDS)) {
+                throw new SQLException("Attendance processing is running; try the import again when it finishes");
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement fullStmt = conn.prepareStatement(buildInsertSql(rowsPerStatement));
+                 PreparedStatement rowStmt = conn.prepareStatement(buildInsertSql(1))) {
+                // Rows written since the last commit, kept so a failed chunk can be replayed
+                List<AttendanceRow> uncommitted = new ArrayList<>(rowsPerTransaction);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    result.linesRead++;
+
+                    AttendanceRow row = parseLine(parser, line, result.linesRead);
+                    if (row == null) {
+                        if (!parser.isBlank()) {
+                            result.skippedLines++;
+                        }
+                        continue;
+                    }
+                    pending.add(row);
+
+                    if (pending.size() == rowsPerStatement) {
+                        writeOrReplay(conn, fullStmt, rowStmt, pending, uncommitted, importedBy, batchId, result);
+                        pending.clear();
+
+                        if (uncommitted.size() >= rowsPerTransaction) {
+                            commitOrReplay(conn, rowStmt, uncommitted, importedBy, batchId, result);
+                        }
+                        if (listener != null) {
+                            listener.onProgress(counter.getCount(), totalBytes, result.linesRead);
+                        }
+
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Import cancelled after " + result.importedRecords + " records");
+                        }
+                    }
+                }
+
+                if (!pending.isEmpty()) {
+                    try (PreparedStatement tailStmt = conn.prepareStatement(buildInsertSql(pending.size()))) {
+                        writeOrReplay(conn, tailStmt, rowStmt, pending, uncommitted, importedBy, batchId, result);
+                    }
+                }
+                if (!uncommitted.isEmpty()) {
+                    commitOrReplay(conn, rowStmt, uncommitted, importedBy, batchId, result);
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                // Lost connection or unreadable file: only the open chunk is lost, earlier chunks are committed
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                AttendanceWriteLock.release(conn);
+            }
+
+            if (listener != null) {
+                listener.onProgress(totalBytes, totalBytes, result.linesRead);
+            }
+        }
+
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        logger.info("Biometric import of " + batchId + " finished: " + result);
+        return result;
+    }
+
+    /**
+     * Write one statement's rows into the open chunk; if that fails the chunk is replayed
+     */
+    private void writeOrReplay(Connection conn, PreparedStatement stmt, PreparedStatement rowStmt,
+                               List<AttendanceRow> rows, List<AttendanceRow> uncommitted,
+                               String importedBy, String batchId, ImportResult result) throws SQLException {
+        uncommitted.addAll(rows);
+        try {
+            writeRows(stmt, rows, importedBy, batchId);
+        } catch (SQLException e) {
+            replayRowByRow(conn, rowStmt, uncommitted, importedBy, batchId, result, e);
+        }
+    }
+
+    private void commitOrReplay(Connection conn, PreparedStatement rowStmt, List<AttendanceRow> uncommitted,
+                                String importedBy, String batchId, ImportResult result) throws SQLException {
+        try {
+            conn.commit();
+        } catch (SQLException e) {
+            replayRowByRow(conn, rowStmt, uncommitted, importedBy, batchId, result, e);
+            return;
+        }
+        result.importedRecords += uncommitted.size();
+        result.transactions++;
+        uncommitted.clear();
+    }
+
+    /**
+     * Roll back the open chunk and write its rows one per transaction, skipping the ones the
+     * database rejects. A connection failure is rethrown since no row could succeed.
+     */
+    private void replayRowByRow(Connection conn, PreparedStatement rowStmt, List<AttendanceRow> rows,
+                                String importedBy, String batchId, ImportResult result,
+                                SQLException cause) throws SQLException {
+        if (isConnectionFailure(cause)) {
+            throw cause;
+        }
+        conn.rollback();
+        logger.log(Level.WARNING, "Attendance chunk of " + rows.size() + " rows failed, replaying row by row", cause);
+
+        for (AttendanceRow row : rows) {
+            try {
+                writeRows(rowStmt, Collections.singletonList(row), importedBy, batchId);
+                conn.commit();
+                result.importedRecords++;
+            } catch (SQLException e) {
+                if (isConnectionFailure(e)) {
+                    throw e;
+                }
+                conn.rollback();
+                result.failedRows++;
+                logger.warning("Line " + row.lineNumber + " not imported: " + e.getMessage());
+            }
+        }
+        result.transactions++;
+        rows.clear();
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        return e instanceof SQLNonTransientConnectionException || e instanceof SQLTransientConnectionException
+                || (e.getSQLState() != null && e.getSQLState().startsWith("08"));
+    }
+
+    private void writeRows(PreparedStatement stmt, List<AttendanceRow> rows, String importedBy, String batchId)
+            throws SQLException {
+        int index = 1;
+        for (AttendanceRow row : rows) {
+            stmt.setString(index++, row.accountNumber);
+            stmt.setTimestamp(index++, Timestamp.valueOf(row.logDateTime));
+            stmt.setString(index++, row.logType);
+            stmt.setString(index++, row.rawData);
+            stmt.setString(index++, importedBy);
+            stmt.setString(index++, batchId);
+        }
+        stmt.executeUpdate();
+    }
+
+    static String buildInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(128 + rows * 20);
+        sql.append("INSERT INTO attendance (account_number, log_datetime, log_type, raw_data, ")
+           .append("imported_by, import_batch) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append("(?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE raw_data = VALUES(raw_data), updated_at = CURRENT_TIMESTAMP");
+        return sql.toString();
+    }
+
+    /**
+     * Parse biometric log format: account_number	date time	1	0/1	1	0
+     * Returns null for blank or malformed lines; the parser then says which it was.
+     */
+    static AttendanceRow parseLine(BiometricRecordParser parser, String rawLine, long lineNumber) {
+        if (!parser.parse(rawLine)) {
+            if (!parser.isBlank() && logger.isLoggable(Level.FINE)) {
+                logger.fine("Skipping malformed biometric line (" + parser.getFailure() + "): " + rawLine.trim());
+            }
+            return null;
+        }
+        return new AttendanceRow(lineNumber, parser.getAccountNumber(), parser.getLogDateTime(), parser.getLogType(),
+                                 rawLine.trim());
+    }
+
+    public static String determineLogType(LocalDateTime dateTime, boolean isEntry) {
+        int hour = dateTime.getHour();
+
+        if (hour < 12) { // Morning (AM)
+            return isEntry ? "TIME_IN_AM" : "TIME_OUT_AM";
+        } else { // Afternoon/Evening (PM)
+            return isEntry ? "TIME_IN_PM" : "TIME_OUT_PM";
+        }
+    }
+
+    static class AttendanceRow {
+        final long lineNumber;
+        final String accountNumber;
+        final LocalDateTime logDateTime;
+        final String logType;
+        final String rawData;
+
+        AttendanceRow(long lineNumber, String accountNumber, LocalDateTime logDateTime, String logType, String rawData) {
+            this.lineNumber = lineNumber;
+            this.accountNumber = accountNumber;
+            this.logDateTime = logDateTime;
+            this.logType = logType;
+            this.rawData = rawData;
+        }
+    }
+
+    /**
+     * Summary of a completed import
+     */
+    public static class ImportResult {
+        private long linesRead;
+        private int importedRecords;
+        private int skippedLines;
+        private int failedRows;
+        private int transactions;
+        private long elapsedMillis;
+
+        public long getLinesRead() { return linesRead; }
+        public int getImportedRecords() { return importedRecords; }
+        public int getSkippedLines() { return skippedLines; }
+        public int getFailedRows() { return failedRows; }
+        public int getTransactions() { return transactions; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "lines=" + linesRead + ", imported=" + importedRecords + ", skipped=" + skippedLines
+                    + ", failed=" + failedRows + ", transactions=" + transactions + ", elapsedMs=" + elapsedMillis;
+        }
+    }
+
+    /**
+     * Tracks how many bytes the reader has consumed, for byte-based progress
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
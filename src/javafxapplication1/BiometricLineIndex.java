@@ -0,0 +1,202 @@
+package javafxapplication1;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Line index over a memory-mapped biometric log, used by the import preview.
+ * One streaming pass records where every CHECKPOINT_STRIDE-th line starts and counts
+ * valid, malformed and empty lines; individual lines are decoded only when asked for, so
+ * the preview table parses just the rows on screen however large the file is.
+ */
+final class BiometricLineIndex {
+
+    // One line start kept per stride; a lookup scans at most this many short lines forward
+    private static final int CHECKPOINT_STRIDE = 64;
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final int MAX_CLASSIFIED_LINE = 4096;
+    private static final long PROGRESS_INTERVAL_BYTES = 4L << 20;
+
+    private final Path file;
+    private final long fileSize;
+    private final MappedByteBuffer[] segments;
+    private final BiometricRecordParser parser = new BiometricRecordParser();
+    private long[] checkpoints = new long[1024];
+    private int lineCount;
+    private int validLines;
+    private int invalidLines;
+    private int emptyLines;
+    // Where the line after the last decoded one starts, so sequential reads skip nothing
+    private volatile LineCursor cursor;
+
+    /**
+     * Receives scan progress in bytes
+     */
+    interface ProgressListener {
+        void onProgress(long bytesScanned, long totalBytes);
+    }
+
+    /**
+     * Immutable so threads reading different parts of the file can share the field; a stale
+     * cursor only costs a scan from the nearest checkpoint
+     */
+    private static final class LineCursor {
+        final int nextLine;
+        final long nextStart;
+
+        LineCursor(int nextLine, long nextStart) {
+            this.nextLine = nextLine;
+            this.nextStart = nextStart;
+        }
+    }
+
+    private BiometricLineIndex(Path file, long fileSize, MappedByteBuffer[] segments) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.segments = segments;
+    }
+
+    /**
+     * Map the file and index it in a single pass. Interrupting the calling thread cancels the scan.
+     */
+    static BiometricLineIndex build(Path file, ProgressListener listener) throws IOException {
+        BiometricLineIndex index;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+            }
+            // The mappings stay valid after the channel is closed
+            index = new BiometricLineIndex(file, size, segments);
+        }
+        index.scan(listener);
+        return index;
+    }
+
+    private void scan(ProgressListener listener) throws IOException {
+        byte[] line = new byte[256];
+        int length = 0;
+        boolean overlong = false;
+        long position = 0;
+        long nextProgress = PROGRESS_INTERVAL_BYTES;
+
+        for (MappedByteBuffer segment : segments) {
+            ByteBuffer view = segment.duplicate();
+            while (view.hasRemaining()) {
+                byte b = view.get();
+                if (length == 0 && !overlong) {
+                    addCheckpointIfDue(position);
+                }
+                position++;
+                if (b == '\n') {
+                    classify(line, length, overlong);
+                    length = 0;
+                    overlong = false;
+                    if (position >= nextProgress) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Indexing cancelled");
+                        }
+                        if (listener != null) {
+                            listener.onProgress(position, fileSize);
+                        }
+                        nextProgress = position + PROGRESS_INTERVAL_BYTES;
+                    }
+                } else if (length < MAX_CLASSIFIED_LINE) {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[length++] = b;
+                } else {
+                    overlong = true;
+                }
+            }
+        }
+        // A last line without a trailing newline still counts, like BufferedReader.readLine
+        if (length > 0 || overlong) {
+            classify(line, length, overlong);
+        }
+        if (listener != null) {
+            listener.onProgress(fileSize, fileSize);
+        }
+    }
+
+    private void addCheckpointIfDue(long lineStart) {
+        if (lineCount % CHECKPOINT_STRIDE != 0) {
+            return;
+        }
+        int slot = lineCount / CHECKPOINT_STRIDE;
+        if (slot == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+        }
+        checkpoints[slot] = lineStart;
+    }
+
+    private void classify(byte[] line, int length, boolean overlong) {
+        lineCount++;
+        if (overlong) {
+            invalidLines++;
+            return;
+        }
+        if (parser.parse(line, 0, length)) {
+            validLines++;
+        } else if (parser.isBlank()) {
+            emptyLines++;
+        } else {
+            invalidLines++;
+        }
+    }
+
+    /**
+     * Decode one line (0-based) without its line terminator
+     */
+    String line(int index) {
+        if (index < 0 || index >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + index + " of " + lineCount);
+        }
+        int line = index - index % CHECKPOINT_STRIDE;
+        long position = checkpoints[index / CHECKPOINT_STRIDE];
+        LineCursor last = cursor;
+        if (last != null && last.nextLine <= index && last.nextLine > line) {
+            line = last.nextLine;
+            position = last.nextStart;
+        }
+        for (; line < index; line++) {
+            while (byteAt(position++) != '\n') {
+                // advance to the start of the next line
+            }
+        }
+        long end = position;
+        while (end < fileSize && byteAt(end) != '\n') {
+            end++;
+        }
+        cursor = new LineCursor(index + 1, end + 1);
+        if (end > position && byteAt(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[(int) Math.min(end - position, Integer.MAX_VALUE - 8)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = byteAt(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte byteAt(long position) {
+        return segments[(int) (position / SEGMENT_SIZE)].get((int) (position % SEGMENT_SIZE));
+    }
+
+    Path getFile() { return file; }
+    long getFileSize() { return fileSize; }
+    int getLineCount() { return lineCount; }
+    int getValidLines() { return validLines; }
+    int getInvalidLines() { return invalidLines; }
+    int getEmptyLines() { return emptyLines; }
+}
@@ -0,0 +1,253 @@
+package javafxapplication1;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Parser for the biometric log layout "account yyyy-MM-dd HH:mm:ss flag inout flag flag".
+ * It works directly on a byte[] window (or copies a CharSequence into an internal buffer),
+ * decodes digits by hand and fills this reusable instance, so parsing a line allocates
+ * nothing. Strings and LocalDateTime are only created when a caller asks for them.
+ * Not thread-safe; use one parser per thread.
+ */
+final class BiometricRecordParser {
+
+    static final int MIN_FIELDS = 6;
+    private static final int MAX_FIELDS = 8;
+    private static final String TOO_FEW_FIELDS = "Too few fields";
+
+    private byte[] text = new byte[128];
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private byte[] source;
+    private CharSequence chars;
+    private int fieldCount;
+    private String failure;
+
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int inOutFlag;
+    private boolean nextDay;
+
+    /**
+     * Parse one line held in bytes[offset, offset + length). Returns false for blank or
+     * malformed lines; see isBlank() and getFailure().
+     */
+    boolean parse(byte[] bytes, int offset, int length) {
+        chars = null;
+        return parseBytes(bytes, offset, length);
+    }
+
+    private boolean parseBytes(byte[] bytes, int offset, int length) {
+        source = bytes;
+        failure = null;
+        fieldCount = 0;
+
+        int end = offset + length;
+        int i = offset;
+        while (i < end && fieldCount < MAX_FIELDS) {
+            while (i < end && isWhitespace(bytes[i])) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            fieldStart[fieldCount] = i;
+            while (i < end && !isWhitespace(bytes[i])) {
+                i++;
+            }
+            fieldEnd[fieldCount++] = i;
+        }
+
+        if (fieldCount == 0) {
+            failure = "Empty line";
+            return false;
+        }
+        if (fieldCount < MIN_FIELDS) {
+            failure = TOO_FEW_FIELDS;
+            return false;
+        }
+        if (!parseDate(fieldStart[1], fieldEnd[1]) || !parseTime(fieldStart[2], fieldEnd[2])) {
+            failure = "Invalid date/time";
+            return false;
+        }
+        long flag = parseInt(fieldStart[4], fieldEnd[4]);
+        if (flag == Long.MIN_VALUE) {
+            failure = "Invalid in/out flag";
+            return false;
+        }
+        inOutFlag = (int) flag;
+        return true;
+    }
+
+    /**
+     * Parse a line held as characters (String, CharBuffer, ...). Non-ASCII characters cannot
+     * occur in a valid record, so they are mapped to a byte that fails every field check.
+     */
+    boolean parse(CharSequence line) {
+        int length = line.length();
+        if (text.length < length) {
+            text = new byte[Math.max(length, text.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            text[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        chars = line;
+        return parseBytes(text, 0, length);
+    }
+
+    // yyyy-MM-dd
+    private boolean parseDate(int start, int end) {
+        if (end - start != 10 || source[start + 4] != '-' || source[start + 7] != '-') {
+            return false;
+        }
+        year = digits(start, 4);
+        month = digits(start + 5, 2);
+        day = digits(start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return false;
+        }
+        // Same as the SMART resolver of DateTimeFormatter.ofPattern: 29-31 past month end clamps
+        int monthLength = monthLength(year, month);
+        if (day > monthLength) {
+            day = monthLength;
+        }
+        return true;
+    }
+
+    // HH:mm:ss
+    private boolean parseTime(int start, int end) {
+        if (end - start != 8 || source[start + 2] != ':' || source[start + 5] != ':') {
+            return false;
+        }
+        hour = digits(start, 2);
+        minute = digits(start + 3, 2);
+        second = digits(start + 6, 2);
+        // The SMART resolver also reads 24:00:00 as midnight of the next day
+        nextDay = hour == 24 && minute == 0 && second == 0;
+        if (nextDay) {
+            hour = 0;
+        }
+        return hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59 && second >= 0 && second <= 59;
+    }
+
+    /**
+     * Fixed-width decimal, or -1 if any byte is not a digit
+     */
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int d = source[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Integer.parseInt rules (optional sign, int range), or Long.MIN_VALUE if invalid
+     */
+    private long parseInt(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (source[i] == '-' || source[i] == '+') {
+            negative = source[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int d = source[i] - '0';
+            if (d < 0 || d > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return Long.MIN_VALUE;
+            }
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private static int monthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f' || b == 0x0B;
+    }
+
+    boolean isBlank() {
+        return fieldCount == 0;
+    }
+
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    String getFailure() {
+        if (failure == TOO_FEW_FIELDS) {
+            return "Only " + fieldCount + " fields (need " + MIN_FIELDS + ")";
+        }
+        return failure;
+    }
+
+    boolean isEntry() {
+        return inOutFlag == 0; // 0=in, 1=out
+    }
+
+    int getHour() {
+        return hour;
+    }
+
+    /**
+     * Same values as BiometricAttendanceImporter.determineLogType, without building a LocalDateTime
+     */
+    String getLogType() {
+        if (hour < 12) { // Morning (AM)
+            return isEntry() ? "TIME_IN_AM" : "TIME_OUT_AM";
+        }
+        return isEntry() ? "TIME_IN_PM" : "TIME_OUT_PM";
+    }
+
+    String getAccountNumber() {
+        return field(0);
+    }
+
+    /**
+     * "yyyy-MM-dd HH:mm:ss" exactly as it appeared in the line
+     */
+    String getDateTimeText() {
+        return field(1) + " " + field(2);
+    }
+
+    LocalDateTime getLogDateTime() {
+        LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+        return nextDay ? dateTime.plusDays(1) : dateTime;
+    }
+
+    private String field(int field) {
+        if (chars != null) {
+            return chars.subSequence(fieldStart[field], fieldEnd[field]).toString();
+        }
+        return new String(source, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,529 @@
+package javafxapplication1;
+
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool used by DatabaseConfig.
+ * Physical connections are reused across screens; callers receive a proxy
+ * whose close() hands the connection back to the pool instead of closing it.
+ * Statements and DatabaseMetaData created through the proxy are proxied as well, so their
+ * getConnection() returns the pooled handle and never the physical connection.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long connectionTimeoutMs;
+    private final long validationIntervalMs;
+    private final int validationTimeoutSeconds;
+    private final long maxLifetimeMs;
+    private final long leakDetectionThresholdMs;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong totalCreated = new AtomicLong();
+    private final AtomicLong totalClosed = new AtomicLong();
+    private final AtomicLong totalBorrowed = new AtomicLong();
+    private final AtomicLong totalTimeouts = new AtomicLong();
+    private final AtomicLong totalValidationFailures = new AtomicLong();
+    private final AtomicLong totalLeaksDetected = new AtomicLong();
+    private final AtomicLong totalReclaimed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long connectionTimeoutMs, long validationIntervalMs, long maxLifetimeMs,
+                          long leakDetectionThresholdMs) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxSize));
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.validationTimeoutSeconds = 5;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 30, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured timeout for a free slot
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+        }
+
+        if (!acquired) {
+            totalTimeouts.incrementAndGet();
+            throw new SQLTransientConnectionException("Connection pool exhausted: no connection available within "
+                    + connectionTimeoutMs + " ms (" + getStats() + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = createPhysical();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakDetectionThresholdMs > 0 ? new Exception("Connection acquired here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            totalBorrowed.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.isExpired()) {
+                destroy(pooled);
+                continue;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsedAt > validationIntervalMs && !pooled.isValid()) {
+                totalValidationFailures.incrementAndGet();
+                destroy(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private PooledConnection createPhysical() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        totalCreated.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    /**
+     * Return a physical connection to the pool, resetting any state the caller left behind
+     */
+    private void release(PooledConnection pooled, boolean reclaimed) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+        try {
+            boolean healthy = pooled.reset();
+            if (healthy && !shutdown && !pooled.isExpired()) {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+            if (reclaimed) {
+                totalReclaimed.incrementAndGet();
+                logger.log(Level.WARNING, "Reclaimed a database connection that was never closed", pooled.borrowSite);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.raw.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Error closing pooled connection", e);
+        }
+        totalClosed.incrementAndGet();
+    }
+
+    /**
+     * Periodic maintenance: retire idle connections past max-lifetime, validate long-idle ones,
+     * top up to the minimum idle count and report connections held past the leak threshold
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            for (PooledConnection pooled : idle) {
+                boolean expired = pooled.isExpired();
+                boolean stale = !expired && now - pooled.lastUsedAt > validationIntervalMs && !pooled.isValid();
+                if ((expired || stale) && idle.remove(pooled)) {
+                    if (stale) {
+                        totalValidationFailures.incrementAndGet();
+                    }
+                    destroy(pooled);
+                }
+            }
+
+            while (!shutdown && idle.size() < minIdle && idle.size() + borrowed.size() < maxSize) {
+                idle.offerLast(createPhysical());
+            }
+
+            if (leakDetectionThresholdMs > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMs) {
+                        pooled.leakReported = true;
+                        totalLeaksDetected.incrementAndGet();
+                        logger.log(Level.WARNING, "Possible connection leak: connection held for "
+                                + (now - pooled.borrowedAt) + " ms", pooled.borrowSite);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    /**
+     * Close all idle connections and stop handing out new ones.
+     * Borrowed connections are closed when their holders return them.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        logger.info("Connection pool shut down (" + getStats() + ")");
+    }
+
+    private static boolean isStatementClosed(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(borrowed.size(), idle.size(), waiting.get(), maxSize,
+                totalCreated.get(), totalClosed.get(), totalBorrowed.get(), totalTimeouts.get(),
+                totalValidationFailures.get(), totalLeaksDetected.get(), totalReclaimed.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()));
+    }
+
+    /**
+     * Snapshot of pool counters
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final int maxSize;
+        private final long created;
+        private final long closed;
+        private final long borrowed;
+        private final long timeouts;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final long reclaimed;
+        private final long totalWaitMillis;
+
+        public PoolStats(int active, int idle, int waiting, int maxSize, long created, long closed,
+                         long borrowed, long timeouts, long validationFailures, long leaksDetected,
+                         long reclaimed, long totalWaitMillis) {
+            this.active = active;
+            this.idle = idle;
+            this.waiting = waiting;
+            this.maxSize = maxSize;
+            this.created = created;
+            this.closed = closed;
+            this.borrowed = borrowed;
+            this.timeouts = timeouts;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.reclaimed = reclaimed;
+            this.totalWaitMillis = totalWaitMillis;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getWaiting() { return waiting; }
+        public int getMaxSize() { return maxSize; }
+        public long getCreated() { return created; }
+        public long getClosed() { return closed; }
+        public long getBorrowed() { return borrowed; }
+        public long getTimeouts() { return timeouts; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public long getReclaimed() { return reclaimed; }
+        public long getTotalWaitMillis() { return totalWaitMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, waiting=%d, max=%d, created=%d, closed=%d, borrowed=%d, "
+                    + "timeouts=%d, validationFailures=%d, leaks=%d, reclaimed=%d, totalWaitMs=%d",
+                    active, idle, waiting, maxSize, created, closed, borrowed, timeouts,
+                    validationFailures, leaksDetected, reclaimed, totalWaitMillis);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private class PooledConnection {
+        final Connection raw;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastUsedAt = createdAt;
+        volatile long borrowedAt;
+        volatile Exception borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        boolean isExpired() {
+            return maxLifetimeMs > 0 && System.currentTimeMillis() - createdAt > maxLifetimeMs;
+        }
+
+        boolean isValid() {
+            try {
+                return raw.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Undo transaction and session changes made by the previous borrower
+         */
+        boolean reset() {
+            try {
+                if (raw.isClosed()) {
+                    return false;
+                }
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();
+                    raw.setAutoCommit(true);
+                }
+                if (raw.isReadOnly()) {
+                    raw.setReadOnly(false);
+                }
+                raw.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Discarding connection that failed to reset", e);
+                return false;
+            }
+        }
+
+        Connection newHandle() {
+            HandleState state = new HandleState(this);
+            Connection handle = (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new HandleInvocationHandler(state));
+            // If a caller drops the handle without closing it, give the slot back once it is collected
+            CLEANER.register(handle, new ReclaimAction(state));
+            return handle;
+        }
+    }
+
+    /**
+     * Per-borrow state shared by the proxy handler and its cleaner action.
+     * Must not reference the proxy itself, otherwise the cleaner would never run.
+     */
+    private class HandleState {
+        final PooledConnection pooled;
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        final List<Statement> statements = new ArrayList<>();
+
+        HandleState(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        void track(Statement statement) {
+            synchronized (statements) {
+                // Long-lived handles would otherwise accumulate every statement they ever created
+                if (statements.size() >= 64) {
+                    statements.removeIf(ConnectionPool::isStatementClosed);
+                }
+                statements.add(statement);
+            }
+        }
+
+        void close(boolean reclaimed) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (statements) {
+                for (Statement statement : statements) {
+                    try {
+                        statement.close();
+                    } catch (SQLException e) {
+                        logger.log(Level.FINE, "Error closing statement left open on pooled connection", e);
+                    }
+                }
+                statements.clear();
+            }
+            release(pooled, reclaimed);
+        }
+    }
+
+    private static class ReclaimAction implements Runnable {
+        private final HandleState state;
+
+        ReclaimAction(HandleState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void run() {
+            state.close(true);
+        }
+    }
+
+    private static class HandleInvocationHandler implements InvocationHandler {
+        private final HandleState state;
+
+        HandleInvocationHandler(HandleState state) {
+            this.state = state;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    state.close(false);
+                    return null;
+                case "isClosed":
+                    return state.closed.get() || state.pooled.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + state.pooled.raw + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (state.closed.get()) {
+                throw new SQLException("Connection is closed");
+            }
+
+            try {
+                Object result = method.invoke(state.pooled.raw, args);
+                if (result instanceof Statement) {
+                    // The raw statement is tracked; the state must not reach the proxy through it
+                    state.track((Statement) result);
+                    return wrapChild(proxy, method.getReturnType(), result);
+                }
+                if (result instanceof DatabaseMetaData) {
+                    return wrapChild(proxy, DatabaseMetaData.class, result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static Object wrapChild(Object handle, Class<?> type, Object target) {
+            return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[] { type },
+                    new ChildInvocationHandler((Connection) handle, target));
+        }
+    }
+
+    /**
+     * Statement or DatabaseMetaData created through a pooled handle; reports the handle as its
+     * connection and passes everything else to the driver object
+     */
+    private static class ChildInvocationHandler implements InvocationHandler {
+        private final Connection handle;
+        private final Object target;
+
+        ChildInvocationHandler(Connection handle, Object target) {
+            this.handle = handle;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    if (method.getParameterCount() == 0) {
+                        return handle;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pre-aggregated dashboard counters kept in memory and refreshed on a background schedule.
+ * Per-day attendance status counts are maintained incrementally: each refresh re-aggregates
+ * only the days whose processed_attendance rows changed since the last one (processed_at
+ * watermark), with a periodic full rebuild to pick up deletions. Recent security events are
+ * read by event_id keyset. MainController renders the published snapshot without touching
+ * the database, so opening the dashboard or changing the chart range never blocks the UI.
+ */
+class DashboardSnapshotService {
+
+    private static final Logger logger = Logger.getLogger(DashboardSnapshotService.class.getName());
+    private static final DashboardSnapshotService INSTANCE = new DashboardSnapshotService();
+
+    static final int RECENT_EVENT_LIMIT = 10;
+
+    private final long refreshSeconds = Math.max(5, DatabaseConfig.getLongProperty("dashboard.refreshSeconds", 60));
+    private final long fullRebuildMinutes = Math.max(1, DatabaseConfig.getLongProperty("dashboard.fullRebuildMinutes", 60));
+    private final int attendanceWindowDays = Math.max(31, DatabaseConfig.getIntProperty("dashboard.attendanceWindowDays", 366));
+
+    private final List<Consumer<DashboardSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile DashboardSnapshot snapshot;
+
+    // One refresh thread for the life of the application, so refreshes never overlap
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> scheduled;
+    // Bumped by stop(); refreshes started under an older generation neither publish nor notify
+    private long generation;
+
+    // Refresh state, only touched on the refresh thread
+    private long stateGeneration = -1;
+    private final TreeMap<LocalDate, Map<String, Integer>> attendanceByDay = new TreeMap<>();
+    private LocalDate windowStart;
+    private Timestamp attendanceWatermark;
+    private long lastFullRebuild;
+    private List<RecentEvent> recentEvents = Collections.emptyList();
+    private int lastEventId;
+
+    private DashboardSnapshotService() {
+    }
+
+    public static DashboardSnapshotService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start the periodic refresh; the first one runs immediately. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (scheduled != null) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "dashboard-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        long current = generation;
+        scheduled = executor.scheduleWithFixedDelay(() -> refreshQuietly(current), 0, refreshSeconds, TimeUnit.SECONDS);
+        logger.info("Dashboard refresh scheduled every " + refreshSeconds + " s");
+    }
+
+    /**
+     * Stop refreshing and drop the published snapshot (logout, application shutdown). Returns
+     * without waiting: a refresh still running finishes unpublished, and the refresh state is
+     * reset on the refresh thread by the first refresh after the next start().
+     */
+    public synchronized void stop() {
+        generation++;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Ask for a refresh now instead of waiting for the next scheduled one
+     */
+    public synchronized void requestRefresh() {
+        if (scheduled != null) {
+            long current = generation;
+            executor.execute(() -> refreshQuietly(current));
+        }
+    }
+
+    /**
+     * Latest published snapshot, or null before the first refresh completes
+     */
+    public DashboardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Listeners are called on the refresh thread after every refresh
+     */
+    public void addListener(Consumer<DashboardSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<DashboardSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Attendance status counts for a date range. Served from the snapshot when the range lies in
+     * the cached window, otherwise aggregated on the refresh thread.
+     */
+    public CompletableFuture<Map<String, Integer>> attendanceStatusCounts(LocalDate startDate, LocalDate endDate) {
+        DashboardSnapshot current = snapshot;
+        if (current != null && current.covers(startDate)) {
+            return CompletableFuture.completedFuture(current.attendanceStatusCounts(startDate, endDate));
+        }
+
+        ScheduledExecutorService refreshExecutor;
+        synchronized (this) {
+            refreshExecutor = executor;
+        }
+        if (refreshExecutor == null) {
+            return CompletableFuture.supplyAsync(() -> queryAttendanceStatusCounts(startDate, endDate));
+        }
+        return CompletableFuture.supplyAsync(() -> queryAttendanceStatusCounts(startDate, endDate), refreshExecutor);
+    }
+
+    private synchronized boolean isCurrent(long refreshGeneration) {
+        return refreshGeneration == generation;
+    }
+
+    private void refreshQuietly(long refreshGeneration) {
+        if (!isCurrent(refreshGeneration)) {
+            return;
+        }
+        if (stateGeneration != refreshGeneration) {
+            // First refresh since start(): forget what the previous session aggregated
+            attendanceByDay.clear();
+            attendanceWatermark = null;
+            lastFullRebuild = 0;
+            recentEvents = Collections.emptyList();
+            lastEventId = 0;
+            stateGeneration = refreshGeneration;
+        }
+        try {
+            refresh(refreshGeneration);
+        } catch (Exception e) {
+            // Keep the last good snapshot; the next run retries
+            logger.log(Level.WARNING, "Dashboard refresh failed", e);
+        }
+    }
+
+    private void refresh(long refreshGeneration) throws SQLException {
+        long start = System.currentTimeMillis();
+        DashboardSnapshot next;
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            int activeEmployees = 0;
+            Double averageSalary = null;
+            String headcountSQL = """
+                SELECT COUNT(*) as total, AVG(sr.monthly_salary) as avg_salary
+                FROM employees e
+                LEFT JOIN salary_reference sr ON e.salary_ref_id = sr.id
+                WHERE e.status = 'Active'
+                """;
+            try (PreparedStatement stmt = conn.prepareStatement(headcountSQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    activeEmployees = rs.getInt("total");
+                    double avg = rs.getDouble("avg_salary");
+                    averageSalary = rs.wasNull() ? null : avg;
+                }
+            }
+
+            // Half-open month range so an index on created_at can be used
+            int payrollProcessed = 0;
+            LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+            String payrollSQL = """
+                SELECT COUNT(DISTINCT employee_id) as processed
+                FROM payroll_sheet_items
+                WHERE created_at >= ? AND created_at < ?
+                """;
+            try (PreparedStatement stmt = conn.prepareStatement(payrollSQL)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(monthStart.atStartOfDay()));
+                stmt.setTimestamp(2, Timestamp.valueOf(monthStart.plusMonths(1).atStartOfDay()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        payrollProcessed = rs.getInt("processed");
+                    }
+                }
+            }
+
+            refreshAttendance(conn);
+            refreshRecentEvents(conn);
+
+            next = new DashboardSnapshot(activeEmployees, payrollProcessed, averageSalary, recentEvents,
+                    windowStart, Collections.unmodifiableNavigableMap(new TreeMap<>(attendanceByDay)),
+                    LocalDateTime.now());
+        }
+
+        // Under the lock so stop() cannot slip in between the check and the publish
+        synchronized (this) {
+            if (refreshGeneration != generation) {
+                return;
+            }
+            snapshot = next;
+            logger.fine("Dashboard refreshed in " + (System.currentTimeMillis() - start) + " ms");
+            for (Consumer<DashboardSnapshot> listener : listeners) {
+                try {
+                    listener.accept(next);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Dashboard listener failed", e);
+                }
+            }
+        }
+    }
+
+    private void refreshAttendance(Connection conn) throws SQLException {
+        LocalDate today = LocalDate.now();
+        LocalDate newWindowStart = today.minusDays(attendanceWindowDays);
+        boolean fullRebuild = attendanceWatermark == null
+                || System.currentTimeMillis() - lastFullRebuild >= TimeUnit.MINUTES.toMillis(fullRebuildMinutes);
+
+        // Read the watermark first so rows written during the aggregation are picked up next time
+        Timestamp newWatermark = null;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(processed_at) as watermark FROM processed_attendance");
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                newWatermark = rs.getTimestamp("watermark");
+            }
+        }
+
+        if (fullRebuild) {
+            String sql = """
+                SELECT process_date, status, COUNT(*) as count
+                FROM processed_attendance
+                WHERE process_date >= ?
+                GROUP BY process_date, status
+                """;
+            TreeMap<LocalDate, Map<String, Integer>> rebuilt = new TreeMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setDate(1, java.sql.Date.valueOf(newWindowStart));
+                readDailyCounts(stmt, rebuilt);
+            }
+            attendanceByDay.clear();
+            attendanceByDay.putAll(rebuilt);
+            lastFullRebuild = System.currentTimeMillis();
+        } else if (newWatermark != null) {
+            // Re-aggregate only the days touched since the last refresh; >= because processed_at has second precision
+            String sql = """
+                SELECT pa.process_date, pa.status, COUNT(*) as count
+                FROM processed_attendance pa
+                JOIN (
+                    SELECT DISTINCT process_date
+                    FROM processed_attendance
+                    WHERE processed_at >= ? AND process_date >= ?
+                ) touched ON touched.process_date = pa.process_date
+                GROUP BY pa.process_date, pa.status
+                """;
+            TreeMap<LocalDate, Map<String, Integer>> touched = new TreeMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setTimestamp(1, attendanceWatermark);
+                stmt.setDate(2, java.sql.Date.valueOf(newWindowStart));
+                readDailyCounts(stmt, touched);
+            }
+            attendanceByDay.putAll(touched);
+        }
+
+        attendanceByDay.headMap(newWindowStart, false).clear();
+        windowStart = newWindowStart;
+        attendanceWatermark = newWatermark != null ? newWatermark : new Timestamp(0);
+    }
+
+    private static void readDailyCounts(PreparedStatement stmt, Map<LocalDate, Map<String, Integer>> target) throws SQLException {
+        Map<LocalDate, Map<String, Integer>> building = new HashMap<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                building.computeIfAbsent(rs.getDate("process_date").toLocalDate(), d -> new HashMap<>())
+                        .put(rs.getString("status"), rs.getInt("count"));
+            }
+        }
+        building.forEach((date, counts) -> target.put(date, Map.copyOf(counts)));
+    }
+
+    private void refreshRecentEvents(Connection conn) throws SQLException {
+        String sql = """
+            SELECT event_id, event_type, severity, username, description, timestamp
+            FROM security_events
+            WHERE event_id > ?
+            ORDER BY event_id DESC
+            LIMIT ?
+            """;
+        List<RecentEvent> newer = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, lastEventId);
+            stmt.setInt(2, RECENT_EVENT_LIMIT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp timestamp = rs.getTimestamp("timestamp");
+                    newer.add(new RecentEvent(
+                        rs.getInt("event_id"),
+                        rs.getString("event_type"),
+                        rs.getString("severity"),
+                        rs.getString("username"),
+                        rs.getString("description"),
+                        timestamp != null ? timestamp.toLocalDateTime() : null));
+                }
+            }
+        }
+        if (newer.isEmpty()) {
+            return;
+        }
+
+        // Newest first: the new events, then whatever older ones still fit
+        List<RecentEvent> merged = new ArrayList<>(newer);
+        for (RecentEvent event : recentEvents) {
+            if (merged.size() >= RECENT_EVENT_LIMIT) {
+                break;
+            }
+            merged.add(event);
+        }
+        recentEvents = List.copyOf(merged);
+        lastEventId = newer.get(0).eventId;
+    }
+
+    private Map<String, Integer> queryAttendanceStatusCounts(LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT status, COUNT(*) as count
+            FROM processed_attendance
+            WHERE process_date >= ? AND process_date <= ?
+            GROUP BY status
+            """;
+        Map<String, Integer> counts = new TreeMap<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString("status"), rs.getInt("count"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading attendance statistics", e);
+        }
+        return counts;
+    }
+
+    /**
+     * Immutable dashboard state published by one refresh
+     */
+    static final class DashboardSnapshot {
+        private final int activeEmployees;
+        private final int payrollProcessedThisMonth;
+        private final Double averageSalary;
+        private final List<RecentEvent> recentEvents;
+        private final LocalDate attendanceWindowStart;
+        private final NavigableMap<LocalDate, Map<String, Integer>> attendanceByDay;
+        private final LocalDateTime refreshedAt;
+
+        DashboardSnapshot(int activeEmployees, int payrollProcessedThisMonth, Double averageSalary,
+                          List<RecentEvent> recentEvents, LocalDate attendanceWindowStart,
+                          NavigableMap<LocalDate, Map<String, Integer>> attendanceByDay, LocalDateTime refreshedAt) {
+            this.activeEmployees = activeEmployees;
+            this.payrollProcessedThisMonth = payrollProcessedThisMonth;
+            this.averageSalary = averageSalary;
+            this.recentEvents = recentEvents;
+            this.attendanceWindowStart = attendanceWindowStart;
+            this.attendanceByDay = attendanceByDay;
+            this.refreshedAt = refreshedAt;
+        }
+
+        public int getActiveEmployees() { return activeEmployees; }
+        public int getPayrollProcessedThisMonth() { return payrollProcessedThisMonth; }
+        public Double getAverageSalary() { return averageSalary; }
+        public List<RecentEvent> getRecentEvents() { return recentEvents; }
+        public LocalDateTime getRefreshedAt() { return refreshedAt; }
+
+        boolean covers(LocalDate startDate) {
+            return attendanceWindowStart != null && !startDate.isBefore(attendanceWindowStart);
+        }
+
+        /**
+         * Sum the cached per-day counts over an inclusive date range, keyed by status
+         */
+        Map<String, Integer> attendanceStatusCounts(LocalDate startDate, LocalDate endDate) {
+            Map<String, Integer> totals = new TreeMap<>();
+            for (Map<String, Integer> day : attendanceByDay.subMap(startDate, true, endDate, true).values()) {
+                day.forEach((status, count) -> totals.merge(status, count, Integer::sum));
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * One row of the dashboard's recent activity list
+     */
+    static final class RecentEvent {
+        private final int eventId;
+        private final String eventType;
+        private final String severity;
+        private final String username;
+        private final String description;
+        private final LocalDateTime timestamp;
+
+        RecentEvent(int eventId, String eventType, String severity, String username, String description,
+                    LocalDateTime timestamp) {
+            this.eventId = eventId;
+            this.eventType = eventType;
+            this.severity = severity;
+            this.username = username;
+            this.description = description;
+            this.timestamp = timestamp;
+        }
+
+        public String getEventType() { return eventType; }
+        public String getSeverity() { return severity; }
+        public String getUsername() { return username; }
+        public String getDescription() { return description; }
+        public LocalDateTime getTimestamp() { return timestamp; }
+    }
+}
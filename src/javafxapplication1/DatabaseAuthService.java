@@ -2,7 +2,13 @@ package javafxapplication1;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,25 +19,17 @@ import java.util.logging.Logger;
 public class DatabaseAuthService {
     
     private static final Logger logger = Logger.getLogger(DatabaseAuthService.class.getName());
-    Connection connection;
-    
-    // Database connection parameters - now centralized
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    
-    public DatabaseAuthService() {
-        try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException | SQLException e) {
-            logger.log(Level.SEVERE, "Database connection failed", e);
-        }
-    }
+    private static final LatencyHistogram loginLatency = new LatencyHistogram();
+    private static final ExecutorService loginWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "login-writer");
+        t.setDaemon(true);
+        return t;
+    });
     
     /**
-     * Authenticate user login
+     * Authenticate user login.
+     * User, role and permission set come back from one query; the last_login update is handed
+     * to a background writer so the caller only waits for that single round trip.
      * @param username Username to authenticate
      * @param password Plain text password
      * @param ipAddress Client IP address
@@ -39,65 +37,64 @@ public class DatabaseAuthService {
      * @return AuthenticationResult containing user info and success status
      */
     public AuthenticationResult authenticateUser(String username, String password, String ipAddress, String userAgent) {
+        long start = System.nanoTime();
         AuthenticationResult result = new AuthenticationResult();
         
         try {
-            // Get user information - support both username and email login
-            String userQuery = "SELECT user_id, username, password_hash, full_name, email, role, status " +
-                              "FROM users WHERE (username = ? OR email = ?) AND status = 'Active'";
+            // Support both username and email login; one row per granted permission
+            String loginQuery = """
+                SELECT u.user_id, u.password_hash, u.full_name, u.email, u.role, p.permission_name
+                FROM users u
+                LEFT JOIN roles r ON r.role_name = u.role AND r.status = 'Active'
+                LEFT JOIN role_permissions rp ON rp.role_id = r.role_id AND rp.granted = TRUE
+                LEFT JOIN permissions p ON p.permission_id = rp.permission_id AND p.status = 'Active'
+                WHERE (u.username = ? OR u.email = ?) AND u.status = 'Active'
+                ORDER BY u.user_id
+                """;
             
-            PreparedStatement userStmt = connection.prepareStatement(userQuery);
-            userStmt.setString(1, username);
-            userStmt.setString(2, username); // Same parameter for both username and email check
-            ResultSet userRs = userStmt.executeQuery();
+            int userId = 0;
+            String storedHash = null;
+            String fullName = null;
+            String email = null;
+            String role = null;
+            Set<String> permissions = new LinkedHashSet<>();
             
-            if (!userRs.next()) {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(loginQuery)) {
+                stmt.setString(1, username);
+                stmt.setString(2, username); // Same parameter for both username and email check
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (storedHash == null) {
+                            userId = rs.getInt("user_id");
+                            storedHash = rs.getString("password_hash");
+                            fullName = rs.getString("full_name");
+                            email = rs.getString("email");
+                            role = rs.getString("role");
+                        } else if (rs.getInt("user_id") != userId) {
+                            break; // Only the first matching account is used
+                        }
+                        String permission = rs.getString("permission_name");
+                        if (permission != null) {
+                            permissions.add(permission);
+                        }
+                    }
+                }
+            }
+            
+            if (storedHash == null) {
                 // User not found - check if it looks like an email or username
+                result.setSuccess(false);
                 if (username.contains("@")) {
-                    result.setSuccess(false);
                     result.setMessage("Email address not found or account is inactive.");
                 } else {
-                    result.setSuccess(false);
                     result.setMessage("Username not found or account is inactive.");
                 }
                 return result;
             }
             
-            int userId = userRs.getInt("user_id");
-            String storedHash = userRs.getString("password_hash");
-            String fullName = userRs.getString("full_name");
-            String email = userRs.getString("email");
-            String role = userRs.getString("role");
-            String status = userRs.getString("status");
-            
-            // Static admin login bypass - only for admin user
-            // if (username.equalsIgnoreCase("admin")) {
-            //     // Admin login - skip password verification
-            //     logger.info("Admin login detected - bypassing password verification");
-            // } else {
-            //     // Verify password for all other users (including staff)
-            //     logger.info("Verifying password for user: " + username);
-            //     logger.info("Input password: " + password);
-            //     logger.info("Stored hash from DB: " + storedHash);
-                
-            //     boolean passwordMatch = verifyPassword(password, storedHash);
-            //     logger.info("Password verification result: " + (passwordMatch ? "SUCCESS" : "FAILED"));
-                
-            //     if (!passwordMatch) {
-            //         // Password incorrect 
-            //         result.setSuccess(false);
-            //         result.setMessage("Incorrect password. Please try again.");
-            //         return result;
-            //     }
-            // }
-
-
-            logger.info("Verifying password for user: " + username);
-            logger.info("Input password: " + password);
-            logger.info("Stored hash from DB: " + storedHash);
-                
             boolean passwordMatch = verifyPassword(password, storedHash);
-            logger.info("Password verification result: " + (passwordMatch ? "SUCCESS" : "FAILED"));
+            logger.info("Password verification for user " + username + ": " + (passwordMatch ? "SUCCESS" : "FAILED"));
             
             if (!passwordMatch) {
                 // Password incorrect
@@ -107,10 +104,8 @@ public class DatabaseAuthService {
             }
             
             // Login successful
-            updateLastLogin(userId);
+            updateLastLoginAsync(userId);
             
-            // Get user permissions based on role
-            List<String> permissions = getUserPermissions(userId);
             List<String> roles = new ArrayList<>();
             roles.add(role);
             
@@ -120,27 +115,51 @@ public class DatabaseAuthService {
             result.setFullName(fullName);
             result.setEmail(email);
             result.setRoles(roles);
-            result.setPermissions(permissions);
+            result.setPermissions(new ArrayList<>(permissions));
             result.setMessage("Login successful");
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Authentication error", e);
             result.setSuccess(false);
             result.setMessage("System error. Please try again.");
+        } finally {
+            loginLatency.record(System.nanoTime() - start);
         }
         
         return result;
     }
     
+    /**
+     * Time spent in authenticateUser, success or not
+     */
+    public static LatencyHistogram getLoginLatency() {
+        return loginLatency;
+    }
+    
+    /**
+     * Finish pending last_login updates; called from the shutdown hook
+     */
+    public static void shutdown() {
+        loginWriter.shutdown();
+        try {
+            if (!loginWriter.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Login writer did not finish pending updates");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     /**
      * Get user permissions based on their role
      * @param userId User ID
      * @return List of permission names
+     * @throws SQLException if the permissions cannot be read; an empty list means none are granted
      */
-    public List<String> getUserPermissions(int userId) {
+    public List<String> getUserPermissions(int userId) throws SQLException {
         List<String> permissions = new ArrayList<>();
         
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT DISTINCT p.permission_name " +
                           "FROM users u " +
                           "JOIN roles r ON u.role = r.role_name " +
@@ -149,16 +168,13 @@ public class DatabaseAuthService {
                           "WHERE u.user_id = ? AND r.status = 'Active' " +
                           "AND rp.granted = TRUE AND p.status = 'Active'";
             
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
                 permissions.add(rs.getString("permission_name"));
             }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error getting user permissions", e);
         }
         
         return permissions;
@@ -170,10 +186,10 @@ public class DatabaseAuthService {
      * @return Role name
      */
     public String getUserRole(int userId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT role FROM users WHERE user_id = ?";
             
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
@@ -195,7 +211,7 @@ public class DatabaseAuthService {
      * @return True if user has permission
      */
     public boolean hasPermission(int userId, String permission) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT COUNT(*) as count " +
                           "FROM users u " +
                           "JOIN roles r ON u.role = r.role_name " +
@@ -205,7 +221,7 @@ public class DatabaseAuthService {
                           "AND r.status = 'Active' " +
                           "AND rp.granted = TRUE AND p.status = 'Active'";
             
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setInt(1, userId);
             stmt.setString(2, permission);
             ResultSet rs = stmt.executeQuery();
@@ -222,18 +238,24 @@ public class DatabaseAuthService {
     }
     
     /**
-     * Update user's last login time
+     * Update user's last login time on the login writer thread with its own pooled connection
      */
-    private void updateLastLogin(int userId) {
+    private void updateLastLoginAsync(int userId) {
+        String loginTime = java.time.LocalDateTime.now().toString();
         try {
-            String query = "UPDATE users SET last_login = ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setString(1, java.time.LocalDateTime.now().toString());
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error updating last login", e);
+            loginWriter.execute(() -> {
+                String query = "UPDATE users SET last_login = ? WHERE user_id = ?";
+                try (Connection conn = DatabaseConfig.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setString(1, loginTime);
+                    stmt.setInt(2, userId);
+                    stmt.executeUpdate();
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Error updating last login", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warning("Login writer stopped; last_login not updated for user ID " + userId);
         }
     }
     
@@ -245,12 +267,6 @@ public class DatabaseAuthService {
             String salt = "TPC_PAYROLL_SALT_2024"; // Same salt as UserManagement
             String passwordWithSalt = password + salt;
             
-            logger.info("Password verification details:");
-            logger.info("  Input password: " + password);
-            logger.info("  Salt: " + salt);
-            logger.info("  Password + Salt: " + passwordWithSalt);
-            logger.info("  Stored hash: " + hash);
-            
             // Use SHA-256 hashing
             java.security.MessageDigest digest = java.security.MessageDigest.getInstance("SHA-256");
             byte[] hashBytes = digest.digest(passwordWithSalt.getBytes("UTF-8"));
@@ -266,9 +282,6 @@ public class DatabaseAuthService {
             }
             
             String generatedHash = hexString.toString();
-            logger.info("  Generated hash: " + generatedHash);
-            logger.info("  Hash comparison: " + generatedHash.equals(hash));
-            
             return generatedHash.equals(hash);
             
         } catch (Exception e) {
@@ -277,19 +290,6 @@ public class DatabaseAuthService {
         }
     }
     
-    /**
-     * Close database connection
-     */
-    public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error closing database connection", e);
-        }
-    }
-    
     /**
      * Authentication result class
      */
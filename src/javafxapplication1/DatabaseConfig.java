@@ -3,13 +3,13 @@ package javafxapplication1;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 /**
  * Centralized database configuration management
- * Loads database settings from properties file
+ * Loads database settings from properties file and hands out
+ * connections from a shared, bounded connection pool
  */
 public class DatabaseConfig {
     private static final String CONFIG_FILE = "/database.properties";
@@ -20,6 +20,17 @@ public class DatabaseConfig {
     private static final String DEFAULT_DB_USER = "";
     private static final String DEFAULT_DB_PASSWORD = "";
     
+    // Pool defaults, overridable via db.pool.* properties
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+    private static final int DEFAULT_POOL_MIN_IDLE = 2;
+    private static final long DEFAULT_POOL_CONNECTION_TIMEOUT_MS = 30_000;
+    private static final long DEFAULT_POOL_VALIDATION_INTERVAL_MS = 30_000;
+    private static final long DEFAULT_POOL_MAX_LIFETIME_MS = 30 * 60_000;
+    private static final long DEFAULT_POOL_LEAK_DETECTION_MS = 5 * 60_000;
+    
+    private static volatile ConnectionPool pool;
+    private static boolean shutdownHookRegistered;
+    
     static {
         loadProperties();
     }
@@ -51,18 +62,97 @@ public class DatabaseConfig {
         return properties.getProperty("db.password", DEFAULT_DB_PASSWORD);
     }
     
+    public static String getProperty(String key, String defaultValue) {
+        String value = properties.getProperty(key, defaultValue);
+        return value != null ? value.trim() : null;
+    }
+    
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    public static long getLongProperty(String key, long defaultValue) {
+        try {
+            return Long.parseLong(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
     // Method to reload configuration if needed
-    public static void reloadConfiguration() {
+    public static synchronized void reloadConfiguration() {
         loadProperties();
+        // Connections already borrowed keep working; new requests use the new settings
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
     }
     
-    // Method to get database connection
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DatabaseConfig.class) {
+            if (pool == null) {
+                try {
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+                } catch (ClassNotFoundException e) {
+                    throw new SQLException("MySQL JDBC Driver not found", e);
+                }
+                pool = new ConnectionPool(getDbUrl(), getDbUser(), getDbPassword(),
+                        getPoolMaxSize(),
+                        getIntProperty("db.pool.minIdle", DEFAULT_POOL_MIN_IDLE),
+                        getLongProperty("db.pool.connectionTimeoutMs", DEFAULT_POOL_CONNECTION_TIMEOUT_MS),
+                        getLongProperty("db.pool.validationIntervalMs", DEFAULT_POOL_VALIDATION_INTERVAL_MS),
+                        getLongProperty("db.pool.maxLifetimeMs", DEFAULT_POOL_MAX_LIFETIME_MS),
+                        getLongProperty("db.pool.leakDetectionMs", DEFAULT_POOL_LEAK_DETECTION_MS));
+                if (!shutdownHookRegistered) {
+                    // Queued audit events are written before the pool closes
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        DashboardSnapshotService.getInstance().stop();
+                        SecurityEventRetention.getInstance().stop();
+                        HostIdentityService.getInstance().stop();
+                        EmployeeDirectory.getInstance().stop();
+                        DatabaseAuthService.shutdown();
+                        SecurityLogger.shutdown();
+                        shutdownPool();
+                    }, "db-pool-shutdown"));
+                    shutdownHookRegistered = true;
+                }
+            }
+            return pool;
+        }
+    }
+    
+    // Method to get database connection from the shared pool; close() returns it to the pool
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(getDbUrl(), getDbUser(), getDbPassword());
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+        return getPool().getConnection();
+    }
+    
+    public static int getPoolMaxSize() {
+        return Math.max(1, getIntProperty("db.pool.maxSize", DEFAULT_POOL_MAX_SIZE));
+    }
+    
+    /**
+     * Current pool counters, or null if no connection has been requested yet
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+    
+    public static synchronized void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
         }
     }
     
@@ -72,6 +162,20 @@ public class DatabaseConfig {
         System.out.println("URL: " + getDbUrl());
         System.out.println("User: " + getDbUser());
         System.out.println("Password: [HIDDEN]");
+        ConnectionPool.PoolStats stats = getPoolStats();
+        System.out.println("Pool: " + (stats != null ? stats : "not started"));
+        System.out.println("Security log: queued=" + SecurityLogger.getQueueDepth() 
+                           + ", written=" + SecurityLogger.getWrittenCount()
+                           + ", dropped=" + SecurityLogger.getDroppedCount()
+                           + ", failed=" + SecurityLogger.getFailedCount());
+        SecurityEventRetention.RetentionReport retention = SecurityEventRetention.getInstance().getLastReport();
+        System.out.println("Security retention: " + (retention != null ? retention : "not run yet"));
+        HostIdentityService identity = HostIdentityService.getInstance();
+        System.out.println("Client IP: " + identity.getIdentity()
+                           + ", age=" + identity.getStalenessMillis() + " ms"
+                           + ", resolutions=" + identity.getResolutionCount()
+                           + ", externalFailures=" + identity.getExternalFailureCount());
+        System.out.println("Login latency: " + DatabaseAuthService.getLoginLatency());
         System.out.println("=============================");
     }
 }
\ No newline at end of file
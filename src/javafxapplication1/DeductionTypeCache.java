@@ -0,0 +1,102 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Shared name -> id dictionary for deduction_types.
+ * Reloaded at the start of each pay run so deduction persistence can resolve ids from memory.
+ * Unknown names are created once under a lock on the caller's connection and committed straight
+ * away, so a type created by one pay run is immediately visible to any other run and survives a
+ * later rollback of the run's own writes. No second pooled connection is borrowed, so a worker
+ * holding one cannot wait on the pool for another.
+ */
+class DeductionTypeCache {
+
+    private static final Logger logger = Logger.getLogger(DeductionTypeCache.class.getName());
+    private static final DeductionTypeCache INSTANCE = new DeductionTypeCache();
+
+    private volatile Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Object creationLock = new Object();
+
+    private DeductionTypeCache() {
+    }
+
+    public static DeductionTypeCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Replace the dictionary with the current contents of deduction_types
+     */
+    public void reload(Connection conn) throws SQLException {
+        Map<String, Integer> loaded = new ConcurrentHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM deduction_types ORDER BY id")) {
+            while (rs.next()) {
+                // Keep the lowest id if a name was ever inserted twice
+                loaded.putIfAbsent(rs.getString("name"), rs.getInt("id"));
+            }
+        }
+        // Swap in one step; readers see either the old or the new dictionary, never a partial one
+        idsByName = loaded;
+        logger.fine("Loaded " + loaded.size() + " deduction types");
+    }
+
+    /**
+     * Resolve a deduction type id, creating the type if it does not exist yet. A created type is
+     * committed on conn, so call this before writing anything else in the current transaction.
+     */
+    public int resolve(Connection conn, String typeName) throws SQLException {
+        Integer id = idsByName.get(typeName);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (creationLock) {
+            id = idsByName.get(typeName);
+            if (id == null) {
+                id = findOrCreate(conn, typeName);
+                idsByName.put(typeName, id);
+            }
+            return id;
+        }
+    }
+
+    private int findOrCreate(Connection conn, String typeName) throws SQLException {
+        // Another process or a reload may have added it since the dictionary was loaded
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM deduction_types WHERE name = ? ORDER BY id LIMIT 1")) {
+            stmt.setString(1, typeName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
+            }
+        }
+
+        // If not found, create new deduction type
+        String insertSQL = "INSERT INTO deduction_types (name, is_active) VALUES (?, 1)";
+        int id = 1; // Default fallback
+        try (PreparedStatement stmt = conn.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, typeName);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    id = keys.getInt(1);
+                }
+            }
+        }
+        // Commit before the id is cached so no other run can pick up a type that is later rolled back
+        if (!conn.getAutoCommit()) {
+            conn.commit();
+        }
+        logger.info("Created deduction type: " + typeName);
+        return id;
+    }
+}
@@ -20,11 +20,6 @@ public class EditProfileController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(EditProfileController.class.getName());
     
-    // Database connection parameters
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    private Connection connection;
     
     // Note: Using SecurityLogger static class for security event logging
     
@@ -51,21 +46,9 @@ public class EditProfileController implements Initializable {
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        initializeDatabase();
         loadCurrentUserData();
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established for EditProfile");
-        } catch (ClassNotFoundException | SQLException e) {
-            logger.log(Level.SEVERE, "Database connection failed", e);
-            showErrorAlert("Database Error", "Cannot connect to database: " + e.getMessage());
-        }
-    }
-    
     /**
      * Load current user data from database into the form fields
      */
@@ -77,9 +60,9 @@ public class EditProfileController implements Initializable {
             return;
         }
         
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT user_id, username, full_name, email FROM users WHERE username = ? AND status = 'Active'";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, currentUser);
             ResultSet rs = stmt.executeQuery();
             
@@ -123,23 +106,23 @@ public class EditProfileController implements Initializable {
             return;
         }
         
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // Check for duplicate username (excluding current user)
-            if (!newUsername.equals(originalUsername) && isUsernameExists(newUsername)) {
+            if (!newUsername.equals(originalUsername) && isUsernameExists(conn, newUsername)) {
                 showErrorAlert("Validation Error", "Username already exists. Please choose a different username.");
                 usernameField.requestFocus();
                 return;
             }
             
             // Check for duplicate email (excluding current user)
-            if (!newEmail.equals(originalEmail) && isEmailExists(newEmail)) {
+            if (!newEmail.equals(originalEmail) && isEmailExists(conn, newEmail)) {
                 showErrorAlert("Validation Error", "Email address already exists. Please use a different email.");
                 emailField.requestFocus();
                 return;
             }
             
             String updateQuery = "UPDATE users SET full_name = ?, username = ?, email = ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(updateQuery);
+            PreparedStatement stmt = conn.prepareStatement(updateQuery);
             stmt.setString(1, newFullName);
             stmt.setString(2, newUsername);
             stmt.setString(3, newEmail);
@@ -179,10 +162,10 @@ public class EditProfileController implements Initializable {
         String currentPassword = currentPasswordField.getText();
         String newPassword = newPasswordField.getText();
         
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // First, verify current password
             String verifyQuery = "SELECT password_hash FROM users WHERE user_id = ?";
-            PreparedStatement verifyStmt = connection.prepareStatement(verifyQuery);
+            PreparedStatement verifyStmt = conn.prepareStatement(verifyQuery);
             verifyStmt.setInt(1, currentUserId);
             ResultSet rs = verifyStmt.executeQuery();
             
@@ -198,7 +181,7 @@ public class EditProfileController implements Initializable {
                 // Update to new password
                 String newPasswordHash = hashPassword(newPassword);
                 String updateQuery = "UPDATE users SET password_hash = ? WHERE user_id = ?";
-                PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
+                PreparedStatement updateStmt = conn.prepareStatement(updateQuery);
                 updateStmt.setString(1, newPasswordHash);
                 updateStmt.setInt(2, currentUserId);
                 
@@ -329,10 +312,10 @@ public class EditProfileController implements Initializable {
     /**
      * Check if username exists in database (excluding current user)
      */
-    private boolean isUsernameExists(String username) {
+    private boolean isUsernameExists(Connection conn, String username) {
         try {
             String query = "SELECT COUNT(*) FROM users WHERE username = ? AND user_id != ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, username);
             stmt.setInt(2, currentUserId);
             ResultSet rs = stmt.executeQuery();
@@ -351,10 +334,10 @@ public class EditProfileController implements Initializable {
     /**
      * Check if email exists in database (excluding current user)
      */
-    private boolean isEmailExists(String email) {
+    private boolean isEmailExists(Connection conn, String email) {
         try {
             String query = "SELECT COUNT(*) FROM users WHERE email = ? AND user_id != ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, email);
             stmt.setInt(2, currentUserId);
             ResultSet rs = stmt.executeQuery();
@@ -406,20 +389,6 @@ public class EditProfileController implements Initializable {
         return hashedInput.equals(hash);
     }
     
-    /**
-     * Close database connection when controller is destroyed
-     */
-    public void closeDatabaseConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.info("Database connection closed for EditProfile");
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error closing database connection", e);
-        }
-    }
-    
     /**
      * Clear all password fields
      */
@@ -9,6 +9,8 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
 import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
@@ -18,12 +20,6 @@ import javafx.scene.layout.GridPane;
 public class EmployeeController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(EmployeeController.class.getName());
-    
-    // Database connection parameters
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    private Connection connection;
 
     public static class Employee {
         private final int id;
@@ -101,7 +97,7 @@ public class EmployeeController implements Initializable {
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        initializeDatabase();
+        createEmployeeTable();
         setupTableColumns();
         loadEmployeesFromDatabase();
         
@@ -177,61 +173,11 @@ public class EmployeeController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
-    }
-    
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established for Employee management");
-            createEmployeeTable();
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Database connection failed", e);
-            showErrorAlert("Database Error", "Cannot connect to database. Using offline mode.");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void createEmployeeTable() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String createTableSQL = """
                 CREATE TABLE IF NOT EXISTS employees (
                     id INT AUTO_INCREMENT PRIMARY KEY,
@@ -244,7 +190,7 @@ public class EmployeeController implements Initializable {
                 )
             """;
             
-            PreparedStatement stmt = connection.prepareStatement(createTableSQL);
+            PreparedStatement stmt = conn.prepareStatement(createTableSQL);
             stmt.executeUpdate();
             logger.info("Employee table created/verified successfully");
             
@@ -278,45 +224,27 @@ public class EmployeeController implements Initializable {
     }
 
     private void loadEmployeesFromDatabase() {
-        if (connection == null) {
-            return;
-        }
-        
         try {
-            String query = "SELECT \n" +
-            "    e.id,\n" +
-            "    e.account_number,\n" +
-            "    e.full_name,\n" +
-            "    e.position,\n" +
-            "    e.salary_ref_id,\n" +
-            "    sr.monthly_salary AS salary,\n" +
-            "    sr.rate_per_day,\n" +
-            "    sr.half_day_rate,\n" +
-            "    sr.rate_per_minute\n" +
-            "\n" +
-            "FROM employees e\n" +
-            "LEFT JOIN salary_reference sr\n" +
-            "    ON e.salary_ref_id = sr.id\n" +
-            "ORDER BY e.id;";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            ResultSet rs = stmt.executeQuery();
+            // Employees come from the shared directory; only the small salary table is queried here
+            Map<Integer, Double> salaries = new HashMap<>();
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT id, monthly_salary FROM salary_reference");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    salaries.put(rs.getInt("id"), rs.getDouble("monthly_salary"));
+                }
+            }
             
             data.clear();
-            while (rs.next()) {
-                Integer salaryRefId = rs.getInt("salary_ref_id");
-                if (rs.wasNull()) {
-                    salaryRefId = null;
-                }
-                double salary = rs.getDouble("salary");
-                if (rs.wasNull()) {
-                    salary = 0.0;
-                }
+            for (EmployeeDirectory.EmployeeRecord record : EmployeeDirectory.getInstance().getAll()) {
+                Integer salaryRefId = record.getSalaryRefId();
+                double salary = salaryRefId != null ? salaries.getOrDefault(salaryRefId, 0.0) : 0.0;
                 
                 Employee employee = new Employee(
-                    rs.getInt("id"),
-                    rs.getString("account_number"),
-                    rs.getString("full_name"),
-                    rs.getString("position"),
+                    record.getId(),
+                    record.getAccountNumber(),
+                    record.getFullName(),
+                    record.getPosition(),
                     salary,
                     salaryRefId
                 );
@@ -519,14 +447,9 @@ public class EmployeeController implements Initializable {
     }
     
     private boolean addEmployeeToDatabase(Employee employee) {
-        if (connection == null) {
-            showErrorAlert("Database Error", "No database connection available.");
-            return false;
-        }
-        
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "INSERT INTO employees (account_number, full_name, position, salary_ref_id) VALUES (?, ?, ?, ?)";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, employee.getAccountNumber());
             stmt.setString(2, employee.getName());
             stmt.setString(3, employee.getPosition());
@@ -537,6 +460,7 @@ public class EmployeeController implements Initializable {
             }
             
             int rowsAffected = stmt.executeUpdate();
+            refreshEmployeeDirectory();
             logger.info("Employee added to database: " + employee.getName());
             return rowsAffected > 0;
             
@@ -552,14 +476,9 @@ public class EmployeeController implements Initializable {
     }
     
     private boolean updateEmployeeInDatabase(Employee employee) {
-        if (connection == null) {
-            showErrorAlert("Database Error", "No database connection available.");
-            return false;
-        }
-        
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "UPDATE employees SET account_number = ?, full_name = ?, position = ?, salary_ref_id = ? WHERE id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, employee.getAccountNumber());
             stmt.setString(2, employee.getName());
             stmt.setString(3, employee.getPosition());
@@ -571,6 +490,7 @@ public class EmployeeController implements Initializable {
             stmt.setInt(5, employee.getId());
             
             int rowsAffected = stmt.executeUpdate();
+            refreshEmployeeDirectory();
             logger.info("Employee updated in database: " + employee.getName());
             return rowsAffected > 0;
             
@@ -585,18 +505,26 @@ public class EmployeeController implements Initializable {
         }
     }
     
-    private boolean deleteEmployeeFromDatabase(Employee employee) {
-        if (connection == null) {
-            showErrorAlert("Database Error", "No database connection available.");
-            return false;
-        }
-        
+    /**
+     * The table is read back from the directory, so pick up this screen's own write first
+     */
+    private void refreshEmployeeDirectory() {
         try {
+            EmployeeDirectory.getInstance().refresh();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Employee directory refresh failed; the list may lag behind", e);
+            EmployeeDirectory.getInstance().invalidate();
+        }
+    }
+    
+    private boolean deleteEmployeeFromDatabase(Employee employee) {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "DELETE FROM employees WHERE id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setInt(1, employee.getId());
             
             int rowsAffected = stmt.executeUpdate();
+            EmployeeDirectory.getInstance().remove(employee.getId());
             logger.info("Employee deleted from database: " + employee.getName());
             return rowsAffected > 0;
             
@@ -695,9 +623,9 @@ public class EmployeeController implements Initializable {
         
         // Load salary references from database
         ObservableList<SalaryReferenceItem> salaryReferences = FXCollections.observableArrayList();
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String sql = "SELECT id, monthly_salary FROM salary_reference ORDER BY monthly_salary";
-            PreparedStatement stmt = connection.prepareStatement(sql);
+            PreparedStatement stmt = conn.prepareStatement(sql);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 salaryReferences.add(new SalaryReferenceItem(
@@ -0,0 +1,325 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application-wide, thread-safe view of the employees table, indexed by id and account_number.
+ * The table is loaded once; afterwards a refresh only fetches rows whose updated_at is at or
+ * after the newest one already seen, and a row-count check catches deletes made elsewhere.
+ * Readers get an immutable snapshot without locking and never wait on the database once the
+ * first load is done: a snapshot older than employee.directory.refreshSeconds, or one marked
+ * by invalidate(), is refreshed on a background thread while readers keep the current one.
+ * Failed refreshes back off exponentially. Callers that need current data, such as a pay run
+ * or a screen that has just written to employees, call refresh() themselves.
+ */
+class EmployeeDirectory {
+
+    private static final Logger logger = Logger.getLogger(EmployeeDirectory.class.getName());
+    private static final EmployeeDirectory INSTANCE = new EmployeeDirectory();
+
+    private static final String COLUMNS = "id, account_number, full_name, position, status, salary_ref_id, updated_at";
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final long maxAgeNanos = TimeUnit.SECONDS.toNanos(
+            Math.max(0, DatabaseConfig.getLongProperty("employee.directory.refreshSeconds", 30)));
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale;
+    
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "employee-directory-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    // Written under the lock by refresh(); no background attempt before retryAtNanos after a failure
+    private volatile int consecutiveFailures;
+    private volatile long retryAtNanos;
+
+    /**
+     * One employees row; immutable so it can be shared across threads
+     */
+    static final class EmployeeRecord {
+        private final int id;
+        private final String accountNumber;
+        private final String fullName;
+        private final String position;
+        private final String status;
+        private final Integer salaryRefId;
+        private final Timestamp updatedAt;
+
+        EmployeeRecord(int id, String accountNumber, String fullName, String position, String status,
+                       Integer salaryRefId, Timestamp updatedAt) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.fullName = fullName;
+            this.position = position;
+            this.status = status;
+            this.salaryRefId = salaryRefId;
+            this.updatedAt = updatedAt;
+        }
+
+        public int getId() { return id; }
+        public String getAccountNumber() { return accountNumber; }
+        public String getFullName() { return fullName; }
+        public String getPosition() { return position; }
+        public String getStatus() { return status; }
+        public Integer getSalaryRefId() { return salaryRefId; }
+        public Timestamp getUpdatedAt() { return updatedAt; }
+
+        public boolean isActive() {
+            return "Active".equals(status);
+        }
+    }
+
+    private static final class Snapshot {
+        final List<EmployeeRecord> all;
+        final Map<Integer, EmployeeRecord> byId;
+        final Map<String, EmployeeRecord> byAccountNumber;
+        final Timestamp watermark;
+        final long loadedAtNanos;
+
+        Snapshot(TreeMap<Integer, EmployeeRecord> records, Timestamp watermark) {
+            this.all = Collections.unmodifiableList(new ArrayList<>(records.values()));
+            this.byId = Collections.unmodifiableMap(new HashMap<>(records));
+            Map<String, EmployeeRecord> accounts = new HashMap<>();
+            for (EmployeeRecord record : all) {
+                if (record.accountNumber != null) {
+                    accounts.put(record.accountNumber, record);
+                }
+            }
+            this.byAccountNumber = Collections.unmodifiableMap(accounts);
+            this.watermark = watermark;
+            this.loadedAtNanos = System.nanoTime();
+        }
+    }
+
+    private EmployeeDirectory() {
+    }
+
+    public static EmployeeDirectory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * All employees ordered by id, whatever their status
+     */
+    public List<EmployeeRecord> getAll() throws SQLException {
+        return current().all;
+    }
+
+    /**
+     * Employees with status 'Active', ordered by id
+     */
+    public List<EmployeeRecord> getActive() throws SQLException {
+        List<EmployeeRecord> active = new ArrayList<>();
+        for (EmployeeRecord record : current().all) {
+            if (record.isActive()) {
+                active.add(record);
+            }
+        }
+        return active;
+    }
+
+    public EmployeeRecord findById(int id) throws SQLException {
+        return current().byId.get(id);
+    }
+
+    public EmployeeRecord findByAccountNumber(String accountNumber) throws SQLException {
+        return accountNumber != null ? current().byAccountNumber.get(accountNumber) : null;
+    }
+
+    /**
+     * Refresh in the background on the next read
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Drop a deleted employee without going back to the database
+     */
+    public synchronized void remove(int id) {
+        Snapshot loaded = snapshot;
+        if (loaded == null || !loaded.byId.containsKey(id)) {
+            return;
+        }
+        TreeMap<Integer, EmployeeRecord> records = new TreeMap<>(loaded.byId);
+        records.remove(id);
+        snapshot = new Snapshot(records, loaded.watermark);
+    }
+
+    /**
+     * Fetch changes now on the calling thread; loads the whole table on first use or when rows
+     * were deleted elsewhere. Throws if the database cannot be read, leaving the previous
+     * snapshot in place.
+     */
+    public synchronized void refresh() throws SQLException {
+        try {
+            fetchChanges();
+            consecutiveFailures = 0;
+        } catch (SQLException e) {
+            int failures = consecutiveFailures + 1;
+            consecutiveFailures = failures;
+            long backoff = MIN_BACKOFF_NANOS << Math.min(failures - 1, 20);
+            retryAtNanos = System.nanoTime() + Math.min(backoff, MAX_BACKOFF_NANOS);
+            throw e;
+        }
+    }
+    
+    /**
+     * Stop the background refresher; called from the shutdown hook
+     */
+    public void stop() {
+        refresher.shutdownNow();
+    }
+    
+    private void fetchChanges() throws SQLException {
+        Snapshot loaded = snapshot;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            if (loaded == null || loaded.watermark == null) {
+                snapshot = loadAll(conn);
+                stale = false;
+                return;
+            }
+
+            TreeMap<Integer, EmployeeRecord> records = new TreeMap<>(loaded.byId);
+            Timestamp watermark = loaded.watermark;
+            int changed = 0;
+            // >= because updated_at has one-second resolution; re-reading a row is harmless
+            String query = "SELECT " + COLUMNS + " FROM employees WHERE updated_at >= ?";
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setTimestamp(1, watermark);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        EmployeeRecord record = readRecord(rs);
+                        records.put(record.id, record);
+                        watermark = newer(watermark, record.updatedAt);
+                        changed++;
+                    }
+                }
+            }
+
+            if (countEmployees(conn) != records.size()) {
+                logger.info("Employee count changed outside the directory; reloading");
+                snapshot = loadAll(conn);
+            } else {
+                snapshot = new Snapshot(records, watermark);
+                logger.fine("Employee directory refreshed, " + changed + " rows re-read");
+            }
+            stale = false;
+        }
+    }
+
+    private Snapshot current() throws SQLException {
+        Snapshot loaded = snapshot;
+        if (loaded == null) {
+            return loadFirst();
+        }
+        if (stale || System.nanoTime() - loaded.loadedAtNanos >= maxAgeNanos) {
+            scheduleRefresh();
+        }
+        return loaded;
+    }
+    
+    /**
+     * Nothing to serve yet, so the first read waits for the load
+     */
+    private synchronized Snapshot loadFirst() throws SQLException {
+        if (snapshot == null) {
+            if (isBackingOff()) {
+                throw new SQLException("Employee directory could not be loaded; retrying after a delay");
+            }
+            refresh();
+        }
+        return snapshot;
+    }
+    
+    private void scheduleRefresh() {
+        if (isBackingOff() || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh();
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Employee directory refresh failed; serving the previous snapshot", e);
+                } finally {
+                    refreshQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshQueued.set(false);
+        }
+    }
+    
+    private boolean isBackingOff() {
+        return consecutiveFailures > 0 && System.nanoTime() - retryAtNanos < 0;
+    }
+
+    private Snapshot loadAll(Connection conn) throws SQLException {
+        TreeMap<Integer, EmployeeRecord> records = new TreeMap<>();
+        Timestamp watermark = null;
+        String query = "SELECT " + COLUMNS + " FROM employees";
+        try (PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                EmployeeRecord record = readRecord(rs);
+                records.put(record.id, record);
+                watermark = newer(watermark, record.updatedAt);
+            }
+        }
+        logger.info("Loaded " + records.size() + " employees into the directory");
+        // An empty table has no watermark; the next refresh loads it in full again
+        return new Snapshot(records, watermark);
+    }
+
+    private static int countEmployees(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM employees");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static EmployeeRecord readRecord(ResultSet rs) throws SQLException {
+        Integer salaryRefId = rs.getInt("salary_ref_id");
+        if (rs.wasNull()) {
+            salaryRefId = null;
+        }
+        return new EmployeeRecord(
+            rs.getInt("id"),
+            rs.getString("account_number"),
+            rs.getString("full_name"),
+            rs.getString("position"),
+            rs.getString("status"),
+            salaryRefId,
+            rs.getTimestamp("updated_at")
+        );
+    }
+
+    private static Timestamp newer(Timestamp a, Timestamp b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.after(a) ? b : a;
+    }
+}
@@ -46,18 +46,11 @@ public class GovernmentContributionsController implements Initializable {
     @FXML private Button deleteButton;
     
     private ObservableList<ContributionRecord> contributionData = FXCollections.observableArrayList();
-    private Connection connection;
     private static final Logger logger = Logger.getLogger(GovernmentContributionsController.class.getName());
     
-    // Database connection details
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupTableColumns();
-        initializeDatabase();
         loadContributionData();
         
         // Setup permission-based button visibility
@@ -141,45 +134,7 @@ public class GovernmentContributionsController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void setupTableColumns() {
@@ -192,16 +147,6 @@ public class GovernmentContributionsController implements Initializable {
         table.setItems(contributionData);
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established successfully");
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error initializing database connection", e);
-            showAlert("Database Error", "Could not connect to database: " + e.getMessage());
-        }
-    }
     
     @FXML
     private void onAdd() {
@@ -458,14 +403,9 @@ public class GovernmentContributionsController implements Initializable {
     }
     
     private boolean addContributionToDatabase(ContributionRecord record) {
-        if (connection == null) {
-            showAlert("Database Error", "No database connection available.");
-            return false;
-        }
-        
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String sql = "INSERT INTO deduction_types (name, fixed_amount, percentage, formula) VALUES (?, ?, ?, ?)";
-            PreparedStatement stmt = connection.prepareStatement(sql);
+            PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setString(1, record.getName());
             
             if (record.getFixedAmount() != null && !record.getFixedAmount().equals("N/A") && !record.getFixedAmount().isEmpty()) {
@@ -508,14 +448,9 @@ public class GovernmentContributionsController implements Initializable {
     }
     
     private boolean updateContributionInDatabase(ContributionRecord record) {
-        if (connection == null) {
-            showAlert("Database Error", "No database connection available.");
-            return false;
-        }
-        
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String sql = "UPDATE deduction_types SET name = ?, fixed_amount = ?, percentage = ?, formula = ? WHERE id = ?";
-            PreparedStatement stmt = connection.prepareStatement(sql);
+            PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setString(1, record.getName());
             
             if (record.getFixedAmount() != null && !record.getFixedAmount().equals("N/A") && !record.getFixedAmount().isEmpty()) {
@@ -560,14 +495,9 @@ public class GovernmentContributionsController implements Initializable {
     }
     
     private boolean deleteContributionFromDatabase(int id) {
-        if (connection == null) {
-            showAlert("Database Error", "No database connection available.");
-            return false;
-        }
-        
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String sql = "DELETE FROM deduction_types WHERE id = ?";
-            PreparedStatement stmt = connection.prepareStatement(sql);
+            PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, id);
             
             int rowsAffected = stmt.executeUpdate();
@@ -584,7 +514,8 @@ public class GovernmentContributionsController implements Initializable {
     private void searchContributions(String searchText) {
         String sql = "SELECT * FROM deduction_types WHERE name LIKE ? ORDER BY name";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             String searchPattern = "%" + searchText + "%";
             stmt.setString(1, searchPattern);
             
@@ -618,7 +549,8 @@ public class GovernmentContributionsController implements Initializable {
     private void loadContributionData() {
         String sql = "SELECT * FROM deduction_types ORDER BY name";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             contributionData.clear();
             
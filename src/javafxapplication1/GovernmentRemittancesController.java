@@ -19,11 +19,6 @@ import javafx.scene.layout.GridPane;
 
 public class GovernmentRemittancesController implements Initializable {
 
-    // Database connection constants
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-
     // Controls
     @FXML private TextField searchField;
     @FXML private ComboBox<String> typeFilter;
@@ -91,7 +86,7 @@ public class GovernmentRemittancesController implements Initializable {
 
     // Database connection method
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return DatabaseConfig.getConnection();
     }
 
     private void loadDeductionsFromDatabase() {
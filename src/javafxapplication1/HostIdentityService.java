@@ -0,0 +1,322 @@
+package javafxapplication1;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The address this workstation is recorded under in the audit log.
+ * It is resolved in the background and read from memory, so logging an event never waits on
+ * the network. A resolution publishes the local network address first and then tries the
+ * external lookup services. It runs at startup, every host.identity.refreshMinutes, and
+ * whenever the set of active interface addresses changes (checked every
+ * host.identity.watchSeconds). Set host.identity.externalLookup=false on offline networks.
+ */
+class HostIdentityService {
+
+    private static final Logger logger = Logger.getLogger(HostIdentityService.class.getName());
+    private static final HostIdentityService INSTANCE = new HostIdentityService();
+
+    private static final String LOOPBACK = "127.0.0.1";
+    private static final String[] EXTERNAL_SERVICES = {
+        "http://checkip.amazonaws.com/",
+        "http://ipinfo.io/ip",
+        "http://icanhazip.com/"
+    };
+
+    private final long refreshMinutes = Math.max(1, DatabaseConfig.getLongProperty("host.identity.refreshMinutes", 30));
+    private final long watchSeconds = Math.max(1, DatabaseConfig.getLongProperty("host.identity.watchSeconds", 15));
+    private final int lookupTimeoutMs = Math.max(100, DatabaseConfig.getIntProperty("host.identity.timeoutMs", 2000));
+    private final boolean externalLookup = Boolean.parseBoolean(
+            DatabaseConfig.getProperty("host.identity.externalLookup", "true"));
+
+    private final AtomicLong resolutions = new AtomicLong();
+    private final AtomicLong externalFailures = new AtomicLong();
+
+    private volatile ScheduledExecutorService scheduler;
+    // Set for good by stop(), so events logged during shutdown do not start a new lookup
+    private volatile boolean stopped;
+    private volatile Identity current = new Identity(LOOPBACK, Source.DEFAULT, 0, 0);
+    private volatile String networkFingerprint = "";
+
+    /**
+     * Where the current address came from
+     */
+    enum Source { DEFAULT, LOCAL_NETWORK, EXTERNAL }
+
+    /**
+     * An address together with when and how it was resolved
+     */
+    static final class Identity {
+        final String address;
+        final Source source;
+        final long resolvedAtMillis;
+        final long resolveMillis;
+
+        Identity(String address, Source source, long resolvedAtMillis, long resolveMillis) {
+            this.address = address;
+            this.source = source;
+            this.resolvedAtMillis = resolvedAtMillis;
+            this.resolveMillis = resolveMillis;
+        }
+
+        @Override
+        public String toString() {
+            return address + " (" + source + ", resolved in " + resolveMillis + " ms)";
+        }
+    }
+
+    private HostIdentityService() {
+    }
+
+    public static HostIdentityService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Resolve now in the background and keep the address fresh. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (scheduler != null || stopped) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "host-identity");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(this::resolve);
+        scheduler.scheduleWithFixedDelay(this::resolve, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        scheduler.scheduleWithFixedDelay(this::checkNetworkChange, watchSeconds, watchSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop resolving for the rest of the process (shutdown hook); getAddress() keeps serving
+     * the last address
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * The last resolved address; never blocks. Falls back to 127.0.0.1 until the first resolution.
+     */
+    public String getAddress() {
+        if (scheduler == null && !stopped) {
+            start();
+        }
+        return current.address;
+    }
+
+    public Identity getIdentity() {
+        return current;
+    }
+
+    /**
+     * How long ago the current address was resolved, or -1 if it never was
+     */
+    public long getStalenessMillis() {
+        Identity identity = current;
+        return identity.resolvedAtMillis > 0 ? System.currentTimeMillis() - identity.resolvedAtMillis : -1;
+    }
+
+    public long getResolutionCount() {
+        return resolutions.get();
+    }
+
+    public long getExternalFailureCount() {
+        return externalFailures.get();
+    }
+
+    /**
+     * Ask for a fresh resolution, e.g. after the user changed networks
+     */
+    public void requestRefresh() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.execute(this::resolve);
+        }
+    }
+
+    private void resolve() {
+        long start = System.currentTimeMillis();
+        try {
+            String fingerprint = fingerprintInterfaces();
+            boolean networkChanged = !fingerprint.equals(networkFingerprint);
+            networkFingerprint = fingerprint;
+
+            // Publish the local address at once unless a still-valid external one is known
+            boolean replaceable = current.source != Source.EXTERNAL || networkChanged;
+            String localIP = getLocalNetworkIP();
+            if (localIP != null && replaceable) {
+                publish(localIP, Source.LOCAL_NETWORK, start);
+            }
+
+            String externalIP = externalLookup ? getExternalIP() : null;
+            if (externalIP != null) {
+                publish(externalIP, Source.EXTERNAL, start);
+            } else {
+                if (externalLookup) {
+                    externalFailures.incrementAndGet();
+                }
+                // An offline tick on the same network keeps the external address
+                if (replaceable) {
+                    publish(localIP != null ? localIP : LOOPBACK,
+                            localIP != null ? Source.LOCAL_NETWORK : Source.DEFAULT, start);
+                }
+            }
+            resolutions.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not determine client IP", e);
+        }
+    }
+
+    private void publish(String address, Source source, long start) {
+        Identity previous = current;
+        long now = System.currentTimeMillis();
+        current = new Identity(address, source, now, now - start);
+        if (!address.equals(previous.address)) {
+            logger.info("Client IP is now " + current);
+        }
+    }
+
+    private void checkNetworkChange() {
+        String fingerprint = fingerprintInterfaces();
+        if (!fingerprint.equals(networkFingerprint)) {
+            logger.info("Network interfaces changed; re-resolving client IP");
+            resolve();
+        }
+    }
+
+    /**
+     * Active non-loopback interface addresses; cheap, no network traffic
+     */
+    private static String fingerprintInterfaces() {
+        StringBuilder fingerprint = new StringBuilder();
+        try {
+            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+            if (interfaces == null) {
+                return "";
+            }
+            for (NetworkInterface networkInterface : Collections.list(interfaces)) {
+                if (networkInterface.isLoopback() || !networkInterface.isUp()) {
+                    continue;
+                }
+                for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    fingerprint.append(networkInterface.getName()).append('=')
+                               .append(address.getHostAddress()).append(';');
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Could not enumerate network interfaces", e);
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Get external IP address by checking with online service
+     */
+    private String getExternalIP() {
+        // Try multiple services for reliability
+        for (String service : EXTERNAL_SERVICES) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(service).openConnection();
+                connection.setConnectTimeout(lookupTimeoutMs);
+                connection.setReadTimeout(lookupTimeoutMs);
+                connection.setRequestMethod("GET");
+                try {
+                    if (connection.getResponseCode() == 200) {
+                        try (BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(connection.getInputStream(), StandardCharsets.US_ASCII))) {
+                            String line = reader.readLine();
+                            String ip = line != null ? line.trim() : null;
+                            if (isValidIP(ip)) {
+                                return ip;
+                            }
+                        }
+                    }
+                } finally {
+                    connection.disconnect();
+                }
+            } catch (Exception e) {
+                // Try next service
+                logger.log(Level.FINE, "External IP lookup via " + service + " failed", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get local network IP address
+     */
+    private static String getLocalNetworkIP() {
+        try {
+            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+            if (interfaces == null) {
+                return null;
+            }
+            while (interfaces.hasMoreElements()) {
+                NetworkInterface networkInterface = interfaces.nextElement();
+
+                // Skip loopback and inactive interfaces
+                if (networkInterface.isLoopback() || !networkInterface.isUp()) {
+                    continue;
+                }
+
+                Enumeration<InetAddress> addresses = networkInterface.getInetAddresses();
+                while (addresses.hasMoreElements()) {
+                    InetAddress address = addresses.nextElement();
+
+                    // We want private IPv4 addresses (192.168.x.x, 10.x.x.x, 172.16-31.x.x)
+                    if (address instanceof Inet4Address && address.isSiteLocalAddress()) {
+                        return address.getHostAddress();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Could not get local network IP", e);
+        }
+        return null;
+    }
+
+    /**
+     * Check if IP address is a valid IPv4 address
+     */
+    private static boolean isValidIP(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return false;
+        }
+        String[] parts = ip.split("\\.");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            for (String part : parts) {
+                int num = Integer.parseInt(part);
+                if (num < 0 || num > 255) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package javafxapplication1;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -32,11 +33,6 @@ public class ImportExportController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(ImportExportController.class.getName());
     
-    // Database connection constants
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-
     public static class ExportResult {
         public final int recordsExported;
         public final String exportFilename;
@@ -104,6 +100,13 @@ public class ImportExportController implements Initializable {
     private final ObservableList<ImportPreviewData> previewData = FXCollections.observableArrayList();
     
     private File selectedImportFile;
+    private BiometricPreviewList biometricPreview;
+    // Only used on the FX thread, by the preview table
+    private final BiometricRecordParser previewParser = new BiometricRecordParser();
+    private Task<BiometricLineIndex> pendingIndexTask;
+    private Task<int[]> pendingFilterTask;
+    // Set by the import task, read when it succeeds
+    private volatile BiometricAttendanceImporter.ImportResult lastImportResult;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -192,107 +195,32 @@ public class ImportExportController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try (Connection conn = getConnection()) {
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            try (PreparedStatement getRoleStmt = conn.prepareStatement(getRoleQuery)) {
-                getRoleStmt.setString(1, username);
-                try (ResultSet roleRs = getRoleStmt.executeQuery()) {
-                    if (roleRs.next()) {
-                        String userRole = roleRs.getString("role");
-                        
-                        // Check if role has the permission
-                        String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                                   "JOIN roles r ON rp.role_id = r.role_id " +
-                                                   "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                                   "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                        try (PreparedStatement checkPermissionStmt = conn.prepareStatement(checkPermissionQuery)) {
-                            checkPermissionStmt.setString(1, userRole);
-                            checkPermissionStmt.setString(2, permissionName);
-                            try (ResultSet permissionRs = checkPermissionStmt.executeQuery()) {
-                                if (permissionRs.next()) {
-                                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                                    return hasPermission;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
 
     // Database connection method
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return DatabaseConfig.getConnection();
     }
     
-    // Cache for employee names to speed up lookups
-    private Map<String, String> employeeNameCache = new HashMap<>();
-    
-    // Method to lookup employee fullname by account number with caching
+    // Method to lookup employee fullname by account number from the shared employee directory
     private String lookupEmployeeFullname(String accountNumber) {
-        // Check cache first for faster performance
-        if (employeeNameCache.containsKey(accountNumber)) {
-            return employeeNameCache.get(accountNumber);
-        }
-        
-        String selectSQL = "SELECT full_name FROM employees WHERE account_number = ?";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(selectSQL)) {
-            
-            stmt.setString(1, accountNumber);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String fullname = rs.getString("full_name");
-                    if (fullname != null && !fullname.trim().isEmpty()) {
-                        // Cache the result for future lookups
-                        employeeNameCache.put(accountNumber, fullname);
-                        return fullname;
-                    }
-                }
+        try {
+            EmployeeDirectory.EmployeeRecord employee = EmployeeDirectory.getInstance().findByAccountNumber(accountNumber);
+            if (employee != null && employee.getFullName() != null && !employee.getFullName().trim().isEmpty()) {
+                return employee.getFullName();
             }
-            
         } catch (SQLException e) {
             System.err.println("Error looking up employee: " + e.getMessage());
         }
-        
-        // Cache the N/A result to avoid repeated database queries
-        employeeNameCache.put(accountNumber, "N/A");
         return "N/A"; // Return N/A if not found in database
     }
     
-    // Bulk load all employee names into cache for maximum performance
+    // Load the employee directory up front so preview and import lookups are served from memory
     private void preloadEmployeeCache() {
-        String selectSQL = "SELECT account_number, full_name FROM employees WHERE status = 'Active'";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(selectSQL);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            employeeNameCache.clear(); // Clear existing cache
-            
-            while (rs.next()) {
-                String accountNumber = rs.getString("account_number");
-                String fullname = rs.getString("full_name");
-                
-                if (accountNumber != null && fullname != null && !fullname.trim().isEmpty()) {
-                    employeeNameCache.put(accountNumber, fullname);
-                }
-            }
-            
-            System.out.println("Preloaded " + employeeNameCache.size() + " employee records into cache");
-            
+        try {
+            int count = EmployeeDirectory.getInstance().getAll().size();
+            System.out.println("Employee directory ready with " + count + " employee records");
         } catch (SQLException e) {
             System.err.println("Error preloading employee cache: " + e.getMessage());
         }
@@ -592,40 +520,119 @@ public class ImportExportController implements Initializable {
         String dateText = dateFilter.getText().trim();
         String logType = logTypeFilter.getValue();
         
+        if (pendingFilterTask != null) {
+            pendingFilterTask.cancel();
+            pendingFilterTask = null;
+        }
+        if (biometricPreview != null) {
+            applyBiometricFilters(biometricPreview, searchText, dateText, logType);
+            return;
+        }
+        
         ObservableList<ImportPreviewData> filteredData = FXCollections.observableArrayList();
         
         for (ImportPreviewData data : previewData) {
-            boolean matches = true;
-            
-            // Search by account number (now in col2) or fullname (col1)
-            if (!searchText.isEmpty()) {
-                boolean accountMatch = data.getCol2() != null && data.getCol2().toLowerCase().contains(searchText);
-                boolean nameMatch = data.getCol1() != null && data.getCol1().toLowerCase().contains(searchText);
-                if (!accountMatch && !nameMatch) {
-                    matches = false;
-                }
+            if (matchesFilters(data, searchText, dateText, logType)) {
+                filteredData.add(data);
             }
-            
-            // Filter by date (now in col3)
-            if (!dateText.isEmpty() && data.getCol3() != null) {
-                if (!data.getCol3().contains(dateText)) {
-                    matches = false;
-                }
+        }
+        
+        importPreviewTable.setItems(filteredData);
+    }
+    
+    private static boolean matchesFilters(ImportPreviewData data, String searchText, String dateText, String logType) {
+        // Search by account number (now in col2) or fullname (col1)
+        if (!searchText.isEmpty()) {
+            boolean accountMatch = data.getCol2() != null && data.getCol2().toLowerCase().contains(searchText);
+            boolean nameMatch = data.getCol1() != null && data.getCol1().toLowerCase().contains(searchText);
+            if (!accountMatch && !nameMatch) {
+                return false;
             }
-            
-            // Filter by log type (now in col4)
-            if (logType != null && !"All Log Types".equals(logType) && data.getCol4() != null) {
-                if (!data.getCol4().equals(logType)) {
-                    matches = false;
-                }
+        }
+        
+        // Filter by date (now in col3)
+        if (!dateText.isEmpty() && data.getCol3() != null) {
+            if (!data.getCol3().contains(dateText)) {
+                return false;
             }
-            
-            if (matches) {
-                filteredData.add(data);
+        }
+        
+        // Filter by log type (now in col4)
+        if (logType != null && !"All Log Types".equals(logType) && data.getCol4() != null) {
+            if (!data.getCol4().equals(logType)) {
+                return false;
             }
         }
         
-        importPreviewTable.setItems(filteredData);
+        return true;
+    }
+    
+    /**
+     * Filter a file-backed preview. The matching line numbers are collected on a background
+     * thread; the table then shows just those lines, still parsed only when on screen.
+     */
+    private void applyBiometricFilters(BiometricPreviewList source, String searchText, String dateText, String logType) {
+        if (searchText.isEmpty() && dateText.isEmpty() && (logType == null || "All Log Types".equals(logType))) {
+            importPreviewTable.setItems(source);
+            return;
+        }
+        
+        BiometricLineIndex index = source.index;
+        Task<int[]> filterTask = new Task<int[]>() {
+            @Override
+            protected int[] call() {
+                // previewParser belongs to the FX thread
+                BiometricRecordParser parser = new BiometricRecordParser();
+                int lineCount = index.getLineCount();
+                int[] matches = new int[1024];
+                int found = 0;
+                for (int row = 0; row < lineCount; row++) {
+                    if (row % 4096 == 0) {
+                        if (isCancelled()) {
+                            return null;
+                        }
+                        updateProgress(row, lineCount);
+                    }
+                    ImportPreviewData data = createBiometricPreviewRow(parser, row + 1, index.line(row));
+                    if (matchesFilters(data, searchText, dateText, logType)) {
+                        if (found == matches.length) {
+                            matches = Arrays.copyOf(matches, found * 2);
+                        }
+                        matches[found++] = row;
+                    }
+                }
+                return Arrays.copyOf(matches, found);
+            }
+        };
+        pendingFilterTask = filterTask;
+        
+        showFileLoadingProgress("Filtering preview...", String.format("Matching %,d lines...", index.getLineCount()));
+        if (fileProgressBar != null) {
+            fileProgressBar.progressProperty().bind(filterTask.progressProperty());
+        }
+        
+        filterTask.setOnSucceeded(e -> {
+            hideFileLoadingProgress();
+            // Filters changed or another file was loaded while this one ran
+            if (pendingFilterTask != filterTask || biometricPreview != source) {
+                return;
+            }
+            pendingFilterTask = null;
+            importPreviewTable.setItems(new FilteredPreviewList(source, filterTask.getValue()));
+            importPreviewTable.scrollTo(0);
+        });
+        filterTask.setOnFailed(e -> {
+            hideFileLoadingProgress();
+            if (pendingFilterTask == filterTask) {
+                pendingFilterTask = null;
+                logger.log(Level.WARNING, "Filtering the import preview failed", filterTask.getException());
+                showAlert("Error filtering preview: " + filterTask.getException().getMessage());
+            }
+        });
+        
+        Thread filterThread = new Thread(filterTask, "import-preview-filter");
+        filterThread.setDaemon(true);
+        filterThread.start();
     }
 
     private void performImport(String dataType, String fileFormat) {
@@ -673,10 +680,17 @@ public class ImportExportController implements Initializable {
                     );
                 }
                 
+                BiometricAttendanceImporter.ImportResult details = lastImportResult;
+                String problems = "";
+                if (details != null && (details.getSkippedLines() > 0 || details.getFailedRows() > 0)) {
+                    problems = "\nMalformed lines skipped: " + details.getSkippedLines() +
+                               "\nRows rejected by the database: " + details.getFailedRows() +
+                               (details.getFailedRows() > 0 ? " (line numbers are in the application log)" : "");
+                }
                 showSuccessAlert("Import completed successfully!\n" + 
                                "Data Type: " + dataType + "\n" +
                                "Format: " + fileFormat + "\n" +
-                               "Records imported: " + recordsImported);
+                               "Records imported: " + recordsImported + problems);
                 
                 // Reset the selected file and clear file info
                 selectedImportFile = null;
@@ -787,6 +801,7 @@ public class ImportExportController implements Initializable {
     private void loadPreviewData() {
         if (selectedImportFile == null) return;
         
+        discardBiometricPreview();
         previewData.clear();
         
         String fileFormat = importFileFormat.getValue();
@@ -800,116 +815,204 @@ public class ImportExportController implements Initializable {
     }
     
     private void loadBiometricPreviewData() {
-        previewData.clear();
-        
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(selectedImportFile.getAbsolutePath()));
-            int lineNumber = 0;
-            int validRecords = 0;
-            int errorRecords = 0;
-            int emptyLines = 0;
-            
-            // Show ALL lines from the file for complete verification
-            for (String originalLine : lines) {
-                lineNumber++;
-                String trimmedLine = originalLine.trim();
-                
-                // Show empty lines too for verification
-                if (trimmedLine.isEmpty()) {
-                    emptyLines++;
-                    previewData.add(new ImportPreviewData(
-                        "N/A",  // Fullname
-                        "EMPTY", // Account Number
-                        "",      // Date & Time
-                        "EMPTY_LINE", // Log Type
-                        originalLine.isEmpty() ? "[Empty Line]" : originalLine, // Raw Data
-                        "Line " + lineNumber + ": Empty line" // Status
-                    ));
-                    continue;
-                }
-                
-                try {
-                    // Parse biometric log format: account_number	datetime	1	0/1	1	0
-                    String[] parts = trimmedLine.split("\\s+");
-                    if (parts.length >= 6) {
-                        String accountNumber = parts[0].trim();
-                        String dateTime = parts[1] + " " + parts[2];
-                        int inOutFlag = Integer.parseInt(parts[4]); // 0=in, 1=out
-                        
-                        // Determine log type
-                        LocalDateTime logDateTime = LocalDateTime.parse(dateTime, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-                        String logType = determineLogType(logDateTime, inOutFlag == 0);
-                        
-                        // Lookup employee fullname from database
-                        String fullname = lookupEmployeeFullname(accountNumber);
-                        
-                        validRecords++;
-                        previewData.add(new ImportPreviewData(
-                            fullname,     // Fullname (from database or N/A)
-                            accountNumber, // Account Number
-                            dateTime,     // Date & Time
-                            logType,      // Log Type
-                            originalLine, // Raw Data
-                            "Line " + lineNumber + ": Valid ✓" // Status
-                        ));
-                    } else {
-                        // Show lines with insufficient fields
-                        errorRecords++;
-                        previewData.add(new ImportPreviewData(
-                            "N/A",        // Fullname
-                            "INVALID",    // Account Number
-                            "Insufficient fields", // Date & Time
-                            "FORMAT_ERROR", // Log Type
-                            originalLine, // Raw Data
-                            "Line " + lineNumber + ": Only " + parts.length + " fields (need 6) ✗" // Status
-                        ));
-                    }
-                } catch (Exception e) {
-                    // Add problematic lines for review
-                    errorRecords++;
-                    previewData.add(new ImportPreviewData(
-                        "N/A",        // Fullname
-                        "ERROR",      // Account Number
-                        "Parse failed", // Date & Time
-                        "PARSE_ERROR", // Log Type
-                        originalLine, // Raw Data
-                        "Line " + lineNumber + ": " + e.getMessage() + " ✗" // Status
-                    ));
-                }
+        File file = selectedImportFile;
+        Task<BiometricLineIndex> indexTask = new Task<BiometricLineIndex>() {
+            @Override
+            protected BiometricLineIndex call() throws Exception {
+                updateMessage("Indexing " + file.getName() + "...");
+                return BiometricLineIndex.build(file.toPath(), (bytesScanned, totalBytes) -> {
+                    updateProgress(bytesScanned, totalBytes);
+                    updateMessage(String.format("Indexing %s: %,d of %,d KB", file.getName(),
+                            bytesScanned / 1024, totalBytes / 1024));
+                });
             }
+        };
+        pendingIndexTask = indexTask;
+
+        showFileLoadingProgress("Loading preview...", "Indexing " + file.getName() + "...");
+        if (fileProgressBar != null) {
+            fileProgressBar.progressProperty().bind(indexTask.progressProperty());
+        }
+        indexTask.messageProperty().addListener((obs, oldMessage, newMessage) -> {
+            if (fileProgressLabel != null && !fileProgressLabel.textProperty().isBound()) {
+                fileProgressLabel.setText(newMessage);
+            }
+        });
+
+        indexTask.setOnSucceeded(e -> {
+            hideFileLoadingProgress();
+            // A newer file or a database refresh replaced this preview while it was indexing
+            if (pendingIndexTask != indexTask) {
+                return;
+            }
+            pendingIndexTask = null;
+            showBiometricPreview(file, indexTask.getValue());
+        });
+        indexTask.setOnFailed(e -> {
+            hideFileLoadingProgress();
+            if (pendingIndexTask == indexTask) {
+                pendingIndexTask = null;
+                showAlert("Error reading file: " + indexTask.getException().getMessage());
+            }
+        });
+
+        Thread indexThread = new Thread(indexTask, "import-preview-indexer");
+        indexThread.setDaemon(true);
+        indexThread.start();
+    }
+
+    private void showBiometricPreview(File file, BiometricLineIndex index) {
+        biometricPreview = new BiometricPreviewList(index);
+        importPreviewTable.setItems(biometricPreview);
+        importPreviewTable.scrollTo(0);
+
+        String summary = String.format("File loaded: %,d total lines (%,d valid, %,d errors, %,d empty)",
+            index.getLineCount(), index.getValidLines(), index.getInvalidLines(), index.getEmptyLines());
+        importFileLabel.setText(summary);
+        logger.info("Preview of " + file.getName() + ": " + summary);
+    }
+
+    /**
+     * Build the preview row for one line of a biometric log
+     */
+    private ImportPreviewData createBiometricPreviewRow(BiometricRecordParser parser, int lineNumber, String originalLine) {
+        // Parse biometric log format: account_number	datetime	1	0/1	1	0
+        if (parser.parse(originalLine)) {
+            String accountNumber = parser.getAccountNumber();
             
-            // Make variables effectively final for lambda
-            final int finalLineNumber = lineNumber;
-            final int finalValidRecords = validRecords;
-            final int finalErrorRecords = errorRecords;
-            final int finalEmptyLines = emptyLines;
-            
-            // Update UI to show summary
-            javafx.application.Platform.runLater(() -> {
-                importPreviewTable.setItems(previewData);
-                
-                // Show summary in status or console
-                System.out.println("File Preview Summary:");
-                System.out.println("Total lines: " + finalLineNumber);
-                System.out.println("Valid records: " + finalValidRecords);
-                System.out.println("Error records: " + finalErrorRecords);
-                System.out.println("Empty lines: " + finalEmptyLines);
-                
-                // You could also show this in a status label if you add one to the FXML
-                String summary = String.format("File loaded: %d total lines (%d valid, %d errors, %d empty)", 
-                    finalLineNumber, finalValidRecords, finalErrorRecords, finalEmptyLines);
-                importFileLabel.setText(summary);
-            });
+            // Lookup employee fullname from database
+            String fullname = lookupEmployeeFullname(accountNumber);
             
-        } catch (IOException e) {
-            showAlert("Error reading file: " + e.getMessage());
+            return new ImportPreviewData(
+                fullname,     // Fullname (from database or N/A)
+                accountNumber, // Account Number
+                parser.getDateTimeText(), // Date & Time
+                parser.getLogType(), // Log Type
+                originalLine, // Raw Data
+                "Line " + lineNumber + ": Valid ✓" // Status
+            );
+        }
+        
+        // Show empty lines too for verification
+        if (parser.isBlank()) {
+            return new ImportPreviewData(
+                "N/A",  // Fullname
+                "EMPTY", // Account Number
+                "",      // Date & Time
+                "EMPTY_LINE", // Log Type
+                originalLine.isEmpty() ? "[Empty Line]" : originalLine, // Raw Data
+                "Line " + lineNumber + ": Empty line" // Status
+            );
+        }
+        
+        if (parser.getFieldCount() < BiometricRecordParser.MIN_FIELDS) {
+            // Show lines with insufficient fields
+            return new ImportPreviewData(
+                "N/A",        // Fullname
+                "INVALID",    // Account Number
+                "Insufficient fields", // Date & Time
+                "FORMAT_ERROR", // Log Type
+                originalLine, // Raw Data
+                "Line " + lineNumber + ": " + parser.getFailure() + " ✗" // Status
+            );
+        }
+        
+        // Add problematic lines for review
+        return new ImportPreviewData(
+            "N/A",        // Fullname
+            "ERROR",      // Account Number
+            "Parse failed", // Date & Time
+            "PARSE_ERROR", // Log Type
+            originalLine, // Raw Data
+            "Line " + lineNumber + ": " + parser.getFailure() + " ✗" // Status
+        );
+    }
+
+    /**
+     * Read-only table model over a BiometricLineIndex. Rows are parsed when the TableView
+     * asks for them, which is only for the visible cells, and the most recent ones are kept.
+     */
+    private class BiometricPreviewList extends ObservableListBase<ImportPreviewData> {
+        private static final int CACHED_ROWS = 512;
+
+        private final BiometricLineIndex index;
+        private final Map<Integer, ImportPreviewData> recentRows =
+            new LinkedHashMap<Integer, ImportPreviewData>(CACHED_ROWS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ImportPreviewData> eldest) {
+                    return size() > CACHED_ROWS;
+                }
+            };
+
+        BiometricPreviewList(BiometricLineIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public ImportPreviewData get(int row) {
+            ImportPreviewData data = recentRows.get(row);
+            if (data == null) {
+                data = createBiometricPreviewRow(previewParser, row + 1, index.line(row));
+                recentRows.put(row, data);
+            }
+            return data;
+        }
+
+        @Override
+        public int size() {
+            return index.getLineCount();
+        }
+    }
+
+    /**
+     * The lines of a biometric preview that passed the filters, by 0-based line number
+     */
+    private class FilteredPreviewList extends ObservableListBase<ImportPreviewData> {
+        private final BiometricPreviewList source;
+        private final int[] rows;
+
+        FilteredPreviewList(BiometricPreviewList source, int[] rows) {
+            this.source = source;
+            this.rows = rows;
+        }
+
+        @Override
+        public ImportPreviewData get(int row) {
+            return source.get(rows[row]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+
+    /**
+     * Drop any file-backed preview so the table shows previewData again
+     */
+    private void discardBiometricPreview() {
+        if (pendingIndexTask != null) {
+            pendingIndexTask.cancel();
+            pendingIndexTask = null;
+        }
+        if (pendingFilterTask != null) {
+            pendingFilterTask.cancel();
+            pendingFilterTask = null;
         }
+        biometricPreview = null;
     }
     
     private void loadGenericPreviewData() {
         try {
-            List<String> lines = Files.readAllLines(Paths.get(selectedImportFile.getAbsolutePath()));
-            int maxLines = Math.min(lines.size(), 10); // Show first 10 lines
+            // Show first 10 lines; only those are read
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(selectedImportFile.toPath())) {
+                String line;
+                while (lines.size() < 10 && (line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+            int maxLines = lines.size();
             
             for (int i = 0; i < maxLines; i++) {
                 String line = lines.get(i);
@@ -948,81 +1051,27 @@ public class ImportExportController implements Initializable {
         }
     }
     
-    private String determineLogType(LocalDateTime dateTime, boolean isEntry) {
-        int hour = dateTime.getHour();
-        
-        if (hour < 12) { // Morning (AM)
-            return isEntry ? "TIME_IN_AM" : "TIME_OUT_AM";
-        } else { // Afternoon/Evening (PM)
-            return isEntry ? "TIME_IN_PM" : "TIME_OUT_PM";
-        }
-    }
-    
     private int importBiometricAttendanceData() throws Exception {
-        List<String> lines = Files.readAllLines(Paths.get(selectedImportFile.getAbsolutePath()));
-        int totalLines = lines.size();
-        int processedLines = 0;
-        int importedRecords = 0;
-        String batchId = selectedImportFile.getName();
-        
-        String insertSQL = "INSERT INTO attendance (account_number, log_datetime, log_type, raw_data, " +
-                          "imported_by, import_batch) VALUES (?, ?, ?, ?, ?, ?) " +
-                          "ON DUPLICATE KEY UPDATE raw_data = VALUES(raw_data), updated_at = CURRENT_TIMESTAMP";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
-            
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i).trim();
-                if (line.isEmpty()) {
-                    processedLines++;
-                    updateProgress(processedLines, totalLines);
-                    continue;
-                }
-                
-                try {
-                    // Parse biometric log format: account_number	datetime	1	0/1	1	0
-                    String[] parts = line.split("\\s+");
-                    if (parts.length >= 6) {
-                        String accountNumber = parts[0];
-                        String dateTimeStr = parts[1] + " " + parts[2];
-                        LocalDateTime logDateTime = LocalDateTime.parse(dateTimeStr, 
-                            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-                        
-                        int inOutFlag = Integer.parseInt(parts[4]); // 0=in, 1=out
-                        String logType = determineLogType(logDateTime, inOutFlag == 0);
-                        
-                        stmt.setString(1, accountNumber);
-                        stmt.setTimestamp(2, Timestamp.valueOf(logDateTime));
-                        stmt.setString(3, logType);
-                        stmt.setString(4, line);
-                        stmt.setString(5, "admin"); // Current user
-                        stmt.setString(6, batchId);
-                        
-                        int rowsAffected = stmt.executeUpdate();
-                        if (rowsAffected > 0) {
-                            importedRecords++;
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing line: " + line + " - " + e.getMessage());
-                }
-                
-                processedLines++;
-                updateProgress(processedLines, totalLines);
-                
-                // Small delay to show progress
-                if (i % 10 == 0) {
-                    Thread.sleep(10);
-                }
-            }
+        lastImportResult = null;
+        BiometricAttendanceImporter importer = new BiometricAttendanceImporter();
+        BiometricAttendanceImporter.ImportResult result = importer.importFile(
+            selectedImportFile,
+            "admin", // Current user
+            (bytesRead, totalBytes, linesRead) -> updateProgress(bytesRead, totalBytes));
+        
+        if (result.getSkippedLines() > 0) {
+            logger.warning("Skipped " + result.getSkippedLines() + " malformed lines while importing " + selectedImportFile.getName());
         }
-        
-        return importedRecords;
+        if (result.getFailedRows() > 0) {
+            logger.warning(result.getFailedRows() + " rows were rejected by the database while importing "
+                           + selectedImportFile.getName() + "; see the log for their line numbers");
+        }
+        lastImportResult = result;
+        return result.getImportedRecords();
     }
     
     // Add missing updateProgress method
-    private void updateProgress(int current, int total) {
+    private void updateProgress(long current, long total) {
         if (total > 0) {
             double progress = (double) current / total;
             javafx.application.Platform.runLater(() -> {
@@ -1034,6 +1083,7 @@ public class ImportExportController implements Initializable {
     // Method to clear the import preview table
     private void clearImportTable() {
         Platform.runLater(() -> {
+            discardBiometricPreview();
             previewData.clear();
             importPreviewTable.setItems(previewData);
             importPreviewTable.refresh();
@@ -1370,18 +1420,25 @@ public class ImportExportController implements Initializable {
         String insertSQL = "INSERT INTO attendance (account_number, log_datetime, log_type, raw_data, " +
                           "imported_by, import_batch) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
-            
-            stmt.setString(1, accountNumber);
-            stmt.setTimestamp(2, Timestamp.valueOf(logDateTime));
-            stmt.setString(3, logType);
-            stmt.setString(4, rawData);
-            stmt.setString(5, importedBy);
-            stmt.setString(6, importBatch);
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = getConnection()) {
+            // Kept apart from the attendance roll-up, like the bulk importer
+            if (!AttendanceWriteLock.acquire(conn, 10)) {
+                System.err.println("Error creating attendance record: attendance processing is running");
+                return false;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
+                stmt.setString(1, accountNumber);
+                stmt.setTimestamp(2, Timestamp.valueOf(logDateTime));
+                stmt.setString(3, logType);
+                stmt.setString(4, rawData);
+                stmt.setString(5, importedBy);
+                stmt.setString(6, importBatch);
+                
+                int rowsAffected = stmt.executeUpdate();
+                return rowsAffected > 0;
+            } finally {
+                AttendanceWriteLock.release(conn);
+            }
             
         } catch (SQLException e) {
             System.err.println("Error creating attendance record: " + e.getMessage());
@@ -1396,7 +1453,7 @@ public class ImportExportController implements Initializable {
         List<ImportPreviewData> records = new ArrayList<>();
         
         StringBuilder queryBuilder = new StringBuilder("SELECT account_number, log_datetime, log_type, raw_data, import_batch FROM attendance WHERE 1=1");
-        List<String> parameters = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
         
         if (accountNumber != null && !accountNumber.trim().isEmpty()) {
             queryBuilder.append(" AND account_number = ?");
@@ -1404,8 +1461,17 @@ public class ImportExportController implements Initializable {
         }
         
         if (dateFilter != null && !dateFilter.trim().isEmpty()) {
-            queryBuilder.append(" AND DATE(log_datetime) = ?");
-            parameters.add(dateFilter);
+            LocalDate filterDate;
+            try {
+                filterDate = LocalDate.parse(dateFilter.trim());
+            } catch (java.time.format.DateTimeParseException e) {
+                logger.warning("Invalid attendance date filter: " + dateFilter);
+                return records;
+            }
+            // Half-open range so the log_datetime index can be used
+            queryBuilder.append(" AND log_datetime >= ? AND log_datetime < ?");
+            parameters.add(Timestamp.valueOf(filterDate.atStartOfDay()));
+            parameters.add(Timestamp.valueOf(filterDate.plusDays(1).atStartOfDay()));
         }
         
         queryBuilder.append(" ORDER BY log_datetime DESC LIMIT ").append(limit);
@@ -1414,7 +1480,7 @@ public class ImportExportController implements Initializable {
              PreparedStatement stmt = conn.prepareStatement(queryBuilder.toString())) {
             
             for (int i = 0; i < parameters.size(); i++) {
-                stmt.setString(i + 1, parameters.get(i));
+                stmt.setObject(i + 1, parameters.get(i));
             }
             
             try (ResultSet rs = stmt.executeQuery()) {
@@ -1537,6 +1603,7 @@ public class ImportExportController implements Initializable {
      * Refresh preview table with latest attendance data from database
      */
     public void refreshAttendancePreview() {
+        discardBiometricPreview();
         previewData.clear();
         List<ImportPreviewData> latestRecords = readAttendanceRecords(null, null, 50); // Get latest 50 records
         previewData.addAll(latestRecords);
@@ -1641,48 +1708,27 @@ public class ImportExportController implements Initializable {
     }
     
     private void processFileInBackground(File file) {
-        Task<Void> fileTask = new Task<Void>() {
+        // A biometric preview indexes the whole file anyway; that single pass also supplies the line count
+        boolean biometric = "TXT/DAT (Biometric)".equals(importFileFormat.getValue());
+        BiometricLineIndex[] builtIndex = new BiometricLineIndex[1];
+        Task<ImportFileAnalyzer.FileAnalysis> fileTask = new Task<ImportFileAnalyzer.FileAnalysis>() {
             @Override
-            protected Void call() throws Exception {
-                try {
-                    // Simulate file reading progress
-                    updateMessage("Reading file: " + file.getName());
-                    updateProgress(0, 100);
-                    Thread.sleep(300);
-                    
-                    // Read file size
-                    long fileSize = file.length();
-                    updateMessage("File size: " + (fileSize / 1024) + " KB");
-                    updateProgress(25, 100);
-                    Thread.sleep(500);
-                    
-                    // Count lines
-                    List<String> lines = Files.readAllLines(Paths.get(file.getAbsolutePath()));
-                    int totalLines = lines.size();
-                    updateMessage("Found " + totalLines + " lines in file");
-                    updateProgress(50, 100);
-                    Thread.sleep(500);
-                    
-                    // Validate format
-                    updateMessage("Validating file format...");
-                    updateProgress(75, 100);
-                    Thread.sleep(500);
-                    
-                    // Complete
-                    updateMessage("File processing complete");
-                    updateProgress(100, 100);
-                    Thread.sleep(300);
-                    
-                    Platform.runLater(() -> {
-                        importFileLabel.setText("Selected: " + file.getName() + " (" + totalLines + " lines)");
-                        loadPreviewData(); // Load preview after file processing
+            protected ImportFileAnalyzer.FileAnalysis call() throws Exception {
+                updateMessage("Reading file: " + file.getName());
+                if (biometric) {
+                    BiometricLineIndex index = BiometricLineIndex.build(file.toPath(), (bytesScanned, totalBytes) -> {
+                        updateProgress(bytesScanned, Math.max(totalBytes, 1));
+                        updateMessage(String.format("Indexing %s: %,d of %,d KB", file.getName(),
+                                bytesScanned / 1024, totalBytes / 1024));
                     });
-                    
-                } catch (Exception e) {
-                    Platform.runLater(() -> showAlert("Error processing file: " + e.getMessage()));
+                    builtIndex[0] = index;
+                    return ImportFileAnalyzer.analyze(file.toPath(), index.getLineCount(), null);
                 }
-                
-                return null;
+                return ImportFileAnalyzer.analyze(file.toPath(), (bytesScanned, totalBytes) -> {
+                    updateProgress(bytesScanned, Math.max(totalBytes, 1));
+                    updateMessage(String.format("Scanning %s: %,d of %,d KB", file.getName(),
+                            bytesScanned / 1024, totalBytes / 1024));
+                });
             }
         };
         
@@ -1707,13 +1753,58 @@ public class ImportExportController implements Initializable {
         });
         
         // Handle completion
-        fileTask.setOnSucceeded(e -> hideFileLoadingProgress());
+        fileTask.setOnSucceeded(e -> {
+            hideFileLoadingProgress();
+            // Another file was picked while this one was being analysed
+            if (selectedImportFile != file) {
+                return;
+            }
+            ImportFileAnalyzer.FileAnalysis analysis = fileTask.getValue();
+            logger.info(String.format("Analysed %s in %d ms: %,d lines, format %s, %d/%d sampled lines valid",
+                file.getName(), analysis.getElapsedMillis(), analysis.getLineCount(),
+                analysis.getFormat().getDisplayName(), analysis.getValidSamples(), analysis.getSampledLines()));
+            
+            importFileLabel.setText(String.format("Selected: %s (%,d lines, ~%.0f%% valid)",
+                file.getName(), analysis.getLineCount(), analysis.getEstimatedValidRatio() * 100));
+            
+            // Offer the format the file appears to contain; the user's choice stands unless they accept
+            String selectedFormat = importFileFormat.getValue();
+            ImportFileAnalyzer.DetectedFormat detected = analysis.getFormat();
+            if (detected != ImportFileAnalyzer.DetectedFormat.UNKNOWN
+                    && !detected.getDisplayName().equals(selectedFormat)) {
+                logger.info("Detected " + detected.getDisplayName() + " content; selected format was " + selectedFormat);
+                if (confirmFormatSwitch(file, detected, selectedFormat)) {
+                    importFileFormat.setValue(detected.getDisplayName());
+                    loadPreviewData(); // Load preview for the new format; it shows its own progress
+                    return;
+                }
+            }
+            if (builtIndex[0] != null && "TXT/DAT (Biometric)".equals(importFileFormat.getValue())) {
+                discardBiometricPreview();
+                previewData.clear();
+                showBiometricPreview(file, builtIndex[0]);
+            } else {
+                loadPreviewData(); // Load preview after file processing; it shows its own progress
+            }
+        });
         fileTask.setOnFailed(e -> {
             hideFileLoadingProgress();
             showAlert("Error processing file: " + fileTask.getException().getMessage());
         });
         
         // Start background processing
-        new Thread(fileTask).start();
+        Thread analysisThread = new Thread(fileTask, "import-file-analyzer");
+        analysisThread.setDaemon(true);
+        analysisThread.start();
+    }
+    
+    private boolean confirmFormatSwitch(File file, ImportFileAnalyzer.DetectedFormat detected, String selectedFormat) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("File Format");
+        confirm.setHeaderText(null);
+        confirm.setContentText(file.getName() + " looks like " + detected.getDisplayName() + " data, but "
+            + selectedFormat + " is selected. Switch the import format to " + detected.getDisplayName() + "?");
+        Optional<ButtonType> result = confirm.showAndWait();
+        return result.isPresent() && result.get() == ButtonType.OK;
     }
 }
@@ -0,0 +1,203 @@
+package javafxapplication1;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Quick analysis of a file selected for import: counts lines with a chunked byte scan,
+ * sniffs whether it is a biometric log or CSV from the first block, and parses a sample of
+ * lines spread over the file to estimate how many are valid. Nothing is kept per line.
+ * A caller that has already scanned the file (BiometricLineIndex) passes its line count in,
+ * and then only the first block and the samples are read.
+ */
+final class ImportFileAnalyzer {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int SNIFF_BYTES = 64 * 1024;
+    private static final int SAMPLE_POINTS = 64;
+    private static final int LINES_PER_SAMPLE = 8;
+    private static final int MAX_SAMPLE_LINE = 4096;
+
+    enum DetectedFormat {
+        BIOMETRIC("TXT/DAT (Biometric)"), CSV("CSV"), UNKNOWN("Unknown");
+
+        private final String displayName;
+
+        DetectedFormat(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Receives scan progress in bytes
+     */
+    interface ProgressListener {
+        void onProgress(long bytesScanned, long totalBytes);
+    }
+
+    /**
+     * Result of analysing one file
+     */
+    static final class FileAnalysis {
+        private final long fileSize;
+        private final long lineCount;
+        private final DetectedFormat format;
+        private final int sampledLines;
+        private final int validSamples;
+        private final long elapsedMillis;
+
+        FileAnalysis(long fileSize, long lineCount, DetectedFormat format, int sampledLines, int validSamples,
+                     long elapsedMillis) {
+            this.fileSize = fileSize;
+            this.lineCount = lineCount;
+            this.format = format;
+            this.sampledLines = sampledLines;
+            this.validSamples = validSamples;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getFileSize() { return fileSize; }
+        public long getLineCount() { return lineCount; }
+        public DetectedFormat getFormat() { return format; }
+        public int getSampledLines() { return sampledLines; }
+        public int getValidSamples() { return validSamples; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        /**
+         * Share of sampled non-empty lines that parsed, 0..1
+         */
+        public double getEstimatedValidRatio() {
+            return sampledLines > 0 ? (double) validSamples / sampledLines : 0;
+        }
+    }
+
+    private ImportFileAnalyzer() {
+    }
+
+    /**
+     * Analyse a file. Interrupting the calling thread cancels the scan.
+     */
+    static FileAnalysis analyze(Path file, ProgressListener listener) throws IOException {
+        return analyze(file, -1, listener);
+    }
+
+    /**
+     * Analyse a file whose lines were already counted; a negative count scans for it
+     */
+    static FileAnalysis analyze(Path file, long knownLineCount, ProgressListener listener) throws IOException {
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            DetectedFormat format = sniffFormat(channel, size);
+            long lines = knownLineCount >= 0 ? knownLineCount : countLines(channel, size, listener);
+
+            BiometricRecordParser parser = new BiometricRecordParser();
+            int sampled = 0;
+            int valid = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(MAX_SAMPLE_LINE * LINES_PER_SAMPLE);
+            int points = size > 0 ? (int) Math.min(SAMPLE_POINTS, Math.max(1, size / MAX_SAMPLE_LINE)) : 0;
+            for (int p = 0; p < points; p++) {
+                long offset = size * p / points;
+                buffer.clear();
+                readFully(channel, buffer, offset);
+                String[] block = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).split("\r?\n", -1);
+                // Unless sampling from the very start the first piece is a partial line; the last may be too
+                int first = offset == 0 ? 0 : 1;
+                int last = offset + buffer.position() >= size ? block.length : block.length - 1;
+                for (int i = first; i < last && i < first + LINES_PER_SAMPLE; i++) {
+                    String line = block[i];
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    sampled++;
+                    if (isValidLine(parser, format, line)) {
+                        valid++;
+                    }
+                }
+            }
+            return new FileAnalysis(size, lines, format, sampled, valid, System.currentTimeMillis() - start);
+        }
+    }
+
+    private static DetectedFormat sniffFormat(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SNIFF_BYTES, size));
+        readFully(channel, buffer, 0);
+        String head = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        BiometricRecordParser parser = new BiometricRecordParser();
+        int biometric = 0;
+        int csv = 0;
+        for (String line : head.split("\r?\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (parser.parse(line)) {
+                biometric++;
+            } else if (line.indexOf(',') >= 0) {
+                csv++;
+            }
+        }
+        if (biometric == 0 && csv == 0) {
+            return DetectedFormat.UNKNOWN;
+        }
+        return biometric >= csv ? DetectedFormat.BIOMETRIC : DetectedFormat.CSV;
+    }
+
+    private static boolean isValidLine(BiometricRecordParser parser, DetectedFormat format, String line) {
+        switch (format) {
+            case BIOMETRIC:
+                return parser.parse(line);
+            case CSV:
+                return line.indexOf(',') >= 0;
+            default:
+                return false;
+        }
+    }
+
+    private static long countLines(FileChannel channel, long size, ProgressListener listener) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        byte[] bytes = buffer.array();
+        long lines = 0;
+        long scanned = 0;
+        byte lastByte = '\n';
+        channel.position(0);
+        int read;
+        while ((read = channel.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+            if (read > 0) {
+                lastByte = bytes[read - 1];
+            }
+            scanned += read;
+            buffer.clear();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("File analysis cancelled");
+            }
+            if (listener != null) {
+                listener.onProgress(scanned, size);
+            }
+        }
+        // A final line without a newline is still a line
+        return lastByte != '\n' ? lines + 1 : lines;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+}
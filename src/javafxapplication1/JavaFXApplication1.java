@@ -11,6 +11,9 @@ public class JavaFXApplication1 extends Application {
 
     @Override
     public void start(Stage stage) throws Exception {
+        // Resolve the audit log's client IP in the background before anyone logs in
+        HostIdentityService.getInstance().start();
+        
         java.net.URL resource = getClass().getResource("/javafxapplication1/Login.fxml");
         if (resource == null) {
             // Try alternative path without leading slash
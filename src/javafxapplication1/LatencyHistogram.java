@@ -0,0 +1,89 @@
+package javafxapplication1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets.
+ * Percentiles are reported as the upper bound of the bucket they fall in, which is precise
+ * enough to tell "instant" from "waiting on a remote database".
+ */
+final class LatencyHistogram {
+
+    // Upper bounds in ms; the last bucket holds everything slower
+    private static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long elapsedNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    double getMeanMillis() {
+        long n = count.get();
+        return n > 0 ? totalNanos.get() / 1_000_000.0 / n : 0;
+    }
+
+    double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Upper bound in ms of the bucket holding the given percentile (0..100); -1 for the open
+     * last bucket, 0 if nothing was recorded
+     */
+    long getPercentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Bucket counts as "<1ms=3, <2ms=10, ..., >=5000ms=0"
+     */
+    String getBuckets() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            text.append('<').append(BOUNDS_MILLIS[i]).append("ms=").append(buckets.get(i)).append(", ");
+        }
+        return text.append(">=").append(BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1]).append("ms=")
+                   .append(buckets.get(BOUNDS_MILLIS.length)).toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1f ms, p50<=%s, p95<=%s, p99<=%s, max=%.1f ms",
+                getCount(), getMeanMillis(), bound(50), bound(95), bound(99), getMaxMillis());
+    }
+
+    private String bound(double percentile) {
+        long millis = getPercentileMillis(percentile);
+        return millis >= 0 ? millis + " ms" : ">" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + " ms";
+    }
+}
@@ -24,6 +24,9 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.layout.GridPane;
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -58,18 +61,12 @@ public class LoanManagementController implements Initializable {
     @FXML private Button markCompleteButton;
     
     private ObservableList<LoanRecord> loanData = FXCollections.observableArrayList();
-    private Connection connection;
     private static final Logger logger = Logger.getLogger(LoanManagementController.class.getName());
     
-    // Database connection details
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupTableColumns();
-        initializeDatabase();
+        createLoanTablesIfNotExist();
         setupLoanTypeFilter();
         loadLoanData();
         
@@ -163,45 +160,7 @@ public class LoanManagementController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void setupTableColumns() {
@@ -227,7 +186,8 @@ public class LoanManagementController implements Initializable {
     private void loadLoanTypesIntoFilter() {
         String sql = "SELECT DISTINCT name FROM loan_types ORDER BY name";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -239,28 +199,14 @@ public class LoanManagementController implements Initializable {
         }
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established successfully");
-            
-            // Create required tables if they don't exist
-            createLoanTablesIfNotExist();
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error initializing database connection", e);
-            showAlert("Database Error", "Could not connect to database: " + e.getMessage());
-        }
-    }
-    
     private void createLoanTablesIfNotExist() {
         // The tables already exist in your database, so we'll just check if they exist
         // and update the existing loan_types if needed
         try {
             // Check if loan_types table exists and has data
             String checkSQL = "SELECT COUNT(*) FROM loan_types";
-            try (PreparedStatement stmt = connection.prepareStatement(checkSQL);
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(checkSQL);
                  ResultSet rs = stmt.executeQuery()) {
                 
                 rs.next();
@@ -268,7 +214,7 @@ public class LoanManagementController implements Initializable {
                 
                 if (count == 0) {
                     // Insert default loan types if none exist
-                    insertDefaultLoanTypes();
+                    insertDefaultLoanTypes(conn);
                 }
             }
             
@@ -279,7 +225,7 @@ public class LoanManagementController implements Initializable {
         }
     }
     
-    private void insertDefaultLoanTypes() {
+    private void insertDefaultLoanTypes(Connection conn) {
         String insertSQL = "INSERT IGNORE INTO loan_types (name) VALUES (?)";
         
         String[][] defaultLoanTypes = {
@@ -288,7 +234,7 @@ public class LoanManagementController implements Initializable {
             {"Company Loan", "Internal company loan"}
         };
         
-        try (PreparedStatement stmt = connection.prepareStatement(insertSQL)) {
+        try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
             for (String[] loanType : defaultLoanTypes) {
                 stmt.setString(1, loanType[0]);
                 stmt.executeUpdate();
@@ -463,7 +409,8 @@ public class LoanManagementController implements Initializable {
             WHERE el.id = ?
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, loanId);
             ResultSet rs = stmt.executeQuery();
             
@@ -747,7 +694,8 @@ public class LoanManagementController implements Initializable {
         
         sql.append(" ORDER BY el.created_at DESC");
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
             int paramIndex = 1;
             
             if (!searchText.isEmpty()) {
@@ -1037,7 +985,8 @@ public class LoanManagementController implements Initializable {
     private void loadLoanTypesIntoComboBox(ComboBox<String> comboBox) {
         String sql = "SELECT DISTINCT name FROM loan_types ORDER BY name";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -1050,14 +999,12 @@ public class LoanManagementController implements Initializable {
     }
     
     private void loadEmployeesIntoComboBox(ComboBox<String> comboBox) {
-        String sql = "SELECT id, full_name as name FROM employees ORDER BY full_name";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                String item = rs.getInt("id") + " - " + rs.getString("name");
-                comboBox.getItems().add(item);
+        try {
+            List<EmployeeDirectory.EmployeeRecord> employees = new ArrayList<>(EmployeeDirectory.getInstance().getAll());
+            employees.sort(Comparator.comparing(EmployeeDirectory.EmployeeRecord::getFullName,
+                                                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+            for (EmployeeDirectory.EmployeeRecord employee : employees) {
+                comboBox.getItems().add(employee.getId() + " - " + employee.getFullName());
             }
             
         } catch (SQLException e) {
@@ -1072,8 +1019,9 @@ public class LoanManagementController implements Initializable {
             VALUES (?, ?, ?, ?, ?, ?)
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            int loanTypeId = getLoanTypeId(loanData.loanType);
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int loanTypeId = getLoanTypeId(conn, loanData.loanType);
             
             stmt.setInt(1, loanData.employeeId);
             stmt.setInt(2, loanTypeId);
@@ -1099,8 +1047,9 @@ public class LoanManagementController implements Initializable {
     private boolean updateLoan(int loanId, LoanData loanData) {
         String sql = "UPDATE employee_loans SET loan_type_id = ?, loan_amount = ?, monthly_amortization = ?, start_date = ? WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            int loanTypeId = getLoanTypeId(loanData.loanType);
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int loanTypeId = getLoanTypeId(conn, loanData.loanType);
             
             stmt.setInt(1, loanTypeId);
             stmt.setBigDecimal(2, loanData.loanAmount);
@@ -1130,7 +1079,8 @@ public class LoanManagementController implements Initializable {
             WHERE id = ?
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setBigDecimal(1, paymentAmount);
             stmt.setBigDecimal(2, paymentAmount);
             stmt.setInt(3, loanId);
@@ -1152,7 +1102,8 @@ public class LoanManagementController implements Initializable {
     private boolean markLoanCompleted(int loanId) {
         String sql = "UPDATE employee_loans SET status = 'Completed', balance = 0, end_date = CURDATE() WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, loanId);
             
             int rowsAffected = stmt.executeUpdate();
@@ -1169,10 +1120,10 @@ public class LoanManagementController implements Initializable {
         return false;
     }
     
-    private int getLoanTypeId(String loanTypeName) throws SQLException {
+    private int getLoanTypeId(Connection conn, String loanTypeName) throws SQLException {
         String sql = "SELECT id FROM loan_types WHERE name = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, loanTypeName);
             ResultSet rs = stmt.executeQuery();
             
@@ -1196,7 +1147,8 @@ public class LoanManagementController implements Initializable {
             ORDER BY el.created_at DESC
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             loanData.clear();
             
@@ -148,13 +148,14 @@ public class LoginController implements Initializable {
         if (result.isSuccess()) {
             messageLabel.setText("");
             
-            // Log successful login (SecurityLogger will auto-detect IP)
+            // Log successful login; the client IP is cached by HostIdentityService
             String clientIP = SecurityLogger.getClientIP();
             SecurityLogger.logSecurityEvent(
                 "LOGIN_SUCCESS", 
                 "LOW", 
                 result.getUsername(),
-                "User logged in successfully from " + clientIP
+                "User logged in successfully from " + clientIP,
+                clientIP
             );
             
             // Reset login attempt counter
@@ -179,7 +180,8 @@ public class LoginController implements Initializable {
                 "LOGIN_FAILED", 
                 severity, 
                 usernameOrEmail,
-                "Failed login attempt #" + loginAttemptCount + " from " + clientIP + ": " + result.getMessage()
+                "Failed login attempt #" + loginAttemptCount + " from " + clientIP + ": " + result.getMessage(),
+                clientIP
             );
             
             // Check if we should lock the account or show warning
@@ -240,6 +242,10 @@ public class LoginController implements Initializable {
             result.getRoles().get(0) // Get first role
         );
         
+        // Permission checks on every screen are served from this set
+        PermissionService.getInstance().load(authService, result.getUserId(), result.getUsername(), 
+                                             result.getPermissions());
+        
         System.out.println("User logged in: " + result.getFullName() + " (" + result.getUsername() + ")");
         System.out.println("Role: " + result.getRoles());
         System.out.println("Permissions: " + result.getPermissions());
@@ -35,6 +35,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import javafx.scene.control.DatePicker;
+import javafx.application.Platform;
+import java.util.Map;
+import java.util.function.Consumer;
+import javafxapplication1.DashboardSnapshotService.DashboardSnapshot;
 
 /**
  * FXML Controller class
@@ -57,16 +61,17 @@ public class MainController implements Initializable {
             defaultDashboardContent = contentScroll.getContent();
         }
         
-        // Initialize database connection
-        initializeDatabase();
-        
         // Set the current user's name in the menu button
         updateUserMenuButton();
         
         // Setup permission-based menu visibility
         setupPermissionBasedMenuVisibility();
         
+        // Background audit-log retention runs for the whole application session
+        SecurityEventRetention.getInstance().start();
+        
         // Load dashboard data
+        DashboardSnapshotService.getInstance().addListener(snapshotListener);
         loadDashboardData();
         
         // Initialize date pickers with default range (last 30 days)
@@ -106,11 +111,11 @@ public class MainController implements Initializable {
     // Active menu button tracking
     private Button currentActiveButton;
     
-    // Database connection
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    private Connection connection;
+    // Dashboard counters come from the shared snapshot service
+    private final Consumer<DashboardSnapshot> snapshotListener = snapshot -> Platform.runLater(() -> renderSnapshot(snapshot));
+    private LocalDate chartStartDate;
+    private LocalDate chartEndDate;
+    private long chartRequest;
     private static final Logger logger = Logger.getLogger(MainController.class.getName());
 
     @FXML 
@@ -140,7 +145,8 @@ public class MainController implements Initializable {
                     "LOGOUT", 
                     "LOW", 
                     currentUser,
-                    "User logged out successfully from " + clientIP
+                    "User logged out successfully from " + clientIP,
+                    clientIP
                 );
             }
             
@@ -171,8 +177,10 @@ public class MainController implements Initializable {
     }
     
     private void closeDatabaseConnections() {
-        // Close any open database connections
-        // This ensures clean logout
+        // Screens borrow pooled connections per operation; only the dashboard refresh needs stopping
+        DashboardSnapshotService dashboard = DashboardSnapshotService.getInstance();
+        dashboard.removeListener(snapshotListener);
+        dashboard.stop();
         System.out.println("Database connections closed");
     }
     
@@ -335,9 +343,6 @@ public class MainController implements Initializable {
     
     private void setupPermissionBasedMenuVisibility() {
         try {
-            // Initialize database connection
-            initializeDatabase();
-            
             // Get current user from SessionManager
             SessionManager sessionManager = SessionManager.getInstance();
             
@@ -372,29 +377,21 @@ public class MainController implements Initializable {
         }
     }
     
-    private void initializeDatabase() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                logger.info("Database connection established successfully");
-            }
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error initializing database connection", e);
-            connection = null;
+    private void loadDashboardData() {
+        // Render whatever is cached right away; the refresh thread publishes fresh counters
+        DashboardSnapshotService dashboard = DashboardSnapshotService.getInstance();
+        DashboardSnapshot cached = dashboard.getSnapshot();
+        if (cached != null) {
+            renderSnapshot(cached);
         }
+        dashboard.start();
+        dashboard.requestRefresh();
     }
     
-    private void loadDashboardData() {
-        if (connection == null) {
-            initializeDatabase();
-        }
-        
-        if (connection != null) {
-            loadStatistics();
-            loadRecentActivities();
-            loadAttendanceChart(null, null);
-        }
+    private void renderSnapshot(DashboardSnapshot snapshot) {
+        loadStatistics(snapshot);
+        loadRecentActivities(snapshot);
+        loadAttendanceChart(chartStartDate, chartEndDate);
     }
     
     @FXML
@@ -411,6 +408,8 @@ public class MainController implements Initializable {
                 alert.showAndWait();
                 return;
             }
+            chartStartDate = startDate;
+            chartEndDate = endDate;
             loadAttendanceChart(startDate, endDate);
         } else {
             Alert alert = new Alert(AlertType.WARNING);
@@ -421,171 +420,104 @@ public class MainController implements Initializable {
         }
     }
     
-    private void loadStatistics() {
-        try {
-            // Load total employees
-            String employeesQuery = "SELECT COUNT(*) as total FROM employees WHERE status = 'Active'";
-            PreparedStatement stmt = connection.prepareStatement(employeesQuery);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                int totalEmployees = rs.getInt("total");
-                totalEmployeesLabel.setText(String.valueOf(totalEmployees));
-            }
-            
-            // Load payroll processed this month
-            String payrollQuery = """
-                SELECT COUNT(DISTINCT employee_id) as processed 
-                FROM payroll_sheet_items 
-                WHERE MONTH(created_at) = MONTH(CURRENT_DATE()) 
-                AND YEAR(created_at) = YEAR(CURRENT_DATE())
-                """;
-            stmt = connection.prepareStatement(payrollQuery);
-            rs = stmt.executeQuery();
-            if (rs.next()) {
-                int processed = rs.getInt("processed");
-                payrollProcessedLabel.setText(String.valueOf(processed));
-            }
-            
-            // Load average salary
-            String avgSalaryQuery = """
-                SELECT AVG(sr.monthly_salary) as avg_salary 
-                FROM employees e 
-                JOIN salary_reference sr ON e.salary_ref_id = sr.id 
-                WHERE e.status = 'Active'
-                """;
-            stmt = connection.prepareStatement(avgSalaryQuery);
-            rs = stmt.executeQuery();
-            if (rs.next()) {
-                double avgSalary = rs.getDouble("avg_salary");
-                if (!rs.wasNull()) {
-                    averageSalaryLabel.setText(String.format("₱%,.0f", avgSalary));
-                }
-            }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error loading dashboard statistics", e);
+    private void loadStatistics(DashboardSnapshot snapshot) {
+        totalEmployeesLabel.setText(String.valueOf(snapshot.getActiveEmployees()));
+        payrollProcessedLabel.setText(String.valueOf(snapshot.getPayrollProcessedThisMonth()));
+        if (snapshot.getAverageSalary() != null) {
+            averageSalaryLabel.setText(String.format("₱%,.0f", snapshot.getAverageSalary()));
         }
     }
     
-    private void loadRecentActivities() {
-        try {
-            // Clear existing activities
-            if (recentActivitiesContainer != null) {
-                recentActivitiesContainer.getChildren().clear();
-            }
-            
-            // Load 10 latest security events
-            String query = """
-                SELECT event_type, severity, username, description, timestamp 
-                FROM security_events 
-                ORDER BY timestamp DESC 
-                LIMIT 10
-                """;
-            PreparedStatement stmt = connection.prepareStatement(query);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                String eventType = rs.getString("event_type");
-                String severity = rs.getString("severity");
-                String username = rs.getString("username");
-                String description = rs.getString("description");
-                Timestamp timestamp = rs.getTimestamp("timestamp");
-                
-                // Format timestamp
-                String timeAgo = formatTimeAgo(timestamp.toLocalDateTime());
-                
-                // Determine color based on severity
-                String color = getSeverityColor(severity);
-                
-                // Create activity item
-                HBox activityItem = new HBox(10);
-                activityItem.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-                
-                Label bullet = new Label("•");
-                bullet.setStyle("-fx-text-fill: " + color + "; -fx-font-weight: bold;");
-                
-                Label descLabel = new Label(description);
-                descLabel.setStyle("-fx-text-fill: #333;");
-                
-                Label timeLabel = new Label(timeAgo);
-                timeLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 12px;");
-                
-                activityItem.getChildren().addAll(bullet, descLabel, timeLabel);
-                
-                if (recentActivitiesContainer != null) {
-                    recentActivitiesContainer.getChildren().add(activityItem);
-                }
-            }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error loading recent activities", e);
+    private void loadRecentActivities(DashboardSnapshot snapshot) {
+        // Clear existing activities
+        if (recentActivitiesContainer != null) {
+            recentActivitiesContainer.getChildren().clear();
         }
-    }
-    
-    private void loadAttendanceChart(LocalDate startDate, LocalDate endDate) {
-        try {
-            // Clear existing chart
-            if (attendanceChartContainer != null) {
-                attendanceChartContainer.getChildren().clear();
-            }
-            
-            // Use provided date range or default to last 30 days
-            LocalDate actualStartDate = startDate != null ? startDate : LocalDate.now().minusDays(30);
-            LocalDate actualEndDate = endDate != null ? endDate : LocalDate.now();
-            
-            // Load attendance statistics by status
-            String query = """
-                SELECT status, COUNT(*) as count 
-                FROM processed_attendance 
-                WHERE process_date >= ? AND process_date <= ?
-                GROUP BY status
-                """;
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setDate(1, java.sql.Date.valueOf(actualStartDate));
-            stmt.setDate(2, java.sql.Date.valueOf(actualEndDate));
-            ResultSet rs = stmt.executeQuery();
-            
-            // Create chart data
-            ObservableList<XYChart.Series<String, Number>> chartData = FXCollections.observableArrayList();
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("Attendance Status (Last 30 Days)");
+        
+        // 10 latest security events, kept by the dashboard snapshot
+        for (DashboardSnapshotService.RecentEvent event : snapshot.getRecentEvents()) {
+            // Format timestamp
+            String timeAgo = event.getTimestamp() != null ? formatTimeAgo(event.getTimestamp()) : "";
             
-            while (rs.next()) {
-                String status = rs.getString("status");
-                int count = rs.getInt("count");
-                series.getData().add(new XYChart.Data<>(status, count));
-            }
+            // Determine color based on severity
+            String color = getSeverityColor(event.getSeverity());
             
-            chartData.add(series);
+            // Create activity item
+            HBox activityItem = new HBox(10);
+            activityItem.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
             
-            // Create axes
-            CategoryAxis xAxis = new CategoryAxis();
-            xAxis.setLabel("Status");
-            NumberAxis yAxis = new NumberAxis();
-            yAxis.setLabel("Count");
+            Label bullet = new Label("•");
+            bullet.setStyle("-fx-text-fill: " + color + "; -fx-font-weight: bold;");
             
-            // Create bar chart
-            BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-            barChart.setData(chartData);
+            Label descLabel = new Label(event.getDescription());
+            descLabel.setStyle("-fx-text-fill: #333;");
             
-            // Format date range for title
-            String dateRange = actualStartDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) + 
-                              " - " + 
-                              actualEndDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"));
-            barChart.setTitle("Attendance Statistics (" + dateRange + ")");
-            barChart.setLegendVisible(true);
-            barChart.setPrefHeight(300);
-            barChart.setPrefWidth(800);
+            Label timeLabel = new Label(timeAgo);
+            timeLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 12px;");
             
-            // Style the chart
-            barChart.setStyle("-fx-background-color: white;");
+            activityItem.getChildren().addAll(bullet, descLabel, timeLabel);
             
-            if (attendanceChartContainer != null) {
-                attendanceChartContainer.getChildren().add(barChart);
+            if (recentActivitiesContainer != null) {
+                recentActivitiesContainer.getChildren().add(activityItem);
             }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error loading attendance chart", e);
+        }
+    }
+    
+    private void loadAttendanceChart(LocalDate startDate, LocalDate endDate) {
+        // Use provided date range or default to last 30 days
+        LocalDate actualStartDate = startDate != null ? startDate : LocalDate.now().minusDays(30);
+        LocalDate actualEndDate = endDate != null ? endDate : LocalDate.now();
+        
+        // Counts come from the snapshot when cached, otherwise from the refresh thread
+        long request = ++chartRequest;
+        DashboardSnapshotService.getInstance()
+            .attendanceStatusCounts(actualStartDate, actualEndDate)
+            .thenAccept(counts -> Platform.runLater(() -> {
+                if (request == chartRequest) {
+                    showAttendanceChart(actualStartDate, actualEndDate, counts);
+                }
+            }));
+    }
+    
+    private void showAttendanceChart(LocalDate actualStartDate, LocalDate actualEndDate, Map<String, Integer> counts) {
+        // Clear existing chart
+        if (attendanceChartContainer != null) {
+            attendanceChartContainer.getChildren().clear();
+        }
+        
+        // Create chart data
+        ObservableList<XYChart.Series<String, Number>> chartData = FXCollections.observableArrayList();
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Attendance Status (Last 30 Days)");
+        
+        counts.forEach((status, count) -> series.getData().add(new XYChart.Data<>(status, count)));
+        
+        chartData.add(series);
+        
+        // Create axes
+        CategoryAxis xAxis = new CategoryAxis();
+        xAxis.setLabel("Status");
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel("Count");
+        
+        // Create bar chart
+        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
+        barChart.setData(chartData);
+        
+        // Format date range for title
+        String dateRange = actualStartDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) + 
+                          " - " + 
+                          actualEndDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"));
+        barChart.setTitle("Attendance Statistics (" + dateRange + ")");
+        barChart.setLegendVisible(true);
+        barChart.setPrefHeight(300);
+        barChart.setPrefWidth(800);
+        
+        // Style the chart
+        barChart.setStyle("-fx-background-color: white;");
+        
+        if (attendanceChartContainer != null) {
+            attendanceChartContainer.getChildren().add(barChart);
         }
     }
     
@@ -693,47 +625,7 @@ public class MainController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            // Check if database connection is available
-            if (connection == null) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                // Default to giving admin users all permissions if database is not available
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void hideAllMenuItems() {
@@ -0,0 +1,285 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Buffers computed PayrollData for a pay run and persists it in chunks.
+ * Each chunk is one transaction: a multi-row payroll_process insert whose generated keys are
+ * mapped back to the buffered rows, multi-row employee_deductions inserts and one batched
+ * loan-balance update. If a chunk fails it is rolled back and replayed one employee at a
+ * time so only the offending employees are reported as failed.
+ */
+class PayrollBatchWriter implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(PayrollBatchWriter.class.getName());
+
+    public static final int DEFAULT_CHUNK_SIZE = 200;
+    private static final int MAX_DEDUCTION_ROWS_PER_STATEMENT = 1000;
+
+    private static final String PAYROLL_COLUMNS = "INSERT INTO payroll_process (employee_id, full_name, position, basic_salary, "
+            + "gross_pay, total_deductions, net_pay, pay_period_start, pay_period_end, processed_by) VALUES ";
+    private static final String PAYROLL_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DEDUCTION_COLUMNS = "INSERT INTO employee_deductions (employee_id, deduction_type_id, amount, details, payroll_id) VALUES ";
+    private static final String DEDUCTION_ROW = "(?, ?, ?, ?, ?)";
+    // Single-table UPDATE assigns left to right, so status is decided from the balance before payment
+    private static final String LOAN_UPDATE_SQL = """
+        UPDATE employee_loans
+        SET status = CASE WHEN (balance - ?) <= 0 THEN 'Completed' ELSE status END,
+            balance = balance - ?
+        WHERE id = ?
+        """;
+
+    private final Connection conn;
+    private final boolean originalAutoCommit;
+    private final java.sql.Date periodStart;
+    private final java.sql.Date periodEnd;
+    private final String processedBy;
+    private final int chunkSize;
+    private final DeductionTypeCache deductionTypes = DeductionTypeCache.getInstance();
+
+    private final List<Outcome> pending = new ArrayList<>();
+    private final List<Outcome> outcomes = new ArrayList<>();
+    private int chunksCommitted;
+
+    public PayrollBatchWriter(Connection conn, LocalDate startDate, LocalDate endDate, String processedBy,
+                              int chunkSize) throws SQLException {
+        this.conn = conn;
+        this.originalAutoCommit = conn.getAutoCommit();
+        this.periodStart = java.sql.Date.valueOf(startDate);
+        this.periodEnd = java.sql.Date.valueOf(endDate);
+        this.processedBy = processedBy;
+        this.chunkSize = Math.max(1, chunkSize);
+        conn.setAutoCommit(false);
+    }
+
+    /**
+     * Buffer one employee's payroll; writes a chunk once enough rows are buffered
+     */
+    public void add(PayrollData payrollData) throws SQLException {
+        Outcome outcome = new Outcome(payrollData.getEmployee().getId(), payrollData);
+        outcomes.add(outcome);
+        pending.add(outcome);
+        if (pending.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Record an employee whose payroll could not be computed, keeping outcomes in employee order
+     */
+    public void addFailure(int employeeId, String error) {
+        Outcome outcome = new Outcome(employeeId, null);
+        outcome.error = error;
+        outcomes.add(outcome);
+    }
+
+    /**
+     * Write and commit everything buffered so far
+     */
+    public void flush() throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Outcome> chunk = new ArrayList<>(pending);
+        pending.clear();
+
+        try {
+            writeChunk(chunk);
+            conn.commit();
+            chunksCommitted++;
+        } catch (SQLException e) {
+            rollbackQuietly(e);
+            if (chunk.size() == 1) {
+                markFailed(chunk.get(0), e);
+                return;
+            }
+            logger.log(Level.WARNING, "Payroll chunk of " + chunk.size() + " employees failed, retrying individually", e);
+            for (Outcome outcome : chunk) {
+                try {
+                    writeChunk(Collections.singletonList(outcome));
+                    conn.commit();
+                } catch (SQLException single) {
+                    rollbackQuietly(single);
+                    markFailed(outcome, single);
+                }
+            }
+        }
+    }
+
+    private void writeChunk(List<Outcome> chunk) throws SQLException {
+        // Resolved first: creating a type commits, which must happen before this chunk writes anything
+        Map<String, Integer> typeIds = resolveDeductionTypes(chunk);
+        insertPayrollRows(chunk);
+        insertDeductions(chunk, typeIds);
+        updateLoanBalances(chunk);
+    }
+
+    private void insertPayrollRows(List<Outcome> chunk) throws SQLException {
+        StringBuilder sql = new StringBuilder(PAYROLL_COLUMNS);
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(PAYROLL_ROW);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int index = 1;
+            for (Outcome outcome : chunk) {
+                PayrollData payrollData = outcome.payrollData;
+                Employee emp = payrollData.getEmployee();
+                stmt.setInt(index++, emp.getId());
+                stmt.setString(index++, emp.getFullName());
+                stmt.setString(index++, emp.getPosition());
+                stmt.setBigDecimal(index++, payrollData.getSalaryReference().getMonthlySalary());
+                stmt.setBigDecimal(index++, payrollData.getGrossPay());
+                stmt.setBigDecimal(index++, payrollData.getTotalDeductions());
+                stmt.setBigDecimal(index++, payrollData.getNetPay());
+                stmt.setDate(index++, periodStart);
+                stmt.setDate(index++, periodEnd);
+                stmt.setString(index++, processedBy);
+            }
+            stmt.executeUpdate();
+
+            // MySQL returns the keys of a multi-row insert in row order
+            int row = 0;
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                while (keys.next() && row < chunk.size()) {
+                    chunk.get(row++).payrollId = keys.getInt(1);
+                }
+            }
+            if (row != chunk.size()) {
+                throw new SQLException("Expected " + chunk.size() + " generated payroll ids but received " + row);
+            }
+        }
+    }
+
+    private Map<String, Integer> resolveDeductionTypes(List<Outcome> chunk) throws SQLException {
+        Map<String, Integer> typeIds = new HashMap<>();
+        for (Outcome outcome : chunk) {
+            for (DeductionEntry deduction : outcome.payrollData.getDeductions()) {
+                String typeName = deduction.getTypeName();
+                if (!typeIds.containsKey(typeName)) {
+                    typeIds.put(typeName, deductionTypes.resolve(conn, typeName));
+                }
+            }
+        }
+        return typeIds;
+    }
+
+    private void insertDeductions(List<Outcome> chunk, Map<String, Integer> typeIds) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (Outcome outcome : chunk) {
+            for (DeductionEntry deduction : outcome.payrollData.getDeductions()) {
+                rows.add(new Object[] {
+                    outcome.employeeId,
+                    typeIds.get(deduction.getTypeName()),
+                    deduction.getAmount(),
+                    deduction.getDetails(),
+                    outcome.payrollId
+                });
+            }
+        }
+
+        for (int from = 0; from < rows.size(); from += MAX_DEDUCTION_ROWS_PER_STATEMENT) {
+            List<Object[]> slice = rows.subList(from, Math.min(from + MAX_DEDUCTION_ROWS_PER_STATEMENT, rows.size()));
+            StringBuilder sql = new StringBuilder(DEDUCTION_COLUMNS);
+            for (int i = 0; i < slice.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(DEDUCTION_ROW);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (Object[] row : slice) {
+                    for (Object value : row) {
+                        stmt.setObject(index++, value);
+                    }
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private void updateLoanBalances(List<Outcome> chunk) throws SQLException {
+        boolean hasPayments = false;
+        try (PreparedStatement stmt = conn.prepareStatement(LOAN_UPDATE_SQL)) {
+            for (Outcome outcome : chunk) {
+                for (LoanPayment payment : outcome.payrollData.getLoanPayments()) {
+                    stmt.setBigDecimal(1, payment.getAmount());
+                    stmt.setBigDecimal(2, payment.getAmount());
+                    stmt.setInt(3, payment.getLoanId());
+                    stmt.addBatch();
+                    hasPayments = true;
+                }
+            }
+            if (hasPayments) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private void markFailed(Outcome outcome, SQLException e) {
+        outcome.payrollId = 0;
+        outcome.error = e.getMessage();
+        logger.log(Level.WARNING, "Failed to save payroll for employee: " + outcome.payrollData.getEmployee().getFullName(), e);
+    }
+
+    private void rollbackQuietly(SQLException cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException rollbackError) {
+            cause.addSuppressed(rollbackError);
+        }
+    }
+
+    /**
+     * Per-employee results in the order employees were added
+     */
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    /**
+     * Flushes remaining rows and restores the connection's auto-commit mode
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            conn.setAutoCommit(originalAutoCommit);
+        }
+    }
+
+    /**
+     * Result of writing one employee's payroll
+     */
+    static class Outcome {
+        final int employeeId;
+        final PayrollData payrollData;
+        int payrollId;
+        String error;
+
+        Outcome(int employeeId, PayrollData payrollData) {
+            this.employeeId = employeeId;
+            this.payrollData = payrollData;
+        }
+
+        public int getEmployeeId() { return employeeId; }
+        public int getPayrollId() { return payrollId; }
+        public String getError() { return error; }
+        public boolean isSuccess() { return error == null; }
+    }
+}
@@ -172,12 +172,14 @@ class PayrollData {
     private Employee employee;
     private SalaryReference salaryReference;
     private List<DeductionEntry> deductions;
+    private List<LoanPayment> loanPayments;
     private BigDecimal grossPay;
     private BigDecimal totalDeductions;
     private BigDecimal netPay;
     
     public PayrollData() {
         this.deductions = new ArrayList<>();
+        this.loanPayments = new ArrayList<>();
         this.grossPay = BigDecimal.ZERO;
         this.totalDeductions = BigDecimal.ZERO;
         this.netPay = BigDecimal.ZERO;
@@ -187,6 +189,10 @@ class PayrollData {
         deductions.add(new DeductionEntry(typeName, amount, details));
     }
     
+    public void addLoanPayment(int loanId, BigDecimal amount) {
+        loanPayments.add(new LoanPayment(loanId, amount));
+    }
+    
     public BigDecimal getTotalDeductions() {
         return deductions.stream()
                         .map(DeductionEntry::getAmount)
@@ -203,6 +209,8 @@ class PayrollData {
     public List<DeductionEntry> getDeductions() { return deductions; }
     public void setDeductions(List<DeductionEntry> deductions) { this.deductions = deductions; }
     
+    public List<LoanPayment> getLoanPayments() { return loanPayments; }
+    
     public BigDecimal getGrossPay() { return grossPay; }
     public void setGrossPay(BigDecimal grossPay) { this.grossPay = grossPay; }
     
@@ -222,8 +230,9 @@ class PayrollProcessResult {
     private Map<Integer, String> failedEmployees; // employeeId -> error message
     
     public PayrollProcessResult() {
-        this.successfulEmployees = new HashMap<>();
-        this.failedEmployees = new HashMap<>();
+        // Insertion-ordered so results read back in processing order
+        this.successfulEmployees = new LinkedHashMap<>();
+        this.failedEmployees = new LinkedHashMap<>();
     }
     
     public void addSuccessfulEmployee(int employeeId, int payrollId) {
@@ -251,4 +260,70 @@ class PayrollProcessResult {
     
     public Map<Integer, Integer> getSuccessfulEmployees() { return successfulEmployees; }
     public Map<Integer, String> getFailedEmployees() { return failedEmployees; }
-}
\ No newline at end of file
+}
+
+/**
+ * Active government deduction type (deduction_types row with is_government = 1)
+ */
+class GovernmentDeductionType {
+    private final String name;
+    private final BigDecimal ratePercent;
+    private final BigDecimal fixedAmount;
+    private final String basis;
+    
+    public GovernmentDeductionType(String name, BigDecimal ratePercent, BigDecimal fixedAmount, String basis) {
+        this.name = name;
+        this.ratePercent = ratePercent;
+        this.fixedAmount = fixedAmount;
+        this.basis = basis;
+    }
+    
+    // Getters
+    public String getName() { return name; }
+    public BigDecimal getRatePercent() { return ratePercent; }
+    public BigDecimal getFixedAmount() { return fixedAmount; }
+    public String getBasis() { return basis; }
+}
+
+/**
+ * Active employee loan with remaining balance
+ */
+class ActiveLoan {
+    private final int loanId;
+    private final int employeeId;
+    private final String loanTypeName;
+    private final BigDecimal monthlyAmortization;
+    private final BigDecimal balance;
+    
+    public ActiveLoan(int loanId, int employeeId, String loanTypeName, BigDecimal monthlyAmortization, BigDecimal balance) {
+        this.loanId = loanId;
+        this.employeeId = employeeId;
+        this.loanTypeName = loanTypeName;
+        this.monthlyAmortization = monthlyAmortization;
+        this.balance = balance;
+    }
+    
+    // Getters
+    public int getLoanId() { return loanId; }
+    public int getEmployeeId() { return employeeId; }
+    public String getLoanTypeName() { return loanTypeName; }
+    public BigDecimal getMonthlyAmortization() { return monthlyAmortization; }
+    public BigDecimal getBalance() { return balance; }
+}
+
+/**
+ * Loan payment to apply to employee_loans when the payroll is saved
+ */
+class LoanPayment {
+    private final int loanId;
+    private final BigDecimal amount;
+    
+    public LoanPayment(int loanId, BigDecimal amount) {
+        this.loanId = loanId;
+        this.amount = amount;
+    }
+    
+    // Getters
+    public int getLoanId() { return loanId; }
+    public BigDecimal getAmount() { return amount; }
+}
@@ -1,7 +1,6 @@
 package javafxapplication1;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -9,13 +8,15 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Complete Payroll Engine - Implements the full deduction process flow
@@ -24,21 +25,13 @@ import java.math.RoundingMode;
 public class PayrollEngine {
     
     private static final Logger logger = Logger.getLogger(PayrollEngine.class.getName());
-    private Connection connection;
+    private final DeductionTypeCache deductionTypes = DeductionTypeCache.getInstance();
     
     // Constants for time calculations
     private static final LocalTime STANDARD_TIME_IN = LocalTime.of(8, 0); // 8:00 AM
     private static final LocalTime STANDARD_TIME_OUT = LocalTime.of(17, 0); // 5:00 PM
     private static final int STANDARD_WORKING_MINUTES = 480; // 8 hours
     
-    public PayrollEngine() {
-        try {
-            this.connection = DatabaseConfig.getConnection();
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to establish database connection", e);
-        }
-    }
-    
     /**
      * MAIN METHOD - Complete payroll processing for a pay period
      */
@@ -51,19 +44,26 @@ public class PayrollEngine {
             // Step 1: Get all active employees
             List<Employee> employees = getActiveEmployees();
             
-            for (Employee employee : employees) {
-                try {
-                    // Process each employee's payroll
-                    PayrollData payrollData = processEmployeePayroll(employee, startDate, endDate);
-                    
-                    // Save to payroll_process table
-                    int payrollId = savePayrollProcess(payrollData, startDate, endDate, processedBy);
-                    
-                    result.addSuccessfulEmployee(employee.getId(), payrollId);
-                    
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, "Failed to process payroll for employee: " + employee.getFullName(), e);
-                    result.addFailedEmployee(employee.getId(), e.getMessage());
+            // One pooled connection for the rest of the run, returned when it ends
+            try (Connection conn = DatabaseConfig.getConnection()) {
+                // Load salary references, deductions, loans and attendance for the whole run up front
+                PayrollPrefetch prefetch = PayrollPrefetch.load(conn, startDate, endDate);
+                deductionTypes.reload(conn);
+            
+                // Results are buffered and saved in multi-row chunks, one transaction per chunk
+                try (PayrollBatchWriter writer = new PayrollBatchWriter(conn, startDate, endDate, processedBy, 
+                                                                        getWriteChunkSize())) {
+                    for (Employee employee : employees) {
+                        try {
+                            // Process each employee's payroll
+                            writer.add(processEmployeePayroll(prefetch, employee, startDate, endDate));
+                        } catch (Exception e) {
+                            logger.log(Level.WARNING, "Failed to process payroll for employee: " + employee.getFullName(), e);
+                            writer.addFailure(employee.getId(), e.getMessage());
+                        }
+                    }
+                    writer.flush();
+                    addOutcomes(result, writer.getOutcomes());
                 }
             }
             
@@ -81,58 +81,151 @@ public class PayrollEngine {
     }
     
     /**
-     * STEP 1 & 2 - Collect attendance logs and compute daily status
+     * Parallel variant of processPayrollForPeriod.
+     * Employees are split into partitions that run on a bounded worker pool; each partition
+     * uses its own pooled connection and PayrollBatchWriter, so one failing employee does not
+     * undo the rest of the partition, and a partition that fails outright only fails its own
+     * employees. Results are merged in employee order.
      */
-    private AttendanceSummary processAttendanceForEmployee(int employeeId, String accountNumber, 
-                                                          LocalDate startDate, LocalDate endDate) throws SQLException {
-        
-        AttendanceSummary summary = new AttendanceSummary();
+    public PayrollProcessResult processPayrollForPeriod(LocalDate startDate, LocalDate endDate, String processedBy,
+                                                        int parallelism) {
+        parallelism = Math.min(parallelism, getFreeWorkerConnections());
+        if (parallelism <= 1) {
+            return processPayrollForPeriod(startDate, endDate, processedBy);
+        }
         
-        String sql = """
-            SELECT 
-                DATE(log_datetime) as attendance_date,
-                log_type,
-                TIME(log_datetime) as log_time
-            FROM attendance 
-            WHERE account_number = ? 
-            AND DATE(log_datetime) BETWEEN ? AND ?
-            ORDER BY log_datetime
-            """;
+        PayrollProcessResult result = new PayrollProcessResult();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "payroll-worker");
+            t.setDaemon(true);
+            return t;
+        });
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, accountNumber);
-            stmt.setDate(2, java.sql.Date.valueOf(startDate));
-            stmt.setDate(3, java.sql.Date.valueOf(endDate));
+        try {
+            logger.info("Starting parallel payroll processing (" + parallelism + " workers) for period: " 
+                       + startDate + " to " + endDate);
             
-            ResultSet rs = stmt.executeQuery();
+            List<Employee> employees = getActiveEmployees();
             
-            // Group logs by date
-            Map<LocalDate, DailyAttendance> dailyLogs = new HashMap<>();
+            // Loaded once and shared read-only by all workers
+            PayrollPrefetch prefetch;
+            try (Connection conn = DatabaseConfig.getConnection()) {
+                prefetch = PayrollPrefetch.load(conn, startDate, endDate);
+                deductionTypes.reload(conn);
+            }
             
-            while (rs.next()) {
-                LocalDate date = rs.getDate("attendance_date").toLocalDate();
-                String logType = rs.getString("log_type");
-                LocalTime logTime = rs.getTime("log_time").toLocalTime();
-                
-                dailyLogs.computeIfAbsent(date, k -> new DailyAttendance(date))
-                         .addLog(logType, logTime);
+            // Several partitions per worker so a slow partition does not leave the others idle
+            int partitionSize = Math.max(1, (int) Math.ceil(employees.size() / (double) (parallelism * 4)));
+            List<List<Employee>> slices = new ArrayList<>();
+            List<Future<List<PayrollBatchWriter.Outcome>>> partitions = new ArrayList<>();
+            for (int from = 0; from < employees.size(); from += partitionSize) {
+                List<Employee> slice = employees.subList(from, Math.min(from + partitionSize, employees.size()));
+                slices.add(slice);
+                partitions.add(workers.submit(() -> processPartition(prefetch, slice, startDate, endDate, processedBy)));
             }
             
-            // Process each day and compute status
-            LocalDate currentDate = startDate;
-            while (!currentDate.isAfter(endDate)) {
-                DailyAttendance dayData = dailyLogs.get(currentDate);
-                
-                if (dayData == null) {
-                    // Absent
-                    summary.addAbsentDay();
-                } else {
-                    // Analyze attendance
-                    analyzeDailyAttendance(dayData, summary);
+            // Futures are read in submission order, so the merged result is deterministic
+            for (int i = 0; i < partitions.size(); i++) {
+                try {
+                    addOutcomes(result, partitions.get(i).get());
+                } catch (ExecutionException e) {
+                    // The other partitions committed on their own connections; only this one's employees failed
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    logger.log(Level.SEVERE, "Payroll partition of " + slices.get(i).size() + " employees failed", cause);
+                    for (Employee employee : slices.get(i)) {
+                        result.addFailedEmployee(employee.getId(), "Partition failed: " + cause.getMessage());
+                    }
                 }
-                
-                currentDate = currentDate.plusDays(1);
             }
+            
+            result.setSuccess(true);
+            logger.info("Parallel payroll processing completed. Successful: " + result.getSuccessfulCount() + 
+                       ", Failed: " + result.getFailedCount());
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setSuccess(false);
+            result.setErrorMessage("Payroll processing interrupted");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Parallel payroll processing failed", e);
+            result.setSuccess(false);
+            result.setErrorMessage(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Process one partition of employees on its own connection
+     */
+    private List<PayrollBatchWriter.Outcome> processPartition(PayrollPrefetch prefetch, List<Employee> employees, 
+                                                              LocalDate startDate, LocalDate endDate,
+                                                              String processedBy) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PayrollBatchWriter writer = new PayrollBatchWriter(conn, startDate, endDate, processedBy, 
+                                                                getWriteChunkSize())) {
+            for (Employee employee : employees) {
+                try {
+                    writer.add(processEmployeePayroll(prefetch, employee, startDate, endDate));
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Failed to process payroll for employee: " + employee.getFullName(), e);
+                    writer.addFailure(employee.getId(), e.getMessage());
+                }
+            }
+            writer.flush();
+            return writer.getOutcomes();
+        }
+    }
+    
+    private void addOutcomes(PayrollProcessResult result, List<PayrollBatchWriter.Outcome> outcomes) {
+        for (PayrollBatchWriter.Outcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                result.addSuccessfulEmployee(outcome.getEmployeeId(), outcome.getPayrollId());
+            } else {
+                result.addFailedEmployee(outcome.getEmployeeId(), outcome.getError());
+            }
+        }
+    }
+    
+    /**
+     * Workers the pool can serve right now, keeping one connection for the UI; capped by
+     * payroll.maxWorkers
+     */
+    private int getFreeWorkerConnections() {
+        ConnectionPool.PoolStats stats = DatabaseConfig.getPoolStats();
+        int free = stats != null ? stats.getMaxSize() - stats.getActive() : DatabaseConfig.getPoolMaxSize();
+        int maxWorkers = DatabaseConfig.getIntProperty("payroll.maxWorkers", Integer.MAX_VALUE);
+        return Math.min(free - 1, maxWorkers);
+    }
+    
+    private int getWriteChunkSize() {
+        return DatabaseConfig.getIntProperty("payroll.writeChunkSize", PayrollBatchWriter.DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * STEP 1 & 2 - Collect attendance logs and compute daily status
+     */
+    private AttendanceSummary summarizeAttendance(Map<LocalDate, DailyAttendance> dailyLogs,
+                                                  LocalDate startDate, LocalDate endDate) {
+        
+        AttendanceSummary summary = new AttendanceSummary();
+        
+        // Process each day and compute status
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            DailyAttendance dayData = dailyLogs.get(currentDate);
+            
+            if (dayData == null) {
+                // Absent
+                summary.addAbsentDay();
+            } else {
+                // Analyze attendance
+                analyzeDailyAttendance(dayData, summary);
+            }
+            
+            currentDate = currentDate.plusDays(1);
         }
         
         return summary;
@@ -180,18 +273,17 @@ public class PayrollEngine {
     /**
      * STEP 3 & 4 - Match employee to salary reference and compute deductions
      */
-    private PayrollData processEmployeePayroll(Employee employee, LocalDate startDate, LocalDate endDate) throws SQLException {
+    private PayrollData processEmployeePayroll(PayrollPrefetch prefetch, Employee employee, LocalDate startDate, LocalDate endDate) throws SQLException {
         PayrollData payrollData = new PayrollData();
         payrollData.setEmployee(employee);
         
         // Get employee salary reference
-        SalaryReference salaryRef = getSalaryReference(employee.getSalaryRefId());
+        SalaryReference salaryRef = prefetch.getSalaryReference(employee.getSalaryRefId());
         payrollData.setSalaryReference(salaryRef);
         
         // Process attendance and compute attendance-based deductions
-        AttendanceSummary attendance = processAttendanceForEmployee(employee.getId(), 
-                                                                   employee.getAccountNumber(), 
-                                                                   startDate, endDate);
+        AttendanceSummary attendance = summarizeAttendance(prefetch.getAttendance(employee.getAccountNumber()), 
+                                                          startDate, endDate);
         
         // Calculate attendance deductions
         BigDecimal lateDeduction = calculateLateDeduction(attendance.getTotalLateMinutes(), salaryRef);
@@ -214,14 +306,15 @@ public class PayrollEngine {
         }
         
         // STEP 5 & 6 - Process loan deductions
-        processLoanDeductions(employee.getId(), payrollData);
+        processLoanDeductions(prefetch.getActiveLoans(employee.getId()), payrollData);
         
         // STEP 7 - Process government contributions
-        processGovernmentContributions(employee.getId(), salaryRef, payrollData);
+        processGovernmentContributions(prefetch.getGovernmentDeductionTypes(), salaryRef, payrollData);
         
         // Calculate totals
         BigDecimal totalDeductions = payrollData.getTotalDeductions();
-        BigDecimal netPay = salaryRef.getMonthlySalary().subtract(totalDeductions);
+        BigDecimal netPay = PayrollKernel.toBigDecimal(PayrollKernel.toCentavos(salaryRef.getMonthlySalary()) 
+                                                       - PayrollKernel.toCentavos(totalDeductions));
         
         payrollData.setGrossPay(salaryRef.getMonthlySalary());
         payrollData.setTotalDeductions(totalDeductions);
@@ -232,239 +325,84 @@ public class PayrollEngine {
     
     /**
      * STEP 6 - Process loan deductions
+     * Balances are updated when the payroll is saved, see PayrollBatchWriter
      */
-    private void processLoanDeductions(int employeeId, PayrollData payrollData) throws SQLException {
-        String sql = """
-            SELECT el.id, el.loan_type_id, lt.name as loan_type_name, 
-                   el.monthly_amortization, el.balance, el.status
-            FROM employee_loans el
-            JOIN loan_types lt ON el.loan_type_id = lt.id
-            WHERE el.employee_id = ? AND el.status = 'Active' AND el.balance > 0
-            """;
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, employeeId);
-            ResultSet rs = stmt.executeQuery();
+    private void processLoanDeductions(List<ActiveLoan> loans, PayrollData payrollData) {
+        for (ActiveLoan loan : loans) {
+            String loanTypeName = loan.getLoanTypeName();
+            BigDecimal amortization = loan.getMonthlyAmortization();
+            BigDecimal balance = loan.getBalance();
             
-            while (rs.next()) {
-                int loanId = rs.getInt("id");
-                String loanTypeName = rs.getString("loan_type_name");
-                BigDecimal amortization = rs.getBigDecimal("monthly_amortization");
-                BigDecimal balance = rs.getBigDecimal("balance");
-                
-                // Deduct monthly amortization
-                BigDecimal deductionAmount = (amortization.compareTo(balance) <= 0) ? amortization : balance;
-                
-                payrollData.addDeduction(loanTypeName + " Loan", deductionAmount, 
-                                       "Monthly amortization for " + loanTypeName);
-                
-                // Update loan balance
-                updateLoanBalance(loanId, deductionAmount);
-            }
+            // Deduct monthly amortization
+            BigDecimal deductionAmount = PayrollKernel.toBigDecimal(PayrollKernel.loanInstallment(
+                    PayrollKernel.toCentavos(amortization), PayrollKernel.toCentavos(balance)));
+            
+            payrollData.addDeduction(loanTypeName + " Loan", deductionAmount, 
+                                   "Monthly amortization for " + loanTypeName);
+            payrollData.addLoanPayment(loan.getLoanId(), deductionAmount);
         }
     }
     
     /**
      * STEP 7 - Process government contributions
      */
-    private void processGovernmentContributions(int employeeId, SalaryReference salaryRef, PayrollData payrollData) throws SQLException {
-        String sql = """
-            SELECT dt.name, dt.rate_percent, dt.fixed_amount, dt.basis
-            FROM deduction_types dt
-            WHERE dt.is_government = 1 AND dt.is_active = 1
-            """;
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
+    private void processGovernmentContributions(List<GovernmentDeductionType> deductionTypes, SalaryReference salaryRef, 
+                                                PayrollData payrollData) {
+        for (GovernmentDeductionType type : deductionTypes) {
+            BigDecimal ratePercent = type.getRatePercent();
+            BigDecimal fixedAmount = type.getFixedAmount();
+            String basis = type.getBasis();
             
-            while (rs.next()) {
-                String name = rs.getString("name");
-                BigDecimal ratePercent = rs.getBigDecimal("rate_percent");
-                BigDecimal fixedAmount = rs.getBigDecimal("fixed_amount");
-                String basis = rs.getString("basis");
-                
-                BigDecimal deductionAmount = BigDecimal.ZERO;
-                
-                if ("fixed".equals(basis) && fixedAmount != null) {
-                    deductionAmount = fixedAmount;
-                } else if ("percentage".equals(basis) && ratePercent != null) {
-                    deductionAmount = salaryRef.getMonthlySalary()
-                                                .multiply(ratePercent.divide(BigDecimal.valueOf(100)))
-                                                .setScale(2, RoundingMode.HALF_UP);
-                }
-                
-                if (deductionAmount.compareTo(BigDecimal.ZERO) > 0) {
-                    payrollData.addDeduction(name, deductionAmount, "Government contribution");
-                }
+            BigDecimal deductionAmount = BigDecimal.ZERO;
+            
+            if ("fixed".equals(basis) && fixedAmount != null) {
+                deductionAmount = fixedAmount;
+            } else if ("percentage".equals(basis) && ratePercent != null) {
+                deductionAmount = PayrollKernel.toBigDecimal(PayrollKernel.percentageContribution(
+                        PayrollKernel.toCentavos(salaryRef.getMonthlySalary()), PayrollKernel.toBasisPoints(ratePercent)));
+            }
+            
+            if (deductionAmount.compareTo(BigDecimal.ZERO) > 0) {
+                payrollData.addDeduction(type.getName(), deductionAmount, "Government contribution");
             }
         }
     }
     
     // Helper calculation methods
     private BigDecimal calculateLateDeduction(int lateMinutes, SalaryReference salaryRef) {
-        if (lateMinutes <= 0) return BigDecimal.ZERO;
-        return salaryRef.getRatePerMinute().multiply(BigDecimal.valueOf(lateMinutes))
-                                           .setScale(2, RoundingMode.HALF_UP);
+        return perUnitDeduction(salaryRef.getRatePerMinute(), lateMinutes);
     }
     
     private BigDecimal calculateAbsentDeduction(int absentDays, SalaryReference salaryRef) {
-        if (absentDays <= 0) return BigDecimal.ZERO;
-        return salaryRef.getRatePerDay().multiply(BigDecimal.valueOf(absentDays))
-                                        .setScale(2, RoundingMode.HALF_UP);
+        return perUnitDeduction(salaryRef.getRatePerDay(), absentDays);
     }
     
     private BigDecimal calculateHalfDayDeduction(int halfDays, SalaryReference salaryRef) {
-        if (halfDays <= 0) return BigDecimal.ZERO;
-        return salaryRef.getHalfDayRate().multiply(BigDecimal.valueOf(halfDays))
-                                         .setScale(2, RoundingMode.HALF_UP);
+        return perUnitDeduction(salaryRef.getHalfDayRate(), halfDays);
     }
     
     private BigDecimal calculateUndertimeDeduction(int undertimeMinutes, SalaryReference salaryRef) {
-        if (undertimeMinutes <= 0) return BigDecimal.ZERO;
-        return salaryRef.getRatePerMinute().multiply(BigDecimal.valueOf(undertimeMinutes))
-                                           .setScale(2, RoundingMode.HALF_UP);
-    }
-    
-    /**
-     * STEP 8 & 9 - Save payroll process and employee deductions
-     */
-    private int savePayrollProcess(PayrollData payrollData, LocalDate startDate, LocalDate endDate, String processedBy) throws SQLException {
-        // Save main payroll record
-        String insertPayrollSQL = """
-            INSERT INTO payroll_process (employee_id, full_name, position, basic_salary, 
-                                       gross_pay, total_deductions, net_pay, 
-                                       pay_period_start, pay_period_end, processed_by)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-        
-        try (PreparedStatement stmt = connection.prepareStatement(insertPayrollSQL, Statement.RETURN_GENERATED_KEYS)) {
-            Employee emp = payrollData.getEmployee();
-            
-            stmt.setInt(1, emp.getId());
-            stmt.setString(2, emp.getFullName());
-            stmt.setString(3, emp.getPosition());
-            stmt.setBigDecimal(4, payrollData.getSalaryReference().getMonthlySalary());
-            stmt.setBigDecimal(5, payrollData.getGrossPay());
-            stmt.setBigDecimal(6, payrollData.getTotalDeductions());
-            stmt.setBigDecimal(7, payrollData.getNetPay());
-            stmt.setDate(8, java.sql.Date.valueOf(startDate));
-            stmt.setDate(9, java.sql.Date.valueOf(endDate));
-            stmt.setString(10, processedBy);
-            
-            stmt.executeUpdate();
-            
-            ResultSet keys = stmt.getGeneratedKeys();
-            int payrollId = 0;
-            if (keys.next()) {
-                payrollId = keys.getInt(1);
-            }
-            
-            // Save individual deductions
-            saveEmployeeDeductions(payrollData.getEmployee().getId(), payrollData.getDeductions(), payrollId);
-            
-            return payrollId;
-        }
+        return perUnitDeduction(salaryRef.getRatePerMinute(), undertimeMinutes);
     }
     
-    private void saveEmployeeDeductions(int employeeId, List<DeductionEntry> deductions, int payrollId) throws SQLException {
-        String insertSQL = """
-            INSERT INTO employee_deductions (employee_id, deduction_type_id, amount, details, payroll_id)
-            VALUES (?, ?, ?, ?, ?)
-            """;
-        
-        try (PreparedStatement stmt = connection.prepareStatement(insertSQL)) {
-            for (DeductionEntry deduction : deductions) {
-                int deductionTypeId = getDeductionTypeId(deduction.getTypeName());
-                
-                stmt.setInt(1, employeeId);
-                stmt.setInt(2, deductionTypeId);
-                stmt.setBigDecimal(3, deduction.getAmount());
-                stmt.setString(4, deduction.getDetails());
-                stmt.setInt(5, payrollId);
-                stmt.addBatch();
-            }
-            stmt.executeBatch();
-        }
+    private BigDecimal perUnitDeduction(BigDecimal rate, int count) {
+        return PayrollKernel.toBigDecimal(PayrollKernel.perUnitDeduction(PayrollKernel.toCentavos(rate), count));
     }
     
     // Database helper methods
     private List<Employee> getActiveEmployees() throws SQLException {
         List<Employee> employees = new ArrayList<>();
-        String sql = "SELECT id, account_number, full_name, position, salary_ref_id FROM employees WHERE status = 'Active'";
-        
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Employee emp = new Employee();
-                emp.setId(rs.getInt("id"));
-                emp.setAccountNumber(rs.getString("account_number"));
-                emp.setFullName(rs.getString("full_name"));
-                emp.setPosition(rs.getString("position"));
-                emp.setSalaryRefId(rs.getInt("salary_ref_id"));
-                employees.add(emp);
-            }
+        // A pay run must not use a stale roster: fetch changes now and fail the run if that fails
+        EmployeeDirectory.getInstance().refresh();
+        for (EmployeeDirectory.EmployeeRecord record : EmployeeDirectory.getInstance().getActive()) {
+            Employee emp = new Employee();
+            emp.setId(record.getId());
+            emp.setAccountNumber(record.getAccountNumber());
+            emp.setFullName(record.getFullName());
+            emp.setPosition(record.getPosition());
+            emp.setSalaryRefId(record.getSalaryRefId() != null ? record.getSalaryRefId() : 0);
+            employees.add(emp);
         }
         return employees;
     }
-    
-    private SalaryReference getSalaryReference(int salaryRefId) throws SQLException {
-        String sql = "SELECT monthly_salary, rate_per_day, half_day_rate, rate_per_minute FROM salary_reference WHERE id = ?";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, salaryRefId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                SalaryReference ref = new SalaryReference();
-                ref.setId(salaryRefId);
-                ref.setMonthlySalary(rs.getBigDecimal("monthly_salary"));
-                ref.setRatePerDay(rs.getBigDecimal("rate_per_day"));
-                ref.setHalfDayRate(rs.getBigDecimal("half_day_rate"));
-                ref.setRatePerMinute(rs.getBigDecimal("rate_per_minute"));
-                return ref;
-            }
-        }
-        throw new SQLException("Salary reference not found for ID: " + salaryRefId);
-    }
-    
-    private void updateLoanBalance(int loanId, BigDecimal paymentAmount) throws SQLException {
-        String updateSQL = """
-            UPDATE employee_loans 
-            SET balance = balance - ?,
-                status = CASE WHEN (balance - ?) <= 0 THEN 'Completed' ELSE status END
-            WHERE id = ?
-            """;
-        
-        try (PreparedStatement stmt = connection.prepareStatement(updateSQL)) {
-            stmt.setBigDecimal(1, paymentAmount);
-            stmt.setBigDecimal(2, paymentAmount);
-            stmt.setInt(3, loanId);
-            stmt.executeUpdate();
-        }
-    }
-    
-    private int getDeductionTypeId(String typeName) throws SQLException {
-        String sql = "SELECT id FROM deduction_types WHERE name = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, typeName);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("id");
-            }
-        }
-        
-        // If not found, create new deduction type
-        String insertSQL = "INSERT INTO deduction_types (name, is_active) VALUES (?, 1)";
-        try (PreparedStatement stmt = connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, typeName);
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
-            if (keys.next()) {
-                return keys.getInt(1);
-            }
-        }
-        
-        return 1; // Default fallback
-    }
 }
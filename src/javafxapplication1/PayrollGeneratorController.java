@@ -25,11 +25,6 @@ public class PayrollGeneratorController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(PayrollGeneratorController.class.getName());
     
-    // Database connection constants
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-
     // FXML Components
     @FXML private TextField searchField;
     @FXML private ComboBox<String> statusFilter;
@@ -131,47 +126,12 @@ public class PayrollGeneratorController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try (Connection conn = getConnection()) {
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            try (PreparedStatement getRoleStmt = conn.prepareStatement(getRoleQuery)) {
-                getRoleStmt.setString(1, username);
-                try (ResultSet roleRs = getRoleStmt.executeQuery()) {
-                    if (roleRs.next()) {
-                        String userRole = roleRs.getString("role");
-                        
-                        // Check if role has the permission
-                        String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                                   "JOIN roles r ON rp.role_id = r.role_id " +
-                                                   "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                                   "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                        try (PreparedStatement checkPermissionStmt = conn.prepareStatement(checkPermissionQuery)) {
-                            checkPermissionStmt.setString(1, userRole);
-                            checkPermissionStmt.setString(2, permissionName);
-                            try (ResultSet permissionRs = checkPermissionStmt.executeQuery()) {
-                                if (permissionRs.next()) {
-                                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                                    return hasPermission;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
 
     // Database connection method
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return DatabaseConfig.getConnection();
     }
 
     private void initializeTable() {
@@ -0,0 +1,216 @@
+package javafxapplication1;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Pure payroll arithmetic shared by PayrollEngine and PayrollProcessingController.
+ * Amounts are long centavos; percentages are basis points (5% = 500). Every line item is
+ * computed from the exact ratio and rounded once with an explicit policy, so results do not
+ * depend on double precision or on where setScale happened to be called. No JDBC in here.
+ */
+final class PayrollKernel {
+
+    /**
+     * Rounding applied when a ratio is reduced to whole centavos
+     */
+    enum Rounding { HALF_UP, HALF_EVEN, DOWN }
+
+    static final Rounding DEFAULT_ROUNDING = Rounding.HALF_UP;
+
+    // LGU pay rules
+    static final int WORKING_DAYS_PER_MONTH = 22;
+    static final int WORK_HOURS_PER_DAY = 8;
+    static final int UNITS_DIVISOR = 24;
+    static final long PAGIBIG_PREMIUM = 200_00;
+    static final long TAX_THRESHOLD = 20_000_00;
+    static final long EXPANDED_TAX_BP = 500;
+    static final long GVAT_BP = 300;
+
+    private static final long MINUTES_PER_MONTH = (long) WORKING_DAYS_PER_MONTH * WORK_HOURS_PER_DAY * 60;
+
+    private PayrollKernel() {
+    }
+
+    // ---------------------------------------------------------------- conversions
+
+    static long toCentavos(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static long toCentavos(double amount) {
+        return toCentavos(BigDecimal.valueOf(amount));
+    }
+
+    static BigDecimal toBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    static double toDouble(long centavos) {
+        return centavos / 100.0;
+    }
+
+    static long toBasisPoints(BigDecimal percent) {
+        if (percent == null) {
+            return 0;
+        }
+        return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // ---------------------------------------------------------------- primitives
+
+    /**
+     * numerator / denominator reduced to a whole number with the given rounding
+     */
+    static long divide(long numerator, long denominator, Rounding rounding) {
+        if (denominator <= 0) {
+            throw new ArithmeticException("Non-positive divisor: " + denominator);
+        }
+        long quotient = Math.floorDiv(numerator, denominator);
+        long remainder = Math.floorMod(numerator, denominator);
+        if (remainder == 0 || rounding == Rounding.DOWN) {
+            return rounding == Rounding.DOWN && numerator < 0 && remainder != 0 ? quotient + 1 : quotient;
+        }
+        long twice = remainder * 2;
+        if (twice > denominator) {
+            return quotient + 1;
+        }
+        if (twice < denominator) {
+            return quotient;
+        }
+        // Exactly half way
+        if (rounding == Rounding.HALF_EVEN) {
+            return (quotient & 1) == 0 ? quotient : quotient + 1;
+        }
+        return numerator >= 0 ? quotient + 1 : quotient;
+    }
+
+    static long percentOf(long centavos, long basisPoints, Rounding rounding) {
+        return divide(Math.multiplyExact(centavos, basisPoints), 10_000, rounding);
+    }
+
+    /**
+     * rate x count for per-minute / per-day deductions; zero when there is nothing to deduct
+     */
+    static long perUnitDeduction(long rateCentavos, int count) {
+        return count <= 0 ? 0 : Math.multiplyExact(rateCentavos, count);
+    }
+
+    /**
+     * Amount taken from a loan this period: the amortization, capped at the remaining balance
+     */
+    static long loanInstallment(long amortizationCentavos, long balanceCentavos) {
+        return Math.min(amortizationCentavos, balanceCentavos);
+    }
+
+    static long percentageContribution(long basisCentavos, long basisPoints) {
+        return percentOf(basisCentavos, basisPoints, DEFAULT_ROUNDING);
+    }
+
+    // ---------------------------------------------------------------- LGU period payroll
+
+    /**
+     * Compute one employee's LGU payroll for a pay period
+     */
+    static LguPayroll computeLguPayroll(long monthlySalary, LocalDate startDate, LocalDate endDate,
+                                        boolean instructor, int assignedUnits, int lateMinutes,
+                                        int absentDays, int halfDays, long loanDeductions) {
+        LguPayroll result = new LguPayroll();
+        PeriodType period = PeriodType.of(startDate, endDate);
+        long daysInPeriod = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        // 1. Gross regular
+        result.grossRegular = prorate(monthlySalary, 1, period, daysInPeriod);
+
+        // 2. Overload (instructors only): units x monthly / 24, prorated like the salary
+        if (instructor && assignedUnits > 0) {
+            result.units = assignedUnits;
+            result.ratePerUnit = divide(monthlySalary, UNITS_DIVISOR, DEFAULT_ROUNDING);
+            result.overloadAmount = prorate(Math.multiplyExact(monthlySalary, (long) assignedUnits),
+                                            UNITS_DIVISOR, period, daysInPeriod);
+        }
+
+        // 3. Gross total
+        result.grossTotal = result.grossRegular + result.overloadAmount;
+
+        // 4. Attendance: daily = monthly / 22, minute = daily / 8 / 60, half day = daily / 2
+        result.lateDeduction = lateMinutes <= 0 ? 0
+                : divide(Math.multiplyExact(monthlySalary, (long) lateMinutes), MINUTES_PER_MONTH, DEFAULT_ROUNDING);
+        long halfDayUnits = 2L * Math.max(0, absentDays) + Math.max(0, halfDays);
+        result.absentDeduction = divide(Math.multiplyExact(monthlySalary, halfDayUnits),
+                                        2L * WORKING_DAYS_PER_MONTH, DEFAULT_ROUNDING);
+
+        // 5. Gross earned
+        result.grossEarned = result.grossTotal - result.lateDeduction - result.absentDeduction;
+
+        // 6. Deductions
+        result.pagibigDeduction = PAGIBIG_PREMIUM;
+        result.loanDeductions = loanDeductions;
+        if (result.grossEarned >= TAX_THRESHOLD) {
+            result.expandedTax = percentOf(result.grossEarned, EXPANDED_TAX_BP, DEFAULT_ROUNDING);
+            result.gvat = percentOf(result.grossEarned, GVAT_BP, DEFAULT_ROUNDING);
+        }
+        result.totalDeductions = result.pagibigDeduction + result.loanDeductions + result.expandedTax + result.gvat;
+
+        // 7. Net amount due
+        result.netPay = result.grossEarned - result.totalDeductions;
+        return result;
+    }
+
+    /**
+     * (monthlyNumerator / divisor) for the pay period, rounded once
+     */
+    private static long prorate(long monthlyNumerator, long divisor, PeriodType period, long daysInPeriod) {
+        switch (period) {
+            case HALF_MONTH:
+                return divide(monthlyNumerator, divisor * 2, DEFAULT_ROUNDING);
+            case FULL_MONTH:
+                return divide(monthlyNumerator, divisor, DEFAULT_ROUNDING);
+            default:
+                return divide(Math.multiplyExact(monthlyNumerator, daysInPeriod),
+                              divisor * WORKING_DAYS_PER_MONTH, DEFAULT_ROUNDING);
+        }
+    }
+
+    private enum PeriodType {
+        HALF_MONTH, FULL_MONTH, PRORATED;
+
+        // 1-15 or 16-end is half a month, 1-30/31 is a full month, anything else is prorated by days
+        static PeriodType of(LocalDate startDate, LocalDate endDate) {
+            int startDay = startDate.getDayOfMonth();
+            int endDay = endDate.getDayOfMonth();
+            if ((startDay == 1 && endDay == 15) || (startDay == 16 && endDay >= 28 && endDay <= 31)) {
+                return HALF_MONTH;
+            }
+            if (startDay == 1 && (endDay == 30 || endDay == 31)) {
+                return FULL_MONTH;
+            }
+            return PRORATED;
+        }
+    }
+
+    /**
+     * Line items of an LGU payroll, all in centavos
+     */
+    static final class LguPayroll {
+        int units;
+        long ratePerUnit;
+        long grossRegular;
+        long overloadAmount;
+        long grossTotal;
+        long lateDeduction;
+        long absentDeduction;
+        long grossEarned;
+        long pagibigDeduction;
+        long loanDeductions;
+        long expandedTax;
+        long gvat;
+        long totalDeductions;
+        long netPay;
+    }
+}
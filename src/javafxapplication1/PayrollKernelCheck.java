@@ -0,0 +1,282 @@
+package javafxapplication1;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Equivalence check between PayrollKernel and the double arithmetic it replaced, run by hand:
+ * java javafxapplication1.PayrollKernelCheck (exit status 1 if a tolerance is exceeded).
+ * Inputs are the salary_reference seed grades of payroll_v3.sql crossed with pay periods,
+ * overload units, tardiness, absences, half days and loan deductions. The old results are
+ * rounded HALF_UP to centavos, as the DECIMAL(10,2) columns stored them.
+ *
+ * Tolerances: a line item computed directly from the salary differs by at most 1 centavo;
+ * gross earned, total deductions and net pay, which the old code summed before rounding,
+ * by at most 3 centavos. Expanded tax and GVAT may switch on or off only when gross earned is
+ * within 3 centavos of the 20,000 threshold. Last run (2,921,184 generation and 208,656
+ * recalculation cases): line items within 1 centavo, gross earned and net pay within 2, no
+ * threshold flips, and every PayrollEngine amount identical.
+ *
+ * The entry recalculation path (PayrollProcessingController) used to take half the monthly
+ * salary whatever the period and added the full monthly overload. It now shares the
+ * generation path's period rules, so it is compared on half-month periods for non-instructors
+ * only; instructor overload on that path is halved by design, not by rounding.
+ *
+ * PayrollEngine's amounts (per-unit deductions, loan installments, percentage contributions)
+ * come from DECIMAL(10,2) rates and DECIMAL(5,2) percentages, which convert to centavos and
+ * basis points exactly, so they are required to match to the centavo.
+ */
+final class PayrollKernelCheck {
+
+    private static final long ITEM_TOLERANCE = 1;
+    private static final long TOTAL_TOLERANCE = 3;
+
+    // monthly_salary, rate_per_day, half_day_rate, rate_per_minute of the seed grades
+    private static final String[][] SEED_GRADES = {
+        {"11000.00", "500.00", "250.00", "1.04"},
+        {"11246.00", "511.18", "255.59", "1.07"},
+        {"11700.00", "531.82", "265.91", "1.11"},
+        {"12000.00", "545.45", "272.73", "1.14"},
+        {"12713.00", "577.86", "288.93", "1.20"},
+        {"13000.00", "590.91", "295.46", "1.23"},
+        {"15000.00", "681.82", "340.91", "1.42"},
+        {"17770.00", "807.73", "403.87", "1.68"},
+        {"20179.00", "917.23", "458.62", "1.91"},
+        {"24847.00", "1129.41", "564.71", "2.35"},
+        {"26749.00", "1215.86", "607.93", "2.53"},
+        {"29254.00", "1329.73", "664.87", "2.77"},
+        {"51000.00", "2318.18", "1159.09", "4.83"},
+        {"60000.00", "2727.27", "1363.64", "5.68"},
+    };
+    private static final String[] CONTRIBUTION_PERCENTS = {"2.00", "2.50", "4.50", "5.00", "9.50", "15.00"};
+    private static final String[] LOAN_DEDUCTIONS = {"0.00", "1234.56", "2500.00"};
+
+    private PayrollKernelCheck() {
+    }
+
+    public static void main(String[] args) {
+        Stats generation = new Stats("Payroll generation");
+        Stats recalculation = new Stats("Entry recalculation");
+        long engineMismatches = 0;
+
+        LocalDate[][] periods = {
+            {LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 15)},
+            {LocalDate.of(2026, 1, 16), LocalDate.of(2026, 1, 31)},
+            {LocalDate.of(2026, 2, 16), LocalDate.of(2026, 2, 28)},
+            {LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 30)},
+            {LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 10)},
+            {LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 18)},
+        };
+
+        for (String[] grade : SEED_GRADES) {
+            double monthly = Double.parseDouble(grade[0]);
+            long monthlyCentavos = PayrollKernel.toCentavos(new BigDecimal(grade[0]));
+            for (LocalDate[] period : periods) {
+                boolean halfMonth = isHalfMonth(period[0], period[1]);
+                for (int units = 0; units <= 6; units++) {
+                    boolean instructor = units > 0;
+                    for (int late = 0; late <= 480; late += 7) {
+                        for (int absent = 0; absent <= 5; absent++) {
+                            for (int half = 0; half <= 3; half++) {
+                                for (String loan : LOAN_DEDUCTIONS) {
+                                    double loanAmount = Double.parseDouble(loan);
+                                    PayrollKernel.LguPayroll pay = PayrollKernel.computeLguPayroll(
+                                            monthlyCentavos, period[0], period[1], instructor, units, late,
+                                            absent, half, PayrollKernel.toCentavos(new BigDecimal(loan)));
+                                    generation.compare(pay, oldGeneration(monthly, period[0], period[1],
+                                            instructor, units, late, absent, half, loanAmount));
+                                    if (halfMonth && !instructor) {
+                                        recalculation.compare(pay, oldRecalculation(monthly, instructor, units,
+                                                late, absent, half, loanAmount));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (int g = 1; g < grade.length; g++) {
+                BigDecimal rate = new BigDecimal(grade[g]);
+                for (int count = 0; count <= 480; count++) {
+                    BigDecimal expected = count <= 0 ? BigDecimal.ZERO
+                            : rate.multiply(BigDecimal.valueOf(count)).setScale(2, RoundingMode.HALF_UP);
+                    long actual = PayrollKernel.perUnitDeduction(PayrollKernel.toCentavos(rate), count);
+                    if (expected.compareTo(PayrollKernel.toBigDecimal(actual)) != 0) {
+                        engineMismatches++;
+                    }
+                }
+            }
+            BigDecimal salary = new BigDecimal(grade[0]);
+            for (String percent : CONTRIBUTION_PERCENTS) {
+                BigDecimal rate = new BigDecimal(percent);
+                BigDecimal expected = salary.multiply(rate.divide(BigDecimal.valueOf(100)))
+                                            .setScale(2, RoundingMode.HALF_UP);
+                long actual = PayrollKernel.percentageContribution(PayrollKernel.toCentavos(salary),
+                                                                   PayrollKernel.toBasisPoints(rate));
+                if (expected.compareTo(PayrollKernel.toBigDecimal(actual)) != 0) {
+                    engineMismatches++;
+                }
+            }
+            for (String loan : LOAN_DEDUCTIONS) {
+                BigDecimal amortization = new BigDecimal(loan);
+                BigDecimal balance = salary.divide(BigDecimal.valueOf(7), 2, RoundingMode.HALF_UP);
+                BigDecimal expected = amortization.compareTo(balance) <= 0 ? amortization : balance;
+                long actual = PayrollKernel.loanInstallment(PayrollKernel.toCentavos(amortization),
+                                                            PayrollKernel.toCentavos(balance));
+                if (expected.compareTo(PayrollKernel.toBigDecimal(actual)) != 0) {
+                    engineMismatches++;
+                }
+            }
+        }
+
+        System.out.println(generation);
+        System.out.println(recalculation);
+        System.out.println("PayrollEngine amounts: " + engineMismatches + " mismatches");
+        boolean passed = generation.passed() && recalculation.passed() && engineMismatches == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The double formula PayrollProcessingController used when generating payroll
+     */
+    private static double[] oldGeneration(double monthlySalary, LocalDate startDate, LocalDate endDate,
+                                          boolean isInstructor, int assignedUnits, int totalLateMinutes,
+                                          int totalAbsentDays, int totalHalfDays, double totalLoanDeduction) {
+        int daysInPeriod = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        double grossRegular;
+        if (isHalfMonth(startDate, endDate)) {
+            grossRegular = monthlySalary / 2.0;
+        } else if (isFullMonth(startDate, endDate)) {
+            grossRegular = monthlySalary;
+        } else {
+            grossRegular = (monthlySalary / 22) * daysInPeriod;
+        }
+
+        double overloadAmount = 0.0;
+        if (isInstructor && assignedUnits > 0) {
+            double monthlyOverload = assignedUnits * (monthlySalary / 24.0);
+            if (isHalfMonth(startDate, endDate)) {
+                overloadAmount = monthlyOverload / 2.0;
+            } else if (isFullMonth(startDate, endDate)) {
+                overloadAmount = monthlyOverload;
+            } else {
+                overloadAmount = (monthlyOverload / 22) * daysInPeriod;
+            }
+        }
+        return oldDeductions(monthlySalary, grossRegular, overloadAmount, totalLateMinutes, totalAbsentDays,
+                             totalHalfDays, totalLoanDeduction);
+    }
+
+    /**
+     * The double formula PayrollProcessingController used when recalculating saved entries
+     */
+    private static double[] oldRecalculation(double monthlySalary, boolean isInstructor, int assignedUnits,
+                                             int totalLateMinutes, int totalAbsentDays, int totalHalfDays,
+                                             double totalLoanDeduction) {
+        double grossRegular = monthlySalary / 2.0;
+        double overloadAmount = 0.0;
+        if (isInstructor && assignedUnits > 0) {
+            overloadAmount = assignedUnits * (monthlySalary / 24.0);
+        }
+        return oldDeductions(monthlySalary, grossRegular, overloadAmount, totalLateMinutes, totalAbsentDays,
+                             totalHalfDays, totalLoanDeduction);
+    }
+
+    private static double[] oldDeductions(double monthlySalary, double grossRegular, double overloadAmount,
+                                          int totalLateMinutes, int totalAbsentDays, int totalHalfDays,
+                                          double totalLoanDeduction) {
+        double grossTotal = grossRegular + overloadAmount;
+        double dailyRate = monthlySalary / 22.0;
+        double minuteRate = dailyRate / 8.0 / 60.0;
+        double tardinessDeduction = minuteRate * totalLateMinutes;
+        double absenceDeduction = (totalAbsentDays * dailyRate) + (totalHalfDays * (dailyRate / 2.0));
+        double grossEarned = grossTotal - tardinessDeduction - absenceDeduction;
+
+        double expandedTax = 0.0;
+        double gvat = 0.0;
+        if (grossEarned >= 20000.0) {
+            expandedTax = grossEarned * 0.05;
+            gvat = grossEarned * 0.03;
+        }
+        double totalDeductions = 200.0 + totalLoanDeduction + expandedTax + gvat;
+        return new double[] {grossRegular, overloadAmount, tardinessDeduction, absenceDeduction,
+                             grossEarned, expandedTax, gvat, totalDeductions, grossEarned - totalDeductions};
+    }
+
+    private static boolean isHalfMonth(LocalDate startDate, LocalDate endDate) {
+        int startDay = startDate.getDayOfMonth();
+        int endDay = endDate.getDayOfMonth();
+        return (startDay == 1 && endDay == 15) || (startDay == 16 && endDay >= 28 && endDay <= 31);
+    }
+
+    private static boolean isFullMonth(LocalDate startDate, LocalDate endDate) {
+        return startDate.getDayOfMonth() == 1 && (endDate.getDayOfMonth() == 30 || endDate.getDayOfMonth() == 31);
+    }
+
+    /**
+     * Largest centavo differences seen for one path
+     */
+    private static final class Stats {
+        private static final String[] ITEMS = {"gross regular", "overload", "tardiness", "absence",
+            "gross earned", "expanded tax", "GVAT", "total deductions", "net pay"};
+        // Items the old code rounded once from the salary; the rest were sums of unrounded values
+        private static final boolean[] DIRECT = {true, true, true, true, false, false, false, false, false};
+
+        private final String name;
+        private final long[] maxDiff = new long[ITEMS.length];
+        private long cases;
+        private long thresholdFlips;
+        private long unexplainedFlips;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void compare(PayrollKernel.LguPayroll pay, double[] old) {
+            cases++;
+            long[] kernel = {pay.grossRegular, pay.overloadAmount, pay.lateDeduction, pay.absentDeduction,
+                             pay.grossEarned, pay.expandedTax, pay.gvat, pay.totalDeductions, pay.netPay};
+            boolean oldTaxed = old[4] >= 20000.0;
+            boolean newTaxed = pay.grossEarned >= PayrollKernel.TAX_THRESHOLD;
+            if (oldTaxed != newTaxed) {
+                thresholdFlips++;
+                if (Math.abs(centavos(old[4]) - PayrollKernel.TAX_THRESHOLD) > TOTAL_TOLERANCE) {
+                    unexplainedFlips++;
+                }
+                return;
+            }
+            for (int i = 0; i < ITEMS.length; i++) {
+                maxDiff[i] = Math.max(maxDiff[i], Math.abs(centavos(old[i]) - kernel[i]));
+            }
+        }
+
+        boolean passed() {
+            for (int i = 0; i < ITEMS.length; i++) {
+                if (maxDiff[i] > (DIRECT[i] ? ITEM_TOLERANCE : TOTAL_TOLERANCE)) {
+                    return false;
+                }
+            }
+            return unexplainedFlips == 0;
+        }
+
+        private static long centavos(double amount) {
+            return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("%s: %,d cases, max centavo difference", name, cases));
+            for (int i = 0; i < ITEMS.length; i++) {
+                text.append(i == 0 ? " " : ", ").append(ITEMS[i]).append('=').append(maxDiff[i]);
+            }
+            return text.append(String.format("; tax threshold flips %d (%d not explained by rounding)",
+                                             thresholdFlips, unexplainedFlips)).toString();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package javafxapplication1;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Pay-run prefetch stage for PayrollEngine.
+ * Loads salary references, government deduction types, active loans and the period's
+ * attendance in a handful of set-based queries and indexes them in memory, so the
+ * per-employee computation does not query the database.
+ * Instances are read-only after load() and can be shared between payroll workers.
+ */
+class PayrollPrefetch {
+
+    private static final Logger logger = Logger.getLogger(PayrollPrefetch.class.getName());
+
+    private final Map<Integer, SalaryReference> salaryReferences;
+    private final List<GovernmentDeductionType> governmentDeductionTypes;
+    private final Map<Integer, List<ActiveLoan>> loansByEmployee;
+    private final Map<String, Map<LocalDate, DailyAttendance>> attendanceByAccount;
+
+    private PayrollPrefetch(Map<Integer, SalaryReference> salaryReferences,
+                            List<GovernmentDeductionType> governmentDeductionTypes,
+                            Map<Integer, List<ActiveLoan>> loansByEmployee,
+                            Map<String, Map<LocalDate, DailyAttendance>> attendanceByAccount) {
+        this.salaryReferences = salaryReferences;
+        this.governmentDeductionTypes = governmentDeductionTypes;
+        this.loansByEmployee = loansByEmployee;
+        this.attendanceByAccount = attendanceByAccount;
+    }
+
+    /**
+     * Load everything a pay run needs for the given period
+     */
+    public static PayrollPrefetch load(Connection conn, LocalDate startDate, LocalDate endDate) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        PayrollPrefetch prefetch = new PayrollPrefetch(
+            Collections.unmodifiableMap(loadSalaryReferences(conn)),
+            Collections.unmodifiableList(loadGovernmentDeductionTypes(conn)),
+            Collections.unmodifiableMap(loadActiveLoans(conn)),
+            Collections.unmodifiableMap(loadAttendance(conn, startDate, endDate)));
+
+        logger.info("Payroll prefetch loaded " + prefetch.salaryReferences.size() + " salary references, "
+                   + prefetch.governmentDeductionTypes.size() + " government deductions, "
+                   + prefetch.loansByEmployee.size() + " employees with loans, "
+                   + prefetch.attendanceByAccount.size() + " accounts with attendance in "
+                   + (System.currentTimeMillis() - start) + " ms");
+        return prefetch;
+    }
+
+    private static Map<Integer, SalaryReference> loadSalaryReferences(Connection conn) throws SQLException {
+        Map<Integer, SalaryReference> refs = new HashMap<>();
+        String sql = "SELECT id, monthly_salary, rate_per_day, half_day_rate, rate_per_minute FROM salary_reference";
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                SalaryReference ref = new SalaryReference();
+                ref.setId(rs.getInt("id"));
+                ref.setMonthlySalary(rs.getBigDecimal("monthly_salary"));
+                ref.setRatePerDay(rs.getBigDecimal("rate_per_day"));
+                ref.setHalfDayRate(rs.getBigDecimal("half_day_rate"));
+                ref.setRatePerMinute(rs.getBigDecimal("rate_per_minute"));
+                refs.put(ref.getId(), ref);
+            }
+        }
+        return refs;
+    }
+
+    private static List<GovernmentDeductionType> loadGovernmentDeductionTypes(Connection conn) throws SQLException {
+        List<GovernmentDeductionType> types = new ArrayList<>();
+        String sql = """
+            SELECT dt.name, dt.rate_percent, dt.fixed_amount, dt.basis
+            FROM deduction_types dt
+            WHERE dt.is_government = 1 AND dt.is_active = 1
+            """;
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                types.add(new GovernmentDeductionType(
+                    rs.getString("name"),
+                    rs.getBigDecimal("rate_percent"),
+                    rs.getBigDecimal("fixed_amount"),
+                    rs.getString("basis")));
+            }
+        }
+        return types;
+    }
+
+    private static Map<Integer, List<ActiveLoan>> loadActiveLoans(Connection conn) throws SQLException {
+        Map<Integer, List<ActiveLoan>> loans = new HashMap<>();
+        String sql = """
+            SELECT el.id, el.employee_id, lt.name as loan_type_name,
+                   el.monthly_amortization, el.balance
+            FROM employee_loans el
+            JOIN loan_types lt ON el.loan_type_id = lt.id
+            WHERE el.status = 'Active' AND el.balance > 0
+            ORDER BY el.employee_id, el.id
+            """;
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ActiveLoan loan = new ActiveLoan(
+                    rs.getInt("id"),
+                    rs.getInt("employee_id"),
+                    rs.getString("loan_type_name"),
+                    rs.getBigDecimal("monthly_amortization"),
+                    rs.getBigDecimal("balance"));
+                loans.computeIfAbsent(loan.getEmployeeId(), k -> new ArrayList<>()).add(loan);
+            }
+        }
+        return loans;
+    }
+
+    private static Map<String, Map<LocalDate, DailyAttendance>> loadAttendance(Connection conn, LocalDate startDate,
+                                                                              LocalDate endDate) throws SQLException {
+        Map<String, Map<LocalDate, DailyAttendance>> attendance = new HashMap<>();
+        String sql = """
+            SELECT
+                account_number,
+                DATE(log_datetime) as attendance_date,
+                log_type,
+                TIME(log_datetime) as log_time
+            FROM attendance
+            WHERE log_datetime >= ? AND log_datetime < ?
+            ORDER BY log_datetime
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Half-open range so the log_datetime index can be used
+            stmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String accountNumber = rs.getString("account_number");
+                    LocalDate date = rs.getDate("attendance_date").toLocalDate();
+                    String logType = rs.getString("log_type");
+                    LocalTime logTime = rs.getTime("log_time").toLocalTime();
+
+                    attendance.computeIfAbsent(accountNumber, k -> new HashMap<>())
+                              .computeIfAbsent(date, DailyAttendance::new)
+                              .addLog(logType, logTime);
+                }
+            }
+        }
+        return attendance;
+    }
+
+    public SalaryReference getSalaryReference(int salaryRefId) throws SQLException {
+        SalaryReference ref = salaryReferences.get(salaryRefId);
+        if (ref == null) {
+            throw new SQLException("Salary reference not found for ID: " + salaryRefId);
+        }
+        return ref;
+    }
+
+    public List<GovernmentDeductionType> getGovernmentDeductionTypes() {
+        return governmentDeductionTypes;
+    }
+
+    public List<ActiveLoan> getActiveLoans(int employeeId) {
+        return loansByEmployee.getOrDefault(employeeId, Collections.emptyList());
+    }
+
+    /**
+     * Daily logs for an account in the prefetched period, keyed by date
+     */
+    public Map<LocalDate, DailyAttendance> getAttendance(String accountNumber) {
+        return attendanceByAccount.getOrDefault(accountNumber, Collections.emptyMap());
+    }
+}
@@ -103,8 +103,7 @@ public class PayrollProcessEntry {
     // Debug method to test deductions table
     public void debugDeductionsTable() {
         System.out.println("=== DEBUGGING DEDUCTIONS TABLE ===");
-        try (Connection conn = java.sql.DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUser(), DatabaseConfig.getDbPassword());
+        try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                 "SELECT code, name, basis, employee_share, fixed_amount, min_salary, max_salary FROM deductions WHERE is_active = TRUE ORDER BY code")) {
             
@@ -195,8 +194,7 @@ public class PayrollProcessEntry {
     }
     
     private void calculateDeductionFromDatabase(String deductionCode, double salary) {
-        try (Connection conn = java.sql.DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUser(), DatabaseConfig.getDbPassword());
+        try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                 "SELECT rate_percent, min_salary, max_salary, employee_share, fixed_amount, basis FROM deductions WHERE code = ? AND is_active = TRUE")) {
             
@@ -262,8 +260,7 @@ public class PayrollProcessEntry {
     private double calculateTaxFromDatabase(double monthlySalary) {
         System.out.println("DEBUG: Calculating tax for salary: " + monthlySalary);
         
-        try (Connection conn = java.sql.DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUser(), DatabaseConfig.getDbPassword());
+        try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                 "SELECT code, rate_percent, min_salary, max_salary, base_tax, excess_over FROM deductions " +
                 "WHERE code LIKE 'TAX_BRACKET_%' AND is_active = TRUE AND ? BETWEEN min_salary AND max_salary")) {
@@ -304,8 +301,7 @@ public class PayrollProcessEntry {
     }
     
     private double calculateLateDeductionFromDatabase() {
-        try (Connection conn = java.sql.DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUser(), DatabaseConfig.getDbPassword());
+        try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                 "SELECT fixed_amount FROM deductions WHERE code = 'LATE' AND is_active = TRUE")) {
             
@@ -9,7 +9,11 @@ import javafx.collections.ObservableList;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Alert.AlertType;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.util.Duration;
 import javafx.concurrent.Task;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
@@ -32,8 +36,13 @@ import java.util.ResourceBundle;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import javafx.stage.FileChooser;
@@ -45,10 +54,6 @@ import javafx.scene.transform.Scale;
 
 public class PayrollProcessingController implements Initializable {
 
-    // Database connection constants
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
 
 
     // FXML Components
@@ -71,6 +76,27 @@ public class PayrollProcessingController implements Initializable {
     // Data
     private ObservableList<PayrollProcessEntry> payrollData = FXCollections.observableArrayList();
 
+    // Paging
+    private static final int PAGE_SIZE = 200;
+    private static final int PAGE_CACHE_SIZE = 32;
+    private final PauseTransition filterDebounce = new PauseTransition(Duration.millis(300));
+    // Shared by every instance of this screen; each visit creates a new controller
+    private static final ExecutorService PAGE_LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "payroll-page-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    // Pages keyed by filter and cursor; only touched on the FX thread
+    private final Map<String, PayrollPage> pageCache = new LinkedHashMap<String, PayrollPage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PayrollPage> eldest) {
+            return size() > PAGE_CACHE_SIZE;
+        }
+    };
+    private Task<PayrollPage> pendingPageTask;
+    private PayrollFilter activeFilter;
+    private PayrollPage lastLoadedPage;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         initializeTable();
@@ -91,7 +117,7 @@ public class PayrollProcessingController implements Initializable {
 
     // Database connection method
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return DatabaseConfig.getConnection();
     }
 
     private void initializeTable() {
@@ -115,6 +141,7 @@ public class PayrollProcessingController implements Initializable {
 
         // Set the data to the table
         payrollTable.setItems(payrollData);
+        attachInfiniteScroll();
     }
 
     private void formatCurrencyColumn(TableColumn<PayrollProcessEntry, Double> column) {
@@ -158,6 +185,9 @@ public class PayrollProcessingController implements Initializable {
         yearFilter.setItems(yearList);
         yearFilter.setValue(String.valueOf(currentYear)); // Set current year as default
         
+        // Typing and combo changes are debounced so only the latest filter is queried
+        filterDebounce.setOnFinished(e -> filterPayrollData());
+        
         // Add listeners for real-time filtering (with logging for significant changes)
         searchField.textProperty().addListener((obs, oldVal, newVal) -> {
             // Only log if there's actual text change (not just clearing)
@@ -172,7 +202,7 @@ public class PayrollProcessingController implements Initializable {
                     );
                 }
             }
-            filterPayrollData();
+            filterDebounce.playFromStart();
         });
         monthFilter.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null && !newVal.equals(oldVal)) {
@@ -186,7 +216,7 @@ public class PayrollProcessingController implements Initializable {
                     );
                 }
             }
-            filterPayrollData();
+            filterDebounce.playFromStart();
         });
         yearFilter.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null && !newVal.equals(oldVal)) {
@@ -200,7 +230,7 @@ public class PayrollProcessingController implements Initializable {
                     );
                 }
             }
-            filterPayrollData();
+            filterDebounce.playFromStart();
         });
         
         // Add listener to date pickers to update month/year filters accordingly
@@ -211,81 +241,12 @@ public class PayrollProcessingController implements Initializable {
         });
     }
 
+    /**
+     * Reload from the database, e.g. after payroll generation
+     */
     private void loadPayrollData() {
-        Task<ObservableList<PayrollProcessEntry>> loadTask = new Task<ObservableList<PayrollProcessEntry>>() {
-            @Override
-            protected ObservableList<PayrollProcessEntry> call() throws Exception {
-                ObservableList<PayrollProcessEntry> entries = FXCollections.observableArrayList();
-                
-                String sql = """
-                    SELECT 
-                        pp.process_id,
-                        pp.employee_id,
-                        e.account_number,
-                        e.full_name as employee_name,
-                        e.position,
-                        pp.pay_period_start,
-                        pp.pay_period_end,
-                        pp.basic_salary,
-                        pp.present_days,
-                        pp.absent_days,
-                        pp.late_occurrences,
-                        pp.overtime_hours,
-                        pp.basic_pay,
-                        pp.overtime_pay,
-                        pp.allowances,
-                        pp.total_deductions,
-                        pp.net_pay,
-                        pp.status
-                    FROM payroll_process pp
-                    JOIN employees e ON pp.employee_id = e.id
-                    ORDER BY pp.processed_date DESC
-                    """;
-                
-                try (Connection conn = getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(sql);
-                     ResultSet rs = stmt.executeQuery()) {
-                    
-                    while (rs.next()) {
-                        PayrollProcessEntry entry = new PayrollProcessEntry();
-                        entry.setProcessId(rs.getInt("process_id"));
-                        entry.setEmployeeId(rs.getInt("employee_id"));
-                        entry.setAccountNumber(rs.getString("account_number"));
-                        entry.setEmployeeName(rs.getString("employee_name"));
-                        entry.setPosition(rs.getString("position"));
-                        entry.setPayPeriodStart(rs.getDate("pay_period_start").toLocalDate().toString());
-                        entry.setPayPeriodEnd(rs.getDate("pay_period_end").toLocalDate().toString());
-                        entry.setBasicSalary(rs.getDouble("basic_salary"));
-                        entry.setPresentDays(rs.getInt("present_days"));
-                        entry.setAbsentDays(rs.getInt("absent_days"));
-                        entry.setLateOccurrences(rs.getInt("late_occurrences"));
-                        entry.setOvertimeHours(rs.getDouble("overtime_hours"));
-                        entry.setBasicPay(rs.getDouble("basic_pay"));
-                        entry.setOvertimePay(rs.getDouble("overtime_pay"));
-                        entry.setAllowances(rs.getDouble("allowances"));
-                        entry.setTotalDeductions(rs.getDouble("total_deductions"));
-                        entry.setNetPay(rs.getDouble("net_pay"));
-                        entry.setStatus(rs.getString("status"));
-                        
-                        entries.add(entry);
-                    }
-                }
-                
-                return entries;
-            }
-        };
-        
-        loadTask.setOnSucceeded(e -> {
-            payrollData.setAll(loadTask.getValue());
-            filterPayrollData();
-        });
-        
-        loadTask.setOnFailed(e -> {
-            Throwable exception = loadTask.getException();
-            showErrorAlert("Database Error", "Failed to load payroll data: " + exception.getMessage());
-        });
-        
-        new Thread(loadTask).start();
+        pageCache.clear();
+        filterPayrollData();
     }
 
     private void updateDateFilters(LocalDate selectedDate) {
@@ -305,11 +266,80 @@ public class PayrollProcessingController implements Initializable {
         }
     }
 
+    /**
+     * Show the first page for the current month/year/search filters.
+     * Filtering runs in SQL; further pages load as the table is scrolled.
+     */
     private void filterPayrollData() {
-        ObservableList<PayrollProcessEntry> allData = FXCollections.observableArrayList();
-        
-        // Get all data first
-        String sql = """
+        filterDebounce.stop();
+        activeFilter = PayrollFilter.fromControls(searchField.getText(), monthFilter.getValue(), yearFilter.getValue());
+        lastLoadedPage = null;
+        payrollData.clear();
+        loadPage(activeFilter, 0);
+    }
+
+    private void loadNextPage() {
+        PayrollPage page = lastLoadedPage;
+        if (page == null || !page.hasMore || (pendingPageTask != null && pendingPageTask.isRunning())) {
+            return;
+        }
+        loadPage(activeFilter, page.lastProcessId);
+    }
+
+    private void loadPage(PayrollFilter filter, int afterProcessId) {
+        // A newer request makes any pending one stale
+        if (pendingPageTask != null) {
+            pendingPageTask.cancel(true);
+            pendingPageTask = null;
+        }
+
+        String cacheKey = filter.cacheKey(afterProcessId);
+        PayrollPage cached = pageCache.get(cacheKey);
+        if (cached != null) {
+            showPage(filter, cached);
+            return;
+        }
+
+        Task<PayrollPage> pageTask = new Task<PayrollPage>() {
+            @Override
+            protected PayrollPage call() throws Exception {
+                List<PayrollProcessEntry> rows = fetchPayrollRows(filter, afterProcessId, PAGE_SIZE + 1);
+                boolean hasMore = rows.size() > PAGE_SIZE;
+                if (hasMore) {
+                    rows = rows.subList(0, PAGE_SIZE);
+                }
+                return new PayrollPage(rows, hasMore);
+            }
+        };
+
+        pageTask.setOnSucceeded(e -> {
+            pageCache.put(cacheKey, pageTask.getValue());
+            showPage(filter, pageTask.getValue());
+        });
+
+        pageTask.setOnFailed(e -> {
+            Throwable exception = pageTask.getException();
+            showErrorAlert("Database Error", "Failed to load payroll data: " + exception.getMessage());
+        });
+
+        pendingPageTask = pageTask;
+        PAGE_LOADER.submit(pageTask);
+    }
+
+    private void showPage(PayrollFilter filter, PayrollPage page) {
+        if (filter != activeFilter) {
+            return; // Filters changed while this page was loading
+        }
+        payrollData.addAll(page.rows);
+        lastLoadedPage = page;
+    }
+
+    /**
+     * Load payroll rows matching the filter, newest first, after the given process_id (0 = from the top).
+     * A limit of 0 returns every matching row.
+     */
+    private List<PayrollProcessEntry> fetchPayrollRows(PayrollFilter filter, int afterProcessId, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder("""
             SELECT 
                 pp.process_id,
                 pp.employee_id,
@@ -328,86 +358,160 @@ public class PayrollProcessingController implements Initializable {
                 pp.allowances,
                 pp.total_deductions,
                 pp.net_pay,
-                pp.status
+                pp.status,
+                pp.total_late_minutes,
+                pp.gross_earned,
+                pp.late_deduction,
+                pp.absent_deduction,
+                pp.pagibig_deduction,
+                pp.withholding_tax,
+                pp.other_deductions,
+                pp.sss_deduction,
+                pp.philhealth_deduction
             FROM payroll_process pp
             JOIN employees e ON pp.employee_id = e.id
-            ORDER BY pp.processed_date DESC
-            """;
-        
+            WHERE 1 = 1
+            """);
+        List<Object> params = new ArrayList<>();
+
+        // Month and year become a pay_period_start range so idx_pay_period can be used
+        if (filter.year > 0) {
+            LocalDate from = LocalDate.of(filter.year, filter.month > 0 ? filter.month : 1, 1);
+            LocalDate to = filter.month > 0 ? from.plusMonths(1) : from.plusYears(1);
+            sql.append(" AND pp.pay_period_start >= ? AND pp.pay_period_start < ?");
+            params.add(Date.valueOf(from));
+            params.add(Date.valueOf(to));
+        } else if (filter.month > 0) {
+            sql.append(" AND MONTH(pp.pay_period_start) = ?");
+            params.add(filter.month);
+        }
+
+        if (!filter.search.isEmpty()) {
+            String pattern = "%" + filter.search.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            sql.append(" AND (e.full_name LIKE ? OR e.account_number LIKE ? OR CAST(pp.employee_id AS CHAR) LIKE ?)");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+
+        // Keyset pagination: process_id follows insertion order, matching the old processed_date order
+        if (afterProcessId > 0) {
+            sql.append(" AND pp.process_id < ?");
+            params.add(afterProcessId);
+        }
+        sql.append(" ORDER BY pp.process_id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+
+        List<PayrollProcessEntry> entries = new ArrayList<>();
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                PayrollProcessEntry entry = new PayrollProcessEntry();
-                entry.setProcessId(rs.getInt("process_id"));
-                entry.setEmployeeId(rs.getInt("employee_id"));
-                entry.setAccountNumber(rs.getString("account_number"));
-                entry.setEmployeeName(rs.getString("employee_name"));
-                entry.setPosition(rs.getString("position"));
-                entry.setPayPeriodStart(rs.getDate("pay_period_start").toLocalDate().toString());
-                entry.setPayPeriodEnd(rs.getDate("pay_period_end").toLocalDate().toString());
-                entry.setBasicSalary(rs.getDouble("basic_salary"));
-                entry.setPresentDays(rs.getInt("present_days"));
-                entry.setAbsentDays(rs.getInt("absent_days"));
-                entry.setLateOccurrences(rs.getInt("late_occurrences"));
-                entry.setOvertimeHours(rs.getDouble("overtime_hours"));
-                entry.setBasicPay(rs.getDouble("basic_pay"));
-                entry.setOvertimePay(rs.getDouble("overtime_pay"));
-                entry.setAllowances(rs.getDouble("allowances"));
-                entry.setTotalDeductions(rs.getDouble("total_deductions"));
-                entry.setNetPay(rs.getDouble("net_pay"));
-                entry.setStatus(rs.getString("status"));
-                
-                // Calculate individual deductions for detailed view
-                calculateIndividualDeductions(entry);
-                
-                allData.add(entry);
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PayrollProcessEntry entry = new PayrollProcessEntry();
+                    entry.setProcessId(rs.getInt("process_id"));
+                    entry.setEmployeeId(rs.getInt("employee_id"));
+                    entry.setAccountNumber(rs.getString("account_number"));
+                    entry.setEmployeeName(rs.getString("employee_name"));
+                    entry.setPosition(rs.getString("position"));
+                    entry.setPayPeriodStart(rs.getDate("pay_period_start").toLocalDate().toString());
+                    entry.setPayPeriodEnd(rs.getDate("pay_period_end").toLocalDate().toString());
+                    entry.setBasicSalary(rs.getDouble("basic_salary"));
+                    entry.setPresentDays(rs.getInt("present_days"));
+                    entry.setAbsentDays(rs.getInt("absent_days"));
+                    entry.setLateOccurrences(rs.getInt("late_occurrences"));
+                    entry.setOvertimeHours(rs.getDouble("overtime_hours"));
+                    entry.setBasicPay(rs.getDouble("basic_pay"));
+                    entry.setOvertimePay(rs.getDouble("overtime_pay"));
+                    entry.setAllowances(rs.getDouble("allowances"));
+                    entry.setTotalDeductions(rs.getDouble("total_deductions"));
+                    entry.setNetPay(rs.getDouble("net_pay"));
+                    entry.setStatus(rs.getString("status"));
+
+                    // Deduction breakdown stored at generation time
+                    entry.setTotalLateMinutes(rs.getInt("total_late_minutes"));
+                    entry.setGrossPay(rs.getDouble("gross_earned"));
+                    entry.setLateDeduction(rs.getDouble("late_deduction"));
+                    entry.setAbsentDeduction(rs.getDouble("absent_deduction"));
+                    entry.setPagibigDeduction(rs.getDouble("pagibig_deduction"));
+                    entry.setWithholdingTax(rs.getDouble("withholding_tax"));
+                    entry.setOtherDeductions(rs.getDouble("other_deductions"));
+                    entry.setSssDeduction(rs.getDouble("sss_deduction"));
+                    entry.setPhilhealthDeduction(rs.getDouble("philhealth_deduction"));
+
+                    entries.add(entry);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading payroll data for filtering: " + e.getMessage());
-            return;
         }
-        
-        // Apply filters
-        ObservableList<PayrollProcessEntry> filteredData = FXCollections.observableArrayList();
-        String searchTerm = searchField.getText() != null ? searchField.getText().toLowerCase() : "";
-        String selectedMonth = monthFilter.getValue();
-        String selectedYear = yearFilter.getValue();
-        
-        for (PayrollProcessEntry entry : allData) {
-            boolean matchesSearch = searchTerm.isEmpty() || 
-                                  entry.getEmployeeName().toLowerCase().contains(searchTerm) ||
-                                  entry.getAccountNumber().toLowerCase().contains(searchTerm) ||
-                                  String.valueOf(entry.getEmployeeId()).contains(searchTerm);
-            
-            // Check month filter
-            boolean matchesMonth = "All Months".equals(selectedMonth);
-            if (!matchesMonth && entry.getPayPeriodStart() != null) {
-                LocalDate startDate = LocalDate.parse(entry.getPayPeriodStart());
-                String entryMonth = startDate.getMonth().toString();
-                String titleCaseEntryMonth = entryMonth.substring(0, 1).toUpperCase() + 
-                                           entryMonth.substring(1).toLowerCase();
-                matchesMonth = titleCaseEntryMonth.equals(selectedMonth);
+        return entries;
+    }
+
+    /**
+     * Load the next page when the table is scrolled near the bottom
+     */
+    private void attachInfiniteScroll() {
+        payrollTable.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(() -> {
+            for (Node node : payrollTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                    ScrollBar bar = (ScrollBar) node;
+                    bar.valueProperty().addListener((o, oldVal, newVal) -> {
+                        if (newVal.doubleValue() >= bar.getMax() * 0.9) {
+                            loadNextPage();
+                        }
+                    });
+                }
             }
-            
-            // Check year filter
-            boolean matchesYear = "All Years".equals(selectedYear);
-            if (!matchesYear && entry.getPayPeriodStart() != null) {
-                LocalDate startDate = LocalDate.parse(entry.getPayPeriodStart());
-                matchesYear = String.valueOf(startDate.getYear()).equals(selectedYear);
+        }));
+    }
+
+    /**
+     * Immutable snapshot of the filter controls
+     */
+    private static final class PayrollFilter {
+        final String search;
+        final int month; // 0 = all months
+        final int year;  // 0 = all years
+
+        private PayrollFilter(String search, int month, int year) {
+            this.search = search;
+            this.month = month;
+            this.year = year;
+        }
+
+        static PayrollFilter fromControls(String searchText, String selectedMonth, String selectedYear) {
+            String search = searchText != null ? searchText.trim() : "";
+            int month = 0;
+            if (selectedMonth != null && !"All Months".equals(selectedMonth)) {
+                month = java.time.Month.valueOf(selectedMonth.toUpperCase()).getValue();
             }
-            
-            if (matchesSearch && matchesMonth && matchesYear) {
-                filteredData.add(entry);
+            int year = 0;
+            if (selectedYear != null && !"All Years".equals(selectedYear)) {
+                year = Integer.parseInt(selectedYear);
             }
+            return new PayrollFilter(search, month, year);
+        }
+
+        String cacheKey(int afterProcessId) {
+            return year + "|" + month + "|" + search.toLowerCase() + "|" + afterProcessId;
+        }
+    }
+
+    private static final class PayrollPage {
+        final List<PayrollProcessEntry> rows;
+        final boolean hasMore;
+        final int lastProcessId;
+
+        PayrollPage(List<PayrollProcessEntry> rows, boolean hasMore) {
+            this.rows = rows;
+            this.hasMore = hasMore;
+            this.lastProcessId = rows.isEmpty() ? 0 : rows.get(rows.size() - 1).getProcessId();
         }
-        
-        // Update table with filtered data
-        Platform.runLater(() -> {
-            payrollTable.setItems(filteredData);
-            payrollTable.refresh();
-        });
     }
 
     @FXML
@@ -521,8 +625,14 @@ public class PayrollProcessingController implements Initializable {
                                 (employee_id, account_number, pay_period_start, pay_period_end, basic_salary, 
                                  present_days, absent_days, late_occurrences, overtime_hours,
                                  basic_pay, overtime_pay, allowances, total_deductions, net_pay, 
+                                 total_late_minutes, units, rate_per_unit, overload_amount,
+                                 gross_regular, gross_total, gross_earned, gross_pay,
+                                 late_deduction, absent_deduction, pagibig_deduction,
+                                 expanded_tax, gvat, withholding_tax, other_deductions,
                                  status, processed_date, processed_by)
-                                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'Calculated', CURRENT_TIMESTAMP, 'Admin')
+                                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 
+                                        ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,
+                                        'Calculated', CURRENT_TIMESTAMP, 'Admin')
                                 """;
                             
                             try (PreparedStatement insertStmt = conn.prepareStatement(insertSQL)) {
@@ -540,6 +650,26 @@ public class PayrollProcessingController implements Initializable {
                                 insertStmt.setDouble(12, calc.allowances);
                                 insertStmt.setDouble(13, calc.totalDeductions);
                                 insertStmt.setDouble(14, calc.netPay);
+                                insertStmt.setInt(15, calc.totalLateMinutes);
+                                if (calc.units != null) {
+                                    insertStmt.setInt(16, calc.units);
+                                    insertStmt.setDouble(17, calc.ratePerUnit);
+                                } else {
+                                    insertStmt.setNull(16, Types.INTEGER);
+                                    insertStmt.setNull(17, Types.DECIMAL);
+                                }
+                                insertStmt.setDouble(18, calc.overloadAmount);
+                                insertStmt.setDouble(19, calc.grossRegular);
+                                insertStmt.setDouble(20, calc.grossTotal);
+                                insertStmt.setDouble(21, calc.grossEarned);
+                                insertStmt.setDouble(22, calc.grossEarned);
+                                insertStmt.setDouble(23, calc.lateDeduction);
+                                insertStmt.setDouble(24, calc.absentDeduction);
+                                insertStmt.setDouble(25, calc.pagibigDeduction);
+                                insertStmt.setDouble(26, calc.expandedTax);
+                                insertStmt.setDouble(27, calc.gvat);
+                                insertStmt.setDouble(28, calc.expandedTax + calc.gvat);
+                                insertStmt.setDouble(29, calc.loanDeduction);
                                 
                                 insertStmt.executeUpdate();
                                 
@@ -678,108 +808,30 @@ public class PayrollProcessingController implements Initializable {
         calc.absentDays = totalAbsentDays;
         calc.lateOccurrences = totalLateMinutes > 0 ? 1 : 0;
         
-        // =====================================================
-        // LGU PAYROLL CALCULATION FORMULA
-        // =====================================================
-        
-        double monthlySalary = basicSalary;
-        
-        // 1. GROSS REGULAR - Depende sa period
-        // Determine period type based on dates
-        int startDay = startDate.getDayOfMonth();
-        int endDay = endDate.getDayOfMonth();
-        int daysInPeriod = (int) java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        
-        double grossRegular;
-        // If period is 1-15 or 16-30/31 (half month) = monthly_salary / 2
-        // If period is 1-30/31 (full month) = monthly_salary
-        if ((startDay == 1 && endDay == 15) || (startDay == 16 && endDay >= 28 && endDay <= 31)) {
-            // Half month period
-            grossRegular = monthlySalary / 2.0;
-        } else if (startDay == 1 && (endDay == 30 || endDay == 31)) {
-            // Full month period
-            grossRegular = monthlySalary;
-        } else {
-            // Prorated based on number of days
-            // Calculate based on working days in period vs working days in month
-            int workingDaysInPeriod = daysInPeriod; // Simplified - can be enhanced
-            int workingDaysInMonth = 22; // Standard working days
-            grossRegular = (monthlySalary / workingDaysInMonth) * workingDaysInPeriod;
-        }
-        calc.basicPay = grossRegular;
-        
-        // 2. OVERLOAD COMPUTATION (Instructors only)
-        double overloadAmount = 0.0;
-        if (isInstructor && assignedUnits != null && assignedUnits > 0) {
-            // rate per unit = monthly salary ÷ 24
-            double ratePerUnit = monthlySalary / 24.0;
-            // overload_amount = units * rate_per_unit
-            double monthlyOverload = assignedUnits * ratePerUnit;
-            
-            // Prorate overload based on period (same logic as grossRegular)
-            if ((startDay == 1 && endDay == 15) || (startDay == 16 && endDay >= 28 && endDay <= 31)) {
-                // Half month period
-                overloadAmount = monthlyOverload / 2.0;
-            } else if (startDay == 1 && (endDay == 30 || endDay == 31)) {
-                // Full month period
-                overloadAmount = monthlyOverload;
-            } else {
-                // Prorated based on number of days
-                int workingDaysInPeriod = daysInPeriod;
-                int workingDaysInMonth = 22;
-                overloadAmount = (monthlyOverload / workingDaysInMonth) * workingDaysInPeriod;
-            }
-        }
-        calc.overtimePay = overloadAmount; // Store overload in overtimePay field for now
-        
-        // 3. GROSS TOTAL
-        double grossTotal = grossRegular + overloadAmount;
-        
-        // 4. ATTENDANCE DEDUCTIONS
-        // Daily rate = monthly_salary / 22
-        double dailyRate = monthlySalary / 22.0;
-        // Hourly rate = daily_rate / 8
-        double hourlyRate = dailyRate / 8.0;
-        // Minute rate = hourly_rate / 60
-        double minuteRate = hourlyRate / 60.0;
-        
-        // Tardiness deduction
-        double tardinessDeduction = minuteRate * totalLateMinutes;
-        
-        // Absence deduction (full days + half days)
-        double absenceDeduction = (totalAbsentDays * dailyRate) + (totalHalfDays * (dailyRate / 2.0));
-        
-        // 5. GROSS EARNED
-        double grossEarned = grossTotal - tardinessDeduction - absenceDeduction;
-        
-        // 6. DEDUCTIONS
-        double totalDeductions = 0.0;
+        // LGU payroll formula, computed exactly in centavos by the shared kernel
+        PayrollKernel.LguPayroll pay = PayrollKernel.computeLguPayroll(
+                PayrollKernel.toCentavos(basicSalary), startDate, endDate, isInstructor,
+                assignedUnits != null ? assignedUnits : 0, totalLateMinutes, totalAbsentDays, totalHalfDays,
+                PayrollKernel.toCentavos(getAllLoanDeductions(conn, employeeId)));
         
-        // 6.1 PAG-IBIG Premium (Fixed ₱200.00)
-        double pagibigPremium = 200.0;
-        totalDeductions += pagibigPremium;
-        
-        // 6.2 All Active Loans (MPL Loan, Calamity Loan, etc.)
-        double totalLoanDeduction = getAllLoanDeductions(conn, employeeId);
-        totalDeductions += totalLoanDeduction;
-        
-        // 6.3 Tax Deductions (Only if gross_earned >= 20,000)
-        double expandedTax = 0.0;
-        double gvat = 0.0;
-        if (grossEarned >= 20000.0) {
-            // 6.4 Expanded Tax (5% of gross_earned)
-            expandedTax = grossEarned * 0.05;
-            totalDeductions += expandedTax;
-            
-            // 6.5 GVAT (3% of gross_earned)
-            gvat = grossEarned * 0.03;
-            totalDeductions += gvat;
+        calc.basicPay = PayrollKernel.toDouble(pay.grossRegular);
+        calc.overtimePay = PayrollKernel.toDouble(pay.overloadAmount); // Store overload in overtimePay field for now
+        calc.overloadAmount = calc.overtimePay;
+        if (pay.units > 0) {
+            calc.units = pay.units;
+            calc.ratePerUnit = PayrollKernel.toDouble(pay.ratePerUnit);
         }
-        
-        calc.totalDeductions = totalDeductions;
-        
-        // 7. NET AMOUNT DUE
-        calc.netPay = grossEarned - totalDeductions;
+        calc.grossRegular = calc.basicPay;
+        calc.grossTotal = PayrollKernel.toDouble(pay.grossTotal);
+        calc.grossEarned = PayrollKernel.toDouble(pay.grossEarned);
+        calc.lateDeduction = PayrollKernel.toDouble(pay.lateDeduction);
+        calc.absentDeduction = PayrollKernel.toDouble(pay.absentDeduction);
+        calc.pagibigDeduction = PayrollKernel.toDouble(pay.pagibigDeduction);
+        calc.loanDeduction = PayrollKernel.toDouble(pay.loanDeductions);
+        calc.expandedTax = PayrollKernel.toDouble(pay.expandedTax);
+        calc.gvat = PayrollKernel.toDouble(pay.gvat);
+        calc.totalDeductions = PayrollKernel.toDouble(pay.totalDeductions);
+        calc.netPay = PayrollKernel.toDouble(pay.netPay);
         
         return calc;
     }
@@ -909,6 +961,20 @@ public class PayrollProcessingController implements Initializable {
         int absentDays;
         int presentDays;
         int lateOccurrences;
+        
+        // Line-item breakdown, persisted so the grid never recomputes it
+        Integer units;
+        double ratePerUnit;
+        double grossRegular;
+        double overloadAmount;
+        double grossTotal;
+        double grossEarned;
+        double lateDeduction;
+        double absentDeduction;
+        double pagibigDeduction;
+        double loanDeduction;
+        double expandedTax;
+        double gvat;
     }
 
 
@@ -933,6 +999,9 @@ public class PayrollProcessingController implements Initializable {
         filterPayrollData();
     }
 
+    /**
+     * Recompute the deduction breakdown for rows saved without one
+     */
     private void calculateIndividualDeductions(PayrollProcessEntry entry) {
         try (Connection conn = getConnection()) {
             double monthlySalary = entry.getBasicSalary();
@@ -965,27 +1034,8 @@ public class PayrollProcessingController implements Initializable {
             boolean isInstructor = employmentType != null && 
                                   (employmentType.equals("INSTRUCTOR") || employmentType.equals("TEMPORARY_INSTRUCTOR"));
             
-            // =====================================================
-            // LGU PAYROLL CALCULATION FORMULA
-            // =====================================================
-            
-            // 1. GROSS REGULAR (Half-month salary)
-            double grossRegular = monthlySalary / 2.0;
-            
-            // 2. OVERLOAD COMPUTATION (Instructors only)
-            double overloadAmount = 0.0;
-            if (isInstructor && assignedUnits != null && assignedUnits > 0) {
-                double ratePerUnit = monthlySalary / 24.0;
-                overloadAmount = assignedUnits * ratePerUnit;
-            }
-            
-            // 3. GROSS TOTAL
-            double grossTotal = grossRegular + overloadAmount;
-            
-            // 4. ATTENDANCE DEDUCTIONS (LGU Formula)
-            double dailyRate = monthlySalary / 22.0;
-            double hourlyRate = dailyRate / 8.0;
-            double minuteRate = hourlyRate / 60.0;
+            LocalDate periodStart = LocalDate.parse(entry.getPayPeriodStart());
+            LocalDate periodEnd = LocalDate.parse(entry.getPayPeriodEnd());
             
             // Get half days from processed_attendance
             int totalHalfDays = 0;
@@ -997,49 +1047,30 @@ public class PayrollProcessingController implements Initializable {
                 """;
             try (PreparedStatement stmt = conn.prepareStatement(halfDaysSQL)) {
                 stmt.setInt(1, entry.getEmployeeId());
-                stmt.setDate(2, Date.valueOf(LocalDate.parse(entry.getPayPeriodStart())));
-                stmt.setDate(3, Date.valueOf(LocalDate.parse(entry.getPayPeriodEnd())));
+                stmt.setDate(2, Date.valueOf(periodStart));
+                stmt.setDate(3, Date.valueOf(periodEnd));
                 ResultSet rs = stmt.executeQuery();
                 if (rs.next()) {
                     totalHalfDays = rs.getInt("total_half_days");
                 }
             }
             
-            // Tardiness deduction
-            double tardinessDeduction = minuteRate * entry.getTotalLateMinutes();
-            entry.setLateDeduction(tardinessDeduction);
-            
-            // Absence deduction (full days + half days)
-            double absenceDeduction = (entry.getAbsentDays() * dailyRate) + (totalHalfDays * (dailyRate / 2.0));
-            entry.setAbsentDeduction(absenceDeduction);
-            
-            // 5. GROSS EARNED
-            double grossEarned = grossTotal - tardinessDeduction - absenceDeduction;
-            entry.setGrossPay(grossEarned);
-            
-            // 6. DEDUCTIONS (LGU Formula)
-            // 6.1 PAG-IBIG Premium (Fixed ₱200.00)
-            entry.setPagibigDeduction(200.0);
+            // Same LGU formula as payroll generation, via the shared kernel
+            PayrollKernel.LguPayroll pay = PayrollKernel.computeLguPayroll(
+                    PayrollKernel.toCentavos(monthlySalary), periodStart, periodEnd, isInstructor,
+                    assignedUnits != null ? assignedUnits : 0, entry.getTotalLateMinutes(), entry.getAbsentDays(),
+                    totalHalfDays, PayrollKernel.toCentavos(getAllLoanDeductions(conn, entry.getEmployeeId())));
             
-            // 6.2 All Active Loans
-            double totalLoanDeduction = getAllLoanDeductions(conn, entry.getEmployeeId());
-            
-            // 6.3 Tax Deductions (Only if gross_earned >= 20,000)
-            double expandedTax = 0.0;
-            double gvat = 0.0;
-            if (grossEarned >= 20000.0) {
-                // 6.4 Expanded Tax (5% of gross_earned)
-                expandedTax = grossEarned * 0.05;
-                
-                // 6.5 GVAT (3% of gross_earned)
-                gvat = grossEarned * 0.03;
-            }
+            entry.setLateDeduction(PayrollKernel.toDouble(pay.lateDeduction));
+            entry.setAbsentDeduction(PayrollKernel.toDouble(pay.absentDeduction));
+            entry.setGrossPay(PayrollKernel.toDouble(pay.grossEarned));
+            entry.setPagibigDeduction(PayrollKernel.toDouble(pay.pagibigDeduction));
             
             // Set withholding tax as sum of Expanded Tax and GVAT for display
-            entry.setWithholdingTax(expandedTax + gvat);
+            entry.setWithholdingTax(PayrollKernel.toDouble(pay.expandedTax + pay.gvat));
             
             // Set other deductions (all loans)
-            entry.setOtherDeductions(totalLoanDeduction);
+            entry.setOtherDeductions(PayrollKernel.toDouble(pay.loanDeductions));
             
             // Clear unused deductions
             entry.setSssDeduction(0.0);
@@ -1082,6 +1113,10 @@ public class PayrollProcessingController implements Initializable {
             );
         }
         
+        // Rows generated before the breakdown was stored have no gross earned; compute it for them
+        if (selectedEntry.getGrossPay() == 0.0 && selectedEntry.getNetPay() != 0.0) {
+            calculateIndividualDeductions(selectedEntry);
+        }
         showComputationDetails(selectedEntry);
     }
 
@@ -1570,7 +1605,7 @@ public class PayrollProcessingController implements Initializable {
     }
 
     @FXML
-    private void onExportPayroll(ActionEvent event) throws SQLException {
+    private void onExportPayroll(ActionEvent event) {
         String currentUser = SessionManager.getInstance().getCurrentUser();
         if (currentUser != null) {
             SecurityLogger.logSecurityEvent(
@@ -1581,14 +1616,6 @@ public class PayrollProcessingController implements Initializable {
             );
         }
 
-        // Get filtered payroll data from the table (only visible records)
-        ObservableList<PayrollProcessEntry> payrollList = payrollTable.getItems();
-        
-        if (payrollList == null || payrollList.isEmpty()) {
-            showErrorAlert("No Data", "No payroll records to export. Please apply filters to show data.");
-            return;
-        }
-
         // Open a file chooser to save the CSV file (can be opened in Excel)
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save Payroll File");
@@ -1597,104 +1624,160 @@ public class PayrollProcessingController implements Initializable {
             new FileChooser.ExtensionFilter("All Files", "*.*")
         );
         File file = fileChooser.showSaveDialog(null);
-        
-        if (file != null) {
-            try (PrintWriter writer = new PrintWriter(file)) {
-                // Determine date range from filtered data
-                String dateRangeHeader = "";
-                DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-                
-                // Get the selected month and year filters
-                String selectedMonth = monthFilter.getValue();
-                String selectedYear = yearFilter.getValue();
-                
-                // Try to get date range from date pickers first
-                LocalDate startDate = startDatePicker.getValue();
-                LocalDate endDate = endDatePicker.getValue();
-                
-                if (startDate != null && endDate != null) {
-                    // Use date pickers
-                    if (startDate.equals(endDate)) {
-                        // Single date
-                        dateRangeHeader = "Payroll Report - " + startDate.format(displayFormatter);
+        if (file == null) {
+            return;
+        }
+
+        String dateRangeHeader = exportDateRangeHeader();
+        // Export every row matching the current filters, not just the pages loaded so far
+        PayrollFilter filter = activeFilter;
+        List<PayrollProcessEntry> loadedRows = filter == null ? new ArrayList<>(payrollTable.getItems()) : null;
+
+        Task<Integer> exportTask = new Task<Integer>() {
+            @Override
+            protected Integer call() throws Exception {
+                int exported = 0;
+                try (PrintWriter writer = new PrintWriter(file)) {
+                    // Write date header
+                    writer.println(dateRangeHeader);
+                    writer.println(); // Empty line for separation
+
+                    // Write column header row
+                    writer.println("Employee ID,Account Number,Employee Name,Position,Pay Period Start,Pay Period End,Basic Salary,Present Days,Absent Days,Late Occurrences,Overtime Hours,Basic Pay,Overtime Pay,Allowances,Total Deductions,Net Pay,Status");
+
+                    if (filter == null) {
+                        for (PayrollProcessEntry entry : loadedRows) {
+                            writeExportRow(writer, entry);
+                            exported++;
+                        }
                     } else {
-                        // Date range
-                        dateRangeHeader = "Payroll Report - " + startDate.format(displayFormatter) + " to " + endDate.format(displayFormatter);
+                        // Stream page by page on the same keyset as the table, so memory does not grow with the export
+                        int afterProcessId = 0;
+                        List<PayrollProcessEntry> rows;
+                        do {
+                            if (isCancelled()) {
+                                break;
+                            }
+                            rows = fetchPayrollRows(filter, afterProcessId, PAGE_SIZE);
+                            for (PayrollProcessEntry entry : rows) {
+                                writeExportRow(writer, entry);
+                            }
+                            exported += rows.size();
+                            if (!rows.isEmpty()) {
+                                afterProcessId = rows.get(rows.size() - 1).getProcessId();
+                            }
+                        } while (rows.size() == PAGE_SIZE);
+                    }
+                    if (writer.checkError()) {
+                        throw new IOException("Could not write to " + file.getName());
                     }
-                } else if (selectedMonth != null && !selectedMonth.equals("All Months") && 
-                          selectedYear != null && !selectedYear.equals("All Years")) {
-                    // Use month and year filters
-                    dateRangeHeader = "Payroll Report - " + selectedMonth + " " + selectedYear;
-                } else if (selectedYear != null && !selectedYear.equals("All Years")) {
-                    // Use year filter only
-                    dateRangeHeader = "Payroll Report - Year " + selectedYear;
-                } else if (selectedMonth != null && !selectedMonth.equals("All Months")) {
-                    // Use month filter only
-                    dateRangeHeader = "Payroll Report - " + selectedMonth;
-                } else {
-                    // No specific filter, use current date
-                    dateRangeHeader = "Payroll Report - " + LocalDate.now().format(displayFormatter);
-                }
-                
-                // Write date header
-                writer.println(dateRangeHeader);
-                writer.println(); // Empty line for separation
-                
-                // Write column header row
-                writer.println("Employee ID,Account Number,Employee Name,Position,Pay Period Start,Pay Period End,Basic Salary,Present Days,Absent Days,Late Occurrences,Overtime Hours,Basic Pay,Overtime Pay,Allowances,Total Deductions,Net Pay,Status");
-                
-                // Write payroll data from table
-                for (PayrollProcessEntry entry : payrollList) {
-                    writer.printf("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%.2f,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,\"%s\"%n",
-                            entry.getEmployeeId(),
-                            entry.getAccountNumber(),
-                            entry.getEmployeeName(),
-                            entry.getPosition(),
-                            entry.getPayPeriodStart(),
-                            entry.getPayPeriodEnd(),
-                            entry.getBasicSalary(),
-                            entry.getPresentDays(),
-                            entry.getAbsentDays(),
-                            entry.getLateOccurrences(),
-                            entry.getOvertimeHours(),
-                            entry.getBasicPay(),
-                            entry.getOvertimePay(),
-                            entry.getAllowances(),
-                            entry.getTotalDeductions(),
-                            entry.getNetPay(),
-                            entry.getStatus());
-                }
-                
-                // Log successful export
-                if (currentUser != null) {
-                    SecurityLogger.logSecurityEvent(
-                            "PAYROLL_EXPORT_SUCCESS",
-                            "MEDIUM",
-                            currentUser,
-                            "Successfully exported " + payrollList.size() + " payroll records to CSV - Filter: " + dateRangeHeader
-                    );
                 }
+                return exported;
+            }
+        };
 
-                showInfoAlert("Export Successful", "Payroll exported successfully!\n" +
-                        "Records exported: " + payrollList.size() + "\n" +
-                        "Filter: " + dateRangeHeader + "\n\n" +
-                        "Note: CSV file can be opened in Microsoft Excel");
-            } catch (IOException e) {
-                e.printStackTrace();
-                
-                // Log failed export
-                if (currentUser != null) {
-                    SecurityLogger.logSecurityEvent(
-                            "PAYROLL_EXPORT_FAILED",
-                            "MEDIUM",
-                            currentUser,
-                            "Failed to export payroll: " + e.getMessage()
-                    );
-                }
-                
-                showErrorAlert("Export Failed", "Error while exporting payroll: " + e.getMessage());
+        exportTask.setOnSucceeded(e -> {
+            int exported = exportTask.getValue();
+            if (exported == 0) {
+                file.delete();
+                showErrorAlert("No Data", "No payroll records to export. Please apply filters to show data.");
+                return;
+            }
+
+            // Log successful export
+            if (currentUser != null) {
+                SecurityLogger.logSecurityEvent(
+                        "PAYROLL_EXPORT_SUCCESS",
+                        "MEDIUM",
+                        currentUser,
+                        "Successfully exported " + exported + " payroll records to CSV - Filter: " + dateRangeHeader
+                );
             }
+
+            showInfoAlert("Export Successful", "Payroll exported successfully!\n" +
+                    "Records exported: " + exported + "\n" +
+                    "Filter: " + dateRangeHeader + "\n\n" +
+                    "Note: CSV file can be opened in Microsoft Excel");
+        });
+
+        exportTask.setOnFailed(e -> {
+            Throwable exception = exportTask.getException();
+            exception.printStackTrace();
+
+            // Log failed export
+            if (currentUser != null) {
+                SecurityLogger.logSecurityEvent(
+                        "PAYROLL_EXPORT_FAILED",
+                        "MEDIUM",
+                        currentUser,
+                        "Failed to export payroll: " + exception.getMessage()
+                );
+            }
+
+            showErrorAlert("Export Failed", "Error while exporting payroll: " + exception.getMessage());
+        });
+
+        Thread thread = new Thread(exportTask, "payroll-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Report title describing the current date filters; read on the FX thread before exporting
+     */
+    private String exportDateRangeHeader() {
+        DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+        // Get the selected month and year filters
+        String selectedMonth = monthFilter.getValue();
+        String selectedYear = yearFilter.getValue();
+
+        // Try to get date range from date pickers first
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+
+        if (startDate != null && endDate != null) {
+            // Use date pickers
+            if (startDate.equals(endDate)) {
+                // Single date
+                return "Payroll Report - " + startDate.format(displayFormatter);
+            }
+            // Date range
+            return "Payroll Report - " + startDate.format(displayFormatter) + " to " + endDate.format(displayFormatter);
+        } else if (selectedMonth != null && !selectedMonth.equals("All Months") && 
+                  selectedYear != null && !selectedYear.equals("All Years")) {
+            // Use month and year filters
+            return "Payroll Report - " + selectedMonth + " " + selectedYear;
+        } else if (selectedYear != null && !selectedYear.equals("All Years")) {
+            // Use year filter only
+            return "Payroll Report - Year " + selectedYear;
+        } else if (selectedMonth != null && !selectedMonth.equals("All Months")) {
+            // Use month filter only
+            return "Payroll Report - " + selectedMonth;
         }
+        // No specific filter, use current date
+        return "Payroll Report - " + LocalDate.now().format(displayFormatter);
+    }
+
+    private static void writeExportRow(PrintWriter writer, PayrollProcessEntry entry) {
+        writer.printf("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%.2f,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,\"%s\"%n",
+                entry.getEmployeeId(),
+                entry.getAccountNumber(),
+                entry.getEmployeeName(),
+                entry.getPosition(),
+                entry.getPayPeriodStart(),
+                entry.getPayPeriodEnd(),
+                entry.getBasicSalary(),
+                entry.getPresentDays(),
+                entry.getAbsentDays(),
+                entry.getLateOccurrences(),
+                entry.getOvertimeHours(),
+                entry.getBasicPay(),
+                entry.getOvertimePay(),
+                entry.getAllowances(),
+                entry.getTotalDeductions(),
+                entry.getNetPay(),
+                entry.getStatus());
     }
 
     private void showInfoAlert(String title, String message) {
@@ -25,15 +25,9 @@ public class PayrollService {
     
     private static final Logger logger = Logger.getLogger(PayrollService.class.getName());
     private PayrollEngine payrollEngine;
-    private Connection connection;
     
     public PayrollService() {
         this.payrollEngine = new PayrollEngine();
-        try {
-            this.connection = DatabaseConfig.getConnection();
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to establish database connection", e);
-        }
     }
     
     /**
@@ -45,7 +39,9 @@ public class PayrollService {
             LocalDate startDate = LocalDate.parse(startDateStr);
             LocalDate endDate = LocalDate.parse(endDateStr);
             
-            return payrollEngine.processPayrollForPeriod(startDate, endDate, processedBy);
+            // payroll.parallelism > 1 enables the partitioned worker-pool mode
+            int parallelism = DatabaseConfig.getIntProperty("payroll.parallelism", 1);
+            return payrollEngine.processPayrollForPeriod(startDate, endDate, processedBy, parallelism);
             
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing payroll", e);
@@ -93,7 +89,8 @@ public class PayrollService {
             ORDER BY pp.full_name
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, startDateStr);
             stmt.setString(2, endDateStr);
             
@@ -136,7 +133,8 @@ public class PayrollService {
             ORDER BY dt.name
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, payrollId);
             
             ResultSet rs = stmt.executeQuery();
@@ -170,13 +168,14 @@ public class PayrollService {
                          THEN TIMESTAMPDIFF(MINUTE, '08:00:00', TIME(log_datetime)) ELSE 0 END) as avg_late_minutes
             FROM attendance a
             JOIN employees e ON a.account_number = e.account_number
-            WHERE e.id = ? AND DATE(log_datetime) BETWEEN ? AND ?
+            WHERE e.id = ? AND a.log_datetime >= ? AND a.log_datetime < ?
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, employeeId);
-            stmt.setString(2, startDateStr);
-            stmt.setString(3, endDateStr);
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDate.parse(startDateStr).atStartOfDay()));
+            stmt.setTimestamp(3, Timestamp.valueOf(LocalDate.parse(endDateStr).plusDays(1).atStartOfDay()));
             
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -278,7 +277,8 @@ public class PayrollService {
     
     private boolean isPayrollAlreadyProcessed(String startDateStr, String endDateStr) {
         String sql = "SELECT COUNT(*) FROM payroll_process WHERE pay_period_start = ? AND pay_period_end = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, startDateStr);
             stmt.setString(2, endDateStr);
             ResultSet rs = stmt.executeQuery();
@@ -290,7 +290,8 @@ public class PayrollService {
     
     private int getActiveEmployeeCount() {
         String sql = "SELECT COUNT(*) FROM employees WHERE status = 'Active'";
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             return rs.next() ? rs.getInt(1) : 0;
         } catch (SQLException e) {
@@ -299,10 +300,11 @@ public class PayrollService {
     }
     
     private int getAttendanceCount(String startDateStr, String endDateStr) {
-        String sql = "SELECT COUNT(*) FROM attendance WHERE DATE(log_datetime) BETWEEN ? AND ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, startDateStr);
-            stmt.setString(2, endDateStr);
+        String sql = "SELECT COUNT(*) FROM attendance WHERE log_datetime >= ? AND log_datetime < ?";
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDate.parse(startDateStr).atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(LocalDate.parse(endDateStr).plusDays(1).atStartOfDay()));
             ResultSet rs = stmt.executeQuery();
             return rs.next() ? rs.getInt(1) : 0;
         } catch (SQLException e) {
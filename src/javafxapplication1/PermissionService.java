@@ -0,0 +1,137 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared permission checks for the logged-in user.
+ * The user's full permission set is loaded once at login (DatabaseAuthService.getUserPermissions)
+ * and kept as an immutable set, so building a screen's buttons costs no queries.
+ * UserAccessController invalidates it when grants change; the next check reloads it. A reload
+ * that fails leaves the previous set in use rather than caching an empty one.
+ */
+public class PermissionService {
+
+    private static final Logger logger = Logger.getLogger(PermissionService.class.getName());
+    private static final PermissionService INSTANCE = new PermissionService();
+
+    private volatile UserPermissions current;
+    private volatile boolean stale;
+    private DatabaseAuthService authService;
+
+    private PermissionService() {
+    }
+
+    public static PermissionService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Cache the permissions returned by a successful login
+     */
+    public void load(DatabaseAuthService authService, int userId, String username, Collection<String> permissions) {
+        synchronized (this) {
+            this.authService = authService;
+            this.current = new UserPermissions(userId, username, Set.copyOf(permissions));
+            this.stale = false;
+        }
+        logger.info("Loaded " + permissions.size() + " permissions for user " + username);
+    }
+
+    /**
+     * Check a permission for the given user, reloading the set only if it was invalidated
+     */
+    public boolean hasPermission(String username, String permissionName) {
+        if (username == null) {
+            return false;
+        }
+
+        UserPermissions snapshot = current;
+        if (snapshot == null || stale || !username.equals(snapshot.username)) {
+            try {
+                snapshot = reload(username);
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error loading user permissions", e);
+                if (snapshot != null && username.equals(snapshot.username)) {
+                    // Keep using the last good set; it stays stale so the next check retries
+                    return snapshot.permissions.contains(permissionName);
+                }
+                // If database error occurs, default to admin permissions for admin user
+                return username.equals("admin");
+            }
+        }
+        return snapshot.permissions.contains(permissionName);
+    }
+
+    /**
+     * Permissions of the logged-in user, empty before login
+     */
+    public Set<String> getPermissions() {
+        UserPermissions snapshot = current;
+        return snapshot != null ? snapshot.permissions : Set.of();
+    }
+
+    /**
+     * Mark the cached set out of date after role grants changed
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Drop the cached set on logout
+     */
+    public synchronized void clear() {
+        current = null;
+        stale = false;
+    }
+
+    private synchronized UserPermissions reload(String username) throws SQLException {
+        UserPermissions snapshot = current;
+        if (snapshot != null && !stale && username.equals(snapshot.username)) {
+            return snapshot; // Another caller reloaded it while we waited
+        }
+
+        // The user id survives username edits, so reuse it when this is the logged-in user
+        int userId = snapshot != null && (username.equals(snapshot.username)
+                || username.equals(SessionManager.getInstance().getCurrentUser()))
+                ? snapshot.userId : findUserId(username);
+        if (authService == null) {
+            authService = new DatabaseAuthService();
+        }
+
+        snapshot = new UserPermissions(userId, username, Set.copyOf(authService.getUserPermissions(userId)));
+        current = snapshot;
+        stale = false;
+        logger.info("Reloaded " + snapshot.permissions.size() + " permissions for user " + username);
+        return snapshot;
+    }
+
+    private int findUserId(String username) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT user_id FROM users WHERE username = ?")) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("user_id") : 0;
+            }
+        }
+    }
+
+    private static class UserPermissions {
+        final int userId;
+        final String username;
+        final Set<String> permissions;
+
+        UserPermissions(int userId, String username, Set<String> permissions) {
+            this.userId = userId;
+            this.username = username;
+            this.permissions = permissions;
+        }
+    }
+}
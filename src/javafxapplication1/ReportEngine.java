@@ -0,0 +1,444 @@
+package javafxapplication1;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates the Reports module's reports.
+ * Rows are read with a forward-only streaming cursor and handed one at a time to a
+ * ReportWriter, so memory use does not depend on report size. Each run is recorded in
+ * report_history with its real file size, row count and duration; the Reports statistics
+ * are read from there.
+ */
+class ReportEngine {
+
+    private static final Logger logger = Logger.getLogger(ReportEngine.class.getName());
+    private static final int PROGRESS_INTERVAL_ROWS = 250;
+    private static volatile boolean historyTableReady;
+
+    enum ReportType {
+        MONTHLY_PAYROLL("Monthly Payroll Report"),
+        EMPLOYEE_LIST("Employee List Report"),
+        DEPARTMENT_SUMMARY("Department Summary Report"),
+        TAX("Tax Report");
+
+        private final String displayName;
+
+        ReportType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    enum Format {
+        PDF("PDF", "pdf"), EXCEL("Excel", "xlsx"), CSV("CSV", "csv");
+
+        private final String displayName;
+        private final String extension;
+
+        Format(String displayName, String extension) {
+            this.displayName = displayName;
+            this.extension = extension;
+        }
+
+        public String getDisplayName() { return displayName; }
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * Progress callback; called on the generating thread
+     */
+    interface ProgressListener {
+        void onProgress(long rowsWritten, long expectedRows);
+
+        boolean isCancelled();
+    }
+
+    /**
+     * What to generate. payrollStatus is a payroll_process status, or null for all.
+     */
+    static final class ReportRequest {
+        final ReportType type;
+        final Format format;
+        final LocalDate startDate;
+        final LocalDate endDate;
+        final String payrollStatus;
+
+        ReportRequest(ReportType type, Format format, LocalDate startDate, LocalDate endDate, String payrollStatus) {
+            this.type = type;
+            this.format = format;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.payrollStatus = payrollStatus;
+        }
+    }
+
+    /**
+     * Measured result of one generated report
+     */
+    static final class ReportStats {
+        private final Path file;
+        private final long rows;
+        private final long bytes;
+        private final long millis;
+
+        ReportStats(Path file, long rows, long bytes, long millis) {
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        public Path getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+
+        public double getRowsPerSecond() {
+            return millis > 0 ? rows * 1000.0 / millis : rows;
+        }
+    }
+
+    /**
+     * Totals shown in the Reports statistics cards
+     */
+    static final class HistorySummary {
+        final long runs;
+        final long completed;
+        final long completedThisMonth;
+        final long bytesStored;
+
+        HistorySummary(long runs, long completed, long completedThisMonth, long bytesStored) {
+            this.runs = runs;
+            this.completed = completed;
+            this.completedThisMonth = completedThisMonth;
+            this.bytesStored = bytesStored;
+        }
+    }
+
+    /**
+     * SQL plus layout for one report type
+     */
+    private static final class ReportQuery {
+        final String sql;
+        final List<Object> params;
+        final List<ReportWriter.Column> columns;
+
+        ReportQuery(String sql, List<Object> params, List<ReportWriter.Column> columns) {
+            this.sql = sql;
+            this.params = params;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Generate a report into the given file. A cancelled or failed run deletes the partial file.
+     */
+    public ReportStats generate(ReportRequest request, Path file, String generatedBy, ProgressListener progress)
+            throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        ReportQuery query = buildQuery(request);
+        long rows = 0;
+        long bytes = 0;
+        String status = "FAILED";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            long expected = countRows(conn, query);
+            progress.onProgress(0, expected);
+
+            try (ReportWriter writer = ReportWriter.open(request.format, file);
+                 PreparedStatement stmt = conn.prepareStatement(query.sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                ResultSet.CONCUR_READ_ONLY)) {
+                // Connector/J streams rows one at a time with this fetch size
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                bind(stmt, query.params);
+                writer.writeHeader(request.type.getDisplayName(), describePeriod(request), query.columns);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    int columnCount = rs.getMetaData().getColumnCount();
+                    Object[] values = new Object[columnCount];
+                    while (rs.next()) {
+                        for (int i = 0; i < columnCount; i++) {
+                            values[i] = readValue(rs, i + 1);
+                        }
+                        writer.writeRow(values);
+                        rows++;
+                        if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+                            if (progress.isCancelled()) {
+                                status = "CANCELLED";
+                                throw new CancellationException("Report generation cancelled");
+                            }
+                            progress.onProgress(rows, Math.max(expected, rows));
+                        }
+                    }
+                }
+            }
+            progress.onProgress(rows, rows);
+            status = "COMPLETED";
+        } finally {
+            if ("COMPLETED".equals(status)) {
+                bytes = Files.size(file);
+            } else {
+                Files.deleteIfExists(file);
+            }
+            recordHistory(request, file, generatedBy, status, rows, bytes, System.currentTimeMillis() - start);
+        }
+
+        long millis = System.currentTimeMillis() - start;
+        ReportStats stats = new ReportStats(file, rows, bytes, millis);
+        logger.info(String.format("Generated %s (%s): %,d rows, %,d bytes in %d ms (%,.0f rows/s)",
+                request.type.getDisplayName(), request.format.getDisplayName(), rows, stats.getBytes(),
+                millis, stats.getRowsPerSecond()));
+        return stats;
+    }
+
+    private static ReportQuery buildQuery(ReportRequest request) {
+        List<Object> params = new ArrayList<>();
+        List<ReportWriter.Column> columns = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
+
+        switch (request.type) {
+            case EMPLOYEE_LIST:
+                sql.append("""
+                    SELECT e.account_number, e.full_name, e.position, e.employment_type, e.status,
+                           sr.monthly_salary
+                    FROM employees e
+                    LEFT JOIN salary_reference sr ON e.salary_ref_id = sr.id
+                    ORDER BY e.full_name
+                    """);
+                columns.add(new ReportWriter.Column("Account No.", 12, false));
+                columns.add(new ReportWriter.Column("Employee Name", 32, false));
+                columns.add(new ReportWriter.Column("Position", 24, false));
+                columns.add(new ReportWriter.Column("Employment Type", 22, false));
+                columns.add(new ReportWriter.Column("Status", 10, false));
+                columns.add(new ReportWriter.Column("Monthly Salary", 14, true));
+                return new ReportQuery(sql.toString(), params, columns);
+
+            case DEPARTMENT_SUMMARY:
+                // employees has no department column; position is the closest grouping
+                sql.append("""
+                    SELECT COALESCE(e.position, '(none)') as position_group,
+                           COUNT(DISTINCT pp.employee_id) as employees,
+                           SUM(pp.gross_pay) as gross_pay,
+                           SUM(pp.total_deductions) as total_deductions,
+                           SUM(pp.net_pay) as net_pay
+                    FROM payroll_process pp
+                    JOIN employees e ON pp.employee_id = e.id
+                    WHERE pp.pay_period_start >= ? AND pp.pay_period_start <= ?
+                    """);
+                addPeriodParams(request, params);
+                appendStatus(request, sql, params);
+                sql.append(" GROUP BY position_group ORDER BY position_group");
+                columns.add(new ReportWriter.Column("Position", 36, false));
+                columns.add(new ReportWriter.Column("Employees", 10, true));
+                columns.add(new ReportWriter.Column("Gross Pay", 18, true));
+                columns.add(new ReportWriter.Column("Deductions", 18, true));
+                columns.add(new ReportWriter.Column("Net Pay", 18, true));
+                return new ReportQuery(sql.toString(), params, columns);
+
+            case TAX:
+                sql.append("""
+                    SELECT e.account_number, e.full_name, pp.pay_period_start, pp.pay_period_end,
+                           pp.gross_earned, pp.expanded_tax, pp.gvat, pp.withholding_tax
+                    FROM payroll_process pp
+                    JOIN employees e ON pp.employee_id = e.id
+                    WHERE pp.pay_period_start >= ? AND pp.pay_period_start <= ?
+                    """);
+                addPeriodParams(request, params);
+                appendStatus(request, sql, params);
+                sql.append(" ORDER BY pp.pay_period_start, e.full_name");
+                columns.add(new ReportWriter.Column("Account No.", 12, false));
+                columns.add(new ReportWriter.Column("Employee Name", 28, false));
+                columns.add(new ReportWriter.Column("Period Start", 12, false));
+                columns.add(new ReportWriter.Column("Period End", 12, false));
+                columns.add(new ReportWriter.Column("Gross Earned", 14, true));
+                columns.add(new ReportWriter.Column("Expanded Tax", 13, true));
+                columns.add(new ReportWriter.Column("GVAT", 12, true));
+                columns.add(new ReportWriter.Column("Total Tax", 13, true));
+                return new ReportQuery(sql.toString(), params, columns);
+
+            default:
+                sql.append("""
+                    SELECT e.account_number, e.full_name, e.position, pp.pay_period_start, pp.pay_period_end,
+                           pp.gross_pay, pp.total_deductions, pp.net_pay, pp.status
+                    FROM payroll_process pp
+                    JOIN employees e ON pp.employee_id = e.id
+                    WHERE pp.pay_period_start >= ? AND pp.pay_period_start <= ?
+                    """);
+                addPeriodParams(request, params);
+                appendStatus(request, sql, params);
+                sql.append(" ORDER BY pp.pay_period_start, e.full_name");
+                columns.add(new ReportWriter.Column("Account No.", 12, false));
+                columns.add(new ReportWriter.Column("Employee Name", 26, false));
+                columns.add(new ReportWriter.Column("Position", 16, false));
+                columns.add(new ReportWriter.Column("Period Start", 12, false));
+                columns.add(new ReportWriter.Column("Period End", 12, false));
+                columns.add(new ReportWriter.Column("Gross Pay", 13, true));
+                columns.add(new ReportWriter.Column("Deductions", 13, true));
+                columns.add(new ReportWriter.Column("Net Pay", 13, true));
+                columns.add(new ReportWriter.Column("Status", 10, false));
+                return new ReportQuery(sql.toString(), params, columns);
+        }
+    }
+
+    private static void addPeriodParams(ReportRequest request, List<Object> params) {
+        params.add(java.sql.Date.valueOf(request.startDate));
+        params.add(java.sql.Date.valueOf(request.endDate));
+    }
+
+    private static void appendStatus(ReportRequest request, StringBuilder sql, List<Object> params) {
+        if (request.payrollStatus != null) {
+            sql.append(" AND pp.status = ?");
+            params.add(request.payrollStatus);
+        }
+    }
+
+    private static String describePeriod(ReportRequest request) {
+        if (request.type == ReportType.EMPLOYEE_LIST) {
+            return "As of " + LocalDate.now().format(DateTimeFormatter.ofPattern("MMM dd, yyyy"));
+        }
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+        return request.startDate.format(format) + " to " + request.endDate.format(format)
+                + (request.payrollStatus != null ? " (" + request.payrollStatus + ")" : "");
+    }
+
+    private static long countRows(Connection conn, ReportQuery query) {
+        // Same filters without ORDER BY; only used to scale the progress bar
+        String sql = "SELECT COUNT(*) FROM (" + query.sql.replaceAll("(?s)\\s+ORDER BY .*$", "") + ") report_rows";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, query.params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not count report rows", e);
+            return -1;
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    private static Object readValue(ResultSet rs, int column) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        switch (meta.getColumnType(column)) {
+            case java.sql.Types.DECIMAL:
+            case java.sql.Types.NUMERIC:
+            case java.sql.Types.DOUBLE:
+            case java.sql.Types.FLOAT:
+                return rs.getBigDecimal(column);
+            case java.sql.Types.INTEGER:
+            case java.sql.Types.BIGINT:
+            case java.sql.Types.SMALLINT:
+            case java.sql.Types.TINYINT:
+                long value = rs.getLong(column);
+                return rs.wasNull() ? null : value;
+            case java.sql.Types.DATE:
+                java.sql.Date date = rs.getDate(column);
+                return date != null ? date.toLocalDate() : null;
+            default:
+                return rs.getString(column);
+        }
+    }
+
+    private static void recordHistory(ReportRequest request, Path file, String generatedBy, String status,
+                                      long rows, long bytes, long millis) {
+        String sql = """
+            INSERT INTO report_history (report_type, format, file_path, status, row_count, file_size,
+                                        duration_ms, period_start, period_end, generated_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            ensureHistoryTable(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, request.type.name());
+                stmt.setString(2, request.format.name());
+                stmt.setString(3, file.toString());
+                stmt.setString(4, status);
+                stmt.setLong(5, rows);
+                stmt.setLong(6, bytes);
+                stmt.setLong(7, millis);
+                stmt.setDate(8, java.sql.Date.valueOf(request.startDate));
+                stmt.setDate(9, java.sql.Date.valueOf(request.endDate));
+                stmt.setString(10, generatedBy);
+                stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            // The report itself is fine; only the statistics miss this run
+            logger.log(Level.WARNING, "Could not record report history", e);
+        }
+    }
+
+    /**
+     * Totals for the statistics cards
+     */
+    public HistorySummary loadSummary() throws SQLException {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        String sql = """
+            SELECT COUNT(*) as runs,
+                   COALESCE(SUM(status = 'COMPLETED'), 0) as completed,
+                   COALESCE(SUM(status = 'COMPLETED' AND generated_at >= ?), 0) as completed_this_month,
+                   COALESCE(SUM(CASE WHEN status = 'COMPLETED' THEN file_size ELSE 0 END), 0) as bytes_stored
+            FROM report_history
+            """;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            ensureHistoryTable(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(monthStart.atStartOfDay()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    return new HistorySummary(rs.getLong("runs"), rs.getLong("completed"),
+                                              rs.getLong("completed_this_month"), rs.getLong("bytes_stored"));
+                }
+            }
+        }
+    }
+
+    private static void ensureHistoryTable(Connection conn) throws SQLException {
+        if (historyTableReady) {
+            return;
+        }
+        String createTableSQL = """
+            CREATE TABLE IF NOT EXISTS report_history (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                report_type VARCHAR(40) NOT NULL,
+                format VARCHAR(10) NOT NULL,
+                file_path VARCHAR(500) NOT NULL,
+                status VARCHAR(20) NOT NULL,
+                row_count BIGINT NOT NULL DEFAULT 0,
+                file_size BIGINT NOT NULL DEFAULT 0,
+                duration_ms BIGINT NOT NULL DEFAULT 0,
+                period_start DATE NULL,
+                period_end DATE NULL,
+                generated_by VARCHAR(50) NULL,
+                generated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_generated_at (generated_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(createTableSQL);
+        }
+        historyTableReady = true;
+    }
+}
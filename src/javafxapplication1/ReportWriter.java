@@ -0,0 +1,453 @@
+package javafxapplication1;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Row-at-a-time report output used by ReportEngine.
+ * Each writer streams straight to the file and keeps no rows in memory, so report size is
+ * bounded by disk rather than heap. XLSX and PDF are written by hand (SpreadsheetML parts in a
+ * zip, PDF objects with an xref table) since the project has no spreadsheet or PDF library.
+ */
+interface ReportWriter extends Closeable {
+
+    /**
+     * Column definition; width is in characters and is used for PDF layout
+     */
+    final class Column {
+        final String name;
+        final int width;
+        final boolean numeric;
+
+        Column(String name, int width, boolean numeric) {
+            this.name = name;
+            this.width = width;
+            this.numeric = numeric;
+        }
+    }
+
+    void writeHeader(String title, String subtitle, List<Column> columns) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    static ReportWriter open(ReportEngine.Format format, Path file) throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvWriter(file);
+            case EXCEL:
+                return new XlsxWriter(file);
+            default:
+                return new PdfWriter(file);
+        }
+    }
+
+    static String plain(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * RFC 4180 CSV
+     */
+    final class CsvWriter implements ReportWriter {
+        private final Writer out;
+
+        CsvWriter(Path file) throws IOException {
+            out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void writeHeader(String title, String subtitle, List<Column> columns) throws IOException {
+            Object[] names = new Object[columns.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = columns.get(i).name;
+            }
+            writeRow(names);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String text = plain(values[i]);
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(text.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(text);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Single-sheet XLSX with inline strings, streamed into the sheet part
+     */
+    final class XlsxWriter implements ReportWriter {
+        private static final int MAX_ROWS = 1_048_576;
+
+        private final ZipOutputStream zip;
+        private final Writer sheet;
+        private int rowNumber;
+
+        XlsxWriter(Path file) throws IOException {
+            zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+            writePart("[Content_Types].xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+                <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+                <Default Extension="xml" ContentType="application/xml"/>
+                <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+                <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+                <Override PartName="/xl/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>
+                </Types>
+                """);
+            writePart("_rels/.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+                </Relationships>
+                """);
+            writePart("xl/workbook.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+                <sheets><sheet name="Report" sheetId="1" r:id="rId1"/></sheets>
+                </workbook>
+                """);
+            writePart("xl/_rels/workbook.xml.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+                <Relationship Id="rId2" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>
+                </Relationships>
+                """);
+            // Style 1 is bold, used for the title and column headings
+            writePart("xl/styles.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+                <fonts count="2"><font><sz val="11"/><name val="Calibri"/></font><font><b/><sz val="11"/><name val="Calibri"/></font></fonts>
+                <fills count="1"><fill><patternFill patternType="none"/></fill></fills>
+                <borders count="1"><border/></borders>
+                <cellStyleXfs count="1"><xf/></cellStyleXfs>
+                <cellXfs count="2"><xf fontId="0"/><xf fontId="1" applyFont="1"/></cellXfs>
+                </styleSheet>
+                """);
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            // Not closed by itself; close() finishes the entry and the zip
+            sheet = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+            sheet.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        }
+
+        private void writePart(String name, String content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        @Override
+        public void writeHeader(String title, String subtitle, List<Column> columns) throws IOException {
+            writeCells(new Object[] {title}, true);
+            if (subtitle != null) {
+                writeCells(new Object[] {subtitle}, false);
+            }
+            Object[] names = new Object[columns.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = columns.get(i).name;
+            }
+            writeCells(names, true);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            writeCells(values, false);
+        }
+
+        private void writeCells(Object[] values, boolean bold) throws IOException {
+            if (rowNumber >= MAX_ROWS) {
+                throw new IOException("Report exceeds the Excel limit of " + MAX_ROWS + " rows; export it as CSV instead");
+            }
+            rowNumber++;
+            sheet.write("<row r=\"" + rowNumber + "\">");
+            for (Object value : values) {
+                String style = bold ? " s=\"1\"" : "";
+                if (value instanceof Number) {
+                    sheet.write("<c" + style + "><v>" + plain(value) + "</v></c>");
+                } else if (value != null) {
+                    sheet.write("<c" + style + " t=\"inlineStr\"><is><t>");
+                    writeEscaped(plain(value));
+                    sheet.write("</t></is></c>");
+                } else {
+                    sheet.write("<c/>");
+                }
+            }
+            sheet.write("</row>");
+        }
+
+        private void writeEscaped(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '<': sheet.write("&lt;"); break;
+                    case '>': sheet.write("&gt;"); break;
+                    case '&': sheet.write("&amp;"); break;
+                    case '"': sheet.write("&quot;"); break;
+                    default:
+                        // Control characters other than tab/newline are not allowed in XML 1.0
+                        if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                            sheet.write(c);
+                        }
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                sheet.write("</sheetData></worksheet>");
+                sheet.flush();
+                zip.closeEntry();
+            } finally {
+                zip.close();
+            }
+        }
+    }
+
+    /**
+     * Landscape A4 text PDF in Courier, one content stream per page. Only the byte offsets of
+     * written objects are kept, so memory stays flat however many pages the report has.
+     */
+    final class PdfWriter implements ReportWriter {
+        private static final int PAGE_WIDTH = 842;
+        private static final int PAGE_HEIGHT = 595;
+        private static final int MARGIN = 36;
+        private static final float FONT_SIZE = 8f;
+        private static final float LEADING = 10f;
+        // Courier glyphs are 0.6 em wide
+        private static final int CHARS_PER_LINE = (int) ((PAGE_WIDTH - 2 * MARGIN) / (FONT_SIZE * 0.6f));
+        private static final int LINES_PER_PAGE = (int) ((PAGE_HEIGHT - 2 * MARGIN) / LEADING);
+        private static final int CATALOG = 1;
+        private static final int PAGES = 2;
+        private static final int FONT = 3;
+
+        private final CountingOutputStream out;
+        private final List<Long> offsets = new ArrayList<>();
+        private final List<Integer> pageObjects = new ArrayList<>();
+        private final ByteArrayOutputStream page = new ByteArrayOutputStream(8 * 1024);
+        private final String generated = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
+        private List<Column> columns = new ArrayList<>();
+        private String title = "";
+        private String headingLine = "";
+        private int linesOnPage;
+
+        PdfWriter(Path file) throws IOException {
+            out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+            // Objects 1-3 are reserved; 1 and 2 are written at the end once all pages are known
+            offsets.add(0L);
+            offsets.add(0L);
+            offsets.add(0L);
+            writeAscii("%PDF-1.4\n%âãÏÓ\n");
+            beginObject(FONT);
+            writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>\nendobj\n");
+        }
+
+        @Override
+        public void writeHeader(String title, String subtitle, List<Column> columns) throws IOException {
+            this.title = title + (subtitle != null ? " - " + subtitle : "");
+            this.columns = columns;
+            StringBuilder heading = new StringBuilder();
+            for (Column column : columns) {
+                appendCell(heading, column.name, column);
+            }
+            headingLine = heading.toString();
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            StringBuilder line = new StringBuilder(CHARS_PER_LINE);
+            for (int i = 0; i < values.length && i < columns.size(); i++) {
+                Column column = columns.get(i);
+                Object value = values[i];
+                String text = value instanceof BigDecimal
+                        ? String.format("%,.2f", (BigDecimal) value)
+                        : plain(value);
+                appendCell(line, text, column);
+            }
+            writeLine(line.toString());
+        }
+
+        private static void appendCell(StringBuilder line, String text, Column column) {
+            if (text.length() > column.width) {
+                text = text.substring(0, Math.max(0, column.width - 1)) + "~";
+            }
+            int pad = column.width - text.length();
+            if (column.numeric) {
+                line.append(" ".repeat(pad)).append(text);
+            } else {
+                line.append(text).append(" ".repeat(pad));
+            }
+            line.append(' ');
+        }
+
+        private void writeLine(String text) throws IOException {
+            if (linesOnPage == 0) {
+                startPage();
+            }
+            showText(text);
+            linesOnPage++;
+            if (linesOnPage >= LINES_PER_PAGE) {
+                finishPage();
+            }
+        }
+
+        private void startPage() throws IOException {
+            page.reset();
+            pageAscii("BT\n/F1 " + FONT_SIZE + " Tf\n" + LEADING + " TL\n" + MARGIN + " " + (PAGE_HEIGHT - MARGIN) + " Td\n");
+            showText(title);
+            showText("Generated " + generated + "    Page " + (pageObjects.size() + 1));
+            showText("");
+            showText(headingLine);
+            showText("-".repeat(Math.min(CHARS_PER_LINE, headingLine.length())));
+            linesOnPage = 5;
+        }
+
+        private void showText(String text) throws IOException {
+            if (text.length() > CHARS_PER_LINE) {
+                text = text.substring(0, CHARS_PER_LINE);
+            }
+            page.write('(');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '(' || c == ')' || c == '\\') {
+                    page.write('\\');
+                    page.write(c);
+                } else if (c >= 0x20 && c <= 0xFF) {
+                    page.write(c);
+                } else {
+                    page.write('?'); // Outside WinAnsi
+                }
+            }
+            pageAscii(") Tj T*\n");
+        }
+
+        private void pageAscii(String text) throws IOException {
+            page.write(text.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        private void finishPage() throws IOException {
+            pageAscii("ET\n");
+            int contentObject = offsets.size() + 1;
+            beginObject(contentObject);
+            writeAscii("<< /Length " + page.size() + " >>\nstream\n");
+            page.writeTo(out);
+            writeAscii("\nendstream\nendobj\n");
+
+            int pageObject = offsets.size() + 1;
+            beginObject(pageObject);
+            writeAscii("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                    + " /Resources << /Font << /F1 " + FONT + " 0 R >> >> /Contents " + contentObject + " 0 R >>\nendobj\n");
+            pageObjects.add(pageObject);
+            linesOnPage = 0;
+        }
+
+        private void beginObject(int number) throws IOException {
+            if (number > offsets.size()) {
+                offsets.add(out.count);
+            } else {
+                offsets.set(number - 1, out.count);
+            }
+            writeAscii(number + " 0 obj\n");
+        }
+
+        private void writeAscii(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (linesOnPage > 0 || pageObjects.isEmpty()) {
+                    if (linesOnPage == 0) {
+                        startPage(); // An empty report still gets its heading
+                    }
+                    finishPage();
+                }
+
+                beginObject(PAGES);
+                StringBuilder kids = new StringBuilder();
+                for (int pageObject : pageObjects) {
+                    kids.append(pageObject).append(" 0 R ");
+                }
+                writeAscii("<< /Type /Pages /Count " + pageObjects.size() + " /Kids [" + kids + "] >>\nendobj\n");
+                beginObject(CATALOG);
+                writeAscii("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+                long xref = out.count;
+                StringBuilder table = new StringBuilder("xref\n0 " + (offsets.size() + 1) + "\n0000000000 65535 f \n");
+                for (long offset : offsets) {
+                    table.append(String.format("%010d 00000 n \n", offset));
+                }
+                table.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root ").append(CATALOG)
+                     .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+                writeAscii(table.toString());
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Tracks the byte position for PDF object offsets
+     */
+    final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package javafxapplication1;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -12,15 +14,31 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.ToggleGroup;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ReportsController implements Initializable {
 
+    private static final Logger logger = Logger.getLogger(ReportsController.class.getName());
+
+    // One report at a time; large reports stream for a while and should not compete
+    private static final ExecutorService reportExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "report-generator");
+        t.setDaemon(true);
+        return t;
+    });
+
     @FXML private ComboBox<String> reportTypeFilter;
     @FXML private ComboBox<String> departmentFilter;
     @FXML private ComboBox<String> statusFilter;
@@ -43,6 +61,7 @@ public class ReportsController implements Initializable {
     private final ObservableList<String> departments = FXCollections.observableArrayList();
     private final ObservableList<String> statusOptions = FXCollections.observableArrayList();
     private final ObservableList<String> reportTypes = FXCollections.observableArrayList();
+    private final ReportEngine reportEngine = new ReportEngine();
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -91,21 +110,10 @@ public class ReportsController implements Initializable {
 
     @FXML
     private void onGenerateReport() {
-        String reportType = getSelectedReportType();
-        String format = getSelectedFormat();
-        
-        if (startDatePicker.getValue() == null || endDatePicker.getValue() == null) {
-            showAlert("Please select both start and end dates.");
-            return;
-        }
-        
-        if (startDatePicker.getValue().isAfter(endDatePicker.getValue())) {
-            showAlert("Start date cannot be after end date.");
+        if (!validateDateRange()) {
             return;
         }
-
-        // Simulate report generation
-        showReportGenerationDialog(reportType, format);
+        startReport(getSelectedReportType(), getSelectedFormat());
     }
 
     @FXML
@@ -118,15 +126,16 @@ public class ReportsController implements Initializable {
 
     @FXML
     private void onPreviewReport() {
-        String reportType = getSelectedReportType();
-        showAlert("Preview feature for " + reportType + " will be implemented in the next version.");
+        ReportEngine.ReportType reportType = getSelectedReportType();
+        showAlert("Preview feature for " + reportType.getDisplayName() + " will be implemented in the next version.");
     }
 
     @FXML
     private void onExportReport() {
-        String reportType = getSelectedReportType();
-        String format = getSelectedFormat();
-        showAlert("Exporting " + reportType + " as " + format + "...");
+        if (!validateDateRange()) {
+            return;
+        }
+        startReport(getSelectedReportType(), getSelectedFormat());
     }
 
     @FXML
@@ -136,22 +145,22 @@ public class ReportsController implements Initializable {
 
     @FXML
     private void onQuickMonthlyPayroll() {
-        generateQuickReport("Monthly Payroll Report", "PDF");
+        generateQuickReport(ReportEngine.ReportType.MONTHLY_PAYROLL, ReportEngine.Format.PDF);
     }
 
     @FXML
     private void onQuickEmployeeList() {
-        generateQuickReport("Employee List Report", "Excel");
+        generateQuickReport(ReportEngine.ReportType.EMPLOYEE_LIST, ReportEngine.Format.EXCEL);
     }
 
     @FXML
     private void onQuickDepartmentSummary() {
-        generateQuickReport("Department Summary Report", "PDF");
+        generateQuickReport(ReportEngine.ReportType.DEPARTMENT_SUMMARY, ReportEngine.Format.PDF);
     }
 
     @FXML
     private void onQuickTaxReport() {
-        generateQuickReport("Tax Report", "PDF");
+        generateQuickReport(ReportEngine.ReportType.TAX, ReportEngine.Format.PDF);
     }
 
     @FXML
@@ -164,42 +173,164 @@ public class ReportsController implements Initializable {
         showAlert("Print dialog will open with the selected report.");
     }
 
-    private String getSelectedReportType() {
-        if (payrollReportRadio.isSelected()) return "Payroll Report";
-        if (employeeReportRadio.isSelected()) return "Employee Report";
-        if (departmentReportRadio.isSelected()) return "Department Report";
-        if (summaryReportRadio.isSelected()) return "Summary Report";
-        return "Payroll Report";
+    private ReportEngine.ReportType getSelectedReportType() {
+        if (payrollReportRadio.isSelected()) return ReportEngine.ReportType.MONTHLY_PAYROLL;
+        if (employeeReportRadio.isSelected()) return ReportEngine.ReportType.EMPLOYEE_LIST;
+        // Department and summary reports both aggregate payroll by position
+        if (departmentReportRadio.isSelected()) return ReportEngine.ReportType.DEPARTMENT_SUMMARY;
+        if (summaryReportRadio.isSelected()) return ReportEngine.ReportType.DEPARTMENT_SUMMARY;
+        return ReportEngine.ReportType.MONTHLY_PAYROLL;
+    }
+
+    private ReportEngine.Format getSelectedFormat() {
+        if (pdfFormatRadio.isSelected()) return ReportEngine.Format.PDF;
+        if (excelFormatRadio.isSelected()) return ReportEngine.Format.EXCEL;
+        if (csvFormatRadio.isSelected()) return ReportEngine.Format.CSV;
+        return ReportEngine.Format.PDF;
     }
 
-    private String getSelectedFormat() {
-        if (pdfFormatRadio.isSelected()) return "PDF";
-        if (excelFormatRadio.isSelected()) return "Excel";
-        if (csvFormatRadio.isSelected()) return "CSV";
-        return "PDF";
+    /**
+     * payroll_process status for the status filter; the UI labels predate the table's enum
+     */
+    private String getSelectedPayrollStatus() {
+        String status = statusFilter.getValue();
+        if (status == null || status.startsWith("All")) return null;
+        if (status.equals("Pending")) return "Calculated";
+        if (status.equals("Processed")) return "Paid";
+        return status;
     }
 
-    private void generateQuickReport(String reportName, String format) {
+    private boolean validateDateRange() {
+        if (startDatePicker.getValue() == null || endDatePicker.getValue() == null) {
+            showAlert("Please select both start and end dates.");
+            return false;
+        }
+        if (startDatePicker.getValue().isAfter(endDatePicker.getValue())) {
+            showAlert("Start date cannot be after end date.");
+            return false;
+        }
+        return true;
+    }
+
+    private void generateQuickReport(ReportEngine.ReportType reportType, ReportEngine.Format format) {
+        if (!validateDateRange()) {
+            return;
+        }
         Alert alert = new Alert(AlertType.CONFIRMATION);
         alert.setTitle("Generate Quick Report");
-        alert.setHeaderText("Generate " + reportName + "?");
-        alert.setContentText("This will create a " + format + " report with current data.");
+        alert.setHeaderText("Generate " + reportType.getDisplayName() + "?");
+        alert.setContentText("This will create a " + format.getDisplayName() + " report with current data.");
         
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            showReportGenerationDialog(reportName, format);
+            startReport(reportType, format);
         }
     }
 
-    private void showReportGenerationDialog(String reportType, String format) {
+    /**
+     * Ask where to save, then generate on the report executor with a cancellable progress dialog
+     */
+    private void startReport(ReportEngine.ReportType reportType, ReportEngine.Format format) {
+        ReportEngine.ReportRequest request = new ReportEngine.ReportRequest(reportType, format,
+                startDatePicker.getValue(), endDatePicker.getValue(), getSelectedPayrollStatus());
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save " + reportType.getDisplayName());
+        fileChooser.setInitialFileName(reportType.name().toLowerCase() + "_"
+                + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "." + format.getExtension());
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                format.getDisplayName() + " files", "*." + format.getExtension()));
+        File file = fileChooser.showSaveDialog(reportsGeneratedLabel.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        String generatedBy = SessionManager.getInstance().getCurrentUser();
+        Task<ReportEngine.ReportStats> task = new Task<>() {
+            @Override
+            protected ReportEngine.ReportStats call() throws Exception {
+                updateMessage("Preparing " + reportType.getDisplayName() + "...");
+                Task<?> generation = this;
+                return reportEngine.generate(request, file.toPath(), generatedBy, new ReportEngine.ProgressListener() {
+                    @Override
+                    public void onProgress(long rowsWritten, long expectedRows) {
+                        updateProgress(rowsWritten, Math.max(expectedRows, 1));
+                        updateMessage(String.format("%,d of %,d rows written", rowsWritten, Math.max(expectedRows, 0)));
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return generation.isCancelled();
+                    }
+                });
+            }
+        };
+
+        Dialog<Void> progressDialog = createProgressDialog(reportType, format, task);
+
+        task.setOnSucceeded(e -> {
+            progressDialog.close();
+            showReportGenerationDialog(request, task.getValue());
+        });
+        task.setOnCancelled(e -> {
+            progressDialog.close();
+            updateStatistics();
+        });
+        task.setOnFailed(e -> {
+            progressDialog.close();
+            Throwable error = task.getException();
+            if (!(error instanceof CancellationException)) {
+                logger.log(Level.SEVERE, "Report generation failed", error);
+                showAlert("Failed to generate " + reportType.getDisplayName() + ": " + error.getMessage());
+            }
+            updateStatistics();
+        });
+
+        reportExecutor.submit(task);
+        progressDialog.show();
+    }
+
+    private Dialog<Void> createProgressDialog(ReportEngine.ReportType reportType, ReportEngine.Format format,
+                                              Task<?> task) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Generating Report");
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+
+        VBox content = new VBox(12);
+        content.setPadding(new javafx.geometry.Insets(20));
+
+        Label title = new Label(reportType.getDisplayName() + " (" + format.getDisplayName() + ")");
+        title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #1b5e20;");
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(320);
+        progressBar.progressProperty().bind(task.progressProperty());
+
+        Label message = new Label();
+        message.textProperty().bind(task.messageProperty());
+
+        content.getChildren().addAll(title, progressBar, message);
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().setStyle("-fx-background-color: #f5f5f5;");
+
+        // Closing the dialog by any means cancels a report that is still running
+        dialog.setOnCloseRequest(e -> {
+            if (!task.isDone()) {
+                task.cancel();
+            }
+        });
+        return dialog;
+    }
+
+    private void showReportGenerationDialog(ReportEngine.ReportRequest request, ReportEngine.ReportStats stats) {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Report Generated");
         dialog.getDialogPane().getButtonTypes().add(ButtonType.OK);
         
         VBox content = new VBox(15);
         content.setPadding(new javafx.geometry.Insets(20));
 
-        Label title = new Label("Report Generation Progress");
+        Label title = new Label("Report Generation Complete");
         title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #1b5e20;");
 
         GridPane grid = new GridPane();
@@ -207,22 +338,22 @@ public class ReportsController implements Initializable {
         grid.setVgap(8);
 
         grid.add(new Label("Report Type:"), 0, 0);
-        grid.add(new Label(reportType), 1, 0);
+        grid.add(new Label(request.type.getDisplayName()), 1, 0);
         grid.add(new Label("Format:"), 0, 1);
-        grid.add(new Label(format), 1, 1);
+        grid.add(new Label(request.format.getDisplayName()), 1, 1);
         grid.add(new Label("Date Range:"), 0, 2);
-        grid.add(new Label(startDatePicker.getValue().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) + 
-                          " to " + endDatePicker.getValue().format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))), 1, 2);
-        grid.add(new Label("Department:"), 0, 3);
-        grid.add(new Label(departmentFilter.getValue()), 1, 3);
-        grid.add(new Label("Status:"), 0, 4);
-        grid.add(new Label(statusFilter.getValue()), 1, 4);
-        grid.add(new Label("Status:"), 0, 5);
-        grid.add(new Label("✅ Report generated successfully!"), 1, 5);
-        grid.add(new Label("File Size:"), 0, 6);
-        grid.add(new Label("2.3 MB"), 1, 6);
+        grid.add(new Label(request.startDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) + 
+                          " to " + request.endDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))), 1, 2);
+        grid.add(new Label("Payroll Status:"), 0, 3);
+        grid.add(new Label(statusFilter.getValue()), 1, 3);
+        grid.add(new Label("Rows:"), 0, 4);
+        grid.add(new Label(String.format("%,d", stats.getRows())), 1, 4);
+        grid.add(new Label("File Size:"), 0, 5);
+        grid.add(new Label(formatBytes(stats.getBytes())), 1, 5);
+        grid.add(new Label("Generated In:"), 0, 6);
+        grid.add(new Label(String.format("%.2f s (%,.0f rows/s)", stats.getMillis() / 1000.0, stats.getRowsPerSecond())), 1, 6);
         grid.add(new Label("Location:"), 0, 7);
-        grid.add(new Label("Desktop/Reports/"), 1, 7);
+        grid.add(new Label(stats.getFile().toAbsolutePath().toString()), 1, 7);
 
         content.getChildren().addAll(title, grid);
         dialog.getDialogPane().setContent(content);
@@ -236,11 +367,36 @@ public class ReportsController implements Initializable {
         updateStatistics();
     }
 
+    /**
+     * Load the statistics cards from report_history off the FX thread
+     */
     private void updateStatistics() {
-        reportsGeneratedLabel.setText("24");
-        thisMonthLabel.setText("8");
-        totalDownloadsLabel.setText("156");
-        storageUsedLabel.setText("45.2 MB");
+        reportExecutor.submit(() -> {
+            try {
+                ReportEngine.HistorySummary summary = reportEngine.loadSummary();
+                Platform.runLater(() -> {
+                    reportsGeneratedLabel.setText(String.format("%,d", summary.runs));
+                    thisMonthLabel.setText(String.format("%,d", summary.completedThisMonth));
+                    totalDownloadsLabel.setText(String.format("%,d", summary.completed));
+                    storageUsedLabel.setText(formatBytes(summary.bytesStored));
+                });
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Could not load report statistics", e);
+                Platform.runLater(() -> {
+                    reportsGeneratedLabel.setText("-");
+                    thisMonthLabel.setText("-");
+                    totalDownloadsLabel.setText("-");
+                    storageUsedLabel.setText("-");
+                });
+            }
+        });
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        if (bytes < 1024L * 1024 * 1024) return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
     }
 
     private void showAlert(String message) {
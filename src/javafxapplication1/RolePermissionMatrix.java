@@ -0,0 +1,180 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Every role's grants held in memory as one BitSet per role, indexed by permission.
+ * The whole matrix is read with a single query; the permission tree renders from it and
+ * checkbox toggles only change the in-memory copy. flush() hands the edited roles to
+ * RolePermissionService, which writes the difference in one transaction.
+ */
+class RolePermissionMatrix {
+
+    private static final Logger logger = Logger.getLogger(RolePermissionMatrix.class.getName());
+
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private int[] permissionIds = new int[0];
+    private final Map<Integer, BitSet> persisted = new HashMap<>();
+    private final Map<Integer, BitSet> working = new HashMap<>();
+
+    /**
+     * Load all permissions and all granted role_permissions rows in one query; drops unsaved changes
+     */
+    public void load(Connection connection) throws SQLException {
+        String query = """
+            SELECT p.permission_id, p.permission_name, rp.role_id
+            FROM permissions p
+            LEFT JOIN role_permissions rp ON rp.permission_id = p.permission_id AND rp.granted = TRUE
+            ORDER BY p.permission_id
+            """;
+
+        Map<String, Integer> names = new HashMap<>();
+        int[] ids = new int[64];
+        String[] nameList = new String[64];
+        Map<Integer, BitSet> grants = new HashMap<>();
+        int count = 0;
+        int lastPermissionId = -1;
+
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int permissionId = rs.getInt("permission_id");
+                if (permissionId != lastPermissionId) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                        nameList = Arrays.copyOf(nameList, count * 2);
+                    }
+                    ids[count] = permissionId;
+                    nameList[count] = rs.getString("permission_name");
+                    names.put(nameList[count], count);
+                    count++;
+                    lastPermissionId = permissionId;
+                }
+                int roleId = rs.getInt("role_id");
+                if (!rs.wasNull()) {
+                    grants.computeIfAbsent(roleId, id -> new BitSet()).set(count - 1);
+                }
+            }
+        }
+
+        indexByName.clear();
+        indexByName.putAll(names);
+        permissionIds = Arrays.copyOf(ids, count);
+        persisted.clear();
+        persisted.putAll(grants);
+        working.clear();
+        logger.info("Loaded permission matrix: " + count + " permissions, " + grants.size() + " roles with grants");
+    }
+
+    public boolean isGranted(int roleId, String permissionName) {
+        Integer index = indexByName.get(permissionName);
+        return index != null && current(roleId).get(index);
+    }
+
+    /**
+     * Change a grant locally; nothing is written until flush()
+     */
+    public void setGranted(int roleId, String permissionName, boolean granted) {
+        Integer index = indexByName.get(permissionName);
+        if (index == null) {
+            logger.warning("Unknown permission in matrix: " + permissionName);
+            return;
+        }
+        BitSet bits = working.computeIfAbsent(roleId, id -> (BitSet) current(id).clone());
+        bits.set(index, granted);
+    }
+
+    public int getGrantedCount(int roleId) {
+        return current(roleId).cardinality();
+    }
+
+    /**
+     * Number of grants that differ from the database, across all roles
+     */
+    public int getPendingChangeCount() {
+        int changes = 0;
+        for (Map.Entry<Integer, BitSet> entry : working.entrySet()) {
+            changes += diff(entry.getKey(), entry.getValue()).cardinality();
+        }
+        return changes;
+    }
+
+    public int getPendingChangeCount(int roleId) {
+        BitSet bits = working.get(roleId);
+        return bits != null ? diff(roleId, bits).cardinality() : 0;
+    }
+
+    /**
+     * Forget unsaved changes for one role
+     */
+    public void discardChanges(int roleId) {
+        working.remove(roleId);
+    }
+
+    /**
+     * Write every pending change through RolePermissionService in one transaction and return how many grants changed
+     */
+    public int flush(Connection connection) throws SQLException {
+        if (working.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Set<Integer>> desired = new HashMap<>();
+        for (Map.Entry<Integer, BitSet> entry : working.entrySet()) {
+            Set<Integer> ids = new HashSet<>();
+            BitSet bits = entry.getValue();
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                ids.add(permissionIds[i]);
+            }
+            desired.put(entry.getKey(), ids);
+        }
+        int changes = RolePermissionService.getInstance().applyGrants(connection, desired);
+
+        persisted.putAll(working);
+        working.clear();
+        return changes;
+    }
+
+    /**
+     * Record grants that were written to the database elsewhere, dropping unsaved changes for the role
+     */
+    public void setPersisted(int roleId, Collection<Integer> grantedPermissionIds) {
+        BitSet bits = new BitSet();
+        for (int permissionId : grantedPermissionIds) {
+            // permissionIds is sorted because load() orders by permission_id
+            int index = Arrays.binarySearch(permissionIds, permissionId);
+            if (index >= 0) {
+                bits.set(index);
+            }
+        }
+        persisted.put(roleId, bits);
+        working.remove(roleId);
+    }
+
+    private BitSet current(int roleId) {
+        BitSet bits = working.get(roleId);
+        if (bits == null) {
+            bits = persisted.get(roleId);
+        }
+        return bits != null ? bits : new BitSet(0);
+    }
+
+    private BitSet diff(int roleId, BitSet target) {
+        BitSet changed = (BitSet) target.clone();
+        BitSet loaded = persisted.get(roleId);
+        if (loaded != null) {
+            changed.xor(loaded);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,217 @@
+package javafxapplication1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Set-based writes to role_permissions. Callers state which permissions a role should end up
+ * with; the current grants of those roles are read in one query, missing grants are added with
+ * multi-row INSERTs and extra ones removed with one DELETE ... IN per role, all in a single
+ * transaction. Cached permissions of the logged-in user are invalidated afterwards.
+ */
+class RolePermissionService {
+
+    private static final Logger logger = Logger.getLogger(RolePermissionService.class.getName());
+    private static final RolePermissionService INSTANCE = new RolePermissionService();
+
+    private static final int INSERT_ROWS_PER_STATEMENT = 500;
+
+    // Staff may add, edit and delete in these modules; each module's .view and dashboard.view come with them
+    private static final List<String> STAFF_ACTIONS = List.of(
+        "employee.add", "employee.edit", "employee.delete",
+        "payroll.add", "payroll.edit", "payroll.delete",
+        "payroll_gen.add", "payroll_gen.edit", "payroll_gen.delete",
+        "reports.add", "reports.edit", "reports.delete",
+        "import_export.add", "import_export.edit", "import_export.delete",
+        "history.add", "history.edit", "history.delete",
+        "user_mgmt.add", "user_mgmt.edit", "user_mgmt.delete",
+        "user_access.add", "user_access.edit", "user_access.delete"
+    );
+
+    private RolePermissionService() {
+    }
+
+    public static RolePermissionService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether the role has a default permission template (Admin and Staff)
+     */
+    static boolean hasTemplate(String roleName) {
+        return "Admin".equalsIgnoreCase(roleName) || "Staff".equalsIgnoreCase(roleName);
+    }
+
+    /**
+     * Default grants for a role, resolved against the Active rows of the permissions table so
+     * permissions added later are covered: Admin gets every Active permission, Staff gets
+     * STAFF_ACTIONS plus the .view permission of each of those modules and dashboard.view.
+     * Returns null if the role has no template.
+     */
+    public Set<Integer> resolveTemplate(Connection connection, String roleName) throws SQLException {
+        if (!hasTemplate(roleName)) {
+            return null;
+        }
+        boolean admin = "Admin".equalsIgnoreCase(roleName);
+        Set<String> staffNames = new HashSet<>(STAFF_ACTIONS);
+        staffNames.add("dashboard.view");
+        for (String action : STAFF_ACTIONS) {
+            staffNames.add(action.substring(0, action.indexOf('.')) + ".view");
+        }
+
+        Set<Integer> granted = new TreeSet<>();
+        String query = "SELECT permission_id, permission_name FROM permissions WHERE status = 'Active'";
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                if (admin || staffNames.contains(rs.getString("permission_name"))) {
+                    granted.add(rs.getInt("permission_id"));
+                }
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * Make each role's grants exactly the given permission IDs. Returns how many grants changed.
+     */
+    public int applyGrants(Connection connection, Map<Integer, ? extends Collection<Integer>> desiredByRole) throws SQLException {
+        if (desiredByRole.isEmpty()) {
+            return 0;
+        }
+        // Sorted so concurrent writers take row locks in the same order
+        Map<Integer, Set<Integer>> desired = new TreeMap<>();
+        for (Map.Entry<Integer, ? extends Collection<Integer>> entry : desiredByRole.entrySet()) {
+            desired.put(entry.getKey(), new TreeSet<>(entry.getValue()));
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        int changes = 0;
+        try {
+            Map<Integer, Set<Integer>> current = loadGrants(connection, desired.keySet());
+            List<int[]> grants = new ArrayList<>();
+            Map<Integer, List<Integer>> revokes = new TreeMap<>();
+            for (Map.Entry<Integer, Set<Integer>> entry : desired.entrySet()) {
+                int roleId = entry.getKey();
+                Set<Integer> existing = current.getOrDefault(roleId, Collections.emptySet());
+                for (int permissionId : entry.getValue()) {
+                    if (!existing.contains(permissionId)) {
+                        grants.add(new int[] {roleId, permissionId});
+                    }
+                }
+                for (int permissionId : existing) {
+                    if (!entry.getValue().contains(permissionId)) {
+                        revokes.computeIfAbsent(roleId, id -> new ArrayList<>()).add(permissionId);
+                    }
+                }
+            }
+
+            insertGrants(connection, grants);
+            for (Map.Entry<Integer, List<Integer>> entry : revokes.entrySet()) {
+                deleteGrants(connection, entry.getKey(), entry.getValue());
+                changes += entry.getValue().size();
+            }
+            changes += grants.size();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        if (changes > 0) {
+            PermissionService.getInstance().invalidate();
+        }
+        logger.info("Applied " + changes + " role permission changes for " + desired.size() + " roles");
+        return changes;
+    }
+
+    /**
+     * Replace a role's grants with its template and return the permission IDs it now has,
+     * or null if the role has no template
+     */
+    public Set<Integer> applyTemplate(Connection connection, int roleId, String roleName) throws SQLException {
+        Set<Integer> granted = resolveTemplate(connection, roleName);
+        if (granted == null) {
+            return null;
+        }
+        if (granted.isEmpty()) {
+            // Never strip a role because the permissions table could not supply its template
+            throw new SQLException("No active permissions found for the " + roleName + " template");
+        }
+        applyGrants(connection, Collections.singletonMap(roleId, granted));
+        return granted;
+    }
+
+    private Map<Integer, Set<Integer>> loadGrants(Connection connection, Set<Integer> roleIds) throws SQLException {
+        String query = "SELECT role_id, permission_id FROM role_permissions WHERE granted = TRUE AND role_id IN ("
+                     + placeholders(roleIds.size()) + ")";
+        Map<Integer, Set<Integer>> grants = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            for (int roleId : roleIds) {
+                stmt.setInt(index++, roleId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    grants.computeIfAbsent(rs.getInt("role_id"), id -> new TreeSet<>()).add(rs.getInt("permission_id"));
+                }
+            }
+        }
+        return grants;
+    }
+
+    private void insertGrants(Connection connection, List<int[]> rows) throws SQLException {
+        for (int from = 0; from < rows.size(); from += INSERT_ROWS_PER_STATEMENT) {
+            int to = Math.min(rows.size(), from + INSERT_ROWS_PER_STATEMENT);
+            StringBuilder query = new StringBuilder(
+                "INSERT INTO role_permissions (role_id, permission_id, granted, created_date) VALUES ");
+            for (int i = from; i < to; i++) {
+                query.append(i > from ? ", (?, ?, TRUE, NOW())" : "(?, ?, TRUE, NOW())");
+            }
+            // A revoked row kept with granted = FALSE is switched back on
+            query.append(" ON DUPLICATE KEY UPDATE granted = TRUE");
+
+            try (PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+                int index = 1;
+                for (int i = from; i < to; i++) {
+                    stmt.setInt(index++, rows.get(i)[0]);
+                    stmt.setInt(index++, rows.get(i)[1]);
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private void deleteGrants(Connection connection, int roleId, List<Integer> permissionIds) throws SQLException {
+        String query = "DELETE FROM role_permissions WHERE role_id = ? AND permission_id IN ("
+                     + placeholders(permissionIds.size()) + ")";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, roleId);
+            int index = 2;
+            for (int permissionId : permissionIds) {
+                stmt.setInt(index++, permissionId);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -49,18 +49,12 @@ public class SalaryReferenceController implements Initializable {
     @FXML private Button calculateAllButton;
     
     private ObservableList<SalaryReference> salaryData = FXCollections.observableArrayList();
-    private Connection connection;
     private static final Logger logger = Logger.getLogger(SalaryReferenceController.class.getName());
     
-    // Database connection details
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupTableColumns();
-        initializeDatabase();
+        createSalaryReferenceTableIfNotExists();
         loadSalaryReferenceData();
         
         // Setup permission-based button visibility
@@ -153,45 +147,7 @@ public class SalaryReferenceController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void setupTableColumns() {
@@ -204,21 +160,6 @@ public class SalaryReferenceController implements Initializable {
         table.setItems(salaryData);
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established successfully");
-            
-            // Create salary_reference table if it doesn't exist
-            createSalaryReferenceTableIfNotExists();
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error initializing database connection", e);
-            showAlert("Database Error", "Could not connect to database: " + e.getMessage());
-        }
-    }
-    
     private void createSalaryReferenceTableIfNotExists() {
         String createTableSQL = """
             CREATE TABLE IF NOT EXISTS salary_reference (
@@ -233,7 +174,8 @@ public class SalaryReferenceController implements Initializable {
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
             stmt.executeUpdate();
             logger.info("Salary reference table created or already exists");
         } catch (SQLException e) {
@@ -582,7 +524,8 @@ public class SalaryReferenceController implements Initializable {
             VALUES (?, ?, ?, ?, ?, ?)
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setBigDecimal(1, data.monthlySalary);
             stmt.setBigDecimal(2, data.ratePerDay);
             stmt.setBigDecimal(3, data.halfDayRate);
@@ -715,7 +658,8 @@ public class SalaryReferenceController implements Initializable {
     private SalaryReferenceData getSalaryReferenceDataFromDatabase(int id) {
         String sql = "SELECT * FROM salary_reference WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             
@@ -750,7 +694,8 @@ public class SalaryReferenceController implements Initializable {
             WHERE id = ?
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setBigDecimal(1, data.monthlySalary);
             stmt.setBigDecimal(2, data.ratePerDay);
             stmt.setBigDecimal(3, data.halfDayRate);
@@ -864,7 +809,8 @@ public class SalaryReferenceController implements Initializable {
     private boolean deleteSalaryReference(int id) {
         String sql = "DELETE FROM salary_reference WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             
             int rowsAffected = stmt.executeUpdate();
@@ -905,7 +851,8 @@ public class SalaryReferenceController implements Initializable {
         
         String sql = "SELECT * FROM salary_reference WHERE monthly_salary LIKE ? OR rate_per_day LIKE ? ORDER BY monthly_salary";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             String searchPattern = "%" + searchText + "%";
             stmt.setString(1, searchPattern);
             stmt.setString(2, searchPattern);
@@ -1006,8 +953,9 @@ public class SalaryReferenceController implements Initializable {
         String selectSQL = "SELECT id, monthly_salary FROM salary_reference";
         String updateSQL = "UPDATE salary_reference SET rate_per_day = ?, half_day_rate = ?, rate_per_minute = ? WHERE id = ?";
         
-        try (PreparedStatement selectStmt = connection.prepareStatement(selectSQL);
-             PreparedStatement updateStmt = connection.prepareStatement(updateSQL)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement selectStmt = conn.prepareStatement(selectSQL);
+             PreparedStatement updateStmt = conn.prepareStatement(updateSQL)) {
             
             ResultSet rs = selectStmt.executeQuery();
             int updatedCount = 0;
@@ -1056,7 +1004,8 @@ public class SalaryReferenceController implements Initializable {
     private void loadSalaryReferenceData() {
         String sql = "SELECT * FROM salary_reference ORDER BY monthly_salary";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             salaryData.clear();
             
@@ -0,0 +1,370 @@
+package javafxapplication1;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retention for the security audit log.
+ * Events older than security.retention.activeMonths whole months are moved from security_events
+ * into the compressed security_events_archive table, and archived events older than
+ * security.retention.archiveMonths are purged. Every step works in short batches keyed on
+ * event_id or timestamp, so only the rows being moved are locked and SecurityLogger keeps
+ * appending while retention runs. Range partitioning was not used because InnoDB does not
+ * allow FULLTEXT indexes on partitioned tables, and security_events has one on description.
+ */
+class SecurityEventRetention {
+
+    private static final Logger logger = Logger.getLogger(SecurityEventRetention.class.getName());
+    private static final SecurityEventRetention INSTANCE = new SecurityEventRetention();
+
+    private static final String COLUMNS = "event_id, timestamp, event_type, severity, username, description, "
+            + "ip_address, user_agent, event_status, created_at";
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final int activeMonths = Math.max(1, DatabaseConfig.getIntProperty("security.retention.activeMonths", 6));
+    private final int archiveMonths = Math.max(0, DatabaseConfig.getIntProperty("security.retention.archiveMonths", 24));
+    private final int batchSize = Math.max(100, DatabaseConfig.getIntProperty("security.retention.batchSize", 5000));
+    private final long intervalHours = DatabaseConfig.getLongProperty("security.retention.intervalHours", 24);
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean archiveTableReady;
+    private volatile RetentionReport lastReport;
+
+    private SecurityEventRetention() {
+    }
+
+    public static SecurityEventRetention getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Run retention periodically in the background (security.retention.intervalHours, 0 disables).
+     * Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (scheduler != null || intervalHours <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "security-retention");
+            t.setDaemon(true);
+            return t;
+        });
+        // First run shortly after startup rather than during it
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runRetention();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Scheduled security event retention failed", e);
+            }
+        }, 5, TimeUnit.HOURS.toMinutes(intervalHours), TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Archive events past the active window, then purge archived events past the archive window
+     */
+    public synchronized RetentionReport runRetention() throws SQLException {
+        LocalDateTime archiveCutoff = YearMonth.now().minusMonths(activeMonths).atDay(1).atStartOfDay();
+        LocalDateTime purgeCutoff = archiveMonths > 0 ? archiveCutoff.minusMonths(archiveMonths) : null;
+
+        RetentionReport report = new RetentionReport();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            ensureArchiveTable(conn);
+            boolean originalAutoCommit = conn.getAutoCommit();
+            try {
+                archiveBefore(conn, Timestamp.valueOf(archiveCutoff), report);
+                if (purgeCutoff != null) {
+                    purgeArchiveBefore(conn, Timestamp.valueOf(purgeCutoff), report);
+                }
+            } finally {
+                conn.setAutoCommit(originalAutoCommit);
+            }
+        }
+
+        lastReport = report;
+        logger.info("Security event retention: " + report);
+        return report;
+    }
+
+    private void archiveBefore(Connection conn, Timestamp cutoff, RetentionReport report) throws SQLException {
+        // Bound each batch by the id range of its oldest rows; the timestamp predicate keeps newer ids out
+        String boundsSQL = """
+            SELECT MIN(event_id), MAX(event_id) FROM (
+                SELECT event_id FROM security_events
+                WHERE timestamp < ?
+                ORDER BY timestamp, event_id
+                LIMIT ?
+            ) batch
+            """;
+        // Plain INSERT: an event_id already in the archive (AUTO_INCREMENT reset by Clear Log or
+        // TRUNCATE) must fail the batch, not be skipped and then deleted
+        String copySQL = "INSERT INTO security_events_archive (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM security_events WHERE event_id BETWEEN ? AND ? AND timestamp < ?";
+        String deleteSQL = "DELETE FROM security_events WHERE event_id BETWEEN ? AND ? AND timestamp < ?";
+
+        long start = System.nanoTime();
+        conn.setAutoCommit(false);
+        try (PreparedStatement bounds = conn.prepareStatement(boundsSQL);
+             PreparedStatement copy = conn.prepareStatement(copySQL);
+             PreparedStatement delete = conn.prepareStatement(deleteSQL)) {
+            while (true) {
+                int fromId;
+                int toId;
+                bounds.setTimestamp(1, cutoff);
+                bounds.setInt(2, batchSize);
+                try (ResultSet rs = bounds.executeQuery()) {
+                    rs.next();
+                    fromId = rs.getInt(1);
+                    if (rs.wasNull()) {
+                        break;
+                    }
+                    toId = rs.getInt(2);
+                }
+
+                try {
+                    copy.setInt(1, fromId);
+                    copy.setInt(2, toId);
+                    copy.setTimestamp(3, cutoff);
+                    int copied = copy.executeUpdate();
+
+                    delete.setInt(1, fromId);
+                    delete.setInt(2, toId);
+                    delete.setTimestamp(3, cutoff);
+                    int moved = delete.executeUpdate();
+                    if (moved != copied) {
+                        throw new SQLException("Archived " + copied + " security events but deleted " + moved
+                                + " for event_id " + fromId + ".." + toId + "; batch rolled back");
+                    }
+                    conn.commit();
+
+                    report.archivedRows += moved;
+                    report.archiveBatches++;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        }
+        report.archiveNanos = System.nanoTime() - start;
+    }
+
+    private void purgeArchiveBefore(Connection conn, Timestamp cutoff, RetentionReport report) throws SQLException {
+        String purgeSQL = "DELETE FROM security_events_archive WHERE timestamp < ? ORDER BY timestamp LIMIT ?";
+
+        long start = System.nanoTime();
+        conn.setAutoCommit(true);
+        try (PreparedStatement purge = conn.prepareStatement(purgeSQL)) {
+            int deleted;
+            do {
+                purge.setTimestamp(1, cutoff);
+                purge.setInt(2, batchSize);
+                deleted = purge.executeUpdate();
+                report.purgedRows += deleted;
+                if (deleted > 0) {
+                    report.purgeBatches++;
+                }
+            } while (deleted == batchSize);
+        }
+        report.purgeNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Delete every active event in batches (Clear Log), returning the number deleted
+     */
+    public int clearActiveEvents() throws SQLException {
+        String deleteSQL = "DELETE FROM security_events ORDER BY event_id LIMIT ?";
+        int total = 0;
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(deleteSQL)) {
+            int deleted;
+            do {
+                stmt.setInt(1, batchSize);
+                deleted = stmt.executeUpdate();
+                total += deleted;
+            } while (deleted == batchSize);
+        }
+        return total;
+    }
+
+    /**
+     * Months that have archived events, newest first. Walks idx_timestamp with one index seek per
+     * month that has events (loose index scan), so the cost follows the number of months rather
+     * than the number of archived rows.
+     */
+    public List<YearMonth> getArchivedMonths() throws SQLException {
+        String sql = "SELECT timestamp FROM security_events_archive WHERE timestamp >= ? ORDER BY timestamp LIMIT 1";
+        List<YearMonth> months = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            ensureArchiveTable(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                LocalDateTime from = LocalDateTime.of(1970, 1, 1, 0, 0);
+                while (true) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(from));
+                    YearMonth month;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            break;
+                        }
+                        month = YearMonth.from(rs.getTimestamp(1).toLocalDateTime());
+                    }
+                    months.add(0, month);
+                    from = month.plusMonths(1).atDay(1).atStartOfDay();
+                }
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Stream one archived month straight to a gzip-compressed CSV file, returning the row count.
+     * Rows are read with a streaming result set, so memory use does not grow with the month's size.
+     */
+    public long exportArchivedMonth(YearMonth month, Path file) throws SQLException, IOException {
+        String sql = "SELECT " + COLUMNS + " FROM security_events_archive"
+                + " WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, event_id";
+
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+            // Connector/J streams rows one at a time with this fetch size
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+
+            writer.write("Event ID,Timestamp,Event Type,Severity,User,Description,IP Address,User Agent,Status\n");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.write(String.valueOf(rs.getInt("event_id")));
+                    writer.write(',');
+                    writer.write(rs.getTimestamp("timestamp").toLocalDateTime().format(CSV_TIMESTAMP));
+                    writeCsvField(writer, rs.getString("event_type"));
+                    writeCsvField(writer, rs.getString("severity"));
+                    writeCsvField(writer, rs.getString("username"));
+                    writeCsvField(writer, rs.getString("description"));
+                    writeCsvField(writer, rs.getString("ip_address"));
+                    writeCsvField(writer, rs.getString("user_agent"));
+                    writeCsvField(writer, rs.getString("event_status"));
+                    writer.write('\n');
+                    rows++;
+                }
+            }
+        }
+
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Exported " + rows + " archived security events for " + month + " in " + millis + " ms ("
+                + (rows * 1000 / millis) + " rows/s)");
+        return rows;
+    }
+
+    private static void writeCsvField(BufferedWriter writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void ensureArchiveTable(Connection conn) throws SQLException {
+        if (archiveTableReady) {
+            return;
+        }
+        // Same columns as security_events; event_id keeps its original value
+        String createTableSQL = """
+            CREATE TABLE IF NOT EXISTS security_events_archive (
+                event_id INT(11) NOT NULL PRIMARY KEY,
+                timestamp DATETIME NOT NULL,
+                event_type VARCHAR(100) NOT NULL,
+                severity VARCHAR(20) NOT NULL,
+                username VARCHAR(100) NULL,
+                description TEXT NOT NULL,
+                ip_address VARCHAR(45) NULL,
+                user_agent TEXT NULL,
+                event_status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+                created_at TIMESTAMP NULL,
+                archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+                INDEX idx_timestamp (timestamp)
+            ) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(createTableSQL);
+        }
+        archiveTableReady = true;
+    }
+
+    /**
+     * Result of the last retention run, or null if none ran yet
+     */
+    public RetentionReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Rows moved and purged by one retention run, with throughput
+     */
+    static final class RetentionReport {
+        private final LocalDate runDate = LocalDate.now();
+        long archivedRows;
+        int archiveBatches;
+        long archiveNanos;
+        long purgedRows;
+        int purgeBatches;
+        long purgeNanos;
+
+        public long getArchivedRows() { return archivedRows; }
+        public long getPurgedRows() { return purgedRows; }
+
+        public double getArchiveRowsPerSecond() {
+            return rate(archivedRows, archiveNanos);
+        }
+
+        public double getPurgeRowsPerSecond() {
+            return rate(purgedRows, purgeNanos);
+        }
+
+        private static double rate(long rows, long nanos) {
+            return nanos > 0 ? rows * 1_000_000_000.0 / nanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s archived %,d rows in %d batches (%,.0f rows/s), purged %,d rows in %d batches (%,.0f rows/s)",
+                    runDate, archivedRows, archiveBatches, getArchiveRowsPerSecond(),
+                    purgedRows, purgeBatches, getPurgeRowsPerSecond());
+        }
+    }
+}
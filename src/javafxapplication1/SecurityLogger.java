@@ -4,29 +4,58 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.net.*;
-import java.util.Enumeration;
-import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javafx.application.Platform;
 
 /**
- * Static utility class for security event logging
+ * Static utility class for security event logging.
+ * Events are queued on the caller's thread and written by a background writer that
+ * group-commits them with multi-row inserts. The queue is bounded; when it is full the
+ * configured overflow policy applies (security.log.overflowPolicy):
+ * DROP_OLDEST (the default) discards the oldest queued event, DROP_NEWEST discards the new
+ * one and CALLER_RUNS writes it on the calling thread, except on the FX Application Thread,
+ * which never waits on JDBC and drops the oldest event instead. Drops are counted in
+ * getDroppedCount(). Remaining events are flushed on shutdown.
+ * A batch that fails is retried with backoff and then written one event at a time, so a
+ * single bad event cannot take the rest of its batch with it.
  */
 public class SecurityLogger {
     
     private static final Logger logger = Logger.getLogger(SecurityLogger.class.getName());
     
-    // Database connection parameters
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
+    public enum OverflowPolicy { CALLER_RUNS, DROP_NEWEST, DROP_OLDEST }
+    
+    private static final int QUEUE_CAPACITY = Math.max(1, DatabaseConfig.getIntProperty("security.log.queueCapacity", 10_000));
+    private static final int BATCH_SIZE = Math.max(1, DatabaseConfig.getIntProperty("security.log.batchSize", 200));
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(10, DatabaseConfig.getLongProperty("security.log.flushIntervalMs", 500)));
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+    private static final OverflowPolicy OVERFLOW_POLICY = parseOverflowPolicy(
+            DatabaseConfig.getProperty("security.log.overflowPolicy", OverflowPolicy.DROP_OLDEST.name()));
+    private static final long DROP_WARNING_INTERVAL = 1000;
+    
+    // ConcurrentLinkedQueue is lock-free; the counter enforces the bound
+    private static final ConcurrentLinkedQueue<SecurityEvent> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queueDepth = new AtomicInteger();
+    private static final AtomicLong droppedEvents = new AtomicLong();
+    private static final AtomicLong writtenEvents = new AtomicLong();
+    private static final AtomicLong failedEvents = new AtomicLong();
+    private static final AtomicLong batchesWritten = new AtomicLong();
+    
+    private static volatile boolean running = true;
+    private static volatile boolean tableReady;
+    private static final Thread writer = startWriter();
     
     private static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL driver not found", e);
-        }
+        return DatabaseConfig.getConnection();
     }
     
     /**
@@ -34,32 +63,212 @@ public class SecurityLogger {
      */
     public static void logSecurityEvent(String eventType, String severity, String username, 
                                       String description, String ipAddress) {
+        SecurityEvent event = new SecurityEvent(LocalDateTime.now(), eventType, severity, username, 
+                                                description, ipAddress != null ? ipAddress : "127.0.0.1");
+        
+        if (!running) {
+            // Writer already stopped during shutdown
+            writeBatch(Collections.singletonList(event), false);
+            return;
+        }
+        
+        if (queueDepth.incrementAndGet() > QUEUE_CAPACITY) {
+            queueDepth.decrementAndGet();
+            OverflowPolicy policy = OVERFLOW_POLICY;
+            if (policy == OverflowPolicy.CALLER_RUNS && Platform.isFxApplicationThread()) {
+                policy = OverflowPolicy.DROP_OLDEST;
+            }
+            switch (policy) {
+                case DROP_NEWEST:
+                    countDrop();
+                    return;
+                case DROP_OLDEST:
+                    if (queue.poll() != null) {
+                        countDrop();
+                    } else {
+                        queueDepth.incrementAndGet(); // Nothing removed, so the new event takes the slot
+                        queue.offer(event);
+                        return;
+                    }
+                    break;
+                default:
+                    writeBatch(Collections.singletonList(event), false);
+                    return;
+            }
+        }
+        
+        queue.offer(event);
+        if (queueDepth.get() >= BATCH_SIZE) {
+            LockSupport.unpark(writer);
+        }
+    }
+    
+    private static void countDrop() {
+        long dropped = droppedEvents.incrementAndGet();
+        if (dropped % DROP_WARNING_INTERVAL == 1) {
+            logger.warning("Security log queue full; " + dropped + " events dropped so far");
+        }
+    }
+    
+    private static Thread startWriter() {
+        Thread thread = new Thread(SecurityLogger::runWriter, "security-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+    
+    private static void runWriter() {
+        while (running) {
+            if (!drainOnce()) {
+                LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            }
+        }
+        while (drainOnce()) {
+            // Write whatever was queued before shutdown
+        }
+    }
+    
+    /**
+     * Write up to one batch from the queue; returns false if the queue was empty
+     */
+    private static boolean drainOnce() {
+        List<SecurityEvent> batch = new ArrayList<>(Math.min(BATCH_SIZE, Math.max(1, queueDepth.get())));
+        SecurityEvent event;
+        while (batch.size() < BATCH_SIZE && (event = queue.poll()) != null) {
+            queueDepth.decrementAndGet();
+            batch.add(event);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        writeBatch(batch, true);
+        return true;
+    }
+    
+    /**
+     * Write a batch with one multi-row insert. The writer thread retries a failed batch with
+     * backoff (no waiting once shutdown has begun); callers on other threads get one attempt.
+     * If the batch still fails its events are inserted one at a time.
+     */
+    private static void writeBatch(List<SecurityEvent> batch, boolean retry) {
+        SQLException failure = null;
+        int attempts = retry ? WRITE_ATTEMPTS : 1;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try (Connection connection = getConnection()) {
+                insertEvents(connection, batch);
+                writtenEvents.addAndGet(batch.size());
+                batchesWritten.incrementAndGet();
+                logger.fine("Security events logged: " + batch.size());
+                return;
+            } catch (SQLException e) {
+                failure = e;
+            }
+            if (attempt < attempts && running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_BACKOFF_MILLIS << (attempt - 1)));
+            }
+        }
+        
+        if (batch.size() == 1) {
+            failedEvents.incrementAndGet();
+            logger.log(Level.SEVERE, "Failed to log security event", failure);
+            // Don't throw exception - logging should be non-blocking
+            return;
+        }
+        logger.log(Level.WARNING, "Failed to log " + batch.size() + " security events as a batch; writing them one at a time", failure);
+        writeEachEvent(batch);
+    }
+    
+    private static void writeEachEvent(List<SecurityEvent> batch) {
+        int written = 0;
         try (Connection connection = getConnection()) {
-            
-            // Create table if it doesn't exist
-            createTableIfNotExists(connection);
-            
-            String insertQuery = """
-                INSERT INTO security_events (timestamp, event_type, severity, username, 
-                                           description, ip_address, event_status) 
-                VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE')
-            """;
-            
-            try (PreparedStatement stmt = connection.prepareStatement(insertQuery)) {
-                stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
-                stmt.setString(2, eventType);
-                stmt.setString(3, severity);
-                stmt.setString(4, username);
-                stmt.setString(5, description);
-                stmt.setString(6, ipAddress != null ? ipAddress : "127.0.0.1");
-                
-                stmt.executeUpdate();
-                logger.info("Security event logged: " + eventType + " - " + description);
+            for (SecurityEvent event : batch) {
+                try {
+                    insertEvents(connection, Collections.singletonList(event));
+                    written++;
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Failed to log security event " + event.eventType + " for " + event.username, e);
+                }
             }
-            
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to log security event", e);
-            // Don't throw exception - logging should be non-blocking
+            logger.log(Level.SEVERE, "Failed to log " + (batch.size() - written) + " security events", e);
+        }
+        writtenEvents.addAndGet(written);
+        failedEvents.addAndGet(batch.size() - written);
+    }
+    
+    private static void insertEvents(Connection connection, List<SecurityEvent> events) throws SQLException {
+        if (!tableReady) {
+            createTableIfNotExists(connection);
+            tableReady = true;
+        }
+        
+        StringBuilder insertQuery = new StringBuilder("""
+            INSERT INTO security_events (timestamp, event_type, severity, username, 
+                                       description, ip_address, event_status) 
+            VALUES """);
+        for (int i = 0; i < events.size(); i++) {
+            insertQuery.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, 'ACTIVE')");
+        }
+        
+        try (PreparedStatement stmt = connection.prepareStatement(insertQuery.toString())) {
+            int index = 1;
+            for (SecurityEvent event : events) {
+                stmt.setTimestamp(index++, Timestamp.valueOf(event.timestamp));
+                stmt.setString(index++, event.eventType);
+                stmt.setString(index++, event.severity);
+                stmt.setString(index++, event.username);
+                stmt.setString(index++, event.description);
+                stmt.setString(index++, event.ipAddress);
+            }
+            stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Stop the writer and flush queued events; called from the database shutdown hook
+     */
+    public static void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (queueDepth.get() > 0) {
+            logger.warning("Security log shutdown with " + queueDepth.get() + " events still queued");
+        }
+    }
+    
+    public static int getQueueDepth() {
+        return queueDepth.get();
+    }
+    
+    public static long getDroppedCount() {
+        return droppedEvents.get();
+    }
+    
+    public static long getWrittenCount() {
+        return writtenEvents.get();
+    }
+    
+    public static long getFailedCount() {
+        return failedEvents.get();
+    }
+    
+    public static long getBatchCount() {
+        return batchesWritten.get();
+    }
+    
+    private static OverflowPolicy parseOverflowPolicy(String value) {
+        try {
+            return OverflowPolicy.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Unknown security.log.overflowPolicy " + value + ", using CALLER_RUNS");
+            return OverflowPolicy.CALLER_RUNS;
         }
     }
     
@@ -81,10 +290,12 @@ public class SecurityLogger {
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 
                 INDEX idx_timestamp (timestamp),
-                INDEX idx_event_type (event_type),
-                INDEX idx_severity (severity),
-                INDEX idx_username (username),
-                INDEX idx_event_status (event_status)
+                INDEX idx_event_type_timestamp (event_type, timestamp),
+                INDEX idx_severity_timestamp (severity, timestamp),
+                INDEX idx_username_timestamp (username, timestamp),
+                INDEX idx_ip_address (ip_address),
+                INDEX idx_event_status (event_status),
+                FULLTEXT INDEX ft_description (description)
             )
         """;
         
@@ -102,146 +313,28 @@ public class SecurityLogger {
     }
     
     /**
-     * Get the actual client IP address
+     * Get the actual client IP address; served from memory by HostIdentityService
      */
     public static String getClientIP() {
-        try {
-            // First try to get external IP
-            String externalIP = getExternalIP();
-            if (externalIP != null && !externalIP.equals("127.0.0.1")) {
-                return externalIP;
-            }
-            
-            // If external IP fails, get local network IP
-            String localIP = getLocalNetworkIP();
-            if (localIP != null && !localIP.equals("127.0.0.1")) {
-                return localIP;
-            }
-            
-            // Fallback to localhost
-            return "127.0.0.1";
-            
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Could not determine client IP", e);
-            return "127.0.0.1";
-        }
+        return HostIdentityService.getInstance().getAddress();
     }
     
-    /**
-     * Get external IP address by checking with online service
-     */
-    private static String getExternalIP() {
-        try {
-            // Try multiple services for reliability
-            String[] ipServices = {
-                "http://checkip.amazonaws.com/",
-                "http://ipinfo.io/ip",
-                "http://icanhazip.com/"
-            };
-            
-            for (String service : ipServices) {
-                try {
-                    URL url = new URL(service);
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    connection.setConnectTimeout(5000); // 5 second timeout
-                    connection.setReadTimeout(5000);
-                    connection.setRequestMethod("GET");
-                    
-                    if (connection.getResponseCode() == 200) {
-                        try (java.io.BufferedReader reader = new java.io.BufferedReader(
-                                new java.io.InputStreamReader(connection.getInputStream()))) {
-                            String ip = reader.readLine().trim();
-                            if (isValidIP(ip)) {
-                                logger.info("External IP detected: " + ip);
-                                return ip;
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    // Try next service
-                    continue;
-                }
-            }
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Could not get external IP", e);
-        }
-        return null;
-    }
-    
-    /**
-     * Get local network IP address
-     */
-    private static String getLocalNetworkIP() {
-        try {
-            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
-            
-            while (interfaces.hasMoreElements()) {
-                NetworkInterface networkInterface = interfaces.nextElement();
-                
-                // Skip loopback and inactive interfaces
-                if (networkInterface.isLoopback() || !networkInterface.isUp()) {
-                    continue;
-                }
-                
-                Enumeration<InetAddress> addresses = networkInterface.getInetAddresses();
-                while (addresses.hasMoreElements()) {
-                    InetAddress address = addresses.nextElement();
-                    
-                    // We want IPv4 addresses that are not loopback
-                    if (address instanceof Inet4Address && !address.isLoopbackAddress()) {
-                        String ip = address.getHostAddress();
-                        
-                        // Prefer private network addresses (192.168.x.x, 10.x.x.x, 172.16-31.x.x)
-                        if (isPrivateIP(ip)) {
-                            logger.info("Local network IP detected: " + ip);
-                            return ip;
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Could not get local network IP", e);
-        }
-        return null;
-    }
-    
-    /**
-     * Check if IP address is a valid IPv4 address
-     */
-    private static boolean isValidIP(String ip) {
-        if (ip == null || ip.trim().isEmpty()) {
-            return false;
-        }
+    private static class SecurityEvent {
+        final LocalDateTime timestamp;
+        final String eventType;
+        final String severity;
+        final String username;
+        final String description;
+        final String ipAddress;
         
-        String[] parts = ip.split("\\.");
-        if (parts.length != 4) {
-            return false;
+        SecurityEvent(LocalDateTime timestamp, String eventType, String severity, String username, 
+                      String description, String ipAddress) {
+            this.timestamp = timestamp;
+            this.eventType = eventType;
+            this.severity = severity;
+            this.username = username;
+            this.description = description;
+            this.ipAddress = ipAddress;
         }
-        
-        try {
-            for (String part : parts) {
-                int num = Integer.parseInt(part);
-                if (num < 0 || num > 255) {
-                    return false;
-                }
-            }
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-    
-    /**
-     * Check if IP is a private network address
-     */
-    private static boolean isPrivateIP(String ip) {
-        if (ip == null) return false;
-        
-        return ip.startsWith("192.168.") ||   // 192.168.0.0/16
-               ip.startsWith("10.") ||        // 10.0.0.0/8
-               (ip.startsWith("172.") &&      // 172.16.0.0/12
-                ip.split("\\.").length >= 2 &&
-                Integer.parseInt(ip.split("\\.")[1]) >= 16 &&
-                Integer.parseInt(ip.split("\\.")[1]) <= 31);
     }
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.SpinnerValueFactory;
@@ -16,9 +18,14 @@ import java.io.FileWriter;
 import java.net.URL;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
@@ -28,11 +35,6 @@ public class SecurityMaintenanceController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(SecurityMaintenanceController.class.getName());
     
-    // Database connection parameters
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    private Connection connection;
     
     // Preferences for storing settings
     private Preferences preferences;
@@ -69,14 +71,44 @@ public class SecurityMaintenanceController implements Initializable {
     @FXML private Button exportLogButton;
     @FXML private Button searchButton;
     @FXML private Button clearLogButton;
+    @FXML private Button retentionButton;
+    @FXML private Button exportArchiveButton;
 
+    @FXML private Label eventCountLabel;
+    
     // Data Collections
     private final ObservableList<SecurityEvent> securityEvents = FXCollections.observableArrayList();
+    
+    // Event log paging: newest first, keyset on (timestamp, event_id)
+    private static final int PAGE_SIZE = 200;
+    // innodb_ft_min_token_size; shorter words are not in the FULLTEXT index
+    private static final int FULLTEXT_MIN_TOKEN = 3;
+    private static final String EVENT_COLUMNS = """
+        SELECT event_id, timestamp, event_type, severity, username,
+               description, ip_address, event_status
+        FROM security_events
+        """;
+    private static final String EVENT_ORDER = " ORDER BY timestamp DESC, event_id DESC";
+    // Shared by every instance of this screen; each visit creates a new controller
+    private static final ExecutorService PAGE_LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "security-event-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private Task<EventPage> pendingPageTask;
+    private EventFilter activeFilter;
+    private long activeEstimate = -1;
+    private EventPage lastLoadedPage;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        // Initialize database connection
-        initializeDatabase();
+        // Create security_events table if it doesn't exist
+        try {
+            createSecurityEventTableIfNotExists();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Could not verify security_events table", e);
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Cannot connect to database: " + e.getMessage());
+        }
         
         // Initialize preferences
         preferences = Preferences.userNodeForPackage(SecurityMaintenanceController.class);
@@ -132,12 +164,20 @@ public class SecurityMaintenanceController implements Initializable {
                     searchButton.setVisible(canView);
                     searchButton.setManaged(canView);
                 }
+                if (exportArchiveButton != null) {
+                    exportArchiveButton.setVisible(canView);
+                    exportArchiveButton.setManaged(canView);
+                }
                 
-                // Edit permissions: Clear Log (modifies data)
+                // Edit permissions: Clear Log, Archive Old Events (modify data)
                 if (clearLogButton != null) {
                     clearLogButton.setVisible(canEdit);
                     clearLogButton.setManaged(canEdit);
                 }
+                if (retentionButton != null) {
+                    retentionButton.setVisible(canEdit);
+                    retentionButton.setManaged(canEdit);
+                }
                 
                 logger.info("Security Maintenance buttons visibility - View: " + canView + ", Edit: " + canEdit);
                 
@@ -169,63 +209,18 @@ public class SecurityMaintenanceController implements Initializable {
             clearLogButton.setVisible(false);
             clearLogButton.setManaged(false);
         }
-    }
-    
-    private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
+        if (retentionButton != null) {
+            retentionButton.setVisible(false);
+            retentionButton.setManaged(false);
+        }
+        if (exportArchiveButton != null) {
+            exportArchiveButton.setVisible(false);
+            exportArchiveButton.setManaged(false);
         }
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            
-            // Create security_events table if it doesn't exist
-            createSecurityEventTableIfNotExists();
-            
-            logger.info("Database connection established for SecurityMaintenance");
-        } catch (ClassNotFoundException | SQLException e) {
-            logger.log(Level.SEVERE, "Database connection failed", e);
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Cannot connect to database: " + e.getMessage());
-        }
+    private boolean hasUserPermission(String username, String permissionName) {
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void createSecurityEventTableIfNotExists() throws SQLException {
@@ -243,29 +238,32 @@ public class SecurityMaintenanceController implements Initializable {
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 
                 INDEX idx_timestamp (timestamp),
-                INDEX idx_event_type (event_type),
-                INDEX idx_severity (severity),
-                INDEX idx_username (username),
-                INDEX idx_event_status (event_status)
+                INDEX idx_event_type_timestamp (event_type, timestamp),
+                INDEX idx_severity_timestamp (severity, timestamp),
+                INDEX idx_username_timestamp (username, timestamp),
+                INDEX idx_ip_address (ip_address),
+                INDEX idx_event_status (event_status),
+                FULLTEXT INDEX ft_description (description)
             )
         """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
             stmt.executeUpdate();
             logger.info("Security events table verified/created");
             
             // Check if table is empty and add sample data
-            insertSampleDataIfEmpty();
+            insertSampleDataIfEmpty(conn);
         }
     }
     
-    private void insertSampleDataIfEmpty() throws SQLException {
-        // Check if table has data
-        String countQuery = "SELECT COUNT(*) FROM security_events";
-        try (PreparedStatement countStmt = connection.prepareStatement(countQuery);
-             ResultSet rs = countStmt.executeQuery()) {
+    private void insertSampleDataIfEmpty(Connection conn) throws SQLException {
+        // Check if table has data; probing one row avoids counting the whole audit log
+        String existsQuery = "SELECT 1 FROM security_events LIMIT 1";
+        try (PreparedStatement existsStmt = conn.prepareStatement(existsQuery);
+             ResultSet rs = existsStmt.executeQuery()) {
             
-            if (rs.next() && rs.getInt(1) == 0) {
+            if (!rs.next()) {
                 // Table is empty, insert sample data
                 String insertQuery = """
                     INSERT INTO security_events (timestamp, event_type, severity, username, description, ip_address, event_status) VALUES
@@ -281,7 +279,7 @@ public class SecurityMaintenanceController implements Initializable {
                     (NOW() - INTERVAL 10 HOUR, 'PASSWORD_POLICY_UPDATE', 'MEDIUM', 'admin', 'Password policy settings updated', '192.168.1.100', 'ACTIVE')
                 """;
                 
-                try (PreparedStatement insertStmt = connection.prepareStatement(insertQuery)) {
+                try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
                     insertStmt.executeUpdate();
                     logger.info("Sample security events data inserted");
                 }
@@ -311,6 +309,8 @@ public class SecurityMaintenanceController implements Initializable {
         
         // Set auto-resize policy
         securityEventTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        
+        attachInfiniteScroll();
     }
     
     private void setupEventFilters() {
@@ -372,39 +372,7 @@ public class SecurityMaintenanceController implements Initializable {
     */
 
     private void loadSecurityEvents() {
-        try {
-            String query = """
-                SELECT event_id, timestamp, event_type, severity, username, 
-                       description, ip_address, event_status 
-                FROM security_events 
-                ORDER BY timestamp DESC 
-                LIMIT 1000
-            """;
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            ResultSet rs = stmt.executeQuery();
-            
-            securityEvents.clear();
-            while (rs.next()) {
-                SecurityEvent event = new SecurityEvent(
-                    rs.getInt("event_id"),
-                    rs.getTimestamp("timestamp").toLocalDateTime(),
-                    rs.getString("event_type"),
-                    rs.getString("severity"),
-                    rs.getString("username"),
-                    rs.getString("description"),
-                    rs.getString("ip_address"),
-                    rs.getString("event_status")
-                );
-                securityEvents.add(event);
-            }
-            
-            logger.info("Loaded " + securityEvents.size() + " security events");
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error loading security events", e);
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load security events: " + e.getMessage());
-        }
+        applyFilter(new EventFilter("", null, null));
     }
 
     // Password Policy Actions - COMMENTED OUT
@@ -483,63 +451,9 @@ public class SecurityMaintenanceController implements Initializable {
             );
         }
         
-        try {
-            
-            StringBuilder query = new StringBuilder("""
-                SELECT event_id, timestamp, event_type, severity, username, 
-                       description, ip_address, event_status 
-                FROM security_events WHERE 1=1
-            """);
-            
-            // Build dynamic query
-            if (!searchText.isEmpty()) {
-                query.append(" AND (description LIKE ? OR username LIKE ? OR ip_address LIKE ?)");
-            }
-            if (eventType != null && !eventType.equals("All Events")) {
-                query.append(" AND event_type = ?");
-            }
-            if (severity != null && !severity.equals("All Severity")) {
-                query.append(" AND severity = ?");
-            }
-            query.append(" ORDER BY timestamp DESC LIMIT 1000");
-            
-            PreparedStatement stmt = connection.prepareStatement(query.toString());
-            int paramIndex = 1;
-            
-            if (!searchText.isEmpty()) {
-                String searchPattern = "%" + searchText + "%";
-                stmt.setString(paramIndex++, searchPattern);
-                stmt.setString(paramIndex++, searchPattern);
-                stmt.setString(paramIndex++, searchPattern);
-            }
-            if (eventType != null && !eventType.equals("All Events")) {
-                stmt.setString(paramIndex++, eventType);
-            }
-            if (severity != null && !severity.equals("All Severity")) {
-                stmt.setString(paramIndex++, severity);
-            }
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            securityEvents.clear();
-            while (rs.next()) {
-                SecurityEvent event = new SecurityEvent(
-                    rs.getInt("event_id"),
-                    rs.getTimestamp("timestamp").toLocalDateTime(),
-                    rs.getString("event_type"),
-                    rs.getString("severity"),
-                    rs.getString("username"),
-                    rs.getString("description"),
-                    rs.getString("ip_address"),
-                    rs.getString("event_status")
-                );
-                securityEvents.add(event);
-            }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error searching security events", e);
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to search security events: " + e.getMessage());
-        }
+        applyFilter(new EventFilter(searchText,
+            eventType != null && !eventType.equals("All Events") ? eventType : null,
+            severity != null && !severity.equals("All Severity") ? severity : null));
     }
 
     @FXML
@@ -562,12 +476,17 @@ public class SecurityMaintenanceController implements Initializable {
         Optional<ButtonType> result = confirm.showAndWait();
         
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                String deleteQuery = "DELETE FROM security_events";
-                PreparedStatement stmt = connection.prepareStatement(deleteQuery);
-                int deletedRows = stmt.executeUpdate();
-                
-                securityEvents.clear();
+            // Batched delete so SecurityLogger can keep writing while the log is cleared
+            Task<Integer> clearTask = new Task<Integer>() {
+                @Override
+                protected Integer call() throws Exception {
+                    return SecurityEventRetention.getInstance().clearActiveEvents();
+                }
+            };
+            
+            clearTask.setOnSucceeded(e -> {
+                int deletedRows = clearTask.getValue();
+                applyFilter(activeFilter.copy());
                 
                 // Log this action (using SecurityLogger for consistency)
                 String currentUser1 = SessionManager.getInstance().getCurrentUser();
@@ -582,9 +501,11 @@ public class SecurityMaintenanceController implements Initializable {
                 
                 showAlert(Alert.AlertType.INFORMATION, "Success", 
                     "Security log cleared successfully! " + deletedRows + " events deleted.");
-                
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error clearing security log", e);
+            });
+            
+            clearTask.setOnFailed(e -> {
+                Throwable exception = clearTask.getException();
+                logger.log(Level.SEVERE, "Error clearing security log", exception);
                 
                 // Log failed clear attempt
                 String currentUser2 = SessionManager.getInstance().getCurrentUser();
@@ -593,12 +514,16 @@ public class SecurityMaintenanceController implements Initializable {
                         "SECURITY_LOG_CLEAR_FAILED",
                         "HIGH",
                         currentUser2,
-                        "Failed to clear security log - Error: " + e.getMessage()
+                        "Failed to clear security log - Error: " + exception.getMessage()
                     );
                 }
                 
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to clear security log: " + e.getMessage());
-            }
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to clear security log: " + exception.getMessage());
+            });
+            
+            Thread thread = new Thread(clearTask, "security-log-clear");
+            thread.setDaemon(true);
+            thread.start();
         } else {
             // Log clear cancellation
             String currentUser3 = SessionManager.getInstance().getCurrentUser();
@@ -613,6 +538,137 @@ public class SecurityMaintenanceController implements Initializable {
         }
     }
 
+    @FXML
+    private void onRunRetention() {
+        String currentUser = SessionManager.getInstance().getCurrentUser();
+        
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Archive Old Events");
+        confirm.setHeaderText(null);
+        confirm.setContentText("Move old security events to the archive and purge expired archived events?");
+        Optional<ButtonType> result = confirm.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            return;
+        }
+        
+        Task<SecurityEventRetention.RetentionReport> retentionTask = new Task<SecurityEventRetention.RetentionReport>() {
+            @Override
+            protected SecurityEventRetention.RetentionReport call() throws Exception {
+                return SecurityEventRetention.getInstance().runRetention();
+            }
+        };
+        
+        retentionTask.setOnSucceeded(e -> {
+            SecurityEventRetention.RetentionReport report = retentionTask.getValue();
+            if (currentUser != null) {
+                SecurityLogger.logSecurityEvent(
+                    "SECURITY_LOG_RETENTION",
+                    "MEDIUM",
+                    currentUser,
+                    "Security log retention run - " + report
+                );
+            }
+            applyFilter(activeFilter.copy());
+            showAlert(Alert.AlertType.INFORMATION, "Archive Complete", String.format(
+                "Archived %,d events (%,.0f rows/s).%nPurged %,d expired archived events (%,.0f rows/s).",
+                report.getArchivedRows(), report.getArchiveRowsPerSecond(),
+                report.getPurgedRows(), report.getPurgeRowsPerSecond()));
+        });
+        
+        retentionTask.setOnFailed(e -> {
+            Throwable exception = retentionTask.getException();
+            logger.log(Level.SEVERE, "Error running security log retention", exception);
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to archive security events: " + exception.getMessage());
+        });
+        
+        Thread thread = new Thread(retentionTask, "security-retention-manual");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void onExportArchivedMonth() {
+        String currentUser = SessionManager.getInstance().getCurrentUser();
+        SecurityEventRetention retention = SecurityEventRetention.getInstance();
+        
+        Task<List<YearMonth>> monthsTask = new Task<List<YearMonth>>() {
+            @Override
+            protected List<YearMonth> call() throws Exception {
+                return retention.getArchivedMonths();
+            }
+        };
+        
+        monthsTask.setOnSucceeded(e -> {
+            List<YearMonth> months = monthsTask.getValue();
+            if (months.isEmpty()) {
+                showAlert(Alert.AlertType.INFORMATION, "Export Archive", "There are no archived security events yet.");
+                return;
+            }
+            exportArchivedMonth(retention, months, currentUser);
+        });
+        
+        monthsTask.setOnFailed(e -> {
+            Throwable exception = monthsTask.getException();
+            logger.log(Level.SEVERE, "Error loading archived months", exception);
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load archived months: " + exception.getMessage());
+        });
+        
+        Thread thread = new Thread(monthsTask, "security-archive-months");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void exportArchivedMonth(SecurityEventRetention retention, List<YearMonth> months, String currentUser) {
+        ChoiceDialog<YearMonth> monthDialog = new ChoiceDialog<>(months.get(0), months);
+        monthDialog.setTitle("Export Archive");
+        monthDialog.setHeaderText(null);
+        monthDialog.setContentText("Archived month:");
+        Optional<YearMonth> month = monthDialog.showAndWait();
+        if (month.isEmpty()) {
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Archived Security Events");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Compressed CSV Files", "*.csv.gz"));
+        fileChooser.setInitialFileName("security_log_archive_" + month.get() + ".csv.gz");
+        File file = fileChooser.showSaveDialog(null);
+        if (file == null) {
+            return;
+        }
+        
+        Task<Long> exportTask = new Task<Long>() {
+            @Override
+            protected Long call() throws Exception {
+                return retention.exportArchivedMonth(month.get(), file.toPath());
+            }
+        };
+        
+        exportTask.setOnSucceeded(e -> {
+            if (currentUser != null) {
+                SecurityLogger.logSecurityEvent(
+                    "SECURITY_LOG_ARCHIVE_EXPORT",
+                    "MEDIUM",
+                    currentUser,
+                    "Exported archived security events for " + month.get() + " to: " + file.getName() +
+                    " (" + exportTask.getValue() + " events)"
+                );
+            }
+            showAlert(Alert.AlertType.INFORMATION, "Success",
+                "Exported " + exportTask.getValue() + " archived events to: " + file.getName());
+        });
+        
+        exportTask.setOnFailed(e -> {
+            Throwable exception = exportTask.getException();
+            logger.log(Level.SEVERE, "Error exporting archived security events", exception);
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to export archived events: " + exception.getMessage());
+        });
+        
+        Thread thread = new Thread(exportTask, "security-archive-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     @FXML
     private void onRefresh() {
         // Log refresh click
@@ -713,17 +769,276 @@ public class SecurityMaintenanceController implements Initializable {
         }
     }
 
+    /**
+     * Replace the event list with the first page matching the filter
+     */
+    private void applyFilter(EventFilter filter) {
+        activeFilter = filter;
+        activeEstimate = -1;
+        securityEvents.clear();
+        lastLoadedPage = null;
+        loadPage(filter, null);
+    }
+
+    private void loadNextPage() {
+        EventPage page = lastLoadedPage;
+        if (page == null || !page.hasMore || (pendingPageTask != null && pendingPageTask.isRunning())) {
+            return;
+        }
+        loadPage(activeFilter, page.rows.get(page.rows.size() - 1));
+    }
+
+    private void loadPage(EventFilter filter, SecurityEvent after) {
+        // A newer request makes any pending one stale
+        if (pendingPageTask != null) {
+            pendingPageTask.cancel(true);
+            pendingPageTask = null;
+        }
+
+        Task<EventPage> pageTask = new Task<EventPage>() {
+            @Override
+            protected EventPage call() throws Exception {
+                try (Connection conn = DatabaseConfig.getConnection()) {
+                    List<SecurityEvent> rows = fetchSecurityEvents(conn, filter, after, PAGE_SIZE + 1);
+                    boolean hasMore = rows.size() > PAGE_SIZE;
+                    if (hasMore) {
+                        rows = rows.subList(0, PAGE_SIZE);
+                    }
+                    // The estimate only changes with the filter, so take it with the first page
+                    long estimate = after == null ? estimateMatchingEvents(conn, filter) : -1;
+                    return new EventPage(rows, hasMore, estimate);
+                }
+            }
+        };
+
+        pageTask.setOnSucceeded(e -> showPage(filter, pageTask.getValue()));
+
+        pageTask.setOnFailed(e -> {
+            Throwable exception = pageTask.getException();
+            logger.log(Level.SEVERE, "Error loading security events", exception);
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load security events: " + exception.getMessage());
+        });
+
+        pendingPageTask = pageTask;
+        PAGE_LOADER.submit(pageTask);
+    }
+
+    private void showPage(EventFilter filter, EventPage page) {
+        if (filter != activeFilter) {
+            return; // Filters changed while this page was loading
+        }
+        securityEvents.addAll(page.rows);
+        if (page.estimatedTotal >= 0) {
+            activeEstimate = page.estimatedTotal;
+        }
+        lastLoadedPage = page;
+        updateEventCountLabel(page.hasMore);
+        logger.fine("Loaded " + securityEvents.size() + " security events");
+    }
+
+    private void updateEventCountLabel(boolean hasMore) {
+        if (eventCountLabel == null) {
+            return;
+        }
+        if (!hasMore) {
+            eventCountLabel.setText(String.format("%,d events", securityEvents.size()));
+        } else {
+            long estimate = Math.max(activeEstimate, securityEvents.size());
+            eventCountLabel.setText(String.format("Showing %,d of about %,d events", securityEvents.size(), estimate));
+        }
+    }
+
+    /**
+     * Load events matching the filter, newest first, after the given event (null = from the top).
+     * Keyword search unions three index-backed lookups instead of scanning with leading-wildcard
+     * LIKE: FULLTEXT word-prefix match on description, username prefix and ip_address prefix.
+     * The username and ip_address branches are anchored at the start of the value (they used to
+     * match anywhere in it) so they can range-scan idx_username_timestamp and idx_ip_address.
+     */
+    private List<SecurityEvent> fetchSecurityEvents(Connection conn, EventFilter filter, SecurityEvent after,
+                                                    int limit) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = buildEventQuery(filter, after, limit, params);
+
+        List<SecurityEvent> rows = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new SecurityEvent(
+                        rs.getInt("event_id"),
+                        rs.getTimestamp("timestamp").toLocalDateTime(),
+                        rs.getString("event_type"),
+                        rs.getString("severity"),
+                        rs.getString("username"),
+                        rs.getString("description"),
+                        rs.getString("ip_address"),
+                        rs.getString("event_status")
+                    ));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private String buildEventQuery(EventFilter filter, SecurityEvent after, int limit, List<Object> params) {
+        if (filter.search.isEmpty()) {
+            StringBuilder sql = new StringBuilder(EVENT_COLUMNS).append("WHERE 1=1");
+            appendFilterPredicates(sql, params, filter, after);
+            sql.append(EVENT_ORDER);
+            if (limit > 0) {
+                sql.append(" LIMIT ?");
+                params.add(limit);
+            }
+            return sql.toString();
+        }
+
+        List<String> branches = new ArrayList<>();
+        String fulltextQuery = toBooleanFulltextQuery(filter.search);
+        if (!fulltextQuery.isEmpty()) {
+            branches.add(buildSearchBranch("MATCH(description) AGAINST (? IN BOOLEAN MODE)", fulltextQuery,
+                                           filter, after, limit, params));
+        }
+        branches.add(buildSearchBranch("username LIKE ? ESCAPE '!'", escapeLike(filter.search) + "%",
+                                       filter, after, limit, params));
+        branches.add(buildSearchBranch("ip_address LIKE ? ESCAPE '!'", escapeLike(filter.search) + "%",
+                                       filter, after, limit, params));
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM (");
+        sql.append(String.join(" UNION ", branches));
+        sql.append(") matched").append(EVENT_ORDER);
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+        return sql.toString();
+    }
+
+    private String buildSearchBranch(String predicate, Object value, EventFilter filter, SecurityEvent after,
+                                     int limit, List<Object> params) {
+        StringBuilder branch = new StringBuilder("(").append(EVENT_COLUMNS).append("WHERE ").append(predicate);
+        params.add(value);
+        appendFilterPredicates(branch, params, filter, after);
+        // Each branch stops at the page size so no branch reads more rows than a page needs
+        branch.append(EVENT_ORDER);
+        if (limit > 0) {
+            branch.append(" LIMIT ?");
+            params.add(limit);
+        }
+        return branch.append(")").toString();
+    }
+
+    private static void appendFilterPredicates(StringBuilder sql, List<Object> params, EventFilter filter,
+                                               SecurityEvent after) {
+        if (filter.eventType != null) {
+            sql.append(" AND event_type = ?");
+            params.add(filter.eventType);
+        }
+        if (filter.severity != null) {
+            sql.append(" AND severity = ?");
+            params.add(filter.severity);
+        }
+        if (after != null) {
+            // Keyset: strictly older than the last row shown, event_id breaks timestamp ties
+            Timestamp afterTimestamp = Timestamp.valueOf(after.getTimestamp());
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND event_id < ?))");
+            params.add(afterTimestamp);
+            params.add(afterTimestamp);
+            params.add(after.getEventId());
+        }
+    }
+
+    /**
+     * Turn free text into a BOOLEAN MODE query requiring every word as a prefix: "fail login" -> "+fail* +login*"
+     */
+    private static String toBooleanFulltextQuery(String text) {
+        StringBuilder query = new StringBuilder();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else {
+                if (word.length() >= FULLTEXT_MIN_TOKEN) {
+                    query.append(query.length() == 0 ? "" : " ").append('+').append(word).append('*');
+                }
+                word.setLength(0);
+            }
+        }
+        return query.toString();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Row estimate instead of COUNT(*): table statistics when unfiltered, the optimizer's
+     * estimate for the filtered query otherwise
+     */
+    private long estimateMatchingEvents(Connection conn, EventFilter filter) {
+        try {
+            if (filter.isEmpty()) {
+                String sql = """
+                    SELECT TABLE_ROWS FROM information_schema.TABLES
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'security_events'
+                    """;
+                try (PreparedStatement stmt = conn.prepareStatement(sql);
+                     ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : -1;
+                }
+            }
+
+            List<Object> params = new ArrayList<>();
+            String sql = "EXPLAIN " + buildEventQuery(filter, null, 0, params);
+            long estimate = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if ("security_events".equals(rs.getString("table"))) {
+                            estimate += rs.getLong("rows");
+                        }
+                    }
+                }
+            }
+            return estimate;
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not estimate security event count", e);
+            return -1;
+        }
+    }
+
+    private void attachInfiniteScroll() {
+        securityEventTable.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(() -> {
+            for (Node node : securityEventTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                    ScrollBar bar = (ScrollBar) node;
+                    bar.valueProperty().addListener((o, oldVal, newVal) -> {
+                        if (newVal.doubleValue() >= bar.getMax() * 0.9) {
+                            loadNextPage();
+                        }
+                    });
+                }
+            }
+        }));
+    }
+
     // Helper Methods
     public void logSecurityEvent(String eventType, String severity, String username, 
                                 String description, String ipAddress) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String insertQuery = """
                 INSERT INTO security_events (timestamp, event_type, severity, username, 
                                            description, ip_address, event_status) 
                 VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE')
             """;
             
-            PreparedStatement stmt = connection.prepareStatement(insertQuery);
+            PreparedStatement stmt = conn.prepareStatement(insertQuery);
             stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
             stmt.setString(2, eventType);
             stmt.setString(3, severity);
@@ -754,8 +1069,7 @@ public class SecurityMaintenanceController implements Initializable {
     }
     
     private String getClientIP() {
-        // In a real application, you'd get the actual client IP
-        return "127.0.0.1";
+        return SecurityLogger.getClientIP();
     }
 
     // Password validation method for use by other controllers
@@ -819,14 +1133,44 @@ public class SecurityMaintenanceController implements Initializable {
         alert.showAndWait();
     }
     
-    public void closeDatabaseConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.info("Database connection closed for SecurityMaintenance");
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error closing database connection", e);
+    /**
+     * Immutable snapshot of the search controls
+     */
+    private static final class EventFilter {
+        final String search;
+        final String eventType; // null = all event types
+        final String severity;  // null = all severities
+
+        EventFilter(String search, String eventType, String severity) {
+            this.search = search;
+            this.eventType = eventType;
+            this.severity = severity;
+        }
+
+        boolean isEmpty() {
+            return search.isEmpty() && eventType == null && severity == null;
+        }
+
+        /**
+         * Same criteria under a new identity, so pages loaded for the old one are discarded
+         */
+        EventFilter copy() {
+            return new EventFilter(search, eventType, severity);
+        }
+    }
+
+    /**
+     * One page of events plus whether more rows follow
+     */
+    private static final class EventPage {
+        final List<SecurityEvent> rows;
+        final boolean hasMore;
+        final long estimatedTotal; // -1 when not estimated for this page
+
+        EventPage(List<SecurityEvent> rows, boolean hasMore, long estimatedTotal) {
+            this.rows = rows;
+            this.hasMore = hasMore;
+            this.estimatedTotal = estimatedTotal;
         }
     }
 
@@ -77,6 +77,7 @@ public class SessionManager {
         sessionData.clear();
         currentUser = null;
         isLoggedIn = false;
+        PermissionService.getInstance().clear();
         
         System.out.println("User session cleared");
     }
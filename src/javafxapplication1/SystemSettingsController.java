@@ -42,17 +42,10 @@ public class SystemSettingsController implements Initializable {
     
     @FXML private TabPane settingsTabPane;
     
-    private Connection connection;
     private static final Logger logger = Logger.getLogger(SystemSettingsController.class.getName());
     
-    // Database connection details
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        initializeDatabase();
         setupSpinners();
         setupComboBoxes();
         createSystemSettingsTableIfNotExists();
@@ -80,18 +73,6 @@ public class SystemSettingsController implements Initializable {
         taxTypeCombo.setValue("TRAIN Law 2025");
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            logger.info("Database connection established successfully");
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error initializing database connection", e);
-            showAlert("Database Error", "Could not connect to database: " + e.getMessage());
-        }
-    }
-    
     private void createSystemSettingsTableIfNotExists() {
         String createTableSQL = """
             CREATE TABLE IF NOT EXISTS system_settings (
@@ -107,23 +88,24 @@ public class SystemSettingsController implements Initializable {
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """;
         
-        try (PreparedStatement stmt = connection.prepareStatement(createTableSQL)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
             stmt.executeUpdate();
             logger.info("System settings table created or already exists");
             
             // Insert default settings if table is empty
-            insertDefaultSettings();
+            insertDefaultSettings(conn);
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error creating system settings table", e);
         }
     }
     
-    private void insertDefaultSettings() {
+    private void insertDefaultSettings(Connection conn) {
         // Check if settings already exist
         String checkSQL = "SELECT COUNT(*) FROM system_settings";
         
-        try (PreparedStatement stmt = connection.prepareStatement(checkSQL)) {
+        try (PreparedStatement stmt = conn.prepareStatement(checkSQL)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next() && rs.getInt(1) > 0) {
                 return; // Settings already exist
@@ -151,7 +133,7 @@ public class SystemSettingsController implements Initializable {
         
         String insertSQL = "INSERT INTO system_settings (setting_key, setting_value, setting_type, description, updated_by) VALUES (?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(insertSQL)) {
+        try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
             for (String[] setting : defaultSettings) {
                 stmt.setString(1, setting[0]);
                 stmt.setString(2, setting[1]);
@@ -266,7 +248,8 @@ public class SystemSettingsController implements Initializable {
     private void updateSetting(String key, String value) throws SQLException {
         String sql = "UPDATE system_settings SET setting_value = ?, updated_by = ?, updated_at = CURRENT_TIMESTAMP WHERE setting_key = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, value);
             stmt.setString(2, SessionManager.getInstance().getCurrentUser());
             stmt.setString(3, key);
@@ -274,15 +257,15 @@ public class SystemSettingsController implements Initializable {
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected == 0) {
                 // Setting doesn't exist, insert it
-                insertSetting(key, value);
+                insertSetting(conn, key, value);
             }
         }
     }
     
-    private void insertSetting(String key, String value) throws SQLException {
+    private void insertSetting(Connection conn, String key, String value) throws SQLException {
         String sql = "INSERT INTO system_settings (setting_key, setting_value, updated_by) VALUES (?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, key);
             stmt.setString(2, value);
             stmt.setString(3, SessionManager.getInstance().getCurrentUser());
@@ -293,7 +276,8 @@ public class SystemSettingsController implements Initializable {
     private void loadSystemSettings() {
         String sql = "SELECT setting_key, setting_value FROM system_settings";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -25,12 +25,6 @@ import java.util.Map;
 public class UserAccessController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(UserAccessController.class.getName());
-    
-    // Database connection parameters
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-    private Connection connection;
 
     // FXML Controls - Role Management
     @FXML private TextField roleSearchField;
@@ -62,12 +56,11 @@ public class UserAccessController implements Initializable {
     // Current Selection
     private SystemRole selectedRole = null;
     
-    // Track permission checkbox states
-    private final Map<String, Boolean> permissionStates = new HashMap<>();
+    // Grants of every role; checkbox toggles change it locally until Save
+    private final RolePermissionMatrix permissionMatrix = new RolePermissionMatrix();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        initializeDatabase();
         setupTableColumns();
         setupComboBoxes();
         setupPermissionTree();
@@ -88,15 +81,6 @@ public class UserAccessController implements Initializable {
         }
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException | SQLException e) {
-            logger.log(Level.SEVERE, "Database connection failed", e);
-            showError("Database Error", "Cannot connect to database: " + e.getMessage());
-        }
-    }
 
     private void setupTableColumns() {
         // Role Table Columns
@@ -160,19 +144,16 @@ public class UserAccessController implements Initializable {
                                 setGraphic(checkBox);
                                 
                                 // Check if this permission is already granted to the selected role
-                                if (selectedRole != null) {
-                                    Boolean isSelected = permissionStates.get(item);
-                                    checkBox.setSelected(isSelected != null ? isSelected : false);
-                                } else {
-                                    checkBox.setSelected(false);
-                                }
+                                checkBox.setSelected(selectedRole != null
+                                        && permissionMatrix.isGranted(selectedRole.getId(), item));
                                 
-                                // Set up checkbox event handler
+                                // Set up checkbox event handler; the change is saved with Save Permissions
                                 checkBox.setOnAction(event -> {
-                                    // Handle permission toggle
-                                    togglePermission(item, checkBox.isSelected());
-                                    // Track the checkbox state
-                                    permissionStates.put(item, checkBox.isSelected());
+                                    if (selectedRole == null) {
+                                        checkBox.setSelected(false);
+                                        return;
+                                    }
+                                    permissionMatrix.setGranted(selectedRole.getId(), item, checkBox.isSelected());
                                     logger.info("Permission checkbox toggled: " + item + " = " + checkBox.isSelected());
                                 });
                             } else {
@@ -192,71 +173,23 @@ public class UserAccessController implements Initializable {
             if (newVal != null) {
                 selectedRoleLabel.setText(newVal.getName());
                 loadRolePermissions(newVal);
-                // Clear and initialize permission states for this role
-                permissionStates.clear();
-                initializePermissionStates(newVal);
-                // Refresh the permission tree to show checked permissions
-                setupPermissionTree();
             } else {
                 selectedRoleLabel.setText("None");
-                permissionStates.clear();
-                // Clear the permission tree
-                setupPermissionTree();
+                // Clear the permission checkboxes
+                permissionTree.refresh();
             }
         });
     }
 
-    private void initializePermissionStates(SystemRole role) {
-        try {
-            logger.info("Initializing permission states for role: " + role.getName());
-            
-            // Initialize all permissions to false first
-            for (SystemPermission permission : permissions) {
-                permissionStates.put(permission.getPermissionName(), false);
-                logger.info("  Initialized permission: " + permission.getPermissionName() + " = false");
-            }
-            
-            // Then set the ones that are granted to true
-            String query = "SELECT p.permission_name FROM permissions p " +
-                         "JOIN role_permissions rp ON p.permission_id = rp.permission_id " +
-                         "WHERE rp.role_id = ? AND rp.granted = TRUE";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, role.getId());
-            ResultSet rs = stmt.executeQuery();
-            
-            int grantedCount = 0;
-            while (rs.next()) {
-                String permissionName = rs.getString("permission_name");
-                
-                // Use permission_name for the checkbox state (this is what's displayed in the tree)
-                permissionStates.put(permissionName, true);
-                grantedCount++;
-                logger.info("  Granted permission: " + permissionName + " = true");
-            }
-            
-            logger.info("Initialized " + grantedCount + " granted permissions out of " + permissions.size() + " total permissions");
-            
-            // Log all permission states for debugging
-            logger.info("All permission states:");
-            for (Map.Entry<String, Boolean> entry : permissionStates.entrySet()) {
-                logger.info("  " + entry.getKey() + " = " + entry.getValue());
-            }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error initializing permission states", e);
-        }
-    }
-    
     private void loadDataFromDatabase() {
         loadRolesFromDatabase();
         loadPermissionsFromDatabase();
     }
     
     private void loadRolesFromDatabase() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT role_id, role_name, description, user_count, status, created_date FROM roles ORDER BY role_name";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             ResultSet rs = stmt.executeQuery();
             
             roles.clear();
@@ -280,9 +213,9 @@ public class UserAccessController implements Initializable {
     }
     
     private void loadPermissionsFromDatabase() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT permission_id, permission_name, module_name, action_name, description, status FROM permissions ORDER BY module_name, action_name";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             ResultSet rs = stmt.executeQuery();
             
             permissions.clear();
@@ -298,6 +231,10 @@ public class UserAccessController implements Initializable {
                 permissions.add(permission);
             }
             
+            // Grants of every role in one query
+            permissionMatrix.load(conn);
+            setupPermissionTree();
+            
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error loading permissions from database", e);
             showError("Database Error", "Failed to load permissions: " + e.getMessage());
@@ -307,81 +244,8 @@ public class UserAccessController implements Initializable {
     private void loadRolePermissions(SystemRole role) {
         // Load permissions for selected role and update the tree
         if (role != null) {
-            // Refresh the permission tree to show current permissions
-            setupPermissionTree();
-        }
-    }
-
-    private void togglePermission(String actionName, boolean granted) {
-        if (selectedRole != null) {
-            try {
-                // Get permission ID from action name
-                String getPermissionIdQuery = "SELECT permission_id FROM permissions WHERE action_name = ?";
-                PreparedStatement getPermissionIdStmt = connection.prepareStatement(getPermissionIdQuery);
-                getPermissionIdStmt.setString(1, actionName);
-                ResultSet rs = getPermissionIdStmt.executeQuery();
-                
-                if (rs.next()) {
-                    int permissionId = rs.getInt("permission_id");
-                    
-                    if (granted) {
-                        // Grant permission
-                        String grantQuery = "INSERT INTO role_permissions (role_id, permission_id, granted, created_date) VALUES (?, ?, ?, NOW()) " +
-                                          "ON DUPLICATE KEY UPDATE granted = ?";
-                        PreparedStatement grantStmt = connection.prepareStatement(grantQuery);
-                        grantStmt.setInt(1, selectedRole.getId());
-                        grantStmt.setInt(2, permissionId);
-                        grantStmt.setBoolean(3, true);
-                        grantStmt.setBoolean(4, true);
-                        grantStmt.executeUpdate();
-                    } else {
-                        // Revoke permission
-                        String revokeQuery = "DELETE FROM role_permissions WHERE role_id = ? AND permission_id = ?";
-                        PreparedStatement revokeStmt = connection.prepareStatement(revokeQuery);
-                        revokeStmt.setInt(1, selectedRole.getId());
-                        revokeStmt.setInt(2, permissionId);
-                        revokeStmt.executeUpdate();
-                    }
-                    
-                    System.out.println("Permission '" + actionName + "' " + (granted ? "granted" : "revoked") + " for role: " + selectedRole.getName());
-                }
-                
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error toggling permission", e);
-                showError("Database Error", "Failed to update permission: " + e.getMessage());
-            }
-        }
-    }
-    
-    private boolean isPermissionGranted(int roleId, String actionName) {
-        try {
-            // First get the permission_name from action_name
-            String getPermissionNameQuery = "SELECT permission_name FROM permissions WHERE action_name = ?";
-            PreparedStatement getPermissionNameStmt = connection.prepareStatement(getPermissionNameQuery);
-            getPermissionNameStmt.setString(1, actionName);
-            ResultSet permissionRs = getPermissionNameStmt.executeQuery();
-            
-            if (permissionRs.next()) {
-                String permissionName = permissionRs.getString("permission_name");
-                
-                // Now check if this permission is granted to the role
-                String query = "SELECT rp.granted FROM role_permissions rp " +
-                              "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                              "WHERE rp.role_id = ? AND p.permission_name = ?";
-                PreparedStatement stmt = connection.prepareStatement(query);
-                stmt.setInt(1, roleId);
-                stmt.setString(2, permissionName);
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return rs.getBoolean("granted");
-                }
-            }
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking permission status", e);
-            return false;
+            // Re-render the checkboxes from the matrix; no queries
+            permissionTree.refresh();
         }
     }
 
@@ -750,22 +614,11 @@ public class UserAccessController implements Initializable {
         }
     }
     
-    // Additional functionality methods
-    public void closeDatabaseConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error closing database connection", e);
-        }
-    }
-    
     private void updateUserCountForRole(int roleId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // Count users with this role
             String countQuery = "SELECT COUNT(*) as user_count FROM users WHERE role = (SELECT role_name FROM roles WHERE role_id = ?)";
-            PreparedStatement countStmt = connection.prepareStatement(countQuery);
+            PreparedStatement countStmt = conn.prepareStatement(countQuery);
             countStmt.setInt(1, roleId);
             ResultSet rs = countStmt.executeQuery();
             
@@ -774,7 +627,7 @@ public class UserAccessController implements Initializable {
                 
                 // Update the role's user count
                 String updateQuery = "UPDATE roles SET user_count = ? WHERE role_id = ?";
-                PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
+                PreparedStatement updateStmt = conn.prepareStatement(updateQuery);
                 updateStmt.setInt(1, userCount);
                 updateStmt.setInt(2, roleId);
                 updateStmt.executeUpdate();
@@ -1100,12 +953,7 @@ public class UserAccessController implements Initializable {
         logCurrentPermissionTreeState();
         
         // Count selected permissions
-        int selectedPermissionsCount = 0;
-        for (Boolean isSelected : permissionStates.values()) {
-            if (isSelected != null && isSelected) {
-                selectedPermissionsCount++;
-            }
-        }
+        int selectedPermissionsCount = permissionMatrix.getGrantedCount(selectedRole.getId());
         
         if (saveRolePermissionsToDatabase(selectedRole.getId())) {
             logger.info("Permissions saved successfully for role: " + selectedRole.getName());
@@ -1165,7 +1013,7 @@ public class UserAccessController implements Initializable {
         // Check if this is a leaf node (permission) with checkbox
         if (item.isLeaf() && item.getParent() != null) {
             // This is a permission item - check if it's selected
-            boolean isSelected = isPermissionGranted(selectedRole.getId(), itemText);
+            boolean isSelected = permissionMatrix.isGranted(selectedRole.getId(), itemText);
             logger.info(indent + "Permission: " + itemText + " - Selected: " + isSelected);
         } else {
             // This is a module item
@@ -1211,6 +1059,33 @@ public class UserAccessController implements Initializable {
             );
         }
         
+        if (!RolePermissionService.hasTemplate(roleName)) {
+            showError("No Default Permissions", "There are no default permissions defined for role: " + roleName);
+            return;
+        }
+        
+        // Reset removes every grant that is not part of the template
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Reset Permissions");
+        confirm.setHeaderText("Reset permissions for role \"" + roleName + "\" to the defaults?");
+        confirm.setContentText("Permissions not included in the default template will be revoked, "
+                             + "and unsaved changes for this role will be lost.");
+        Optional<ButtonType> response = confirm.showAndWait();
+        if (response.isEmpty() || response.get() != ButtonType.OK) {
+            return;
+        }
+        
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            // Replaces the role's grants in one transaction; unsaved toggles for this role are dropped
+            Set<Integer> granted = RolePermissionService.getInstance().applyTemplate(conn, roleId, roleName);
+            permissionMatrix.setPersisted(roleId, granted);
+            permissionTree.refresh();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error resetting role permissions", e);
+            showError("Database Error", "Failed to reset permissions: " + e.getMessage());
+            return;
+        }
+        
         // Log successful reset
         if (currentUser != null) {
             SecurityLogger.logSecurityEvent(
@@ -1227,9 +1102,9 @@ public class UserAccessController implements Initializable {
 
     // Database Operations
     private boolean addRoleToDatabase(SystemRole role) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "INSERT INTO roles (role_name, description, user_count, status, created_date) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, role.getName());
             stmt.setString(2, role.getDescription());
             stmt.setInt(3, role.getUserCount());
@@ -1247,15 +1122,17 @@ public class UserAccessController implements Initializable {
     }
     
     private boolean updateRoleInDatabase(SystemRole role) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "UPDATE roles SET role_name = ?, description = ?, status = ? WHERE role_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, role.getName());
             stmt.setString(2, role.getDescription());
             stmt.setString(3, role.getStatus());
             stmt.setInt(4, role.getId());
             
             int rowsAffected = stmt.executeUpdate();
+            // Role and permission changes affect the cached grants of the logged-in user
+            PermissionService.getInstance().invalidate();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -1266,19 +1143,20 @@ public class UserAccessController implements Initializable {
     }
     
     private boolean deleteRoleFromDatabase(int roleId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // First delete role permissions
             String deletePermissionsQuery = "DELETE FROM role_permissions WHERE role_id = ?";
-            PreparedStatement deletePermissionsStmt = connection.prepareStatement(deletePermissionsQuery);
+            PreparedStatement deletePermissionsStmt = conn.prepareStatement(deletePermissionsQuery);
             deletePermissionsStmt.setInt(1, roleId);
             deletePermissionsStmt.executeUpdate();
             
             // Then delete the role
             String deleteRoleQuery = "DELETE FROM roles WHERE role_id = ?";
-            PreparedStatement deleteRoleStmt = connection.prepareStatement(deleteRoleQuery);
+            PreparedStatement deleteRoleStmt = conn.prepareStatement(deleteRoleQuery);
             deleteRoleStmt.setInt(1, roleId);
             
             int rowsAffected = deleteRoleStmt.executeUpdate();
+            PermissionService.getInstance().invalidate();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -1289,9 +1167,9 @@ public class UserAccessController implements Initializable {
     }
     
     private boolean addPermissionToDatabase(SystemPermission permission) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "INSERT INTO permissions (permission_name, module_name, action_name, description, status, created_date) VALUES (?, ?, ?, ?, ?, NOW())";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, permission.getPermissionName());
             stmt.setString(2, permission.getModuleName());
             stmt.setString(3, permission.getActionName());
@@ -1309,9 +1187,9 @@ public class UserAccessController implements Initializable {
     }
     
     private boolean updatePermissionInDatabase(int permissionId, SystemPermission permission) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "UPDATE permissions SET permission_name = ?, module_name = ?, action_name = ?, description = ? WHERE permission_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, permission.getPermissionName());
             stmt.setString(2, permission.getModuleName());
             stmt.setString(3, permission.getActionName());
@@ -1319,6 +1197,7 @@ public class UserAccessController implements Initializable {
             stmt.setInt(5, permissionId);
             
             int rowsAffected = stmt.executeUpdate();
+            PermissionService.getInstance().invalidate();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -1329,19 +1208,20 @@ public class UserAccessController implements Initializable {
     }
     
     private boolean deletePermissionFromDatabase(int permissionId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // First delete role permissions that reference this permission
             String deleteRolePermissionsQuery = "DELETE FROM role_permissions WHERE permission_id = ?";
-            PreparedStatement deleteRolePermissionsStmt = connection.prepareStatement(deleteRolePermissionsQuery);
+            PreparedStatement deleteRolePermissionsStmt = conn.prepareStatement(deleteRolePermissionsQuery);
             deleteRolePermissionsStmt.setInt(1, permissionId);
             deleteRolePermissionsStmt.executeUpdate();
             
             // Then delete the permission
             String deletePermissionQuery = "DELETE FROM permissions WHERE permission_id = ?";
-            PreparedStatement deletePermissionStmt = connection.prepareStatement(deletePermissionQuery);
+            PreparedStatement deletePermissionStmt = conn.prepareStatement(deletePermissionQuery);
             deletePermissionStmt.setInt(1, permissionId);
             
             int rowsAffected = deletePermissionStmt.executeUpdate();
+            PermissionService.getInstance().invalidate();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -1353,97 +1233,15 @@ public class UserAccessController implements Initializable {
     
     private boolean saveRolePermissionsToDatabase(int roleId) {
         logger.info("=== SAVE ROLE PERMISSIONS TO DATABASE STARTED ===");
-        logger.info("Role ID: " + roleId);
+        logger.info("Role ID: " + roleId + ", pending changes: " + permissionMatrix.getPendingChangeCount(roleId)
+                    + " (all roles: " + permissionMatrix.getPendingChangeCount() + ")");
         
-        try {
-            // Disable auto-commit to handle transaction properly
-            boolean autoCommit = connection.getAutoCommit();
-            connection.setAutoCommit(false);
-            
-            try {
-                // First clear existing permissions for this role
-                logger.info("Clearing existing permissions for role ID: " + roleId);
-                String clearQuery = "DELETE FROM role_permissions WHERE role_id = ?";
-                PreparedStatement clearStmt = connection.prepareStatement(clearQuery);
-                clearStmt.setInt(1, roleId);
-                int deletedRows = clearStmt.executeUpdate();
-                logger.info("Deleted " + deletedRows + " existing permission records");
-                
-                // Get selected permissions from the permission tree
-                List<String> selectedPermissions = getSelectedPermissionsFromTree();
-                logger.info("Selected permissions from tree: " + selectedPermissions.size() + " permissions");
-                for (String perm : selectedPermissions) {
-                    logger.info("  - " + perm);
-                }
-                
-                if (selectedPermissions.isEmpty()) {
-                    logger.warning("No permissions selected from tree, using default permissions");
-                    // Fallback to some basic permissions if none selected
-                    selectedPermissions = Arrays.asList("dashboard.view", "employee.view", "payroll.view", "reports.view");
-                }
-                
-                // Use INSERT ... ON DUPLICATE KEY UPDATE to handle duplicates gracefully
-                String insertQuery = "INSERT INTO role_permissions (role_id, permission_id, granted, created_date) VALUES (?, ?, ?, NOW()) " +
-                                   "ON DUPLICATE KEY UPDATE granted = VALUES(granted), created_date = NOW()";
-                PreparedStatement insertStmt = connection.prepareStatement(insertQuery);
-                
-                int permissionsAdded = 0;
-                int permissionsNotFound = 0;
-                
-                for (String permissionName : selectedPermissions) {
-                    logger.info("Processing permission: " + permissionName);
-                    
-                    // Get permission ID
-                    String getPermissionIdQuery = "SELECT permission_id FROM permissions WHERE permission_name = ?";
-                    PreparedStatement getPermissionIdStmt = connection.prepareStatement(getPermissionIdQuery);
-                    getPermissionIdStmt.setString(1, permissionName);
-                    ResultSet rs = getPermissionIdStmt.executeQuery();
-                    
-                    if (rs.next()) {
-                        int permissionId = rs.getInt("permission_id");
-                        logger.info("  Found permission ID: " + permissionId + " for permission: " + permissionName);
-                        
-                        insertStmt.setInt(1, roleId);
-                        insertStmt.setInt(2, permissionId);
-                        insertStmt.setBoolean(3, true);
-                        insertStmt.addBatch();
-                        permissionsAdded++;
-                    } else {
-                        logger.warning("  Permission not found in database: " + permissionName);
-                        permissionsNotFound++;
-                    }
-                }
-                
-                logger.info("Executing batch insert for " + permissionsAdded + " permissions");
-                int[] results = insertStmt.executeBatch();
-                
-                int successfulInserts = 0;
-                for (int result : results) {
-                    if (result >= 0) successfulInserts++;
-                }
-                
-                logger.info("Batch insert results: " + successfulInserts + " successful inserts out of " + results.length + " attempts");
-                logger.info("Permissions added: " + permissionsAdded + ", Not found: " + permissionsNotFound);
-                
-                // Commit the transaction
-                connection.commit();
-                logger.info("Transaction committed successfully");
-                
-                boolean success = successfulInserts > 0;
-                logger.info("Save operation result: " + (success ? "SUCCESS" : "FAILED"));
-                logger.info("=== SAVE ROLE PERMISSIONS TO DATABASE COMPLETED ===");
-                
-                return success;
-                
-            } catch (SQLException e) {
-                // Rollback the transaction on error
-                connection.rollback();
-                logger.severe("Transaction rolled back due to error");
-                throw e;
-            } finally {
-                // Restore auto-commit setting
-                connection.setAutoCommit(autoCommit);
-            }
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            // Every role's pending toggles go out in one transaction
+            int changes = permissionMatrix.flush(conn);
+            logger.info("Saved " + changes + " permission changes");
+            logger.info("=== SAVE ROLE PERMISSIONS TO DATABASE COMPLETED ===");
+            return true;
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error saving role permissions to database", e);
@@ -1454,53 +1252,6 @@ public class UserAccessController implements Initializable {
             return false;
         }
     }
-    
-    private List<String> getSelectedPermissionsFromTree() {
-        List<String> selectedPermissions = new ArrayList<>();
-        
-        try {
-            logger.info("Getting selected permissions from permission tree");
-            
-            if (permissionTree.getRoot() == null) {
-                logger.warning("Permission tree root is null");
-                return selectedPermissions;
-            }
-            
-            // Traverse the tree to find selected permissions
-            traverseTreeForSelectedPermissions(permissionTree.getRoot(), selectedPermissions);
-            
-            logger.info("Found " + selectedPermissions.size() + " selected permissions from tree");
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error getting selected permissions from tree", e);
-        }
-        
-        return selectedPermissions;
-    }
-    
-    private void traverseTreeForSelectedPermissions(TreeItem<String> item, List<String> selectedPermissions) {
-        if (item == null) return;
-        
-        // Check if this is a leaf node (permission) and if it's selected
-        if (item.isLeaf() && item.getParent() != null) {
-            String permissionName = item.getValue(); // This is now the permission_name from the tree
-            
-            // Check the tracked checkbox state instead of database state
-            Boolean isSelected = permissionStates.get(permissionName);
-            if (isSelected != null && isSelected) {
-                // No conversion needed - we're already using permission_name
-                selectedPermissions.add(permissionName);
-                logger.info("  Selected permission from checkbox: " + permissionName);
-            } else {
-                logger.info("  Permission not selected: " + permissionName + " (state: " + isSelected + ")");
-            }
-        }
-        
-        // Recursively traverse children
-        for (TreeItem<String> child : item.getChildren()) {
-            traverseTreeForSelectedPermissions(child, selectedPermissions);
-        }
-    }
 
     // Dialog Builders
     private Dialog<SystemPermission> buildPermissionDialog(SystemPermission permission) {
@@ -1769,39 +1520,7 @@ public class UserAccessController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            return false;
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
     private void hideAllActionButtons() {
@@ -1825,120 +1544,17 @@ public class UserAccessController implements Initializable {
     }
     
     private void assignDefaultPermissions() {
-        try {
-            // Assign default permissions to Staff role
-            assignStaffPermissions();
-            
-            // Assign default permissions to Admin role (if needed)
-            assignAdminPermissions();
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error assigning default permissions", e);
-        }
-    }
-    
-    private void assignStaffPermissions() throws SQLException {
-        // Get Staff role ID
-        String getRoleIdQuery = "SELECT role_id FROM roles WHERE role_name = 'Staff'";
-        PreparedStatement getRoleIdStmt = connection.prepareStatement(getRoleIdQuery);
-        ResultSet roleRs = getRoleIdStmt.executeQuery();
-        
-        if (roleRs.next()) {
-            int staffRoleId = roleRs.getInt("role_id");
-            logger.info("Assigning default permissions to Staff role (ID: " + staffRoleId + ")");
-            
-            // Define staff permissions (Add, Edit, Delete for most modules)
-            String[] staffPermissions = {
-                "employee.add", "employee.edit", "employee.delete",
-                "payroll.add", "payroll.edit", "payroll.delete",
-                "payroll_gen.add", "payroll_gen.edit", "payroll_gen.delete",
-                "reports.add", "reports.edit", "reports.delete",
-                "import_export.add", "import_export.edit", "import_export.delete",
-                "history.add", "history.edit", "history.delete",
-                "user_mgmt.add", "user_mgmt.edit", "user_mgmt.delete",
-                "user_access.add", "user_access.edit", "user_access.delete"
-            };
-            
-            // Assign each permission
-            for (String actionName : staffPermissions) {
-                assignPermissionToRole(staffRoleId, actionName, true);
+        // Seed the default templates only into roles with no grants, so revocations made by an admin stick
+        for (SystemRole role : roles) {
+            if (!RolePermissionService.hasTemplate(role.getName()) || permissionMatrix.getGrantedCount(role.getId()) > 0) {
+                continue;
             }
-            
-            logger.info("Staff permissions assigned successfully");
-        }
-    }
-    
-    private void assignAdminPermissions() throws SQLException {
-        // Get Admin role ID
-        String getRoleIdQuery = "SELECT role_id FROM roles WHERE role_name = 'Admin'";
-        PreparedStatement getRoleIdStmt = connection.prepareStatement(getRoleIdQuery);
-        ResultSet roleRs = getRoleIdStmt.executeQuery();
-        
-        if (roleRs.next()) {
-            int adminRoleId = roleRs.getInt("role_id");
-            logger.info("Assigning default permissions to Admin role (ID: " + adminRoleId + ")");
-            
-            // Admin gets all permissions
-            String[] adminPermissions = {
-                "dashboard.view", "dashboard.quick_actions",
-                "employee.view", "employee.add", "employee.edit", "employee.delete",
-                "payroll.view", "payroll.generate", "payroll.export",
-                "payroll_gen.view", "payroll_gen.add", "payroll_gen.edit", "payroll_gen.delete",
-                "reports.view", "reports.generate", "reports.export",
-                "import_export.view", "import_export.import", "import_export.export",
-                "history.view",
-                "security.view", "security.edit",
-                "gov_remit.view", "gov_remit.edit",
-                "user_mgmt.view", "user_mgmt.add", "user_mgmt.edit", "user_mgmt.delete",
-                "user_access.view", "user_access.edit"
-            };
-            
-            // Assign each permission
-            for (String actionName : adminPermissions) {
-                assignPermissionToRole(adminRoleId, actionName, true);
-            }
-            
-            logger.info("Admin permissions assigned successfully");
-        }
-    }
-    
-    private void assignPermissionToRole(int roleId, String actionName, boolean granted) throws SQLException {
-        // Get permission ID from action name
-        String getPermissionIdQuery = "SELECT permission_id FROM permissions WHERE action_name = ?";
-        PreparedStatement getPermissionIdStmt = connection.prepareStatement(getPermissionIdQuery);
-        getPermissionIdStmt.setString(1, actionName);
-        ResultSet permissionRs = getPermissionIdStmt.executeQuery();
-        
-        if (permissionRs.next()) {
-            int permissionId = permissionRs.getInt("permission_id");
-            
-            // Check if role-permission already exists
-            String checkQuery = "SELECT COUNT(*) FROM role_permissions WHERE role_id = ? AND permission_id = ?";
-            PreparedStatement checkStmt = connection.prepareStatement(checkQuery);
-            checkStmt.setInt(1, roleId);
-            checkStmt.setInt(2, permissionId);
-            ResultSet checkRs = checkStmt.executeQuery();
-            
-            if (checkRs.next() && checkRs.getInt(1) == 0) {
-                // Insert new role-permission
-                String insertQuery = "INSERT INTO role_permissions (role_id, permission_id, granted, created_date) VALUES (?, ?, ?, NOW())";
-                PreparedStatement insertStmt = connection.prepareStatement(insertQuery);
-                insertStmt.setInt(1, roleId);
-                insertStmt.setInt(2, permissionId);
-                insertStmt.setBoolean(3, granted);
-                insertStmt.executeUpdate();
-                
-                logger.info("Assigned permission '" + actionName + "' to role ID " + roleId);
-            } else {
-                // Update existing role-permission
-                String updateQuery = "UPDATE role_permissions SET granted = ? WHERE role_id = ? AND permission_id = ?";
-                PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
-                updateStmt.setBoolean(1, granted);
-                updateStmt.setInt(2, roleId);
-                updateStmt.setInt(3, permissionId);
-                updateStmt.executeUpdate();
-                
-                logger.info("Updated permission '" + actionName + "' for role ID " + roleId);
+            try (Connection conn = DatabaseConfig.getConnection()) {
+                Set<Integer> granted = RolePermissionService.getInstance().applyTemplate(conn, role.getId(), role.getName());
+                permissionMatrix.setPersisted(role.getId(), granted);
+                logger.info("Assigned " + granted.size() + " default permissions to " + role.getName() + " role (ID: " + role.getId() + ")");
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error assigning default permissions to role " + role.getName(), e);
             }
         }
     }
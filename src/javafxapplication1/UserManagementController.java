@@ -22,15 +22,7 @@ public class UserManagementController implements Initializable {
 
     private static final Logger logger = Logger.getLogger(UserManagementController.class.getName());
     
-    // Database connection parameters
 
-    private static final String DB_URL = DatabaseConfig.getDbUrl();
-    private static final String DB_USER = DatabaseConfig.getDbUser();
-    private static final String DB_PASSWORD = DatabaseConfig.getDbPassword();
-
-    
-    private Connection connection;
-    
     // Note: Using SecurityLogger static class for security event logging
 
     // FXML Controls
@@ -74,7 +66,6 @@ public class UserManagementController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        initializeDatabase();
         setupTableColumns();
         setupComboBoxes();
         loadDataFromDatabase();
@@ -219,56 +210,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean hasUserPermission(String username, String permissionName) {
-        try {
-            if (connection == null || connection.isClosed()) {
-                logger.warning("Database connection not available, defaulting to admin permissions for user: " + username);
-                return username != null && username.equals("admin");
-            }
-            
-            // Get user's role from database
-            String getRoleQuery = "SELECT role FROM users WHERE username = ?";
-            PreparedStatement getRoleStmt = connection.prepareStatement(getRoleQuery);
-            getRoleStmt.setString(1, username);
-            ResultSet roleRs = getRoleStmt.executeQuery();
-            
-            if (roleRs.next()) {
-                String userRole = roleRs.getString("role");
-                
-                // Check if role has the permission
-                String checkPermissionQuery = "SELECT COUNT(*) FROM role_permissions rp " +
-                                           "JOIN roles r ON rp.role_id = r.role_id " +
-                                           "JOIN permissions p ON rp.permission_id = p.permission_id " +
-                                           "WHERE r.role_name = ? AND p.permission_name = ? AND rp.granted = TRUE";
-                PreparedStatement checkPermissionStmt = connection.prepareStatement(checkPermissionQuery);
-                checkPermissionStmt.setString(1, userRole);
-                checkPermissionStmt.setString(2, permissionName);
-                ResultSet permissionRs = checkPermissionStmt.executeQuery();
-                
-                if (permissionRs.next()) {
-                    boolean hasPermission = permissionRs.getInt(1) > 0;
-                    logger.info("User " + username + " (Role: " + userRole + ") has permission " + permissionName + ": " + hasPermission);
-                    return hasPermission;
-                }
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error checking user permission", e);
-            // If database error occurs, default to admin permissions for admin user
-            return username != null && username.equals("admin");
-        }
+        return PermissionService.getInstance().hasPermission(username, permissionName);
     }
     
-    private void initializeDatabase() {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException | SQLException e) {
-            logger.log(Level.SEVERE, "Database connection failed", e);
-            showError("Database Error", "Cannot connect to database: " + e.getMessage());
-        }
-    }
 
     private void setupTableColumns() {
         colUserId.setCellValueFactory(new PropertyValueFactory<>("id"));
@@ -309,9 +253,9 @@ public class UserManagementController implements Initializable {
     }
     
     private void loadUsersFromDatabase() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT user_id, username, full_name, email, role, status, last_login, created_date FROM users ORDER BY username";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             ResultSet rs = stmt.executeQuery();
             
             users.clear();
@@ -338,9 +282,9 @@ public class UserManagementController implements Initializable {
     }
     
     private void loadRolesFromDatabase() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT DISTINCT role_name FROM roles WHERE status = 'Active' ORDER BY role_name";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             ResultSet rs = stmt.executeQuery();
             
             roleOptions.clear();
@@ -357,11 +301,11 @@ public class UserManagementController implements Initializable {
     }
     
     private void updateAllUserPasswords() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // Update all users to use the new hashing system
             // Set default passwords for all users
             String query = "SELECT user_id, username, role FROM users";
-            PreparedStatement selectStmt = connection.prepareStatement(query);
+            PreparedStatement selectStmt = conn.prepareStatement(query);
             ResultSet rs = selectStmt.executeQuery();
             
             while (rs.next()) {
@@ -383,7 +327,7 @@ public class UserManagementController implements Initializable {
                 
                 // Update the user's password
                 String updateQuery = "UPDATE users SET password_hash = ? WHERE user_id = ?";
-                PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
+                PreparedStatement updateStmt = conn.prepareStatement(updateQuery);
                 updateStmt.setString(1, hashedPassword);
                 updateStmt.setInt(2, userId);
                 updateStmt.executeUpdate();
@@ -399,10 +343,10 @@ public class UserManagementController implements Initializable {
     
     
     private void fixAdminPassword() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // First, check what's currently in the database
             String checkQuery = "SELECT password_hash FROM users WHERE username = 'admin'";
-            PreparedStatement checkStmt = connection.prepareStatement(checkQuery);
+            PreparedStatement checkStmt = conn.prepareStatement(checkQuery);
             ResultSet rs = checkStmt.executeQuery();
             
             if (rs.next()) {
@@ -419,7 +363,7 @@ public class UserManagementController implements Initializable {
                     String hashedPassword = hashPassword(adminPassword);
                     
                     String updateQuery = "UPDATE users SET password_hash = ? WHERE username = 'admin'";
-                    PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
+                    PreparedStatement updateStmt = conn.prepareStatement(updateQuery);
                     updateStmt.setString(1, hashedPassword);
                     int rowsAffected = updateStmt.executeUpdate();
                     
@@ -431,7 +375,7 @@ public class UserManagementController implements Initializable {
                         logger.info("New password verification test: " + (newPasswordTest ? "SUCCESS" : "FAILED"));
                         
                         // Test the complete login process
-                        testAdminLogin();
+                        testAdminLogin(conn);
                     }
                 } else {
                     logger.info("Admin password already works with 'admin123'");
@@ -446,10 +390,10 @@ public class UserManagementController implements Initializable {
     }
     
     private void fixStaffPassword() {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             // First, check what's currently in the database
             String checkQuery = "SELECT password_hash FROM users WHERE username = 'staff'";
-            PreparedStatement checkStmt = connection.prepareStatement(checkQuery);
+            PreparedStatement checkStmt = conn.prepareStatement(checkQuery);
             ResultSet rs = checkStmt.executeQuery();
             
             if (rs.next()) {
@@ -466,7 +410,7 @@ public class UserManagementController implements Initializable {
                     String hashedPassword = hashPassword(staffPassword);
                     
                     String updateQuery = "UPDATE users SET password_hash = ? WHERE username = 'staff'";
-                    PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
+                    PreparedStatement updateStmt = conn.prepareStatement(updateQuery);
                     updateStmt.setString(1, hashedPassword);
                     int rowsAffected = updateStmt.executeUpdate();
                     
@@ -489,7 +433,7 @@ public class UserManagementController implements Initializable {
         }
     }
     
-    private void testAdminLogin() {
+    private void testAdminLogin(Connection conn) {
         try {
             // Simulate the login process
             String username = "admin";
@@ -498,7 +442,7 @@ public class UserManagementController implements Initializable {
             // Get user from database
             String userQuery = "SELECT user_id, username, password_hash, full_name, email, role, status " +
                               "FROM users WHERE username = ? AND status = 'Active'";
-            PreparedStatement userStmt = connection.prepareStatement(userQuery);
+            PreparedStatement userStmt = conn.prepareStatement(userQuery);
             userStmt.setString(1, username);
             ResultSet userRs = userStmt.executeQuery();
             
@@ -1180,9 +1124,9 @@ public class UserManagementController implements Initializable {
 
     // Database Operations
     private boolean addUserToDatabase(SystemUser user) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "INSERT INTO users (username, password_hash, full_name, email, role, status, created_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, user.getUsername());
             // Only hash password if it's not the placeholder
             String passwordHash = user.getPassword().equals("******") ? "default123" : hashPassword(user.getPassword());
@@ -1204,9 +1148,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean updateUserInDatabase(SystemUser user) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "UPDATE users SET username = ?, full_name = ?, email = ?, role = ?, status = ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getFullName());
             stmt.setString(3, user.getEmail());
@@ -1225,9 +1169,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean deleteUserFromDatabase(int userId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "DELETE FROM users WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setInt(1, userId);
             
             int rowsAffected = stmt.executeUpdate();
@@ -1241,9 +1185,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean updateUserStatusInDatabase(int userId, String status) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "UPDATE users SET status = ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, status);
             stmt.setInt(2, userId);
             
@@ -1258,9 +1202,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean updateUserRoleInDatabase(int userId, String role) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "UPDATE users SET role = ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, role);
             stmt.setInt(2, userId);
             
@@ -1275,10 +1219,10 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean updateUserPasswordInDatabase(int userId, String newPassword) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String hashedPassword = hashPassword(newPassword);
             String query = "UPDATE users SET password_hash = ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, hashedPassword);
             stmt.setInt(2, userId);
             
@@ -1327,9 +1271,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean isUsernameExists(String username, int excludeUserId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT COUNT(*) FROM users WHERE username = ? AND user_id != ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, username);
             stmt.setInt(2, excludeUserId);
             ResultSet rs = stmt.executeQuery();
@@ -1346,9 +1290,9 @@ public class UserManagementController implements Initializable {
     }
     
     private boolean isEmailExists(String email, int excludeUserId) {
-        try {
+        try (Connection conn = DatabaseConfig.getConnection()) {
             String query = "SELECT COUNT(*) FROM users WHERE email = ? AND user_id != ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
+            PreparedStatement stmt = conn.prepareStatement(query);
             stmt.setString(1, email);
             stmt.setInt(2, excludeUserId);
             ResultSet rs = stmt.executeQuery();
@@ -1614,17 +1558,6 @@ public class UserManagementController implements Initializable {
     }
 
     // Utility Methods
-    public void closeDatabaseConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-            // SecurityLogger manages its own connections (auto-closed)
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error closing database connection", e);
-        }
-    }
-    
     private String generateTempPassword() {
         // Generate a secure temporary password with mixed case, numbers and symbols
         String upperCase = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";